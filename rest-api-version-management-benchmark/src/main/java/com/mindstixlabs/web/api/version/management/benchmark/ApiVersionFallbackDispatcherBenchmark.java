@@ -0,0 +1,277 @@
+package com.mindstixlabs.web.api.version.management.benchmark;
+
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mindstixlabs.web.api.version.management.cache.ApiVersioningCache;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigHolder;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigKeys;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningRuntimeConfig;
+import com.mindstixlabs.web.api.version.management.core.ApiVersionResolver;
+import com.mindstixlabs.web.api.version.management.core.ApiVersioningContext;
+import com.mindstixlabs.web.api.version.management.handlers.ApiVersionFallbackResolver;
+
+/**
+ * <code>ApiVersionFallbackDispatcherBenchmark</code> compares fallback
+ * versions resolved by generated dispatcher of
+ * {@link ApiVersionFallbackResolver} with versions resolved by walking
+ * versions in version-mapping cache for a generated application, and measures
+ * time per resolution of both.
+ *
+ * <p>Versions are sampled around every registered version of every base
+ * mapping, along with versions above current and below minimum version support
+ * and a mapping which isn't registered. Both are run once before they are
+ * measured, so that they are measured once compiled by the JIT. The benchmark
+ * exits with failure if any resolution doesn't match.
+ *
+ * <p>Options, all optional:
+ * <ul>
+ * <li><code>--controllers=1000</code> Number of controllers of the generated application.</li>
+ * <li><code>--seed=42</code> Seed of the generated application.</li>
+ * <li><code>--iterations=1000</code> Number of times every sample is resolved to warm up and then to measure.</li>
+ * <li><code>--failOnMismatch=true</code> Flag to exit with failure if a resolution doesn't match.</li>
+ * <li><code>--label=&lt;git short hash&gt;</code> Label of results, commit of the working directory by default.</li>
+ * <li><code>--output=target/benchmark/fallback-dispatcher.jsonl</code> File to append results to.</li>
+ * </ul>
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+public class ApiVersionFallbackDispatcherBenchmark {
+
+    private static final String DEFAULT_CONTROLLERS = "1000";
+
+    private static final String DEFAULT_SEED = "42";
+
+    private static final String DEFAULT_ITERATIONS = "1000";
+
+    private static final String DEFAULT_OUTPUT = "target/benchmark/fallback-dispatcher.jsonl";
+
+    /**
+     * Maximum number of resolutions measured per run of either.
+     */
+    private static final long MAX_RESOLUTIONS = 20_000_000L;
+
+    private static final String UNKNOWN_MAPPING = "/api-version-fallback-dispatcher/benchmark";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = ApiVersioningStartupBenchmark.parseOptions(args);
+
+        int controllerCount = Integer.parseInt(options.getOrDefault("controllers", DEFAULT_CONTROLLERS));
+        long seed = Long.parseLong(options.getOrDefault("seed", DEFAULT_SEED));
+        int iterations = Math.max(1, Integer.parseInt(options.getOrDefault("iterations", DEFAULT_ITERATIONS)));
+        boolean failOnMismatch = Boolean.parseBoolean(options.getOrDefault("failOnMismatch", "true"));
+        String label = options.containsKey("label") ? options.get("label") : ApiVersioningStartupBenchmark.getCommitLabel();
+        Path output = Paths.get(options.getOrDefault("output", DEFAULT_OUTPUT));
+
+        // System properties take precedence over default properties of the generated application.
+        System.setProperty(ApiVersioningConfigKeys.FALLBACK_DISPATCHER_GENERATED, "true");
+
+        ConfigurableApplicationContext context = ApiVersioningStartupBenchmarkFork.startApplication(controllerCount, seed);
+
+        Map<String, Object> result;
+
+        try {
+            result = measure(context, iterations);
+        } finally {
+            context.close();
+            System.clearProperty(ApiVersioningConfigKeys.FALLBACK_DISPATCHER_GENERATED);
+        }
+
+        if (null != output.toAbsolutePath().getParent()) {
+            Files.createDirectories(output.toAbsolutePath().getParent());
+        }
+
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("label", label);
+        line.put("timestamp", System.currentTimeMillis());
+        line.put("javaVersion", System.getProperty("java.version"));
+        line.put("controllers", controllerCount);
+        line.put("seed", seed);
+        line.putAll(result);
+
+        try (Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(OBJECT_MAPPER.writeValueAsString(line));
+            writer.write(System.lineSeparator());
+        }
+
+        System.out.println(String.format("samples=%d iterations=%d mismatches=%d versionIndexNanosPerResolution=%.2f generatedNanosPerResolution=%.2f speedup=%.2f", result.get("samples"),
+                                         result.get("iterations"), result.get("mismatches"), result.get("versionIndexNanosPerResolution"), result.get("generatedNanosPerResolution"),
+                                         result.get("speedup")));
+        System.out.println(String.format("Results are appended to [%s]", output.toAbsolutePath()));
+
+        if (failOnMismatch && ((Long) result.get("mismatches")) > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * This method is used to compare generated dispatcher with version-mapping
+     * cache by resolving versions around every registered version of the
+     * mappings using both.
+     *
+     * @param context                            Application context of the generated application with generated dispatcher enabled.
+     * @param iterations                         Number of times every sample is resolved to warm up and then to measure.
+     * @return                                   Returns number of mismatching resolutions and time per resolution of both.
+     */
+    static Map<String, Object> measure(ConfigurableApplicationContext context, int iterations) {
+        ApiVersionFallbackResolver apiVersionFallbackResolver = context.getBean(ApiVersionFallbackResolver.class);
+        ApiVersioningCache apiVersioningCache = context.getBean(ApiVersioningCache.class);
+        ApiVersioningRuntimeConfig config = context.getBean(ApiVersioningConfigHolder.class).getConfig();
+
+        apiVersionFallbackResolver.generateDispatcher();
+
+        if (Boolean.FALSE.equals(apiVersionFallbackResolver.isGeneratedDispatcherEnabled())) {
+            throw new IllegalStateException("Generated dispatcher is disabled, it couldn't be generated or didn't pass its self-check: " + apiVersionFallbackResolver.getStats());
+        }
+
+        List<ApiVersioningContext> contexts = config.getContexts();
+
+        // Smallest version step as per decimal digits supported. for eg. 0.1
+        double versionStep = Math.pow(10, -config.getMaxDecimalDigitsSupport());
+
+        List<String> sampleMappingKeys = new ArrayList<>();
+        List<Integer> sampleContextIndexes = new ArrayList<>();
+        List<Double> sampleVersions = new ArrayList<>();
+
+        for (Map.Entry<String, List<Double>> mapping : apiVersioningCache.getApiVersionMappingCache().entrySet()) {
+            int contextIndex = getContextIndex(contexts, mapping.getKey());
+            ApiVersioningContext apiVersioningContext = contexts.get(contextIndex);
+
+            List<Double> versions = new ArrayList<>(mapping.getValue());
+            versions.add(apiVersioningContext.getCurrentVersionSupport() + 1);
+            versions.add(apiVersioningContext.getMinVersionSupport() - versionStep);
+
+            // Sampling exact versions and versions just above them, which are resolved through fallback.
+            for (Double version : versions) {
+                addSample(sampleMappingKeys, sampleContextIndexes, sampleVersions, mapping.getKey(), contextIndex, version);
+                addSample(sampleMappingKeys, sampleContextIndexes, sampleVersions, mapping.getKey(), contextIndex, version + versionStep);
+            }
+        }
+
+        for (int i = 0; i < contexts.size(); i++) {
+            addSample(sampleMappingKeys, sampleContextIndexes, sampleVersions, contexts.get(i).getMappingKey(UNKNOWN_MAPPING), i, contexts.get(i).getCurrentVersionSupport() + 1);
+        }
+
+        int samples = sampleMappingKeys.size();
+
+        String[] mappingKeys = sampleMappingKeys.toArray(new String[samples]);
+        int[] contextIndexes = sampleContextIndexes.stream().mapToInt(Integer::intValue).toArray();
+        double[] versions = sampleVersions.stream().mapToDouble(Double::doubleValue).toArray();
+
+        long mismatches = 0;
+
+        for (int i = 0; i < samples; i++) {
+            ApiVersioningContext apiVersioningContext = contexts.get(contextIndexes[i]);
+
+            double expectedVersion = ApiVersionResolver.resolveFallbackVersion(apiVersioningContext, apiVersioningCache.getVersionIndex(), mappingKeys[i], versions[i]);
+            double generatedVersion = apiVersionFallbackResolver.resolveFallbackVersion(config, apiVersioningContext, contextIndexes[i], mappingKeys[i], versions[i]);
+
+            if (Double.compare(expectedVersion, generatedVersion) != 0) {
+                System.out.println(String.format("Generated dispatcher resolved version [%s] instead of [%s] for requested version [%s] of mapping [%s]", generatedVersion, expectedVersion, versions[i],
+                                                 mappingKeys[i]));
+                mismatches++;
+            }
+        }
+
+        int boundedIterations = (int) Math.max(1, Math.min(iterations, MAX_RESOLUTIONS / Math.max(1, samples)));
+
+        // Running both once to warm up before measuring.
+        runVersionIndex(apiVersioningCache, contexts, mappingKeys, contextIndexes, versions, boundedIterations);
+        runGenerated(apiVersionFallbackResolver, config, contexts, mappingKeys, contextIndexes, versions, boundedIterations);
+
+        long versionIndexNanos = runVersionIndex(apiVersioningCache, contexts, mappingKeys, contextIndexes, versions, boundedIterations);
+        long generatedNanos = runGenerated(apiVersionFallbackResolver, config, contexts, mappingKeys, contextIndexes, versions, boundedIterations);
+
+        double resolutions = (double) samples * boundedIterations;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("samples", samples);
+        result.put("iterations", boundedIterations);
+        result.put("mismatches", mismatches);
+        result.put("versionIndexNanosPerResolution", versionIndexNanos / resolutions);
+        result.put("generatedNanosPerResolution", generatedNanos / resolutions);
+        result.put("speedup", generatedNanos == 0 ? 0D : (double) versionIndexNanos / generatedNanos);
+        result.put("dispatcher", apiVersionFallbackResolver.getStats());
+
+        return result;
+    }
+
+    /**
+     * This method is used to get index of API context of base mapping key,
+     * keys of additional contexts are prefixed with name of the context.
+     */
+    private static int getContextIndex(List<ApiVersioningContext> contexts, String mappingKey) {
+        for (int i = 0; i < contexts.size(); i++) {
+            ApiVersioningContext context = contexts.get(i);
+
+            if (Boolean.FALSE.equals(context.isPrimary()) && mappingKey.startsWith(context.getMappingKey(""))) {
+                return i;
+            }
+        }
+
+        // Primary context is the first context.
+        return 0;
+    }
+
+    private static void addSample(List<String> mappingKeys, List<Integer> contextIndexes, List<Double> versions, String mappingKey, int contextIndex, double version) {
+        mappingKeys.add(mappingKey);
+        contextIndexes.add(contextIndex);
+        versions.add(version);
+    }
+
+    private static long runVersionIndex(ApiVersioningCache apiVersioningCache, List<ApiVersioningContext> contexts, String[] mappingKeys, int[] contextIndexes, double[] versions, int iterations) {
+        long startNanos = System.nanoTime();
+        double checksum = 0;
+
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            for (int i = 0; i < mappingKeys.length; i++) {
+                double version = ApiVersionResolver.resolveFallbackVersion(contexts.get(contextIndexes[i]), apiVersioningCache.getVersionIndex(), mappingKeys[i], versions[i]);
+                checksum += Double.isNaN(version) ? 0 : version;
+            }
+        }
+
+        return consume(System.nanoTime() - startNanos, checksum);
+    }
+
+    private static long runGenerated(ApiVersionFallbackResolver apiVersionFallbackResolver, ApiVersioningRuntimeConfig config, List<ApiVersioningContext> contexts, String[] mappingKeys,
+                                     int[] contextIndexes, double[] versions, int iterations) {
+        long startNanos = System.nanoTime();
+        double checksum = 0;
+
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            for (int i = 0; i < mappingKeys.length; i++) {
+                double version = apiVersionFallbackResolver.resolveFallbackVersion(config, contexts.get(contextIndexes[i]), contextIndexes[i], mappingKeys[i], versions[i]);
+                checksum += Double.isNaN(version) ? 0 : version;
+            }
+        }
+
+        return consume(System.nanoTime() - startNanos, checksum);
+    }
+
+    /**
+     * This method is used to keep checksum of resolved versions alive, so that
+     * resolutions aren't eliminated by the JIT.
+     */
+    private static long consume(long elapsedNanos, double checksum) {
+        if (checksum == Double.MIN_VALUE) {
+            System.out.println(checksum);
+        }
+
+        return elapsedNanos;
+    }
+
+}
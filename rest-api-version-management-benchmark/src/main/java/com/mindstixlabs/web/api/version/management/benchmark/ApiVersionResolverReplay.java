@@ -0,0 +1,297 @@
+package com.mindstixlabs.web.api.version.management.benchmark;
+
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mindstixlabs.web.api.version.management.core.ApiVersionIndex;
+import com.mindstixlabs.web.api.version.management.core.ApiVersionResolver;
+import com.mindstixlabs.web.api.version.management.core.ApiVersioningContext;
+import com.mindstixlabs.web.api.version.management.core.capture.ApiVersionCaptureReader;
+import com.mindstixlabs.web.api.version.management.core.capture.ApiVersionCaptureRecord;
+import com.mindstixlabs.web.api.version.management.core.capture.ApiVersionCaptureRecord.Outcome;
+
+/**
+ * <code>ApiVersionResolverReplay</code> replays lookups captured by an
+ * application with <code>rest.api.version.management.capture.enabled</code>
+ * against {@link ApiVersionResolver} of the working directory.
+ *
+ * <p>Every captured lookup is first resolved once and its version is compared
+ * with the captured outcome, using API versioning contexts and version index
+ * captured along with the lookup, to check that a new resolver resolves the
+ * same versions. Captured lookups are then resolved back to back for the given
+ * number of iterations to measure throughput of the resolver. Lookups rejected
+ * by the application are not compared. The resolver doesn't know request
+ * method and media types and compares requested version by value instead of
+ * as text, so the application may fall back past the resolved version, for eg.
+ * a POST past versions serving only GET. Lookups for which the captured
+ * version is one of the versions the resolved version falls back to are
+ * reported as expected differences, others are reported as mismatches.
+ * Expected differences fail the replay like mismatches, as a regression of the
+ * resolver may resolve to a version which the application falls back from as
+ * well, unless they are allowed explicitly for captures of applications known
+ * to serve versions by request method or media types.
+ *
+ * <p>Options, all optional:
+ * <ul>
+ * <li><code>--capture=api-version-capture</code> Capture file or directory of capture files.</li>
+ * <li><code>--iterations=20</code> Number of measured passes over captured lookups.</li>
+ * <li><code>--warmUpIterations=5</code> Number of passes over captured lookups before measuring.</li>
+ * <li><code>--failOnMismatch=true</code> Flag to exit with failure if a resolved version doesn't match the capture.</li>
+ * <li><code>--allowExpectedDifferences=false</code> Flag to not fail on expected differences, which are reported apart from mismatches.</li>
+ * <li><code>--label=&lt;git short hash&gt;</code> Label of results, commit of the working directory by default.</li>
+ * <li><code>--output=target/benchmark/replay.jsonl</code> File to append results to.</li>
+ * </ul>
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+public class ApiVersionResolverReplay {
+
+    private static final String DEFAULT_CAPTURE = "api-version-capture";
+
+    private static final String DEFAULT_ITERATIONS = "20";
+
+    private static final String DEFAULT_WARM_UP_ITERATIONS = "5";
+
+    private static final String DEFAULT_OUTPUT = "target/benchmark/replay.jsonl";
+
+    /**
+     * Maximum number of mismatched lookups printed.
+     */
+    private static final int MAX_MISMATCH_SAMPLES = 20;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = ApiVersioningStartupBenchmark.parseOptions(args);
+
+        Path capture = Paths.get(options.getOrDefault("capture", DEFAULT_CAPTURE));
+        int iterations = Integer.parseInt(options.getOrDefault("iterations", DEFAULT_ITERATIONS));
+        int warmUpIterations = Integer.parseInt(options.getOrDefault("warmUpIterations", DEFAULT_WARM_UP_ITERATIONS));
+        boolean failOnMismatch = Boolean.parseBoolean(options.getOrDefault("failOnMismatch", "true"));
+        boolean allowExpectedDifferences = Boolean.parseBoolean(options.getOrDefault("allowExpectedDifferences", "false"));
+        String label = options.containsKey("label") ? options.get("label") : ApiVersioningStartupBenchmark.getCommitLabel();
+        Path output = Paths.get(options.getOrDefault("output", DEFAULT_OUTPUT));
+
+        if (Boolean.FALSE.equals(Files.exists(capture))) {
+            throw new IllegalArgumentException("Capture file or directory doesn't exist: " + capture.toAbsolutePath());
+        }
+
+        CapturedLookups lookups = new CapturedLookups();
+        ApiVersionCaptureReader.read(capture, lookups);
+
+        System.out.println(String.format("Replaying [%d] captured lookups with [%d] configuration snapshots from [%s] against resolver of [%s]", lookups.size, lookups.resolvers.size(),
+                                         capture.toAbsolutePath(), label));
+
+        if (0 == lookups.size) {
+            return;
+        }
+
+        long[] differences = verify(lookups);
+        long mismatches = differences[0];
+        long failures = allowExpectedDifferences ? mismatches : mismatches + differences[1];
+
+        for (int iteration = 0; iteration < warmUpIterations; iteration++) {
+            replay(lookups);
+        }
+
+        long checksum = 0;
+        long startTime = System.nanoTime();
+
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            checksum += replay(lookups);
+        }
+
+        long elapsedNanos = System.nanoTime() - startTime;
+        double nanosPerLookup = (double) elapsedNanos / ((long) iterations * lookups.size);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("label", label);
+        result.put("timestamp", System.currentTimeMillis());
+        result.put("javaVersion", System.getProperty("java.version"));
+        result.put("capture", capture.toAbsolutePath().toString());
+        result.put("lookups", lookups.size);
+        result.put("snapshots", lookups.resolvers.size());
+        result.put("comparedLookups", lookups.size - lookups.rejected);
+        result.put("mismatches", mismatches);
+        result.put("expectedDifferences", differences[1]);
+        result.put("allowExpectedDifferences", allowExpectedDifferences);
+        result.put("iterations", iterations);
+        result.put("nanosPerLookup", nanosPerLookup);
+        result.put("lookupsPerSecond", (long) (1_000_000_000d / nanosPerLookup));
+        result.put("capturedMedianLatencyNanos", lookups.getCapturedMedianLatencyNanos());
+        result.put("checksum", checksum);
+
+        if (null != output.toAbsolutePath().getParent()) {
+            Files.createDirectories(output.toAbsolutePath().getParent());
+        }
+
+        try (Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(OBJECT_MAPPER.writeValueAsString(result));
+            writer.write(System.lineSeparator());
+        }
+
+        System.out.println(String.format("lookups=%d mismatches=%d expectedDifferences=%d nanosPerLookup=%.1f lookupsPerSecond=%d capturedMedianLatencyNanos=%d", lookups.size, mismatches,
+                                         differences[1], nanosPerLookup, result.get("lookupsPerSecond"), result.get("capturedMedianLatencyNanos")));
+        System.out.println(String.format("Results are appended to [%s]", output.toAbsolutePath()));
+
+        if (Boolean.FALSE.equals(allowExpectedDifferences) && differences[1] > 0) {
+            System.out.println("Expected differences are counted as mismatches, verify them and replay with --allowExpectedDifferences=true if the application serves versions by request method or media types");
+        }
+
+        if (failOnMismatch && failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * This method is used to compare versions resolved by the resolver with captured outcomes.
+     *
+     * @param lookups                            Captured lookups.
+     * @return                                   Returns number of lookups resolved to a different version which the resolved version doesn't
+     *                                           fall back to, and number of lookups resolved to a different version it falls back to.
+     */
+    private static long[] verify(CapturedLookups lookups) {
+        long mismatches = 0;
+        long expectedDifferences = 0;
+
+        for (int i = 0; i < lookups.size; i++) {
+            if (lookups.outcomes[i] == Outcome.REJECTED) {
+                continue;
+            }
+
+            ApiVersionResolver resolver = lookups.resolvers.get(lookups.snapshots[i]);
+            ApiVersionIndex index = lookups.indexes.get(lookups.snapshots[i]);
+
+            double resolvedVersion = resolver.resolveVersion(lookups.lookupPaths[i], index);
+
+            // Versions are compared with Double.compare, so that unresolved versions, i.e. NaN, are equal.
+            if (0 == Double.compare(resolvedVersion, lookups.versions[i])) {
+                continue;
+            }
+
+            // Application skips versions which can't serve request method or media types or are registered with different version text.
+            boolean expected = Boolean.FALSE.equals(Double.isNaN(resolvedVersion)) && resolver.isFallbackVersion(lookups.lookupPaths[i], index, lookups.versions[i]);
+            long differences = expected ? expectedDifferences++ : mismatches++;
+
+            if (differences < MAX_MISMATCH_SAMPLES) {
+                System.out.println(String.format("%s: %s %s captured=%s version=%s resolved=%s", expected ? "Expected difference" : "Mismatch", lookups.methods[i], lookups.lookupPaths[i],
+                                                 lookups.outcomes[i], lookups.versions[i], resolvedVersion));
+            }
+        }
+
+        return new long[] { mismatches, expectedDifferences };
+    }
+
+    /**
+     * This method is used to resolve all captured lookups once.
+     *
+     * @param lookups                            Captured lookups.
+     * @return                                   Returns number of lookups resolved to a version, so that resolution isn't optimized away.
+     */
+    private static long replay(CapturedLookups lookups) {
+        long resolved = 0;
+
+        for (int i = 0; i < lookups.size; i++) {
+            if (Boolean.FALSE.equals(Double.isNaN(lookups.resolvers.get(lookups.snapshots[i]).resolveVersion(lookups.lookupPaths[i], lookups.indexes.get(lookups.snapshots[i]))))) {
+                resolved++;
+            }
+        }
+
+        return resolved;
+    }
+
+    /**
+     * Captured lookups kept in arrays, every lookup referring to the snapshot
+     * of contexts and index it is captured with.
+     */
+    private static final class CapturedLookups implements ApiVersionCaptureReader.Listener {
+
+        private final List<ApiVersionResolver> resolvers = new ArrayList<>();
+
+        private final List<ApiVersionIndex> indexes = new ArrayList<>();
+
+        private ApiVersionResolver resolver = new ApiVersionResolver(Collections.<ApiVersioningContext>emptyList());
+
+        private ApiVersionIndex index = ApiVersionIndex.EMPTY;
+
+        private int size;
+
+        private long rejected;
+
+        private String[] methods = new String[1024];
+
+        private String[] lookupPaths = new String[1024];
+
+        private Outcome[] outcomes = new Outcome[1024];
+
+        private double[] versions = new double[1024];
+
+        private long[] latencies = new long[1024];
+
+        private int[] snapshots = new int[1024];
+
+        @Override
+        public void onContexts(List<ApiVersioningContext> contexts) {
+            resolver = new ApiVersionResolver(contexts);
+            resolvers.add(resolver);
+            indexes.add(index);
+        }
+
+        @Override
+        public void onIndex(ApiVersionIndex updatedIndex) {
+            index = updatedIndex;
+            resolvers.add(resolver);
+            indexes.add(index);
+        }
+
+        @Override
+        public void onRecord(ApiVersionCaptureRecord record) {
+            if (size == lookupPaths.length) {
+                methods = Arrays.copyOf(methods, size * 2);
+                lookupPaths = Arrays.copyOf(lookupPaths, size * 2);
+                outcomes = Arrays.copyOf(outcomes, size * 2);
+                versions = Arrays.copyOf(versions, size * 2);
+                latencies = Arrays.copyOf(latencies, size * 2);
+                snapshots = Arrays.copyOf(snapshots, size * 2);
+            }
+
+            if (resolvers.isEmpty()) {
+                resolvers.add(resolver);
+                indexes.add(index);
+            }
+
+            if (record.getOutcome() == Outcome.REJECTED) {
+                rejected++;
+            }
+
+            methods[size] = record.getMethod();
+            lookupPaths[size] = record.getLookupPath();
+            outcomes[size] = record.getOutcome();
+            versions[size] = record.getResolvedVersion();
+            latencies[size] = record.getLatencyNanos();
+            snapshots[size] = resolvers.size() - 1;
+            size++;
+        }
+
+        private long getCapturedMedianLatencyNanos() {
+            long[] sortedLatencies = Arrays.copyOf(latencies, size);
+            Arrays.sort(sortedLatencies);
+
+            return sortedLatencies[size / 2];
+        }
+
+    }
+
+}
@@ -0,0 +1,340 @@
+package com.mindstixlabs.web.api.version.management.benchmark;
+
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mindstixlabs.web.api.version.management.DefaultRequestMappingHandlerMapping;
+import com.mindstixlabs.web.api.version.management.ReSTApiVersionManager;
+import com.mindstixlabs.web.api.version.management.cache.ApiVersionedMapping;
+import com.mindstixlabs.web.api.version.management.cache.ApiVersioningCache;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigHolder;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningRuntimeConfig;
+import com.mindstixlabs.web.api.version.management.core.ApiVersioningContext;
+import com.mindstixlabs.web.api.version.management.core.ApiVersioningContextMatcher;
+
+/**
+ * <code>ApiVersioningAllocationBenchmark</code> measures bytes allocated per
+ * handler lookup of {@link ReSTApiVersionManager} and
+ * {@link DefaultRequestMappingHandlerMapping} for representative lookups of a
+ * generated application and compares them with budgets declared per
+ * {@link Scenario}, to catch changes which add allocation to request
+ * resolution.
+ *
+ * <p>Lookup paths of the scenarios are synthesized from literal patterns of
+ * the generated controllers registered in the handler mapping, scenarios which
+ * can't be synthesized are skipped. Every scenario is looked up repeatedly
+ * using the same synthesized request before it is measured, so that lookups
+ * are measured once compiled by the JIT.
+ * Allocation is measured using per-thread allocation counter of HotSpot and
+ * includes allocation done by Spring MVC while matching mappings. The
+ * benchmark exits with failure if a budget is exceeded. Budgets are checked by
+ * <code>ApiVersioningAllocationBudgetTest</code> of the benchmark profile, so
+ * that an allocation regression fails the build.
+ *
+ * <p>Options, all optional:
+ * <ul>
+ * <li><code>--controllers=100</code> Number of controllers of the generated application.</li>
+ * <li><code>--seed=42</code> Seed of the generated application.</li>
+ * <li><code>--iterations=5000</code> Number of lookups done to warm up and then to measure every scenario.</li>
+ * <li><code>--failOnBudgetExceeded=true</code> Flag to exit with failure if a scenario exceeds its budget.</li>
+ * <li><code>--label=&lt;git short hash&gt;</code> Label of results, commit of the working directory by default.</li>
+ * <li><code>--output=target/benchmark/allocation.jsonl</code> File to append results to.</li>
+ * </ul>
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+public class ApiVersioningAllocationBenchmark {
+
+    private static final String DEFAULT_CONTROLLERS = "100";
+
+    private static final String DEFAULT_SEED = "42";
+
+    private static final String DEFAULT_ITERATIONS = "5000";
+
+    private static final String DEFAULT_OUTPUT = "target/benchmark/allocation.jsonl";
+
+    /**
+     * URI template variables and wildcards of patterns.
+     */
+    private static final Pattern TEMPLATED_PATTERN = Pattern.compile("\\{[^}]*\\}|\\*+");
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * Representative lookups with bytes allowed to be allocated per lookup.
+     */
+    public enum Scenario {
+
+        /**
+         * Lookup of a registered version.
+         */
+        EXACT_HIT(4096),
+
+        /**
+         * Lookup of a version above a registered version, served by fallback.
+         */
+        FALLBACK(4096),
+
+        /**
+         * Lookup of a disabled API, rejected before matching mappings.
+         */
+        DISABLED(256),
+
+        /**
+         * Lookup of a version below minimum supported version, rejected before matching mappings.
+         */
+        BELOW_MIN_VERSION(256),
+
+        /**
+         * Lookup of a path without API versioning context.
+         */
+        NON_API_PATH(4096);
+
+        private final long budgetBytes;
+
+        Scenario(long budgetBytes) {
+            this.budgetBytes = budgetBytes;
+        }
+
+        public long getBudgetBytes() {
+            return budgetBytes;
+        }
+
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = ApiVersioningStartupBenchmark.parseOptions(args);
+
+        int controllerCount = Integer.parseInt(options.getOrDefault("controllers", DEFAULT_CONTROLLERS));
+        long seed = Long.parseLong(options.getOrDefault("seed", DEFAULT_SEED));
+        int iterations = Math.max(1, Integer.parseInt(options.getOrDefault("iterations", DEFAULT_ITERATIONS)));
+        boolean failOnBudgetExceeded = Boolean.parseBoolean(options.getOrDefault("failOnBudgetExceeded", "true"));
+        String label = options.containsKey("label") ? options.get("label") : ApiVersioningStartupBenchmark.getCommitLabel();
+        Path output = Paths.get(options.getOrDefault("output", DEFAULT_OUTPUT));
+
+        if (getThreadAllocatedBytes() < 0) {
+            throw new IllegalStateException("Allocation per thread is not measured by the JVM");
+        }
+
+        ConfigurableApplicationContext context = ApiVersioningStartupBenchmarkFork.startApplication(controllerCount, seed);
+
+        List<Map<String, Object>> results;
+
+        try {
+            results = measure(context, iterations);
+        } finally {
+            context.close();
+        }
+
+        if (null != output.toAbsolutePath().getParent()) {
+            Files.createDirectories(output.toAbsolutePath().getParent());
+        }
+
+        boolean withinBudget = true;
+
+        try (Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (Map<String, Object> result : results) {
+                Map<String, Object> line = new LinkedHashMap<>();
+                line.put("label", label);
+                line.put("timestamp", System.currentTimeMillis());
+                line.put("javaVersion", System.getProperty("java.version"));
+                line.put("controllers", controllerCount);
+                line.put("seed", seed);
+                line.putAll(result);
+
+                writer.write(OBJECT_MAPPER.writeValueAsString(line));
+                writer.write(System.lineSeparator());
+
+                System.out.println(String.format("%s %s %s %s bytesPerLookup=%d budgetBytes=%d", result.get("handlerMapping"), result.get("scenario"), result.get("method"), result.get("path"),
+                                                 result.get("bytesPerLookup"), result.get("budgetBytes")));
+
+                if (Boolean.FALSE.equals(result.get("withinBudget"))) {
+                    System.out.println(String.format("Lookup [%s %s] of scenario [%s] exceeds its budget", result.get("method"), result.get("path"), result.get("scenario")));
+                    withinBudget = false;
+                }
+            }
+        }
+
+        System.out.println(String.format("Results are appended to [%s]", output.toAbsolutePath()));
+
+        if (failOnBudgetExceeded && Boolean.FALSE.equals(withinBudget)) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * This method is used to measure bytes allocated per lookup of every scenario.
+     *
+     * @param context                            Application context of the generated application.
+     * @param iterations                         Number of lookups done to warm up and then to measure every scenario.
+     * @return                                   Returns bytes allocated per lookup and budget per handler mapping and scenario.
+     */
+    static List<Map<String, Object>> measure(ConfigurableApplicationContext context, int iterations) throws Exception {
+        List<Map<String, Object>> results = new ArrayList<>();
+
+        ApiVersioningCache apiVersioningCache = context.getBean(ApiVersioningCache.class);
+        ApiVersioningRuntimeConfig config = context.getBean(ApiVersioningConfigHolder.class).getConfig();
+
+        for (RequestMappingHandlerMapping handlerMapping : context.getBeansOfType(RequestMappingHandlerMapping.class).values()) {
+            if (Boolean.FALSE.equals(handlerMapping instanceof ReSTApiVersionManager) && Boolean.FALSE.equals(handlerMapping instanceof DefaultRequestMappingHandlerMapping)) {
+                continue;
+            }
+
+            for (Map.Entry<Scenario, String[]> entry : getLookups(handlerMapping, apiVersioningCache, config).entrySet()) {
+                Scenario scenario = entry.getKey();
+                String[] lookup = entry.getValue();
+
+                long bytesPerLookup = measure(handlerMapping, new SyntheticLookupRequest(lookup[0], lookup[1]), iterations);
+
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("handlerMapping", handlerMapping.getClass().getSimpleName());
+                result.put("scenario", scenario);
+                result.put("method", lookup[0]);
+                result.put("path", lookup[1]);
+                result.put("bytesPerLookup", bytesPerLookup);
+                result.put("budgetBytes", scenario.getBudgetBytes());
+                result.put("withinBudget", bytesPerLookup <= scenario.getBudgetBytes());
+
+                results.add(result);
+            }
+        }
+
+        return results;
+    }
+
+    private static long measure(RequestMappingHandlerMapping handlerMapping, HttpServletRequest request, int lookups) throws Exception {
+        // Looking up before measuring to get lookup compiled and request attributes created.
+        for (int i = 0; i < lookups; i++) {
+            handlerMapping.getHandler(request);
+        }
+
+        long startAllocatedBytes = getThreadAllocatedBytes();
+
+        for (int i = 0; i < lookups; i++) {
+            handlerMapping.getHandler(request);
+        }
+
+        return (getThreadAllocatedBytes() - startAllocatedBytes) / lookups;
+    }
+
+    /**
+     * This method is used to get bytes allocated by the current thread.
+     *
+     * @return                                   Returns allocated bytes or -1 if allocation per thread is not measured by the JVM.
+     */
+    static long getThreadAllocatedBytes() {
+        java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+
+        return -1L;
+    }
+
+    /**
+     * This method is used to synthesize method and lookup path of every
+     * scenario from mappings registered in the handler mapping.
+     */
+    private static Map<Scenario, String[]> getLookups(RequestMappingHandlerMapping handlerMapping, ApiVersioningCache apiVersioningCache, ApiVersioningRuntimeConfig config) {
+        Map<Scenario, String[]> lookups = new EnumMap<>(Scenario.class);
+
+        // Smallest version step as per decimal digits supported. for eg. 0.1
+        double versionStep = Math.pow(10, -config.getMaxDecimalDigitsSupport());
+
+        // Only literal patterns are looked up, preferring patterns without media type conditions, as Spring MVC matches paths of templated patterns against
+        // every registered mapping and parses media types of the request for media type conditions, which would dominate allocation of the lookup.
+        List<String[]> patterns = new ArrayList<>();
+
+        for (Map.Entry<RequestMappingInfo, HandlerMethod> entry : handlerMapping.getHandlerMethods().entrySet()) {
+            RequestMappingInfo mappingInfo = entry.getKey();
+
+            // Skipping mappings of the framework, for eg. error controller of Spring Boot, which are not part of the generated application.
+            if (Boolean.FALSE.equals(entry.getValue().getBeanType().getName().startsWith(SyntheticApplicationGenerator.APPLICATION_PACKAGE))) {
+                continue;
+            }
+
+            Set<RequestMethod> methods = mappingInfo.getMethodsCondition().getMethods();
+            String method = methods.isEmpty() || methods.contains(RequestMethod.GET) ? RequestMethod.GET.name() : methods.iterator().next().name();
+            boolean mediaTypeConditions = Boolean.FALSE.equals(mappingInfo.getConsumesCondition().isEmpty()) || Boolean.FALSE.equals(mappingInfo.getProducesCondition().isEmpty());
+
+            for (String pattern : mappingInfo.getPatternsCondition().getPatterns()) {
+                if (Boolean.FALSE.equals(TEMPLATED_PATTERN.matcher(pattern).find())) {
+                    patterns.add(new String[] { method, pattern, String.valueOf(mediaTypeConditions) });
+                }
+            }
+        }
+
+        patterns.sort(Comparator.comparing(mapping -> Boolean.parseBoolean(mapping[2])));
+
+        for (String[] mapping : patterns) {
+            String method = mapping[0];
+            String pattern = mapping[1];
+            String lookupPath = pattern;
+            ApiVersionedMapping versionedMapping = apiVersioningCache.getApiVersionedMapping(pattern);
+
+            if (null == versionedMapping) {
+                lookups.putIfAbsent(Scenario.NON_API_PATH, new String[] { method, lookupPath });
+                continue;
+            }
+
+            if (apiVersioningCache.isApiDisabled(pattern)) {
+                if (Boolean.FALSE.equals(config.isAllowDisabledApiVersions())) {
+                    lookups.putIfAbsent(Scenario.DISABLED, new String[] { method, lookupPath });
+                }
+
+                continue;
+            }
+
+            long contextMatch = config.getContextMatcher().match(lookupPath);
+
+            if (contextMatch == ApiVersioningContextMatcher.NO_MATCH) {
+                continue;
+            }
+
+            ApiVersioningContext apiVersioningContext = config.getMatchedContext(contextMatch);
+            String basePath = lookupPath.substring(ApiVersioningContextMatcher.getVersionEndIndex(contextMatch));
+
+            lookups.putIfAbsent(Scenario.EXACT_HIT, new String[] { method, lookupPath });
+
+            // Version above registered version which isn't registered itself, served by fallback.
+            double fallbackVersion = versionedMapping.getVersion() + versionStep;
+
+            if (Boolean.FALSE.equals(apiVersioningCache.isApiVersionRegistered(versionedMapping.getMapping(), fallbackVersion))) {
+                lookups.putIfAbsent(Scenario.FALLBACK, new String[] { method, apiVersioningContext.getApiAndVersionContext() + config.formatVersion(fallbackVersion) + basePath });
+            }
+
+            double belowMinVersion = apiVersioningContext.getMinVersionSupport() - versionStep;
+
+            if (belowMinVersion >= 0) {
+                lookups.putIfAbsent(Scenario.BELOW_MIN_VERSION, new String[] { method, apiVersioningContext.getApiAndVersionContext() + config.formatVersion(belowMinVersion) + basePath });
+            }
+        }
+
+        return lookups;
+    }
+
+}
@@ -0,0 +1,533 @@
+package com.mindstixlabs.web.api.version.management.benchmark;
+
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mindstixlabs.web.api.version.management.ReSTApiVersionManager;
+import com.mindstixlabs.web.api.version.management.cache.ApiVersionedMapping;
+import com.mindstixlabs.web.api.version.management.cache.ApiVersioningCache;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigHolder;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningRuntimeConfig;
+import com.mindstixlabs.web.api.version.management.core.ApiVersionIndex;
+import com.mindstixlabs.web.api.version.management.core.ApiVersioningContext;
+import com.mindstixlabs.web.api.version.management.core.ApiVersioningContextMatcher;
+
+/**
+ * <code>ApiVersioningConcurrencyStress</code> races handler lookups of
+ * {@link ReSTApiVersionManager} and readers of the version registry and
+ * configuration against threads registering versions with
+ * {@link ApiVersioningCache#cacheApiVersionForMapping(String, Double)} and
+ * replacing configuration with
+ * {@link ApiVersioningConfigHolder#updateConfig(java.util.function.UnaryOperator)},
+ * to catch torn or stale reads of the published snapshots.
+ *
+ * <p>A generated application is started and handlers of exact and fallback
+ * lookups of its literal patterns are resolved once before the race. While
+ * writers are running, readers assert that:
+ * <ul>
+ * <li>every lookup resolves to the handler it resolved to before the race, as
+ *     neither registered stress mappings nor version support of the
+ *     configuration affect these lookups;</li>
+ * <li>versions of a stress mapping read from the cache and from the version
+ *     index are sorted in descending order without duplicates and include
+ *     every version whose registration completed before the read;</li>
+ * <li>generation of the version index never goes back;</li>
+ * <li>minimum and current version support of a configuration snapshot are
+ *     one of the pairs written, and the snapshot is not older than the last
+ *     snapshot published before the read.</li>
+ * </ul>
+ *
+ * <p>Writers register a fixed number of versions and publish a fixed number of
+ * configurations, pausing briefly between operations so that readers
+ * interleave with them, and readers run until both writers are done. The
+ * stress exits with failure if a violation is found. It is run by
+ * <code>ApiVersioningConcurrencyStressTest</code> of the benchmark profile, so
+ * that a torn or stale read fails the build.
+ *
+ * <p>Options, all optional:
+ * <ul>
+ * <li><code>--controllers=50</code> Number of controllers of the generated application.</li>
+ * <li><code>--seed=42</code> Seed of the generated application.</li>
+ * <li><code>--readers=&lt;max(3, processors)&gt;</code> Number of reader threads, split among lookups, registry and configuration.</li>
+ * <li><code>--registrations=20000</code> Number of versions registered for stress mappings.</li>
+ * <li><code>--configUpdates=20000</code> Number of configuration snapshots published.</li>
+ * <li><code>--failOnViolation=true</code> Flag to exit with failure if a violation is found.</li>
+ * <li><code>--label=&lt;git short hash&gt;</code> Label of results, commit of the working directory by default.</li>
+ * <li><code>--output=target/benchmark/stress.jsonl</code> File to append results to.</li>
+ * </ul>
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+public class ApiVersioningConcurrencyStress {
+
+    private static final String DEFAULT_CONTROLLERS = "50";
+
+    private static final String DEFAULT_SEED = "42";
+
+    private static final String DEFAULT_REGISTRATIONS = "20000";
+
+    private static final String DEFAULT_CONFIG_UPDATES = "20000";
+
+    private static final String DEFAULT_OUTPUT = "target/benchmark/stress.jsonl";
+
+    /**
+     * Prefix of base mappings versions are registered for by the registry writer.
+     */
+    private static final String STRESS_MAPPING_PREFIX = "/stress/m";
+
+    /**
+     * Versions registered per stress mapping before the writer moves to the next mapping.
+     */
+    private static final int VERSIONS_PER_MAPPING = 100;
+
+    /**
+     * Pause of writers between operations.
+     */
+    private static final long WRITER_PAUSE_NANOS = TimeUnit.MICROSECONDS.toNanos(20);
+
+    /**
+     * Maximum number of violations printed.
+     */
+    private static final int MAX_VIOLATION_SAMPLES = 20;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final ApiVersioningCache apiVersioningCache;
+
+    private final ApiVersioningConfigHolder apiVersioningConfigHolder;
+
+    private final ReSTApiVersionManager handlerMapping;
+
+    private final List<Lookup> lookups;
+
+    /**
+     * Minimum and current version support pairs written by the configuration writer.
+     */
+    private final double[][] versionSupports;
+
+    /**
+     * Number of versions whose registration completed.
+     */
+    private final AtomicLong publishedRegistrations = new AtomicLong();
+
+    /**
+     * Sequence of configuration snapshots published, and sequence of the last published snapshot.
+     */
+    private final Map<ApiVersioningRuntimeConfig, Long> publishedConfigs = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private final AtomicLong publishedConfigSequence = new AtomicLong();
+
+    private final AtomicLong runningWriters = new AtomicLong();
+
+    private final AtomicLong readerOperations = new AtomicLong();
+
+    private final AtomicLong violations = new AtomicLong();
+
+    private final Queue<String> violationSamples = new ConcurrentLinkedQueue<>();
+
+    private ApiVersioningConcurrencyStress(ConfigurableApplicationContext context, ReSTApiVersionManager handlerMapping) throws Exception {
+        this.apiVersioningCache = context.getBean(ApiVersioningCache.class);
+        this.apiVersioningConfigHolder = context.getBean(ApiVersioningConfigHolder.class);
+        this.handlerMapping = handlerMapping;
+
+        ApiVersioningRuntimeConfig config = apiVersioningConfigHolder.getConfig();
+        double minVersionSupport = config.getMinVersionSupport();
+        double currentVersionSupport = config.getCurrentVersionSupport();
+
+        // Second pair widens version support, so that lookups resolved before the race are resolved the same way with both pairs.
+        this.versionSupports = new double[][] { { minVersionSupport, currentVersionSupport }, { minVersionSupport / 2, currentVersionSupport + 1 } };
+        this.lookups = getLookups(config);
+
+        publishedConfigs.put(config, 0L);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = ApiVersioningStartupBenchmark.parseOptions(args);
+
+        int controllerCount = Integer.parseInt(options.getOrDefault("controllers", DEFAULT_CONTROLLERS));
+        long seed = Long.parseLong(options.getOrDefault("seed", DEFAULT_SEED));
+        int readers = Math.max(3, Integer.parseInt(options.getOrDefault("readers", String.valueOf(Runtime.getRuntime().availableProcessors()))));
+        int registrations = Integer.parseInt(options.getOrDefault("registrations", DEFAULT_REGISTRATIONS));
+        int configUpdates = Integer.parseInt(options.getOrDefault("configUpdates", DEFAULT_CONFIG_UPDATES));
+        boolean failOnViolation = Boolean.parseBoolean(options.getOrDefault("failOnViolation", "true"));
+        String label = options.containsKey("label") ? options.get("label") : ApiVersioningStartupBenchmark.getCommitLabel();
+        Path output = Paths.get(options.getOrDefault("output", DEFAULT_OUTPUT));
+
+        ConfigurableApplicationContext context = ApiVersioningStartupBenchmarkFork.startApplication(controllerCount, seed);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+
+        try {
+            ApiVersioningConcurrencyStress stress = create(context);
+
+            System.out.println(String.format("Racing [%d] lookups and readers of registry and configuration on [%d] threads against [%d] registrations and [%d] configuration updates",
+                                             stress.lookups.size(), readers, registrations, configUpdates));
+
+            long elapsedNanos = stress.run(readers, registrations, configUpdates);
+
+            result.put("label", label);
+            result.put("timestamp", System.currentTimeMillis());
+            result.put("javaVersion", System.getProperty("java.version"));
+            result.put("controllers", controllerCount);
+            result.put("seed", seed);
+            result.put("readers", readers);
+            result.put("lookups", stress.lookups.size());
+            result.put("registrations", registrations);
+            result.put("configUpdates", configUpdates);
+            result.put("readerOperations", stress.readerOperations.get());
+            result.put("elapsedMillis", TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+            result.put("violations", stress.violations.get());
+
+            stress.violationSamples.forEach(violation -> System.out.println("Violation: " + violation));
+        } finally {
+            context.close();
+        }
+
+        if (null != output.toAbsolutePath().getParent()) {
+            Files.createDirectories(output.toAbsolutePath().getParent());
+        }
+
+        try (Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(OBJECT_MAPPER.writeValueAsString(result));
+            writer.write(System.lineSeparator());
+        }
+
+        System.out.println(String.format("readerOperations=%d elapsedMillis=%d violations=%d", result.get("readerOperations"), result.get("elapsedMillis"), result.get("violations")));
+        System.out.println(String.format("Results are appended to [%s]", output.toAbsolutePath()));
+
+        if (failOnViolation && ((Long) result.get("violations")) > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * This method is used to create stress of the running application, resolving
+     * handlers of lookups before the race.
+     *
+     * @param context                            Application context of the generated application.
+     * @return                                   Returns stress to be run.
+     */
+    static ApiVersioningConcurrencyStress create(ConfigurableApplicationContext context) throws Exception {
+        for (RequestMappingHandlerMapping handlerMapping : context.getBeansOfType(RequestMappingHandlerMapping.class).values()) {
+            if (handlerMapping instanceof ReSTApiVersionManager) {
+                return new ApiVersioningConcurrencyStress(context, (ReSTApiVersionManager) handlerMapping);
+            }
+        }
+
+        throw new IllegalStateException("Generated application doesn't use ReSTApiVersionManager, API versioning fallback is to be enabled");
+    }
+
+    int getLookupCount() {
+        return lookups.size();
+    }
+
+    long getViolations() {
+        return violations.get();
+    }
+
+    List<String> getViolationSamples() {
+        return new ArrayList<>(violationSamples);
+    }
+
+    /**
+     * This method is used to run writers and readers until both writers are done.
+     *
+     * @param readers                            Number of reader threads.
+     * @param registrations                      Number of versions registered for stress mappings.
+     * @param configUpdates                      Number of configuration snapshots published.
+     * @return                                   Returns time taken by the race.
+     */
+    long run(int readers, int registrations, int configUpdates) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+
+        runningWriters.set(2);
+        threads.add(new Thread(() -> writeRegistrations(registrations), "stress-registry-writer"));
+        threads.add(new Thread(() -> writeConfigs(configUpdates), "stress-config-writer"));
+
+        for (int reader = 0; reader < readers; reader++) {
+            Runnable readOperation;
+
+            if (reader % 3 == 0) {
+                readOperation = this::readLookups;
+            } else if (reader % 3 == 1) {
+                readOperation = this::readRegistry;
+            } else {
+                readOperation = this::readConfig;
+            }
+
+            threads.add(new Thread(() -> read(readOperation), "stress-reader-" + reader));
+        }
+
+        long startTime = System.nanoTime();
+
+        threads.forEach(Thread::start);
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        return System.nanoTime() - startTime;
+    }
+
+    private void writeRegistrations(int registrations) {
+        try {
+            for (long registration = 0; registration < registrations; registration++) {
+                apiVersioningCache.cacheApiVersionForMapping(getStressMapping(registration), getStressVersion(registration));
+                publishedRegistrations.set(registration + 1);
+
+                LockSupport.parkNanos(WRITER_PAUSE_NANOS);
+            }
+        } catch (RuntimeException e) {
+            recordViolation("Registry writer failed: " + e);
+        } finally {
+            runningWriters.decrementAndGet();
+        }
+    }
+
+    private void writeConfigs(int configUpdates) {
+        try {
+            for (long sequence = 1; sequence <= configUpdates; sequence++) {
+                double[] versionSupport = versionSupports[(int) (sequence % versionSupports.length)];
+
+                ApiVersioningRuntimeConfig config = apiVersioningConfigHolder.updateConfig(currentConfig -> currentConfig.withVersionSupport(versionSupport[0], versionSupport[1]));
+
+                publishedConfigs.put(config, sequence);
+                publishedConfigSequence.set(sequence);
+
+                LockSupport.parkNanos(WRITER_PAUSE_NANOS);
+            }
+        } catch (RuntimeException e) {
+            recordViolation("Configuration writer failed: " + e);
+        } finally {
+            runningWriters.decrementAndGet();
+        }
+    }
+
+    private void read(Runnable readOperation) {
+        try {
+            while (runningWriters.get() > 0) {
+                readOperation.run();
+                readerOperations.incrementAndGet();
+            }
+        } catch (Exception e) {
+            recordViolation("Reader " + Thread.currentThread().getName() + " failed: " + e);
+        }
+    }
+
+    private void readLookups() {
+        for (Lookup lookup : lookups) {
+            HandlerExecutionChain handlerExecutionChain;
+
+            try {
+                handlerExecutionChain = handlerMapping.getHandler(new SyntheticLookupRequest(lookup.method, lookup.path));
+            } catch (Exception e) {
+                recordViolation(String.format("Lookup [%s %s] failed: %s", lookup.method, lookup.path, e));
+                continue;
+            }
+
+            Object handler = null == handlerExecutionChain ? null : handlerExecutionChain.getHandler();
+
+            if (Boolean.FALSE.equals(lookup.handler.equals(handler))) {
+                recordViolation(String.format("Lookup [%s %s] resolved to [%s] instead of [%s]", lookup.method, lookup.path, handler, lookup.handler));
+            }
+        }
+    }
+
+    private void readRegistry() {
+        long generation = -1L;
+
+        for (int read = 0; read < VERSIONS_PER_MAPPING; read++) {
+            // Reading registrations published before reading the registry, registry must include all of them.
+            long registrations = publishedRegistrations.get();
+
+            ApiVersionIndex index = apiVersioningCache.getVersionIndex();
+
+            if (index.getGeneration() < generation) {
+                recordViolation(String.format("Version index generation went back from [%d] to [%d]", generation, index.getGeneration()));
+            }
+
+            generation = index.getGeneration();
+
+            if (0 == registrations) {
+                continue;
+            }
+
+            long registration = registrations - 1;
+            String mapping = getStressMapping(registration);
+            double version = getStressVersion(registration);
+
+            List<Double> cachedVersions = apiVersioningCache.getCachedApiVersionsForMapping(mapping);
+            double[] indexedVersions = index.getVersions(mapping);
+
+            double[] versions = new double[cachedVersions.size()];
+
+            for (int i = 0; i < versions.length; i++) {
+                versions[i] = cachedVersions.get(i);
+            }
+
+            checkVersions("Cache", mapping, version, versions);
+            checkVersions("Version index of generation " + index.getGeneration(), mapping, version, indexedVersions);
+        }
+    }
+
+    /**
+     * This method is used to check that versions of a stress mapping are
+     * sorted in descending order and include all versions up to the version
+     * whose registration completed. Versions are registered in ascending
+     * order starting from 1.
+     */
+    private void checkVersions(String source, String mapping, double version, double[] versions) {
+        if (versions.length < version) {
+            recordViolation(String.format("%s has [%d] versions of [%s] after version [%s] is registered", source, versions.length, mapping, version));
+            return;
+        }
+
+        for (int i = 1; i < versions.length; i++) {
+            if (versions[i - 1] <= versions[i]) {
+                recordViolation(String.format("%s has versions of [%s] out of order at [%d]: [%s] before [%s]", source, mapping, i, versions[i - 1], versions[i]));
+                return;
+            }
+        }
+    }
+
+    private void readConfig() {
+        for (int read = 0; read < VERSIONS_PER_MAPPING; read++) {
+            // Reading sequence published before reading configuration, configuration must not be older.
+            long sequence = publishedConfigSequence.get();
+
+            ApiVersioningRuntimeConfig config = apiVersioningConfigHolder.getConfig();
+            Long configSequence = publishedConfigs.get(config);
+
+            // Configuration not found is being published by the writer, so it is newer than the sequence read.
+            if (null != configSequence && configSequence < sequence) {
+                recordViolation(String.format("Configuration of sequence [%d] is read after sequence [%d] is published", configSequence, sequence));
+            }
+
+            ApiVersioningContext primaryContext = config.getPrimaryContext();
+            boolean written = false;
+
+            for (double[] versionSupport : versionSupports) {
+                written |= versionSupport[0] == primaryContext.getMinVersionSupport() && versionSupport[1] == primaryContext.getCurrentVersionSupport();
+            }
+
+            if (Boolean.FALSE.equals(written)) {
+                recordViolation(String.format("Configuration has version support [%s, %s] which is never written", primaryContext.getMinVersionSupport(), primaryContext.getCurrentVersionSupport()));
+            }
+        }
+    }
+
+    private void recordViolation(String violation) {
+        if (violations.incrementAndGet() <= MAX_VIOLATION_SAMPLES) {
+            violationSamples.add(violation);
+        }
+    }
+
+    private static String getStressMapping(long registration) {
+        return STRESS_MAPPING_PREFIX + (registration / VERSIONS_PER_MAPPING);
+    }
+
+    private static double getStressVersion(long registration) {
+        return (double) (registration % VERSIONS_PER_MAPPING + 1);
+    }
+
+    /**
+     * This method is used to resolve handlers of exact and fallback lookups of
+     * literal patterns of the generated controllers before the race.
+     */
+    private List<Lookup> getLookups(ApiVersioningRuntimeConfig config) throws Exception {
+        List<Lookup> resolvedLookups = new ArrayList<>();
+
+        // Smallest version step as per decimal digits supported. for eg. 0.1
+        double versionStep = Math.pow(10, -config.getMaxDecimalDigitsSupport());
+
+        for (Map.Entry<RequestMappingInfo, HandlerMethod> entry : handlerMapping.getHandlerMethods().entrySet()) {
+            if (Boolean.FALSE.equals(entry.getValue().getBeanType().getName().startsWith(SyntheticApplicationGenerator.APPLICATION_PACKAGE))) {
+                continue;
+            }
+
+            Set<RequestMethod> methods = entry.getKey().getMethodsCondition().getMethods();
+            String method = methods.isEmpty() || methods.contains(RequestMethod.GET) ? RequestMethod.GET.name() : methods.iterator().next().name();
+
+            for (String pattern : entry.getKey().getPatternsCondition().getPatterns()) {
+                ApiVersionedMapping versionedMapping = apiVersioningCache.getApiVersionedMapping(pattern);
+
+                if (null == versionedMapping || apiVersioningCache.isApiDisabled(pattern) || handlerMapping.getPathMatcher().isPattern(pattern) || pattern.indexOf('{') >= 0) {
+                    continue;
+                }
+
+                long contextMatch = config.getContextMatcher().match(pattern);
+
+                if (contextMatch == ApiVersioningContextMatcher.NO_MATCH) {
+                    continue;
+                }
+
+                addLookup(resolvedLookups, method, pattern);
+
+                // Version above registered version which isn't registered itself, served by fallback.
+                double fallbackVersion = versionedMapping.getVersion() + versionStep;
+
+                if (fallbackVersion <= config.getMatchedContext(contextMatch).getCurrentVersionSupport()
+                        && Boolean.FALSE.equals(apiVersioningCache.isApiVersionRegistered(versionedMapping.getMapping(), fallbackVersion))) {
+                    String basePath = pattern.substring(ApiVersioningContextMatcher.getVersionEndIndex(contextMatch));
+
+                    addLookup(resolvedLookups, method, config.getMatchedContext(contextMatch).getApiAndVersionContext() + config.formatVersion(fallbackVersion) + basePath);
+                }
+            }
+        }
+
+        return resolvedLookups;
+    }
+
+    private void addLookup(List<Lookup> resolvedLookups, String method, String path) throws Exception {
+        HandlerExecutionChain handlerExecutionChain = handlerMapping.getHandler(new SyntheticLookupRequest(method, path));
+
+        if (null != handlerExecutionChain) {
+            resolvedLookups.add(new Lookup(method, path, handlerExecutionChain.getHandler()));
+        }
+    }
+
+    /**
+     * Lookup with handler it resolves to before the race.
+     */
+    private static final class Lookup {
+
+        private final String method;
+
+        private final String path;
+
+        private final Object handler;
+
+        private Lookup(String method, String path, Object handler) {
+            this.method = method;
+            this.path = path;
+            this.handler = handler;
+        }
+
+    }
+
+}
@@ -0,0 +1,190 @@
+package com.mindstixlabs.web.api.version.management.benchmark;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * <code>ApiVersioningStartupBenchmark</code> measures startup of applications
+ * using API versioning with 100 to 5,000 generated controllers.
+ *
+ * <p>Every application is started in a fresh JVM with fixed JVM options, by
+ * {@link ApiVersioningStartupBenchmarkFork}, so that results are not skewed by
+ * classes and caches of previous runs. Results of every run are appended as
+ * JSON lines to the results file, labelled with the commit being benchmarked,
+ * so results of different commits can be compared from the same file.
+ *
+ * <p>Options, all optional:
+ * <ul>
+ * <li><code>--sizes=100,500,1000,5000</code> Numbers of controllers of generated applications.</li>
+ * <li><code>--forks=3</code> Number of runs per size, median of runs is reported.</li>
+ * <li><code>--seed=42</code> Seed of generated applications, same seed generates same applications.</li>
+ * <li><code>--label=&lt;git short hash&gt;</code> Label of results, commit of the working directory by default.</li>
+ * <li><code>--output=target/benchmark/startup.jsonl</code> File to append results to.</li>
+ * <li><code>--jvmArgs="-Xms1g -Xmx1g -XX:+UseSerialGC"</code> Options of forked JVMs.</li>
+ * </ul>
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+public class ApiVersioningStartupBenchmark {
+
+    private static final String DEFAULT_SIZES = "100,500,1000,5000";
+
+    private static final String DEFAULT_FORKS = "3";
+
+    private static final String DEFAULT_SEED = "42";
+
+    private static final String DEFAULT_OUTPUT = "target/benchmark/startup.jsonl";
+
+    private static final String DEFAULT_JVM_ARGS = "-Xms1g -Xmx1g -XX:+UseSerialGC";
+
+    /**
+     * Measurements reported as median of runs in the summary.
+     */
+    private static final String[] SUMMARY_KEYS = { "registeredMappings", "refreshMillis", "configurationMillis", "mappingMillis", "retainedHeapBytes", "estimatedVersioningBytes" };
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+
+        int[] sizes = Arrays.stream(options.getOrDefault("sizes", DEFAULT_SIZES).split(",")).mapToInt(size -> Integer.parseInt(size.trim())).toArray();
+        int forks = Integer.parseInt(options.getOrDefault("forks", DEFAULT_FORKS));
+        long seed = Long.parseLong(options.getOrDefault("seed", DEFAULT_SEED));
+        String label = options.containsKey("label") ? options.get("label") : getCommitLabel();
+        Path output = Paths.get(options.getOrDefault("output", DEFAULT_OUTPUT));
+        List<String> jvmArgs = Arrays.asList(options.getOrDefault("jvmArgs", DEFAULT_JVM_ARGS).trim().split("\\s+"));
+
+        if (null != output.toAbsolutePath().getParent()) {
+            Files.createDirectories(output.toAbsolutePath().getParent());
+        }
+
+        System.out.println(String.format("Benchmarking startup of [%s] with sizes %s, [%d] forks per size and seed [%d]", label, Arrays.toString(sizes), forks, seed));
+
+        for (int size : sizes) {
+            List<Map<String, Object>> results = new ArrayList<>();
+
+            for (int fork = 0; fork < forks; fork++) {
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("label", label);
+                result.put("timestamp", System.currentTimeMillis());
+                result.put("javaVersion", System.getProperty("java.version"));
+                result.put("jvmArgs", String.join(" ", jvmArgs));
+                result.put("fork", fork);
+                result.putAll(runFork(size, seed, jvmArgs));
+
+                results.add(result);
+
+                try (Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    writer.write(OBJECT_MAPPER.writeValueAsString(result));
+                    writer.write(System.lineSeparator());
+                }
+            }
+
+            System.out.println(summarize(size, results));
+        }
+
+        System.out.println(String.format("Results are appended to [%s]", output.toAbsolutePath()));
+    }
+
+    private static Map<String, Object> runFork(int size, long seed, List<String> jvmArgs) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(ApiVersioningStartupBenchmarkFork.class.getName());
+        command.add(String.valueOf(size));
+        command.add(String.valueOf(seed));
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+
+        Map<String, Object> result = null;
+        List<String> output = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+
+            while (null != (line = reader.readLine())) {
+                if (line.startsWith(ApiVersioningStartupBenchmarkFork.RESULT_PREFIX)) {
+                    result = OBJECT_MAPPER.readValue(line.substring(ApiVersioningStartupBenchmarkFork.RESULT_PREFIX.length()), new TypeReference<LinkedHashMap<String, Object>>() {});
+                } else {
+                    output.add(line);
+                }
+            }
+        }
+
+        int exitCode = process.waitFor();
+
+        if (exitCode != 0 || null == result) {
+            output.forEach(System.err::println);
+
+            throw new IllegalStateException(String.format("Benchmark of [%d] controllers failed with exit code [%d]", size, exitCode));
+        }
+
+        return result;
+    }
+
+    private static String summarize(int size, List<Map<String, Object>> results) {
+        StringBuilder summary = new StringBuilder(String.format("controllers=%d", size));
+
+        for (String key : SUMMARY_KEYS) {
+            long[] values = results.stream().mapToLong(result -> ((Number) result.get(key)).longValue()).sorted().toArray();
+
+            summary.append(String.format(" %s=%d", key, values[values.length / 2]));
+        }
+
+        return summary.toString();
+    }
+
+    static String getCommitLabel() {
+        try {
+            Process process = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").directory(new File(".")).redirectErrorStream(true).start();
+
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String commit = reader.readLine();
+
+                if (process.waitFor() == 0 && null != commit) {
+                    return commit.trim();
+                }
+            }
+        } catch (IOException e) {
+            // Git is not available, falling back to unlabelled results.
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        return "unknown";
+    }
+
+    static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+
+        for (String arg : args) {
+            if (Boolean.FALSE.equals(arg.startsWith("--")) || arg.indexOf('=') < 0) {
+                throw new IllegalArgumentException("Invalid option: " + arg + ", options are to be passed as --name=value");
+            }
+
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+
+        return options;
+    }
+
+}
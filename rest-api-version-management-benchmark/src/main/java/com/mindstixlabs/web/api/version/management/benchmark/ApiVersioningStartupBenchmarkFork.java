@@ -0,0 +1,183 @@
+package com.mindstixlabs.web.api.version.management.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationPreparedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigKeys;
+import com.mindstixlabs.web.api.version.management.metrics.ApiVersioningFootprintEstimator;
+import com.mindstixlabs.web.api.version.management.metrics.ApiVersioningStartupMetrics;
+
+/**
+ * <code>ApiVersioningStartupBenchmarkFork</code> starts a generated
+ * application once in a JVM of its own and prints what was measured as a
+ * single JSON line prefixed with {@value #RESULT_PREFIX}, for
+ * {@link ApiVersioningStartupBenchmark} to collect.
+ *
+ * <p>Refresh time is measured from the application context being prepared to
+ * the application being started, including start of the embedded server.
+ * Retained heap is the difference of used heap after full garbage collection
+ * before generated classes are registered and once the application is started.
+ *
+ * <p>Usage: <code>ApiVersioningStartupBenchmarkFork &lt;controllers&gt; &lt;seed&gt;</code>
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+public class ApiVersioningStartupBenchmarkFork {
+
+    public static final String RESULT_PREFIX = "BENCHMARK-RESULT ";
+
+    private static final int GC_ROUNDS = 3;
+
+    public static void main(String[] args) throws Exception {
+        int controllerCount = Integer.parseInt(args[0]);
+        long seed = Long.parseLong(args[1]);
+
+        long generationStartTime = System.nanoTime();
+
+        SyntheticApplication syntheticApplication = SyntheticApplicationGenerator.generate(controllerCount, seed);
+
+        long generationNanos = System.nanoTime() - generationStartTime;
+
+        Thread.currentThread().setContextClassLoader(syntheticApplication.getClassLoader());
+
+        long heapBefore = getUsedHeapAfterGc();
+
+        SpringApplication application = createApplication(syntheticApplication);
+
+        RefreshStartListener refreshStartListener = new RefreshStartListener();
+        application.addListeners(refreshStartListener);
+
+        long startTime = System.nanoTime();
+
+        ConfigurableApplicationContext context = application.run();
+
+        long endTime = System.nanoTime();
+
+        if (Boolean.FALSE.equals(context.isActive())) {
+            throw new IllegalStateException("Generated application is stopped by API versioning validation");
+        }
+
+        long heapAfter = getUsedHeapAfterGc();
+
+        ApiVersioningStartupMetrics startupMetrics = context.getBean(ApiVersioningStartupMetrics.class);
+
+        int registeredMappings = 0;
+
+        for (RequestMappingHandlerMapping handlerMapping : context.getBeansOfType(RequestMappingHandlerMapping.class).values()) {
+            registeredMappings += handlerMapping.getHandlerMethods().size();
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("seed", seed);
+        result.putAll(syntheticApplication.toMap());
+        result.put("registeredMappings", registeredMappings);
+        result.put("generationMillis", TimeUnit.NANOSECONDS.toMillis(generationNanos));
+        result.put("startupMillis", TimeUnit.NANOSECONDS.toMillis(endTime - startTime));
+        result.put("refreshMillis", TimeUnit.NANOSECONDS.toMillis(endTime - refreshStartListener.startTime));
+        result.put("configurationMillis", TimeUnit.NANOSECONDS.toMillis(startupMetrics.getConfigurationNanos()));
+        result.put("mappingMillis", TimeUnit.NANOSECONDS.toMillis(startupMetrics.getMappingNanos()));
+        result.put("mappedMethods", startupMetrics.getMappedMethods());
+        result.put("retainedHeapBytes", heapAfter - heapBefore);
+        result.put("estimatedVersioningBytes", context.getBean(ApiVersioningFootprintEstimator.class).estimate().get("estimatedTotalBytes"));
+
+        System.out.println(RESULT_PREFIX + new ObjectMapper().writeValueAsString(result));
+
+        context.close();
+    }
+
+    /**
+     * This method is used to create application of generated classes, with
+     * an embedded server on a random port and without banner and shutdown hook.
+     *
+     * @param syntheticApplication               Generated application.
+     * @return                                   Returns application to be run.
+     */
+    static SpringApplication createApplication(SyntheticApplication syntheticApplication) {
+        SpringApplication application = new SpringApplication(syntheticApplication.getApplicationClass());
+        application.setBannerMode(Banner.Mode.OFF);
+        application.setRegisterShutdownHook(false);
+        application.setDefaultProperties(getDefaultProperties());
+
+        // Registering generated controllers, which cannot be component scanned as they are not on the class path.
+        application.addInitializers(context -> {
+            for (Class<?> controller : syntheticApplication.getControllers()) {
+                ((GenericApplicationContext) context).registerBeanDefinition(StringUtils.uncapitalize(controller.getSimpleName()), new RootBeanDefinition(controller));
+            }
+        });
+
+        return application;
+    }
+
+    /**
+     * This method is used to generate and start application, for harnesses
+     * measuring lookups of a running application. Context class loader of the
+     * current thread is set to class loader of the generated application.
+     *
+     * @param controllerCount                    Number of controllers of the generated application.
+     * @param seed                               Seed of the generated application.
+     * @return                                   Returns context of the running application.
+     */
+    static ConfigurableApplicationContext startApplication(int controllerCount, long seed) throws Exception {
+        SyntheticApplication syntheticApplication = SyntheticApplicationGenerator.generate(controllerCount, seed);
+        Thread.currentThread().setContextClassLoader(syntheticApplication.getClassLoader());
+
+        ConfigurableApplicationContext context = createApplication(syntheticApplication).run();
+
+        if (Boolean.FALSE.equals(context.isActive())) {
+            throw new IllegalStateException("Generated application is stopped by API versioning validation");
+        }
+
+        return context;
+    }
+
+    private static Map<String, Object> getDefaultProperties() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", "0");
+        properties.put("logging.level.root", "WARN");
+        properties.put(ApiVersioningConfigKeys.API_CONTEXT, "api");
+        properties.put(ApiVersioningConfigKeys.VERSION_CONTEXT, "v");
+
+        return properties;
+    }
+
+    private static long getUsedHeapAfterGc() {
+        MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+
+        for (int round = 0; round < GC_ROUNDS; round++) {
+            System.gc();
+        }
+
+        return memoryMXBean.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Listener keeping time at which the application context is prepared to be refreshed.
+     */
+    private static final class RefreshStartListener implements ApplicationListener<ApplicationPreparedEvent> {
+
+        private long startTime;
+
+        @Override
+        public void onApplicationEvent(ApplicationPreparedEvent event) {
+            startTime = System.nanoTime();
+        }
+
+    }
+
+}
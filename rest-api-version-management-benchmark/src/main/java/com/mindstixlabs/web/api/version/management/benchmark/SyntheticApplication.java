@@ -0,0 +1,69 @@
+package com.mindstixlabs.web.api.version.management.benchmark;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <code>SyntheticApplication</code> holds classes of an application generated
+ * by {@link SyntheticApplicationGenerator} with a summary of what was
+ * generated.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+public class SyntheticApplication {
+
+    private final ClassLoader classLoader;
+
+    private final Class<?> applicationClass;
+
+    private final List<Class<?>> controllers;
+
+    private final int resources;
+
+    private final int handlerMethods;
+
+    private final int disabledControllers;
+
+    private final int disabledMethods;
+
+    private final int unversionedControllers;
+
+    public SyntheticApplication(ClassLoader classLoader, Class<?> applicationClass, List<Class<?>> controllers, int resources, int handlerMethods,
+                                int disabledControllers, int disabledMethods, int unversionedControllers) {
+        this.classLoader = classLoader;
+        this.applicationClass = applicationClass;
+        this.controllers = controllers;
+        this.resources = resources;
+        this.handlerMethods = handlerMethods;
+        this.disabledControllers = disabledControllers;
+        this.disabledMethods = disabledMethods;
+        this.unversionedControllers = unversionedControllers;
+    }
+
+    public ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    public Class<?> getApplicationClass() {
+        return applicationClass;
+    }
+
+    public List<Class<?>> getControllers() {
+        return controllers;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("controllers", controllers.size());
+        summary.put("resources", resources);
+        summary.put("handlerMethods", handlerMethods);
+        summary.put("disabledControllers", disabledControllers);
+        summary.put("disabledMethods", disabledMethods);
+        summary.put("unversionedControllers", unversionedControllers);
+
+        return summary;
+    }
+
+}
@@ -0,0 +1,371 @@
+package com.mindstixlabs.web.api.version.management.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.springframework.asm.AnnotationVisitor;
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.mindstixlabs.web.api.version.management.annotations.ApiVersion;
+import com.mindstixlabs.web.api.version.management.annotations.ApiVersionCheck;
+import com.mindstixlabs.web.api.version.management.annotations.DisabledApi;
+
+/**
+ * <code>SyntheticApplicationGenerator</code> generates bytecode of a Spring
+ * Boot application with given number of controllers to benchmark startup of
+ * API versioning.
+ *
+ * <p>Controllers serve resources in one to four API versions each, with one to
+ * six handler methods of varied HTTP methods and path variables. Some
+ * controllers and handler methods are disabled using {@link DisabledApi}, some
+ * skip versioning, and some are not versioned and are ignored by package or by
+ * class in {@link ApiVersionCheck} of the application class.
+ *
+ * <p>Generation is driven by a seeded random, so an application generated for
+ * the same number of controllers and seed is identical across runs and
+ * commits.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+public final class SyntheticApplicationGenerator {
+
+    /**
+     * Package of generated classes.
+     */
+    static final String APPLICATION_PACKAGE = "benchmark.app";
+
+    private static final String API_PACKAGE = APPLICATION_PACKAGE + ".api";
+
+    private static final String INTERNAL_PACKAGE = APPLICATION_PACKAGE + ".internal";
+
+    private static final String LIBRARY_PACKAGE = "com.mindstixlabs";
+
+    private static final String[] VERSIONS = { "1.0", "1.1", "2.0", "2.5", "3.0", "4.0" };
+
+    /**
+     * Handler methods a controller chooses from, as HTTP method and path.
+     */
+    private static final String[][] HANDLER_METHODS = { { "GET", "" }, { "GET", "/{id}" }, { "POST", "" }, { "PUT", "/{id}" },
+                                                        { "DELETE", "/{id}" }, { "PATCH", "/{id}/status" }, { "GET", "/{id}/items/{itemId}" } };
+
+    private static final int MAX_VERSIONS_PER_RESOURCE = 4;
+
+    private static final int MAX_METHODS_PER_CONTROLLER = 6;
+
+    private static final double IGNORED_PACKAGE_RATIO = 0.08;
+
+    private static final double IGNORED_CLASS_RATIO = 0.03;
+
+    private static final double SKIPPED_VERSIONING_RATIO = 0.04;
+
+    private static final double DISABLED_CONTROLLER_RATIO = 0.05;
+
+    private static final double DISABLED_METHOD_RATIO = 0.05;
+
+    private static final String OBJECT_INTERNAL_NAME = Type.getInternalName(Object.class);
+
+    private static final String REQUEST_METHOD_DESCRIPTOR = Type.getDescriptor(RequestMethod.class);
+
+    private SyntheticApplicationGenerator() {
+    }
+
+    /**
+     * This method is used to generate an application.
+     *
+     * @param controllerCount                    Number of controllers to generate.
+     * @param seed                               Seed of the random choices of controllers and handler methods.
+     * @return                                   Returns generated application loaded by its own class loader.
+     */
+    public static SyntheticApplication generate(int controllerCount, long seed) {
+        Random random = new Random(seed);
+
+        Map<String, byte[]> classes = new LinkedHashMap<>();
+        List<String> controllerNames = new ArrayList<>();
+        List<String> ignoredClassNames = new ArrayList<>();
+
+        int handlerMethods = 0;
+        int disabledControllers = 0;
+        int disabledMethods = 0;
+        int unversionedControllers = 0;
+
+        int resource = 0;
+
+        while (controllerNames.size() < controllerCount) {
+            List<String> versions = chooseVersions(random);
+
+            for (String version : versions) {
+                if (controllerNames.size() == controllerCount) {
+                    break;
+                }
+
+                int index = controllerNames.size();
+                double kind = random.nextDouble();
+
+                ControllerSpec spec = new ControllerSpec();
+                spec.methods = chooseHandlerMethods(random);
+
+                if (kind < IGNORED_PACKAGE_RATIO) {
+                    spec.className = INTERNAL_PACKAGE + ".InternalController" + index;
+                    spec.path = "/internal/c" + index;
+                } else if (kind < IGNORED_PACKAGE_RATIO + IGNORED_CLASS_RATIO) {
+                    spec.className = API_PACKAGE + ".UnversionedController" + index;
+                    spec.path = "/unversioned/c" + index;
+
+                    ignoredClassNames.add(spec.className);
+                } else if (kind < IGNORED_PACKAGE_RATIO + IGNORED_CLASS_RATIO + SKIPPED_VERSIONING_RATIO) {
+                    spec.className = API_PACKAGE + ".SkippedController" + index;
+                    spec.path = "/skipped/c" + index;
+                    spec.skipVersioning = true;
+                } else {
+                    spec.className = API_PACKAGE + ".Resource" + resource + "V" + version.replace('.', '_') + "Controller";
+                    spec.path = "/resource" + resource;
+                    spec.version = version;
+                    spec.disabled = random.nextDouble() < DISABLED_CONTROLLER_RATIO;
+                }
+
+                if (null == spec.version) {
+                    unversionedControllers++;
+                }
+
+                if (spec.disabled) {
+                    disabledControllers++;
+                }
+
+                spec.disabledMethods = new boolean[spec.methods.size()];
+
+                for (int method = 0; method < spec.disabledMethods.length; method++) {
+                    spec.disabledMethods[method] = null != spec.version && random.nextDouble() < DISABLED_METHOD_RATIO;
+
+                    if (spec.disabledMethods[method]) {
+                        disabledMethods++;
+                    }
+                }
+
+                classes.put(spec.className, generateController(spec));
+                controllerNames.add(spec.className);
+
+                handlerMethods += spec.methods.size();
+            }
+
+            resource++;
+        }
+
+        String applicationClassName = APPLICATION_PACKAGE + ".SyntheticApplication" + controllerCount;
+        classes.put(applicationClassName, generateApplication(applicationClassName, ignoredClassNames));
+
+        SyntheticClassLoader classLoader = new SyntheticClassLoader(SyntheticApplicationGenerator.class.getClassLoader(), classes);
+
+        try {
+            List<Class<?>> controllers = new ArrayList<>(controllerNames.size());
+
+            for (String controllerName : controllerNames) {
+                controllers.add(classLoader.loadClass(controllerName));
+            }
+
+            return new SyntheticApplication(classLoader, classLoader.loadClass(applicationClassName), controllers, resource, handlerMethods,
+                                            disabledControllers, disabledMethods, unversionedControllers);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Unable to load generated application", e);
+        }
+    }
+
+    private static List<String> chooseVersions(Random random) {
+        List<String> versions = new ArrayList<>();
+        Collections.addAll(versions, VERSIONS);
+        Collections.shuffle(versions, random);
+
+        versions = new ArrayList<>(versions.subList(0, 1 + random.nextInt(MAX_VERSIONS_PER_RESOURCE)));
+        Collections.sort(versions);
+
+        return versions;
+    }
+
+    private static List<String[]> chooseHandlerMethods(Random random) {
+        List<String[]> methods = new ArrayList<>();
+        Collections.addAll(methods, HANDLER_METHODS);
+        Collections.shuffle(methods, random);
+
+        return new ArrayList<>(methods.subList(0, 1 + random.nextInt(MAX_METHODS_PER_CONTROLLER)));
+    }
+
+    private static byte[] generateController(ControllerSpec spec) {
+        String internalName = spec.className.replace('.', '/');
+
+        ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        classWriter.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, internalName, null, OBJECT_INTERNAL_NAME, null);
+
+        classWriter.visitAnnotation(Type.getDescriptor(RestController.class), true).visitEnd();
+
+        if (null != spec.version || spec.skipVersioning) {
+            AnnotationVisitor apiVersion = classWriter.visitAnnotation(Type.getDescriptor(ApiVersion.class), true);
+
+            if (null != spec.version) {
+                apiVersion.visit("value", spec.version);
+            }
+
+            if (spec.skipVersioning) {
+                apiVersion.visit("skipVersioning", Boolean.TRUE);
+            }
+
+            apiVersion.visitEnd();
+        }
+
+        if (spec.disabled) {
+            classWriter.visitAnnotation(Type.getDescriptor(DisabledApi.class), true).visitEnd();
+        }
+
+        visitRequestMapping(classWriter.visitAnnotation(Type.getDescriptor(RequestMapping.class), true), spec.path, null);
+
+        generateConstructor(classWriter);
+
+        for (int method = 0; method < spec.methods.size(); method++) {
+            String[] handlerMethod = spec.methods.get(method);
+
+            MethodVisitor methodVisitor = classWriter.visitMethod(Opcodes.ACC_PUBLIC, "handle" + method, "()Ljava/lang/String;", null, null);
+
+            if (spec.disabledMethods[method]) {
+                methodVisitor.visitAnnotation(Type.getDescriptor(DisabledApi.class), true).visitEnd();
+            }
+
+            visitRequestMapping(methodVisitor.visitAnnotation(Type.getDescriptor(RequestMapping.class), true), handlerMethod[1], handlerMethod[0]);
+
+            methodVisitor.visitCode();
+            methodVisitor.visitLdcInsn(handlerMethod[0] + " " + spec.path + handlerMethod[1]);
+            methodVisitor.visitInsn(Opcodes.ARETURN);
+            methodVisitor.visitMaxs(0, 0);
+            methodVisitor.visitEnd();
+        }
+
+        classWriter.visitEnd();
+
+        return classWriter.toByteArray();
+    }
+
+    private static byte[] generateApplication(String className, List<String> ignoredClassNames) {
+        ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        classWriter.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, className.replace('.', '/'), null, OBJECT_INTERNAL_NAME, null);
+
+        // Generated controllers are registered by the benchmark, only API versioning is component scanned.
+        AnnotationVisitor application = classWriter.visitAnnotation(Type.getDescriptor(SpringBootApplication.class), true);
+        visitArray(application, "scanBasePackages", Collections.singletonList(LIBRARY_PACKAGE));
+        application.visitEnd();
+
+        AnnotationVisitor apiVersionCheck = classWriter.visitAnnotation(Type.getDescriptor(ApiVersionCheck.class), true);
+        visitArray(apiVersionCheck, "scanPackages", Collections.singletonList(APPLICATION_PACKAGE));
+        visitArray(apiVersionCheck, "ignorePackages", Collections.singletonList(INTERNAL_PACKAGE));
+        visitArray(apiVersionCheck, "ignoreClasses", ignoredClassNames);
+        apiVersionCheck.visit("stopAppOnCheckFail", Boolean.TRUE);
+        apiVersionCheck.visitEnd();
+
+        generateConstructor(classWriter);
+
+        classWriter.visitEnd();
+
+        return classWriter.toByteArray();
+    }
+
+    private static void generateConstructor(ClassWriter classWriter) {
+        MethodVisitor constructor = classWriter.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, OBJECT_INTERNAL_NAME, "<init>", "()V", false);
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+    }
+
+    private static void visitRequestMapping(AnnotationVisitor requestMapping, String path, String requestMethod) {
+        visitArray(requestMapping, "value", Collections.singletonList(path));
+
+        if (null != requestMethod) {
+            AnnotationVisitor methods = requestMapping.visitArray("method");
+            methods.visitEnum(null, REQUEST_METHOD_DESCRIPTOR, requestMethod);
+            methods.visitEnd();
+        }
+
+        requestMapping.visitEnd();
+    }
+
+    private static void visitArray(AnnotationVisitor annotation, String name, List<String> values) {
+        AnnotationVisitor array = annotation.visitArray(name);
+
+        for (String value : values) {
+            array.visit(null, value);
+        }
+
+        array.visitEnd();
+    }
+
+    private static final class ControllerSpec {
+
+        private String className;
+
+        private String path;
+
+        private String version;
+
+        private boolean skipVersioning;
+
+        private boolean disabled;
+
+        private List<String[]> methods;
+
+        private boolean[] disabledMethods;
+
+    }
+
+    /**
+     * Class loader of a generated application. Bytecode of generated classes
+     * is served as class resources too, for metadata of the classes to be read
+     * like metadata of compiled classes.
+     */
+    private static final class SyntheticClassLoader extends ClassLoader {
+
+        private final Map<String, byte[]> classes;
+
+        private SyntheticClassLoader(ClassLoader parent, Map<String, byte[]> classes) {
+            super(parent);
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] classBytes = classes.get(name);
+
+            if (null == classBytes) {
+                throw new ClassNotFoundException(name);
+            }
+
+            return defineClass(name, classBytes, 0, classBytes.length);
+        }
+
+        @Override
+        public InputStream getResourceAsStream(String name) {
+            if (name.endsWith(".class")) {
+                byte[] classBytes = classes.get(name.substring(0, name.length() - ".class".length()).replace('/', '.'));
+
+                if (null != classBytes) {
+                    return new ByteArrayInputStream(classBytes);
+                }
+            }
+
+            return super.getResourceAsStream(name);
+        }
+
+    }
+
+}
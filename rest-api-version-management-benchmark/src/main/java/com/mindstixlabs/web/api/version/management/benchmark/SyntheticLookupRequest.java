@@ -0,0 +1,149 @@
+package com.mindstixlabs.web.api.version.management.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+
+import com.mindstixlabs.web.api.version.management.handlers.ApiVersioningWarmUpManager;
+
+/**
+ * <code>SyntheticLookupRequest</code> is a request synthesized to look up
+ * handler of a path in a handler mapping, without a servlet container.
+ *
+ * <p>Methods called during lookup are implemented by the wrapper, so that the
+ * request doesn't allocate while it is looked up and can be reused for every
+ * lookup of a path by a thread. The request is marked as warm-up request, so
+ * that its lookups are not recorded, captured or logged.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+final class SyntheticLookupRequest extends HttpServletRequestWrapper {
+
+    private final String method;
+
+    private final String lookupPath;
+
+    private final Map<String, Object> attributes = new HashMap<>();
+
+    SyntheticLookupRequest(String method, String lookupPath) {
+        super(createDefaultRequest());
+        this.method = method;
+        this.lookupPath = lookupPath;
+
+        attributes.put(ApiVersioningWarmUpManager.WARM_UP_REQUEST_ATTRIBUTE, Boolean.TRUE);
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getRequestURI() {
+        return lookupPath;
+    }
+
+    @Override
+    public String getServletPath() {
+        return lookupPath;
+    }
+
+    @Override
+    public String getContextPath() {
+        return "";
+    }
+
+    @Override
+    public String getPathInfo() {
+        return null;
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return null;
+    }
+
+    @Override
+    public String getContentType() {
+        return null;
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return null;
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        return Collections.emptyEnumeration();
+    }
+
+    @Override
+    public String getParameter(String name) {
+        return null;
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public DispatcherType getDispatcherType() {
+        return DispatcherType.REQUEST;
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        if (null == value) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, value);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributes.remove(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(new ArrayList<>(attributes.keySet()));
+    }
+
+    /**
+     * Request returning default values for methods not implemented by the wrapper.
+     */
+    private static HttpServletRequest createDefaultRequest() {
+        return (HttpServletRequest) Proxy.newProxyInstance(SyntheticLookupRequest.class.getClassLoader(), new Class<?>[] { HttpServletRequest.class }, (proxy, invokedMethod, args) -> {
+            Class<?> returnType = invokedMethod.getReturnType();
+
+            if (Enumeration.class.equals(returnType)) {
+                return Collections.emptyEnumeration();
+            } else if (boolean.class.equals(returnType)) {
+                return false;
+            } else if (int.class.equals(returnType)) {
+                return 0;
+            } else if (long.class.equals(returnType)) {
+                return 0L;
+            }
+
+            return null;
+        });
+    }
+
+}
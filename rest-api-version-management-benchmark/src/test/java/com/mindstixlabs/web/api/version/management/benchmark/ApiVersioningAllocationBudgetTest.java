@@ -0,0 +1,68 @@
+package com.mindstixlabs.web.api.version.management.benchmark;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * <code>ApiVersioningAllocationBudgetTest</code> measures lookups of every
+ * {@link ApiVersioningAllocationBenchmark.Scenario} of a generated application
+ * and fails if a scenario allocates more than its declared budget. The test
+ * is skipped if allocation per thread is not measured by the JVM.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+public class ApiVersioningAllocationBudgetTest {
+
+    private static final int CONTROLLERS = 100;
+
+    private static final long SEED = 42L;
+
+    private static final int ITERATIONS = 5000;
+
+    private static ClassLoader contextClassLoader;
+
+    private static ConfigurableApplicationContext context;
+
+    @BeforeClass
+    public static void startApplication() throws Exception {
+        assumeTrue("Allocation per thread is not measured by the JVM", ApiVersioningAllocationBenchmark.getThreadAllocatedBytes() >= 0);
+
+        contextClassLoader = Thread.currentThread().getContextClassLoader();
+        context = ApiVersioningStartupBenchmarkFork.startApplication(CONTROLLERS, SEED);
+    }
+
+    @AfterClass
+    public static void stopApplication() {
+        if (null != context) {
+            context.close();
+        }
+
+        if (null != contextClassLoader) {
+            Thread.currentThread().setContextClassLoader(contextClassLoader);
+        }
+    }
+
+    @Test
+    public void lookupsAllocateWithinBudgets() throws Exception {
+        List<Map<String, Object>> results = ApiVersioningAllocationBenchmark.measure(context, ITERATIONS);
+
+        assertFalse("No scenario is synthesized for the generated application", results.isEmpty());
+
+        for (Map<String, Object> result : results) {
+            assertTrue(String.format("Lookup [%s %s] of scenario [%s] of %s allocates [%s] bytes, above its budget of [%s] bytes", result.get("method"), result.get("path"),
+                                     result.get("scenario"), result.get("handlerMapping"), result.get("bytesPerLookup"), result.get("budgetBytes")),
+                       (Boolean) result.get("withinBudget"));
+        }
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.mindstixlabs.web.api.version.management.benchmark;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * <code>ApiVersioningConcurrencyStressTest</code> runs
+ * {@link ApiVersioningConcurrencyStress} against a generated application and
+ * fails if a lookup or a reader of the version registry or configuration sees
+ * a torn or stale snapshot.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+public class ApiVersioningConcurrencyStressTest {
+
+    private static final int CONTROLLERS = 50;
+
+    private static final long SEED = 42L;
+
+    private static final int REGISTRATIONS = 5000;
+
+    private static final int CONFIG_UPDATES = 5000;
+
+    private static ClassLoader contextClassLoader;
+
+    private static ConfigurableApplicationContext context;
+
+    @BeforeClass
+    public static void startApplication() throws Exception {
+        contextClassLoader = Thread.currentThread().getContextClassLoader();
+        context = ApiVersioningStartupBenchmarkFork.startApplication(CONTROLLERS, SEED);
+    }
+
+    @AfterClass
+    public static void stopApplication() {
+        if (null != context) {
+            context.close();
+        }
+
+        Thread.currentThread().setContextClassLoader(contextClassLoader);
+    }
+
+    @Test
+    public void readersSeeOnlyPublishedSnapshots() throws Exception {
+        ApiVersioningConcurrencyStress stress = ApiVersioningConcurrencyStress.create(context);
+
+        assertTrue("No lookups are resolved for the generated application", stress.getLookupCount() > 0);
+
+        stress.run(Math.max(3, Runtime.getRuntime().availableProcessors()), REGISTRATIONS, CONFIG_UPDATES);
+
+        assertEquals("Violations: " + stress.getViolationSamples(), 0L, stress.getViolations());
+    }
+
+}
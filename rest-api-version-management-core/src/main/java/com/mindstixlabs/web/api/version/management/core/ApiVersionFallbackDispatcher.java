@@ -0,0 +1,36 @@
+package com.mindstixlabs.web.api.version.management.core;
+
+/**
+ * <code>ApiVersionFallbackDispatcher</code> resolves version to be looked up
+ * during fallback of API versions. Implementations are generated at runtime
+ * from the version index, with registered versions, minimum and current
+ * version support compiled in as constants, and resolve the same versions as
+ * {@link ApiVersionResolver}.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+public abstract class ApiVersionFallbackDispatcher {
+
+    /**
+     * Version returned if no version is to be looked up during fallback.
+     */
+    public static final double NO_VERSION = Double.NaN;
+
+    /**
+     * Code of base mapping which is not in the version index.
+     */
+    public static final int UNKNOWN_MAPPING = -1;
+
+    /**
+     * This method is used to resolve version to be looked up for requested
+     * version which is not available.
+     *
+     * @param mappingCode                        Code of base mapping key assigned by the generator or {@link #UNKNOWN_MAPPING}.
+     * @param contextIndex                       Index of API context of the request.
+     * @param requestedVersion                   Requested API version.
+     * @return                                   Returns version to be looked up or {@link #NO_VERSION}.
+     */
+    public abstract double resolve(int mappingCode, int contextIndex, double requestedVersion);
+
+}
@@ -0,0 +1,234 @@
+package com.mindstixlabs.web.api.version.management.core;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <code>ApiVersionIndex</code> is an immutable index of API versions
+ * registered for base mappings, used to resolve fallback versions.
+ *
+ * <p>Versions of every base mapping key are kept as a primitive array sorted
+ * in descending order, along with versions disabled at runtime, so that
+ * versions are looked up without boxing. Base mapping keys registered with URI
+ * template variables or wildcards are compiled into an
+ * {@link ApiVersionMappingPatternIndex}, so that concrete paths are resolved to
+ * their patterns. A new index is built whenever versions are registered or
+ * disabled, the index carries the generation of registry it is built from.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+public final class ApiVersionIndex {
+
+    /**
+     * Index without any version.
+     */
+    public static final ApiVersionIndex EMPTY = new ApiVersionIndex(-1L, Collections.<String, double[]>emptyMap(), Collections.<String, double[]>emptyMap(), ApiVersionMappingPatternIndex.EMPTY);
+
+    private static final double[] NO_VERSIONS = new double[0];
+
+    private final long generation;
+
+    /**
+     * Versions registered for base mapping keys in descending order.
+     */
+    private final Map<String, double[]> versions;
+
+    /**
+     * Versions disabled at runtime for base mapping keys in ascending order.
+     */
+    private final Map<String, double[]> disabledVersions;
+
+    private final ApiVersionMappingPatternIndex patternIndex;
+
+    private ApiVersionIndex(long generation, Map<String, double[]> versions, Map<String, double[]> disabledVersions, ApiVersionMappingPatternIndex patternIndex) {
+        this.generation = generation;
+        this.versions = versions;
+        this.disabledVersions = disabledVersions;
+        this.patternIndex = patternIndex;
+    }
+
+    /**
+     * This method is used to build index of versions registered for base mappings.
+     *
+     * @param generation                         Generation of registry the versions are read from.
+     * @param registeredVersions                 Versions registered for base mapping keys. for eg. /users -> [2.0, 1.0]
+     * @param runtimeDisabledVersions            Versions disabled at runtime for base mapping keys.
+     * @return                                   Returns immutable index.
+     */
+    public static ApiVersionIndex build(long generation, Map<String, ? extends Collection<Double>> registeredVersions, Map<String, ? extends Collection<Double>> runtimeDisabledVersions) {
+        Map<String, double[]> versions = new HashMap<>(Math.max(16, registeredVersions.size() * 2));
+
+        for (Map.Entry<String, ? extends Collection<Double>> entry : registeredVersions.entrySet()) {
+            double[] sortedVersions = toSortedArray(entry.getValue());
+
+            // Reversing ascending order of versions.
+            for (int left = 0, right = sortedVersions.length - 1; left < right; left++, right--) {
+                double version = sortedVersions[left];
+                sortedVersions[left] = sortedVersions[right];
+                sortedVersions[right] = version;
+            }
+
+            versions.put(entry.getKey(), sortedVersions);
+        }
+
+        Map<String, double[]> disabledVersions = new HashMap<>();
+
+        for (Map.Entry<String, ? extends Collection<Double>> entry : runtimeDisabledVersions.entrySet()) {
+            disabledVersions.put(entry.getKey(), toSortedArray(entry.getValue()));
+        }
+
+        return new ApiVersionIndex(generation, Collections.unmodifiableMap(versions), Collections.unmodifiableMap(disabledVersions),
+                                   ApiVersionMappingPatternIndex.compile(versions.keySet()));
+    }
+
+    private static double[] toSortedArray(Collection<Double> versions) {
+        double[] sortedVersions = new double[versions.size()];
+        int index = 0;
+
+        for (Double version : versions) {
+            sortedVersions[index++] = version;
+        }
+
+        Arrays.sort(sortedVersions);
+
+        return sortedVersions;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * This method is used to get number of base mapping keys in the index.
+     *
+     * @return                                   Returns number of base mapping keys.
+     */
+    public int size() {
+        return versions.size();
+    }
+
+    /**
+     * This method is used to get base mapping keys having registered versions.
+     *
+     * @return                                   Returns unmodifiable set of base mapping keys.
+     */
+    public Set<String> getMappingKeys() {
+        return versions.keySet();
+    }
+
+    /**
+     * This method is used to get base mapping keys having versions disabled at runtime.
+     *
+     * @return                                   Returns unmodifiable set of base mapping keys.
+     */
+    public Set<String> getDisabledMappingKeys() {
+        return disabledVersions.keySet();
+    }
+
+    /**
+     * This method is used to get versions disabled at runtime for base mapping key in ascending order.
+     *
+     * @param mappingKey                         Base mapping key. for eg. /users
+     * @return                                   Returns disabled versions, empty if none is disabled. The array must not be modified.
+     */
+    public double[] getDisabledVersions(String mappingKey) {
+        double[] mappingDisabledVersions = disabledVersions.get(mappingKey);
+
+        return null == mappingDisabledVersions ? NO_VERSIONS : mappingDisabledVersions;
+    }
+
+    /**
+     * This method is used to resolve key of base mapping in the index for
+     * base mapping key of requested path. Keys registered as they are take
+     * precedence over patterns. for eg. /users/42 -> /users/{id}
+     *
+     * @param mappingKey                         Base mapping key of requested path.
+     * @return                                   Returns key of the registered pattern matching the path, or the given key if
+     *                                           it is registered as it is or no pattern matches it.
+     */
+    public String resolveMappingKey(String mappingKey) {
+        if (versions.containsKey(mappingKey)) {
+            return mappingKey;
+        }
+
+        String mappingPattern = patternIndex.resolve(mappingKey);
+
+        return null == mappingPattern ? mappingKey : mappingPattern;
+    }
+
+    /**
+     * This method is used to get versions registered for base mapping key in
+     * descending order, including versions disabled at runtime.
+     *
+     * @param mappingKey                         Base mapping key. for eg. /users
+     * @return                                   Returns versions, empty if the key is not in the index. The array must not be modified.
+     */
+    public double[] getVersions(String mappingKey) {
+        double[] mappingVersions = versions.get(mappingKey);
+
+        return null == mappingVersions ? NO_VERSIONS : mappingVersions;
+    }
+
+    /**
+     * This method is used to check if version is registered for base mapping
+     * key and is not disabled at runtime.
+     *
+     * @param mappingKey                         Base mapping key. for eg. /users
+     * @param version                            API version to be checked.
+     * @return                                   Returns true if the version can be looked up for the mapping.
+     */
+    public boolean isAvailable(String mappingKey, double version) {
+        double[] mappingVersions = getVersions(mappingKey);
+
+        for (int index = 0; index < mappingVersions.length; index++) {
+            if (mappingVersions[index] == version) {
+                return Boolean.FALSE.equals(isDisabled(mappingKey, version));
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * This method is used to check if version is disabled at runtime for base mapping key.
+     *
+     * @param mappingKey                         Base mapping key. for eg. /users
+     * @param version                            API version to be checked.
+     * @return                                   Returns true if the version is disabled at runtime.
+     */
+    public boolean isDisabled(String mappingKey, double version) {
+        if (disabledVersions.isEmpty()) {
+            return false;
+        }
+
+        double[] mappingDisabledVersions = disabledVersions.get(mappingKey);
+
+        return null != mappingDisabledVersions && Arrays.binarySearch(mappingDisabledVersions, version) >= 0;
+    }
+
+    /**
+     * This method is used to get the highest version of base mapping key less
+     * than given version, skipping versions disabled at runtime.
+     *
+     * @param mappingKey                         Base mapping key. for eg. /users
+     * @param version                            Version below which previous version is to be found.
+     * @return                                   Returns previous version or {@link ApiVersionFallbackDispatcher#NO_VERSION}.
+     */
+    public double getPreviousVersion(String mappingKey, double version) {
+        double[] mappingVersions = getVersions(mappingKey);
+
+        for (int index = 0; index < mappingVersions.length; index++) {
+            if (mappingVersions[index] < version && Boolean.FALSE.equals(isDisabled(mappingKey, mappingVersions[index]))) {
+                return mappingVersions[index];
+            }
+        }
+
+        return ApiVersionFallbackDispatcher.NO_VERSION;
+    }
+
+}
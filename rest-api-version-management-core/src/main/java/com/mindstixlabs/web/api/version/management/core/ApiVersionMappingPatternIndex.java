@@ -0,0 +1,420 @@
+package com.mindstixlabs.web.api.version.management.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * <code>ApiVersionMappingPatternIndex</code> is a compiled segment index of
+ * base mapping keys registered with URI template variables or wildcards. It
+ * resolves base mapping key of a concrete path to the key of registered pattern
+ * in a single walk of the path segments. for eg. /users/42 -> /users/{id}
+ *
+ * <p>Segments are matched in the order literal segment, URI template variable
+ * or '*' wildcard spanning the whole segment, other segment patterns, and
+ * '**' wildcard, backtracking only if the path doesn't match the rest of the
+ * preferred pattern. Literal segments and whole segment wildcards are matched
+ * without allocating, other segment patterns and patterns having '**' are
+ * compiled to regular expressions with the semantics of Ant-style patterns
+ * used by Spring MVC, for eg. '?', '*', {id} and {id:[0-9]+}.
+ *
+ * <p>Instances are immutable and are compiled again whenever a base mapping
+ * key having pattern is cached.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+public final class ApiVersionMappingPatternIndex {
+
+    /**
+     * Index without any pattern.
+     */
+    public static final ApiVersionMappingPatternIndex EMPTY = new ApiVersionMappingPatternIndex(new Node(), 0);
+
+    private static final String DOUBLE_WILDCARD_SEGMENT = "**";
+
+    private static final String WILDCARD_SEGMENT = "*";
+
+    private final Node root;
+
+    private final int patterns;
+
+    private ApiVersionMappingPatternIndex(Node root, int patterns) {
+        this.root = root;
+        this.patterns = patterns;
+    }
+
+    /**
+     * This method is used to check if base mapping key has URI template
+     * variables or wildcards.
+     *
+     * @param mappingKey                         Base mapping key. for eg. /users/{id}
+     * @return                                   Returns true if the key is a pattern.
+     */
+    public static boolean isPattern(String mappingKey) {
+        return indexOfPatternCharacter(mappingKey, "*?{") >= 0;
+    }
+
+    /**
+     * This method is used to compile index of base mapping keys having
+     * patterns. Keys are compiled in sorted order, so that the first of
+     * patterns which can't be told apart by segments is resolved.
+     *
+     * @param mappingKeys                        Base mapping keys, keys without pattern are skipped.
+     * @return                                   Returns compiled index.
+     */
+    public static ApiVersionMappingPatternIndex compile(Collection<String> mappingKeys) {
+        NodeBuilder root = new NodeBuilder();
+        int patterns = 0;
+
+        for (String mappingKey : new TreeSet<>(mappingKeys)) {
+            if (isPattern(mappingKey)) {
+                root.add(mappingKey, 0);
+                patterns++;
+            }
+        }
+
+        return 0 == patterns ? EMPTY : new ApiVersionMappingPatternIndex(root.build(), patterns);
+    }
+
+    public int getPatterns() {
+        return patterns;
+    }
+
+    /**
+     * This method is used to resolve base mapping key of concrete path to key
+     * of registered pattern matching it.
+     *
+     * @param mappingKey                         Base mapping key of concrete path. for eg. /users/42 or partner:/users/42
+     * @return                                   Returns key of the pattern or null if no pattern matches.
+     */
+    public String resolve(String mappingKey) {
+        if (0 == patterns) {
+            return null;
+        }
+
+        // A trailing slash is matched as the mapping without it, as done by trailing slash matching of mappings.
+        int end = mappingKey.length() > 1 && mappingKey.charAt(mappingKey.length() - 1) == '/' ? mappingKey.length() - 1 : mappingKey.length();
+
+        return resolve(root, mappingKey, 0, end);
+    }
+
+    private static String resolve(Node node, String mappingKey, int start, int end) {
+        if (start > end) {
+            return node.pattern;
+        }
+
+        int slashIndex = mappingKey.indexOf('/', start);
+        int segmentEnd = slashIndex < 0 || slashIndex > end ? end : slashIndex;
+
+        Node literalChild = node.getLiteralChild(mappingKey, start, segmentEnd);
+
+        if (null != literalChild) {
+            String pattern = resolve(literalChild, mappingKey, segmentEnd + 1, end);
+
+            if (null != pattern) {
+                return pattern;
+            }
+        }
+
+        // URI template variables don't match empty segments.
+        if (null != node.variableChild && segmentEnd > start) {
+            String pattern = resolve(node.variableChild, mappingKey, segmentEnd + 1, end);
+
+            if (null != pattern) {
+                return pattern;
+            }
+        }
+
+        if (node.segmentPatterns.length > 0) {
+            for (int index = 0; index < node.segmentPatterns.length; index++) {
+                if (node.segmentPatterns[index].matcher(mappingKey).region(start, segmentEnd).matches()) {
+                    String pattern = resolve(node.segmentPatternChildren[index], mappingKey, segmentEnd + 1, end);
+
+                    if (null != pattern) {
+                        return pattern;
+                    }
+                }
+            }
+        }
+
+        for (int index = 0; index < node.doubleWildcardPatterns.length; index++) {
+            if (node.doubleWildcardPatterns[index].matcher(mappingKey).region(0, end).matches()) {
+                return node.doubleWildcardKeys[index];
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Compiled node of the index. Literal children are kept in an open
+     * addressing table keyed by hash code of the segment, so that segments are
+     * looked up without creating substrings of the path.
+     */
+    private static final class Node {
+
+        private String[] literalSegments = new String[0];
+
+        private Node[] literalChildren = new Node[0];
+
+        private int literalMask = -1;
+
+        private Node variableChild;
+
+        private Pattern[] segmentPatterns = new Pattern[0];
+
+        private Node[] segmentPatternChildren = new Node[0];
+
+        /**
+         * Keys of patterns having '**' wildcard from this segment.
+         */
+        private String[] doubleWildcardKeys = new String[0];
+
+        /**
+         * Patterns having '**' wildcard from this segment compiled to match the whole path.
+         */
+        private Pattern[] doubleWildcardPatterns = new Pattern[0];
+
+        /**
+         * Key of the pattern ending at this node.
+         */
+        private String pattern;
+
+        private Node getLiteralChild(String mappingKey, int start, int end) {
+            if (literalMask < 0) {
+                return null;
+            }
+
+            int slot = hash(mappingKey, start, end) & literalMask;
+
+            while (null != literalSegments[slot]) {
+                String literalSegment = literalSegments[slot];
+
+                if (literalSegment.length() == end - start && mappingKey.regionMatches(start, literalSegment, 0, end - start)) {
+                    return literalChildren[slot];
+                }
+
+                slot = (slot + 1) & literalMask;
+            }
+
+            return null;
+        }
+
+    }
+
+    /**
+     * Mutable node used while compiling the index.
+     */
+    private static final class NodeBuilder {
+
+        private final Map<String, NodeBuilder> literalChildren = new LinkedHashMap<>();
+
+        private final Map<String, NodeBuilder> segmentPatternChildren = new LinkedHashMap<>();
+
+        private final List<String> doubleWildcardPatterns = new ArrayList<>();
+
+        private NodeBuilder variableChild;
+
+        private String pattern;
+
+        private void add(String mappingKey, int start) {
+            if (start > mappingKey.length()) {
+                if (null == pattern) {
+                    pattern = mappingKey;
+                }
+
+                return;
+            }
+
+            int slashIndex = mappingKey.indexOf('/', start);
+            int segmentEnd = slashIndex < 0 ? mappingKey.length() : slashIndex;
+
+            String segment = mappingKey.substring(start, segmentEnd);
+
+            if (segment.contains(DOUBLE_WILDCARD_SEGMENT)) {
+                doubleWildcardPatterns.add(mappingKey);
+                return;
+            }
+
+            NodeBuilder child;
+
+            if (Boolean.FALSE.equals(isPattern(segment))) {
+                child = literalChildren.computeIfAbsent(segment, literal -> new NodeBuilder());
+            } else if (WILDCARD_SEGMENT.equals(segment) || isVariableSegment(segment)) {
+                if (null == variableChild) {
+                    variableChild = new NodeBuilder();
+                }
+
+                child = variableChild;
+            } else {
+                child = segmentPatternChildren.computeIfAbsent(segment, segmentPattern -> new NodeBuilder());
+            }
+
+            child.add(mappingKey, segmentEnd + 1);
+        }
+
+        /**
+         * Checking if segment is a single URI template variable without regular expression. for eg. {id}
+         */
+        private static boolean isVariableSegment(String segment) {
+            return segment.length() > 2 && segment.charAt(0) == '{' && segment.indexOf('}') == segment.length() - 1
+                   && indexOfPatternCharacter(segment.substring(1, segment.length() - 1), "{:*?") < 0;
+        }
+
+        private Node build() {
+            Node node = new Node();
+            node.pattern = pattern;
+
+            if (Boolean.FALSE.equals(literalChildren.isEmpty())) {
+                int capacity = Integer.highestOneBit(literalChildren.size() * 2 - 1) << 1;
+
+                node.literalSegments = new String[capacity];
+                node.literalChildren = new Node[capacity];
+                node.literalMask = capacity - 1;
+
+                for (Map.Entry<String, NodeBuilder> entry : literalChildren.entrySet()) {
+                    int slot = entry.getKey().hashCode() & node.literalMask;
+
+                    while (null != node.literalSegments[slot]) {
+                        slot = (slot + 1) & node.literalMask;
+                    }
+
+                    node.literalSegments[slot] = entry.getKey();
+                    node.literalChildren[slot] = entry.getValue().build();
+                }
+            }
+
+            if (null != variableChild) {
+                node.variableChild = variableChild.build();
+            }
+
+            if (Boolean.FALSE.equals(segmentPatternChildren.isEmpty())) {
+                node.segmentPatterns = new Pattern[segmentPatternChildren.size()];
+                node.segmentPatternChildren = new Node[segmentPatternChildren.size()];
+
+                int index = 0;
+
+                for (Map.Entry<String, NodeBuilder> entry : segmentPatternChildren.entrySet()) {
+                    node.segmentPatterns[index] = Pattern.compile(toSegmentRegex(entry.getKey()));
+                    node.segmentPatternChildren[index] = entry.getValue().build();
+                    index++;
+                }
+            }
+
+            node.doubleWildcardKeys = doubleWildcardPatterns.toArray(new String[doubleWildcardPatterns.size()]);
+            node.doubleWildcardPatterns = new Pattern[node.doubleWildcardKeys.length];
+
+            for (int index = 0; index < node.doubleWildcardKeys.length; index++) {
+                node.doubleWildcardPatterns[index] = Pattern.compile(toPathRegex(node.doubleWildcardKeys[index]));
+            }
+
+            return node;
+        }
+
+    }
+
+    /**
+     * This method is used to convert segment pattern to regular expression.
+     * '?' matches a character, '*' matches zero or more characters, {name}
+     * matches zero or more characters and {name:regex} matches the regex,
+     * within the segment.
+     */
+    private static String toSegmentRegex(String segmentPattern) {
+        StringBuilder regex = new StringBuilder();
+        int literalStart = 0;
+
+        for (int index = 0; index < segmentPattern.length(); index++) {
+            char character = segmentPattern.charAt(index);
+
+            if (character != '?' && character != '*' && character != '{') {
+                continue;
+            }
+
+            if (index > literalStart) {
+                regex.append(Pattern.quote(segmentPattern.substring(literalStart, index)));
+            }
+
+            if (character == '?') {
+                regex.append("[^/]");
+            } else if (character == '*') {
+                regex.append("[^/]*");
+            } else {
+                // Finding the closing brace of the variable, regex of the variable may have braces.
+                int depth = 1;
+                int variableEnd = index + 1;
+
+                while (variableEnd < segmentPattern.length() && depth > 0) {
+                    char variableCharacter = segmentPattern.charAt(variableEnd);
+                    depth += variableCharacter == '{' ? 1 : variableCharacter == '}' ? -1 : 0;
+                    variableEnd++;
+                }
+
+                String variable = segmentPattern.substring(index + 1, Math.max(index + 1, variableEnd - 1));
+                int separatorIndex = variable.indexOf(':');
+
+                regex.append('(').append(separatorIndex < 0 ? "[^/]*" : variable.substring(separatorIndex + 1)).append(')');
+
+                index = variableEnd - 1;
+            }
+
+            literalStart = index + 1;
+        }
+
+        if (literalStart < segmentPattern.length()) {
+            regex.append(Pattern.quote(segmentPattern.substring(literalStart)));
+        }
+
+        return regex.toString();
+    }
+
+    /**
+     * This method is used to convert pattern having '**' wildcard to regular
+     * expression matching the whole path, '**' segment matches zero or more
+     * segments.
+     */
+    private static String toPathRegex(String pattern) {
+        StringBuilder regex = new StringBuilder();
+        String[] segments = pattern.split("/", -1);
+
+        for (int index = 0; index < segments.length; index++) {
+            String separator = 0 == index ? "" : "/";
+
+            if (DOUBLE_WILDCARD_SEGMENT.equals(segments[index])) {
+                regex.append("(?:").append(separator).append(".*)?");
+            } else {
+                regex.append(Pattern.quote(separator)).append(toSegmentRegex(segments[index]));
+            }
+        }
+
+        return regex.toString();
+    }
+
+    private static int indexOfPatternCharacter(String value, String patternCharacters) {
+        for (int index = 0; index < value.length(); index++) {
+            if (patternCharacters.indexOf(value.charAt(index)) >= 0) {
+                return index;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Computing hash code of the segment as computed by {@link String#hashCode()} without creating a substring.
+     */
+    private static int hash(String value, int start, int end) {
+        int hash = 0;
+
+        for (int index = start; index < end; index++) {
+            hash = 31 * hash + value.charAt(index);
+        }
+
+        return hash;
+    }
+
+}
@@ -0,0 +1,138 @@
+package com.mindstixlabs.web.api.version.management.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <code>ApiVersionResolver</code> resolves version of an API serving a lookup
+ * path using API versioning contexts and an {@link ApiVersionIndex}, without
+ * any web framework.
+ *
+ * <p>API versioning context and requested version are matched using
+ * {@link ApiVersioningContextMatcher}. If requested version is not available
+ * for the base mapping, versions are resolved the same way as fallback of
+ * Spring MVC handler mapping, i.e. maximum supported version if requested
+ * version is above it and then previous versions of the base mapping, not
+ * below minimum supported version. Instances are immutable and can be shared
+ * across threads, for eg. by a servlet filter or an edge service.
+ *
+ * <p>The resolver knows only versions of base mappings, hence it may resolve a
+ * higher version than Spring MVC handler mapping, which skips versions whose
+ * handler methods can't serve request method, consumes or produces conditions
+ * of the request. Requested version is also compared by value, for eg.
+ * /api/v2/users is resolved to version 2.0, while handler mapping matches the
+ * version as text of registered mappings and falls back past it if it is
+ * registered as 2.0. In both cases, the version served by handler mapping is
+ * one of the versions the resolved version falls back to, which is checked by
+ * {@link #isFallbackVersion(String, ApiVersionIndex, double)}.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+public final class ApiVersionResolver {
+
+    private final List<ApiVersioningContext> contexts;
+
+    private final ApiVersioningContextMatcher contextMatcher;
+
+    public ApiVersionResolver(List<ApiVersioningContext> contexts) {
+        this.contexts = Collections.unmodifiableList(new ArrayList<>(contexts));
+        this.contextMatcher = new ApiVersioningContextMatcher(this.contexts);
+    }
+
+    public List<ApiVersioningContext> getContexts() {
+        return contexts;
+    }
+
+    public ApiVersioningContextMatcher getContextMatcher() {
+        return contextMatcher;
+    }
+
+    /**
+     * This method is used to resolve version of an API serving lookup path.
+     *
+     * @param lookupPath                         Lookup path for requested API. for eg. /api/v2.5/users/42
+     * @param index                              Index of versions registered for base mappings.
+     * @return                                   Returns version serving the lookup path or {@link ApiVersionFallbackDispatcher#NO_VERSION}
+     *                                           if the path is not versioned or no version of the API can serve it.
+     */
+    public double resolveVersion(String lookupPath, ApiVersionIndex index) {
+        return resolveVersion(lookupPath, index, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * This method is used to check if version serves lookup path when versions
+     * resolved before it are skipped, for eg. as they can't serve request method
+     * or media types, i.e. the version is one of the versions lookup path falls
+     * back to. Unresolved version is reached once all versions are skipped.
+     *
+     * @param lookupPath                         Lookup path for requested API. for eg. /api/v2.5/users/42
+     * @param index                              Index of versions registered for base mappings.
+     * @param version                            Version to be checked, {@link ApiVersionFallbackDispatcher#NO_VERSION} if unresolved.
+     * @return                                   Returns true if the version is available and reached by fallback of the lookup path or if it is unresolved.
+     */
+    public boolean isFallbackVersion(String lookupPath, ApiVersionIndex index, double version) {
+        return Double.isNaN(version) || resolveVersion(lookupPath, index, version) == version;
+    }
+
+    /**
+     * This method is used to resolve version of an API serving lookup path,
+     * skipping versions above the given version.
+     */
+    private double resolveVersion(String lookupPath, ApiVersionIndex index, double maxVersion) {
+        long contextMatch = contextMatcher.match(lookupPath);
+
+        if (contextMatch == ApiVersioningContextMatcher.NO_MATCH) {
+            return ApiVersionFallbackDispatcher.NO_VERSION;
+        }
+
+        ApiVersioningContext context = contexts.get(ApiVersioningContextMatcher.getContextIndex(contextMatch));
+
+        int versionEndIndex = ApiVersioningContextMatcher.getVersionEndIndex(contextMatch);
+
+        double version = ApiVersioningContextMatcher.parseVersion(lookupPath, context.getApiAndVersionContextLength(), versionEndIndex);
+
+        if (version < context.getMinVersionSupport()) {
+            return ApiVersionFallbackDispatcher.NO_VERSION;
+        }
+
+        String mappingKey = index.resolveMappingKey(context.getMappingKey(lookupPath.substring(versionEndIndex)));
+
+        // Every fallback step resolves a lower version, or maximum supported version once.
+        while (Boolean.FALSE.equals(Double.isNaN(version))) {
+            if (version <= maxVersion && index.isAvailable(mappingKey, version)) {
+                return version;
+            }
+
+            version = resolveFallbackVersion(context, index, mappingKey, version);
+        }
+
+        return version;
+    }
+
+    /**
+     * This method is used to resolve version to be looked up for requested
+     * version which is not available for base mapping.
+     *
+     * @param context                            API context of the request.
+     * @param index                              Index of versions registered for base mappings.
+     * @param mappingKey                         Base mapping key resolved by the index. for eg. /users or partner:/users
+     * @param requestedVersion                   Requested API version.
+     * @return                                   Returns version not less than minimum supported version or
+     *                                           {@link ApiVersionFallbackDispatcher#NO_VERSION}.
+     */
+    public static double resolveFallbackVersion(ApiVersioningContext context, ApiVersionIndex index, String mappingKey, double requestedVersion) {
+        double previousVersion;
+
+        // Starting lookup from maximum supported version, if requested version is more than maximum supported version and it is not disabled.
+        if (requestedVersion > context.getCurrentVersionSupport() && Boolean.FALSE.equals(index.isDisabled(mappingKey, context.getCurrentVersionSupport()))) {
+            previousVersion = context.getCurrentVersionSupport();
+        } else {
+            previousVersion = index.getPreviousVersion(mappingKey, Math.min(requestedVersion, context.getCurrentVersionSupport()));
+        }
+
+        return previousVersion >= context.getMinVersionSupport() ? previousVersion : ApiVersionFallbackDispatcher.NO_VERSION;
+    }
+
+}
@@ -0,0 +1,202 @@
+package com.mindstixlabs.web.api.version.management.core;
+
+/**
+ * <code>ApiVersioningContext</code> is an immutable API surface with its own
+ * API context, version context and version line. for eg. /api/v, /partner/v.
+ *
+ * <p>The primary context is configured using
+ * <code>rest.api.version.management.apiContext</code> and
+ * <code>rest.api.version.management.versionContext</code> and has empty name.
+ * Additional contexts are configured by name using
+ * <code>rest.api.version.management.contexts</code>.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+public final class ApiVersioningContext {
+
+    /**
+     * Separator between context name and mapping in mapping keys of additional contexts.
+     */
+    private static final String MAPPING_KEY_SEPARATOR = ":";
+
+    private static final String SLASH = "/";
+
+    /**
+     * Name of the context, empty for the primary context.
+     */
+    private final String name;
+
+    /**
+     * API context for versioned APIs. for eg. /api, /userapi etc.
+     */
+    private final String apiContext;
+
+    /**
+     * Version context for versioned APIs. for eg. /v, /version etc.
+     */
+    private final String versionContext;
+
+    /**
+     * Minimum version supported for the context.
+     */
+    private final double minVersionSupport;
+
+    /**
+     * Current (maximum) version supported for the context.
+     */
+    private final double currentVersionSupport;
+
+    /**
+     * Normalized concatenated string for API context and version context. for eg. /api/v
+     */
+    private final String apiAndVersionContext;
+
+    /**
+     * Length of concatenated string for API context and version context.
+     */
+    private final int apiAndVersionContextLength;
+
+    /**
+     * Addition of 1 and Number of '/'s coming in the apiAndVersionContext.
+     */
+    private final int postApiAndVersionContextOrdinal;
+
+    public ApiVersioningContext(String name, String apiContext, String versionContext, double minVersionSupport, double currentVersionSupport) {
+        this.name = name;
+        this.apiContext = apiContext;
+        this.versionContext = versionContext;
+        this.minVersionSupport = minVersionSupport;
+        this.currentVersionSupport = currentVersionSupport;
+
+        this.apiAndVersionContext = buildApiAndVersionContext(apiContext, versionContext);
+        this.apiAndVersionContextLength = this.apiAndVersionContext.length();
+
+        // For example, postApiAndVersionContextOrdinal for /api/v = 2+ 1 = 3
+        this.postApiAndVersionContextOrdinal = countSlashes(this.apiAndVersionContext) + 1;
+    }
+
+    /**
+     * This method is used to get copy of this context with given minimum and
+     * current version support.
+     *
+     * @param minVersionSupport                  Minimum version supported for the context.
+     * @param currentVersionSupport              Current version supported for the context.
+     * @return                                   Returns new context.
+     */
+    public ApiVersioningContext withVersionSupport(double minVersionSupport, double currentVersionSupport) {
+        return new ApiVersioningContext(name, apiContext, versionContext, minVersionSupport, currentVersionSupport);
+    }
+
+    /**
+     * This method is used to get key identifying base mapping within this
+     * context. Mappings of the primary context are used as they are, mappings
+     * of additional contexts are prefixed with context name. for eg. partner:/users
+     *
+     * @param mapping                            Base mapping. for eg. /users
+     * @return                                   Returns key for the mapping.
+     */
+    public String getMappingKey(String mapping) {
+        return isPrimary() ? mapping : name + MAPPING_KEY_SEPARATOR + mapping;
+    }
+
+    /**
+     * This method is used to check if this is the primary context.
+     *
+     * @return                                   Returns true if context name is empty.
+     */
+    public boolean isPrimary() {
+        return name.isEmpty();
+    }
+
+    /**
+     * This method is used to build normalized API versioning base URL from API
+     * context and version context, removing start and end '/' from the contexts.
+     */
+    private static String buildApiAndVersionContext(String apiContext, String versionContext) {
+        String apiVersioningBaseUrl = SLASH;
+
+        String normalizedApiContext = stripSlashes(apiContext);
+
+        // Concatenating apiContext if not empty/null.
+        if (Boolean.FALSE.equals(normalizedApiContext.trim().isEmpty())) {
+            apiVersioningBaseUrl = apiVersioningBaseUrl.concat(normalizedApiContext);
+        }
+
+        String normalizedVersionContext = stripSlashes(versionContext);
+
+        // Concatenating versionContext if not empty/null.
+        if (Boolean.FALSE.equals(normalizedVersionContext.trim().isEmpty())) {
+            apiVersioningBaseUrl = apiVersioningBaseUrl.concat(SLASH).concat(normalizedVersionContext);
+        }
+
+        return apiVersioningBaseUrl;
+    }
+
+    /**
+     * Removing '/' from start and end of the context, null context is taken as empty.
+     */
+    private static String stripSlashes(String context) {
+        if (null == context) {
+            return "";
+        }
+
+        int start = 0;
+        int end = context.length();
+
+        while (start < end && context.charAt(start) == '/') {
+            start++;
+        }
+
+        while (end > start && context.charAt(end - 1) == '/') {
+            end--;
+        }
+
+        return context.substring(start, end);
+    }
+
+    private static int countSlashes(String value) {
+        int slashes = 0;
+
+        for (int index = 0; index < value.length(); index++) {
+            if (value.charAt(index) == '/') {
+                slashes++;
+            }
+        }
+
+        return slashes;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getApiContext() {
+        return apiContext;
+    }
+
+    public String getVersionContext() {
+        return versionContext;
+    }
+
+    public double getMinVersionSupport() {
+        return minVersionSupport;
+    }
+
+    public double getCurrentVersionSupport() {
+        return currentVersionSupport;
+    }
+
+    public String getApiAndVersionContext() {
+        return apiAndVersionContext;
+    }
+
+    public int getApiAndVersionContextLength() {
+        return apiAndVersionContextLength;
+    }
+
+    public int getPostApiAndVersionContextOrdinal() {
+        return postApiAndVersionContextOrdinal;
+    }
+
+}
@@ -0,0 +1,218 @@
+package com.mindstixlabs.web.api.version.management.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <code>ApiVersioningContextMatcher</code> is an immutable prefix automaton
+ * used to detect API versioning context of a lookup path.
+ *
+ * <p>The API and version contexts of all the configured contexts are compiled
+ * into a character trie anchored at start of the lookup path. A lookup path is
+ * walked once, character by character, to find the longest matching context
+ * followed by a valid API version and a '/'. Lookup paths not starting with
+ * any of the contexts are rejected at the first character which doesn't
+ * match, so that non-API paths skip API versioning.
+ *
+ * <p>The result of a match is encoded in a single <code>long</code> holding
+ * index of the matched context and end index of the version in lookup path.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+public final class ApiVersioningContextMatcher {
+
+    /**
+     * Result returned when lookup path doesn't have API versioning context and valid version.
+     */
+    public static final long NO_MATCH = -1L;
+
+    /**
+     * Number of characters having transitions in the trie, other characters never match.
+     */
+    private static final int ALPHABET_SIZE = 128;
+
+    /**
+     * Powers of ten which are exactly representable as double.
+     */
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * Transitions for each node of the trie, 0 if there is no transition as root is never a child.
+     */
+    private final int[][] transitions;
+
+    /**
+     * Index of context ending at each node of the trie, -1 if no context ends at the node.
+     */
+    private final int[] contextIndexes;
+
+    public ApiVersioningContextMatcher(List<ApiVersioningContext> contexts) {
+        List<int[]> nodeTransitions = new ArrayList<>();
+        List<Integer> nodeContextIndexes = new ArrayList<>();
+
+        // Adding root node.
+        nodeTransitions.add(new int[ALPHABET_SIZE]);
+        nodeContextIndexes.add(-1);
+
+        for (int contextIndex = 0; contextIndex < contexts.size(); contextIndex++) {
+            String apiAndVersionContext = contexts.get(contextIndex).getApiAndVersionContext();
+
+            int node = 0;
+
+            for (int i = 0; i < apiAndVersionContext.length(); i++) {
+                char character = apiAndVersionContext.charAt(i);
+
+                if (character >= ALPHABET_SIZE) {
+                    throw new IllegalArgumentException("API versioning context [" + apiAndVersionContext + "] must contain only ASCII characters.");
+                }
+
+                if (nodeTransitions.get(node)[character] == 0) {
+                    nodeTransitions.get(node)[character] = nodeTransitions.size();
+                    nodeTransitions.add(new int[ALPHABET_SIZE]);
+                    nodeContextIndexes.add(-1);
+                }
+
+                node = nodeTransitions.get(node)[character];
+            }
+
+            if (nodeContextIndexes.get(node) >= 0) {
+                throw new IllegalArgumentException("API versioning context [" + apiAndVersionContext + "] is configured more than once.");
+            }
+
+            nodeContextIndexes.set(node, contextIndex);
+        }
+
+        this.transitions = nodeTransitions.toArray(new int[nodeTransitions.size()][]);
+        this.contextIndexes = new int[nodeContextIndexes.size()];
+
+        for (int node = 0; node < contextIndexes.length; node++) {
+            contextIndexes[node] = nodeContextIndexes.get(node);
+        }
+    }
+
+    /**
+     * This method is used to match API versioning context and version at start
+     * of lookup path in a single pass.
+     *
+     * @param lookupPath                         Lookup path for requested API. for eg. /api/v1.0/users
+     * @return                                   Returns encoded match or {@link #NO_MATCH} if lookup path
+     *                                           doesn't start with API versioning context, valid version and '/'.
+     */
+    public long match(String lookupPath) {
+        int length = lookupPath.length();
+
+        int node = 0;
+        int matchedContextIndex = -1;
+        int versionStartIndex = 0;
+
+        // Walking the trie to find the longest context at start of lookup path.
+        for (int i = 0; ; i++) {
+            if (contextIndexes[node] >= 0) {
+                matchedContextIndex = contextIndexes[node];
+                versionStartIndex = i;
+            }
+
+            if (i == length) {
+                break;
+            }
+
+            char character = lookupPath.charAt(i);
+
+            if (character >= ALPHABET_SIZE || transitions[node][character] == 0) {
+                break;
+            }
+
+            node = transitions[node][character];
+        }
+
+        if (matchedContextIndex < 0) {
+            return NO_MATCH;
+        }
+
+        // Continuing the same pass for version having format XX or XX.YY followed by '/'.
+        boolean hasDigit = false;
+        boolean hasDecimal = false;
+
+        for (int i = versionStartIndex; i < length; i++) {
+            char character = lookupPath.charAt(i);
+
+            if (character >= '0' && character <= '9') {
+                hasDigit = true;
+            } else if (character == '.' && Boolean.FALSE.equals(hasDecimal)) {
+                hasDecimal = true;
+            } else if (character == '/' && hasDigit) {
+                return ((long) matchedContextIndex << 32) | i;
+            } else {
+                return NO_MATCH;
+            }
+        }
+
+        return NO_MATCH;
+    }
+
+    /**
+     * This method is used to get index of matched context from encoded match.
+     *
+     * @param match                              Encoded match returned by {@link #match(String)}.
+     * @return                                   Returns index of matched context.
+     */
+    public static int getContextIndex(long match) {
+        return (int) (match >>> 32);
+    }
+
+    /**
+     * This method is used to get end index of version in lookup path from
+     * encoded match, which is also the index where base lookup path starts.
+     *
+     * @param match                              Encoded match returned by {@link #match(String)}.
+     * @return                                   Returns end index of version in lookup path.
+     */
+    public static int getVersionEndIndex(long match) {
+        return (int) match;
+    }
+
+    /**
+     * This method is used to parse API version matched in lookup path without
+     * creating intermediate strings. The version is parsed as an exact integer
+     * mantissa divided by an exact power of ten, which is correctly rounded and
+     * same as {@link Double#parseDouble(String)} for the version.
+     *
+     * @param lookupPath                         Lookup path for requested API.
+     * @param versionStartIndex                  Start index of version in lookup path.
+     * @param versionEndIndex                    End index of version in lookup path.
+     * @return                                   Returns requested API version.
+     */
+    public static double parseVersion(String lookupPath, int versionStartIndex, int versionEndIndex) {
+        long mantissa = 0;
+        int decimalDigits = -1;
+        int digits = 0;
+
+        for (int i = versionStartIndex; i < versionEndIndex; i++) {
+            char character = lookupPath.charAt(i);
+
+            if (character == '.') {
+                decimalDigits = 0;
+                continue;
+            }
+
+            mantissa = mantissa * 10 + (character - '0');
+            digits++;
+
+            if (decimalDigits >= 0) {
+                decimalDigits++;
+            }
+        }
+
+        // Using standard parsing if mantissa or power of ten may not be exact.
+        if (digits > 15 || decimalDigits >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(lookupPath.substring(versionStartIndex, versionEndIndex));
+        }
+
+        return decimalDigits > 0 ? mantissa / POWERS_OF_TEN[decimalDigits] : mantissa;
+    }
+
+}
@@ -0,0 +1,146 @@
+package com.mindstixlabs.web.api.version.management.core.capture;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.mindstixlabs.web.api.version.management.core.ApiVersionIndex;
+import com.mindstixlabs.web.api.version.management.core.ApiVersioningContext;
+
+/**
+ * <code>ApiVersionCaptureFormat</code> encodes entries of capture files.
+ *
+ * <p>A capture file starts with {@link #MAGIC} and {@link #FORMAT_VERSION}
+ * followed by entries, every entry starting with its type. Every file starts
+ * with API versioning contexts and version index in effect when the file is
+ * opened, so that files are replayed independently of each other, and the
+ * contexts or the index are written again whenever they change.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+final class ApiVersionCaptureFormat {
+
+    /**
+     * Magic number of capture files. "AVC" followed by 1.
+     */
+    static final int MAGIC = 0x41564301;
+
+    static final short FORMAT_VERSION = 1;
+
+    static final byte CONTEXTS_ENTRY = 'C';
+
+    static final byte INDEX_ENTRY = 'I';
+
+    static final byte RECORD_ENTRY = 'R';
+
+    /**
+     * Maximum length of strings written with modified UTF-8, longer lookup paths are not captured.
+     */
+    static final int MAX_STRING_LENGTH = 65535 / 3;
+
+    private ApiVersionCaptureFormat() {
+    }
+
+    static void writeContexts(DataOutput output, List<ApiVersioningContext> contexts) throws IOException {
+        output.writeByte(CONTEXTS_ENTRY);
+        output.writeInt(contexts.size());
+
+        for (ApiVersioningContext context : contexts) {
+            output.writeUTF(context.getName());
+            output.writeUTF(nullToEmpty(context.getApiContext()));
+            output.writeUTF(nullToEmpty(context.getVersionContext()));
+            output.writeDouble(context.getMinVersionSupport());
+            output.writeDouble(context.getCurrentVersionSupport());
+        }
+    }
+
+    static List<ApiVersioningContext> readContexts(DataInput input) throws IOException {
+        int size = input.readInt();
+        List<ApiVersioningContext> contexts = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            contexts.add(new ApiVersioningContext(input.readUTF(), input.readUTF(), input.readUTF(), input.readDouble(), input.readDouble()));
+        }
+
+        return contexts;
+    }
+
+    static void writeIndex(DataOutput output, ApiVersionIndex index) throws IOException {
+        output.writeByte(INDEX_ENTRY);
+        output.writeLong(index.getGeneration());
+
+        output.writeInt(index.getMappingKeys().size());
+
+        for (String mappingKey : index.getMappingKeys()) {
+            writeVersions(output, mappingKey, index.getVersions(mappingKey));
+        }
+
+        output.writeInt(index.getDisabledMappingKeys().size());
+
+        for (String mappingKey : index.getDisabledMappingKeys()) {
+            writeVersions(output, mappingKey, index.getDisabledVersions(mappingKey));
+        }
+    }
+
+    private static void writeVersions(DataOutput output, String mappingKey, double[] versions) throws IOException {
+        output.writeUTF(mappingKey);
+        output.writeInt(versions.length);
+
+        for (double version : versions) {
+            output.writeDouble(version);
+        }
+    }
+
+    static ApiVersionIndex readIndex(DataInput input) throws IOException {
+        long generation = input.readLong();
+
+        Map<String, List<Double>> registeredVersions = readVersions(input);
+        Map<String, List<Double>> runtimeDisabledVersions = readVersions(input);
+
+        return ApiVersionIndex.build(generation, registeredVersions, runtimeDisabledVersions);
+    }
+
+    private static Map<String, List<Double>> readVersions(DataInput input) throws IOException {
+        int mappingKeys = input.readInt();
+        Map<String, List<Double>> versions = new HashMap<>(Math.max(16, mappingKeys * 2));
+
+        for (int i = 0; i < mappingKeys; i++) {
+            String mappingKey = input.readUTF();
+            int size = input.readInt();
+            List<Double> mappingVersions = new ArrayList<>(size);
+
+            for (int j = 0; j < size; j++) {
+                mappingVersions.add(input.readDouble());
+            }
+
+            versions.put(mappingKey, mappingVersions);
+        }
+
+        return versions;
+    }
+
+    static void writeRecord(DataOutput output, ApiVersionCaptureRecord record) throws IOException {
+        output.writeByte(RECORD_ENTRY);
+        output.writeLong(record.getTimestampMillis());
+        output.writeUTF(record.getMethod());
+        output.writeUTF(record.getLookupPath());
+        output.writeByte(record.getOutcome().ordinal());
+        output.writeDouble(record.getResolvedVersion());
+        output.writeLong(record.getLatencyNanos());
+    }
+
+    static ApiVersionCaptureRecord readRecord(DataInput input) throws IOException {
+        return new ApiVersionCaptureRecord(input.readLong(), input.readUTF(), input.readUTF(), ApiVersionCaptureRecord.Outcome.valueOf(input.readUnsignedByte()),
+                                           input.readDouble(), input.readLong());
+    }
+
+    private static String nullToEmpty(String value) {
+        return null == value ? "" : value;
+    }
+
+}
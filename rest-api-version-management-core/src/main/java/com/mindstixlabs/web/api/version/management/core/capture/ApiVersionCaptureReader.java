@@ -0,0 +1,120 @@
+package com.mindstixlabs.web.api.version.management.core.capture;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import com.mindstixlabs.web.api.version.management.core.ApiVersionIndex;
+import com.mindstixlabs.web.api.version.management.core.ApiVersioningContext;
+
+/**
+ * <code>ApiVersionCaptureReader</code> reads capture files written by
+ * {@link ApiVersionCaptureWriter}, in the order entries are written.
+ *
+ * <p>Last record of the current capture file may be incomplete while the
+ * application is running, such a record is ignored.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+public final class ApiVersionCaptureReader {
+
+    /**
+     * Listener of entries read from capture files.
+     */
+    public interface Listener {
+
+        /**
+         * This method is called when API versioning contexts in effect are read.
+         *
+         * @param contexts                           API versioning contexts for records read after this call.
+         */
+        void onContexts(List<ApiVersioningContext> contexts);
+
+        /**
+         * This method is called when version index in effect is read.
+         *
+         * @param index                              Version index for records read after this call.
+         */
+        void onIndex(ApiVersionIndex index);
+
+        /**
+         * This method is called for every captured record.
+         *
+         * @param record                             Captured lookup.
+         */
+        void onRecord(ApiVersionCaptureRecord record);
+
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private ApiVersionCaptureReader() {
+    }
+
+    /**
+     * This method is used to read a capture file, or all capture files of a
+     * directory oldest first.
+     *
+     * @param path                               Capture file or directory of capture files.
+     * @param listener                           Listener of entries read.
+     * @throws IOException                       If a file can't be read or it is not a capture file.
+     */
+    public static void read(Path path, Listener listener) throws IOException {
+        List<Path> captureFiles = Files.isDirectory(path) ? ApiVersionCaptureWriter.listCaptureFiles(path, "*") : Collections.singletonList(path);
+
+        for (Path captureFile : captureFiles) {
+            readFile(captureFile, listener);
+        }
+    }
+
+    private static void readFile(Path captureFile, Listener listener) throws IOException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(captureFile), BUFFER_SIZE))) {
+            if (input.readInt() != ApiVersionCaptureFormat.MAGIC) {
+                throw new IOException("Not an API version capture file: " + captureFile);
+            }
+
+            short formatVersion = input.readShort();
+
+            if (formatVersion != ApiVersionCaptureFormat.FORMAT_VERSION) {
+                throw new IOException("Unsupported format version: " + formatVersion + " of API version capture file: " + captureFile);
+            }
+
+            int entryType;
+
+            while (-1 != (entryType = input.read())) {
+                try {
+                    readEntry(captureFile, input, entryType, listener);
+                } catch (EOFException e) {
+                    // Entry is being written or file isn't closed normally.
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void readEntry(Path captureFile, DataInputStream input, int entryType, Listener listener) throws IOException {
+        switch (entryType) {
+            case ApiVersionCaptureFormat.RECORD_ENTRY:
+                listener.onRecord(ApiVersionCaptureFormat.readRecord(input));
+                break;
+
+            case ApiVersionCaptureFormat.INDEX_ENTRY:
+                listener.onIndex(ApiVersionCaptureFormat.readIndex(input));
+                break;
+
+            case ApiVersionCaptureFormat.CONTEXTS_ENTRY:
+                listener.onContexts(ApiVersionCaptureFormat.readContexts(input));
+                break;
+
+            default:
+                throw new IOException("Unknown entry type: " + entryType + " in API version capture file: " + captureFile);
+        }
+    }
+
+}
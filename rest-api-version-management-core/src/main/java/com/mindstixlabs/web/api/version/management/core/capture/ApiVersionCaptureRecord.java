@@ -0,0 +1,93 @@
+package com.mindstixlabs.web.api.version.management.core.capture;
+
+/**
+ * <code>ApiVersionCaptureRecord</code> is a captured lookup of a request with
+ * the outcome of resolving its API version and latency of the lookup.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+public final class ApiVersionCaptureRecord {
+
+    /**
+     * Outcome of lookup of a request.
+     */
+    public enum Outcome {
+
+        /**
+         * Request is served by handler method of an API version, requested or resolved through fallback.
+         */
+        RESOLVED,
+
+        /**
+         * Request is served by handler method without API versioning.
+         */
+        UNVERSIONED,
+
+        /**
+         * No handler method is found for the request.
+         */
+        NOT_FOUND,
+
+        /**
+         * Request is rejected by handler mapping, for eg. with 405 if request method is not supported.
+         */
+        REJECTED;
+
+        private static final Outcome[] OUTCOMES = values();
+
+        static Outcome valueOf(int ordinal) {
+            return OUTCOMES[ordinal];
+        }
+
+    }
+
+    private final long timestampMillis;
+
+    private final String method;
+
+    private final String lookupPath;
+
+    private final Outcome outcome;
+
+    /**
+     * API version which served the request, NaN if request is not served by a versioned handler method.
+     */
+    private final double resolvedVersion;
+
+    private final long latencyNanos;
+
+    public ApiVersionCaptureRecord(long timestampMillis, String method, String lookupPath, Outcome outcome, double resolvedVersion, long latencyNanos) {
+        this.timestampMillis = timestampMillis;
+        this.method = method;
+        this.lookupPath = lookupPath;
+        this.outcome = outcome;
+        this.resolvedVersion = resolvedVersion;
+        this.latencyNanos = latencyNanos;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getLookupPath() {
+        return lookupPath;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public double getResolvedVersion() {
+        return resolvedVersion;
+    }
+
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+}
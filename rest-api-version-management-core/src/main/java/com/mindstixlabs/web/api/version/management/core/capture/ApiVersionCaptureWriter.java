@@ -0,0 +1,316 @@
+package com.mindstixlabs.web.api.version.management.core.capture;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.mindstixlabs.web.api.version.management.core.ApiVersionIndex;
+import com.mindstixlabs.web.api.version.management.core.ApiVersioningContext;
+
+/**
+ * <code>ApiVersionCaptureWriter</code> appends captured lookups to rolling
+ * binary capture files using a single background thread.
+ *
+ * <p>Request threads only offer records to a bounded queue, records are
+ * dropped and counted if the queue is full, so that capture never blocks a
+ * request. The writer thread writes records through a buffer, flushes it when
+ * the queue is idle, and starts a new file once the current file reaches its
+ * maximum size, deleting the oldest files beyond the maximum number of files.
+ * API versioning contexts and version index are written at start of every file
+ * and whenever they are changed, before the records captured after the change.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+public final class ApiVersionCaptureWriter implements Closeable {
+
+    private static final Logger logger = Logger.getLogger(ApiVersionCaptureWriter.class.getName());
+
+    /**
+     * Extension of capture files.
+     */
+    public static final String FILE_EXTENSION = ".avc";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final long IDLE_FLUSH_MILLIS = 1000L;
+
+    private static final long CLOSE_TIMEOUT_MILLIS = 10_000L;
+
+    private final Path directory;
+
+    private final String filePrefix;
+
+    private final long maxFileBytes;
+
+    private final int maxFiles;
+
+    private final BlockingQueue<ApiVersionCaptureRecord> queue;
+
+    private final AtomicReference<List<ApiVersioningContext>> pendingContexts = new AtomicReference<>();
+
+    private final AtomicReference<ApiVersionIndex> pendingIndex = new AtomicReference<>();
+
+    private final Thread writerThread;
+
+    private final LongAdder capturedRecords = new LongAdder();
+
+    private final LongAdder droppedRecords = new LongAdder();
+
+    private final LongAdder writtenBytes = new LongAdder();
+
+    private final LongAdder files = new LongAdder();
+
+    private volatile boolean closed;
+
+    /**
+     * Contexts and index last written, written again at start of every file. Accessed by writer thread only.
+     */
+    private List<ApiVersioningContext> contexts = Collections.emptyList();
+
+    private ApiVersionIndex index = ApiVersionIndex.EMPTY;
+
+    private DataOutputStream output;
+
+    private volatile Path currentFile;
+
+    private long fileSequence;
+
+    /**
+     * Creating writer and starting its thread.
+     *
+     * @param directory                          Directory of capture files, created if it doesn't exist.
+     * @param filePrefix                         Prefix of names of capture files.
+     * @param maxFileBytes                       Size after which a new file is started.
+     * @param maxFiles                           Maximum number of capture files kept in the directory.
+     * @param queueCapacity                      Maximum number of records waiting to be written.
+     * @throws IOException                       If directory can't be created.
+     */
+    public ApiVersionCaptureWriter(Path directory, String filePrefix, long maxFileBytes, int maxFiles, int queueCapacity) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.filePrefix = filePrefix;
+        this.maxFileBytes = Math.max(BUFFER_SIZE, Math.min(maxFileBytes, Integer.MAX_VALUE));
+        this.maxFiles = Math.max(1, maxFiles);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+
+        this.writerThread = new Thread(this::run, "api-version-capture-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * This method is used to capture a record without blocking.
+     *
+     * @param record                             Captured lookup.
+     * @return                                   Returns false if the record is dropped as the queue is full or writer is closed.
+     */
+    public boolean capture(ApiVersionCaptureRecord record) {
+        if (closed || record.getLookupPath().length() > ApiVersionCaptureFormat.MAX_STRING_LENGTH || Boolean.FALSE.equals(queue.offer(record))) {
+            droppedRecords.increment();
+            return false;
+        }
+
+        capturedRecords.increment();
+        return true;
+    }
+
+    /**
+     * This method is used to write API versioning contexts before records captured after this call.
+     *
+     * @param updatedContexts                    API versioning contexts in effect.
+     */
+    public void captureContexts(List<ApiVersioningContext> updatedContexts) {
+        pendingContexts.set(new ArrayList<>(updatedContexts));
+    }
+
+    /**
+     * This method is used to write version index before records captured after this call.
+     *
+     * @param updatedIndex                       Version index in effect.
+     */
+    public void captureIndex(ApiVersionIndex updatedIndex) {
+        pendingIndex.set(updatedIndex);
+    }
+
+    private void run() {
+        try {
+            while (Boolean.FALSE.equals(closed) || Boolean.FALSE.equals(queue.isEmpty())) {
+                ApiVersionCaptureRecord record = queue.poll(IDLE_FLUSH_MILLIS, TimeUnit.MILLISECONDS);
+
+                // Contexts and index are offered before records captured after the change, so they are checked before every record.
+                writePending();
+
+                if (null == record) {
+                    if (null != output) {
+                        output.flush();
+                    }
+
+                    continue;
+                }
+
+                write(record);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.SEVERE, "Unable to write API version capture to directory: " + directory + ", capture is stopped.", e);
+            closed = true;
+        } finally {
+            closeOutput();
+        }
+    }
+
+    private void writePending() throws IOException {
+        List<ApiVersioningContext> updatedContexts = pendingContexts.getAndSet(null);
+
+        if (null != updatedContexts) {
+            contexts = updatedContexts;
+
+            if (null != output) {
+                ApiVersionCaptureFormat.writeContexts(output, contexts);
+            }
+        }
+
+        ApiVersionIndex updatedIndex = pendingIndex.getAndSet(null);
+
+        if (null != updatedIndex) {
+            index = updatedIndex;
+
+            if (null != output) {
+                ApiVersionCaptureFormat.writeIndex(output, index);
+            }
+        }
+    }
+
+    private void write(ApiVersionCaptureRecord record) throws IOException {
+        if (null == output || output.size() >= maxFileBytes) {
+            rollFile();
+        }
+
+        ApiVersionCaptureFormat.writeRecord(output, record);
+    }
+
+    private void rollFile() throws IOException {
+        closeOutput();
+
+        Path file = directory.resolve(String.format("%s-%013d-%06d%s", filePrefix, System.currentTimeMillis(), fileSequence++, FILE_EXTENSION));
+
+        output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE));
+        output.writeInt(ApiVersionCaptureFormat.MAGIC);
+        output.writeShort(ApiVersionCaptureFormat.FORMAT_VERSION);
+
+        // Every file starts with contexts and index in effect, so that files are replayed independently.
+        ApiVersionCaptureFormat.writeContexts(output, contexts);
+        ApiVersionCaptureFormat.writeIndex(output, index);
+
+        currentFile = file;
+        files.increment();
+
+        deleteOldestFiles();
+    }
+
+    private void deleteOldestFiles() throws IOException {
+        List<Path> captureFiles = listCaptureFiles(directory, filePrefix);
+
+        for (int i = 0; i < captureFiles.size() - maxFiles; i++) {
+            Files.deleteIfExists(captureFiles.get(i));
+        }
+    }
+
+    private void closeOutput() {
+        if (null == output) {
+            return;
+        }
+
+        try {
+            writtenBytes.add(output.size());
+            output.close();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Unable to close API version capture file: " + currentFile, e);
+        }
+
+        output = null;
+    }
+
+    /**
+     * This method is used to list capture files having prefix in directory, oldest first.
+     *
+     * @param directory                          Directory of capture files.
+     * @param filePrefix                         Prefix of names of capture files.
+     * @return                                   Returns capture files sorted by name, i.e. by time they are started.
+     * @throws IOException                       If directory can't be read.
+     */
+    public static List<Path> listCaptureFiles(Path directory, String filePrefix) throws IOException {
+        List<Path> captureFiles = new ArrayList<>();
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, filePrefix + "-*" + FILE_EXTENSION)) {
+            stream.forEach(captureFiles::add);
+        }
+
+        Collections.sort(captureFiles);
+
+        return captureFiles;
+    }
+
+    public long getCapturedRecords() {
+        return capturedRecords.sum();
+    }
+
+    public long getDroppedRecords() {
+        return droppedRecords.sum();
+    }
+
+    /**
+     * This method is used to get bytes written to closed capture files.
+     *
+     * @return                                   Returns bytes written, excluding the current file.
+     */
+    public long getWrittenBytes() {
+        return writtenBytes.sum();
+    }
+
+    public long getFiles() {
+        return files.sum();
+    }
+
+    public int getQueuedRecords() {
+        return queue.size();
+    }
+
+    public Path getCurrentFile() {
+        return currentFile;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Writing queued records and closing current file.
+     */
+    @Override
+    public void close() {
+        closed = true;
+
+        try {
+            writerThread.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
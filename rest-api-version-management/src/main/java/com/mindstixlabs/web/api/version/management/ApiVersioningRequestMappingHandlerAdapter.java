@@ -0,0 +1,136 @@
+package com.mindstixlabs.web.api.version.management;
+
+import java.util.concurrent.Callable;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod;
+
+import com.mindstixlabs.web.api.version.management.handlers.ApiVersionBulkhead;
+import com.mindstixlabs.web.api.version.management.handlers.ApiVersionBulkheadHandlerMethod;
+import com.mindstixlabs.web.api.version.management.handlers.ApiVersionBulkheadManager;
+import com.mindstixlabs.web.api.version.management.util.ApiVersioningThreadContext;
+
+/**
+ * <code>ApiVersioningRequestMappingHandlerAdapter</code> invokes handler
+ * methods resolved by {@link ReSTApiVersionManager} for API versions having a
+ * bulkhead on executor of the bulkhead.
+ *
+ * <p>Arguments of the handler method are resolved on the servlet thread and
+ * the handler method is invoked as {@link WebAsyncTask} on the bulkhead
+ * executor, so the servlet thread is released while the handler method runs.
+ * The return value is handled on the async dispatch as for any async handler.
+ *
+ * <p>The handler method runs with locale, MDC and security context of Spring
+ * Security of the servlet thread, and with request attributes of the request
+ * bound to {@link RequestContextHolder}, see {@link ApiVersioningThreadContext}.
+ * Other thread-bound state, for eg. transactions opened by filters or
+ * interceptors and {@link InheritableThreadLocal} values, is not carried over
+ * to the bulkhead executor.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ *
+ * @see {@link ApiVersionBulkheadManager}
+ */
+public class ApiVersioningRequestMappingHandlerAdapter extends RequestMappingHandlerAdapter {
+
+    @Autowired
+    private ApiVersionBulkheadManager apiVersionBulkheadManager;
+
+    @Override
+    protected ServletInvocableHandlerMethod createInvocableHandlerMethod(HandlerMethod handlerMethod) {
+        if (handlerMethod instanceof ApiVersionBulkheadHandlerMethod) {
+            return new BulkheadInvocableHandlerMethod((ApiVersionBulkheadHandlerMethod) handlerMethod);
+        }
+
+        return super.createInvocableHandlerMethod(handlerMethod);
+    }
+
+    /**
+     * Invocable handler method running the handler method in its bulkhead. An
+     * instance is created for every request.
+     */
+    private class BulkheadInvocableHandlerMethod extends ServletInvocableHandlerMethod {
+
+        private final ApiVersionBulkhead bulkhead;
+
+        /**
+         * Flag to determine if permit of bulkhead is held by the request and is
+         * to be released once handler method completes.
+         */
+        private boolean permitAcquired;
+
+        private ServletWebRequest webRequest;
+
+        private BulkheadInvocableHandlerMethod(ApiVersionBulkheadHandlerMethod handlerMethod) {
+            super(handlerMethod);
+            this.bulkhead = handlerMethod.getBulkhead();
+        }
+
+        @Override
+        public void invokeAndHandle(ServletWebRequest webRequest, ModelAndViewContainer mavContainer, Object... providedArgs) throws Exception {
+            if (Boolean.FALSE.equals(bulkhead.tryAcquire())) {
+                if (apiVersionBulkheadManager.isCallerRunsOnRejection()) {
+                    // Handling request on the servlet thread if bulkhead is saturated.
+                    bulkhead.recordCallerRuns();
+                    super.invokeAndHandle(webRequest, mavContainer, providedArgs);
+                } else {
+                    bulkhead.recordRejection();
+                    apiVersionBulkheadManager.writeRejectedResponse(webRequest.getResponse());
+                    mavContainer.setRequestHandled(true);
+                }
+
+                return;
+            }
+
+            permitAcquired = true;
+            this.webRequest = webRequest;
+
+            try {
+                super.invokeAndHandle(webRequest, mavContainer, providedArgs);
+            } finally {
+                // Releasing permit if handler method was not submitted to the bulkhead, for eg. argument resolution failed.
+                if (permitAcquired) {
+                    permitAcquired = false;
+                    bulkhead.release();
+                }
+            }
+        }
+
+        @Override
+        protected Object doInvoke(final Object... args) throws Exception {
+            if (Boolean.FALSE.equals(permitAcquired)) {
+                return super.doInvoke(args);
+            }
+
+            // Permit is released by the task once handler method completes.
+            permitAcquired = false;
+
+            // Capturing context of the servlet thread, request attributes of the servlet thread are completed once it is released.
+            ApiVersioningThreadContext threadContext = ApiVersioningThreadContext.capture();
+            ServletRequestAttributes requestAttributes = new ServletRequestAttributes(webRequest.getRequest(), webRequest.getResponse());
+
+            Callable<Object> invocation = () -> {
+                threadContext.bind(requestAttributes);
+
+                try {
+                    return super.doInvoke(args);
+                } finally {
+                    ApiVersioningThreadContext.reset();
+                    bulkhead.release();
+                }
+            };
+
+            return new WebAsyncTask<>(apiVersionBulkheadManager.getTimeoutMillis(), bulkhead.getExecutor(), invocation);
+        }
+
+    }
+
+}
@@ -18,6 +18,9 @@ import com.mindstixlabs.web.api.version.management.annotations.DisabledApi;
 import com.mindstixlabs.web.api.version.management.cache.ApiVersioningCache;
 import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigHolder;
 import com.mindstixlabs.web.api.version.management.config.ApiVersioningConstants;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningRuntimeConfig;
+import com.mindstixlabs.web.api.version.management.handlers.ApiVersioningWarmUpManager;
+import com.mindstixlabs.web.api.version.management.metrics.ApiVersioningStartupMetrics;
 import com.mindstixlabs.web.api.version.management.util.ApiVersioningUtility;
 
 /**
@@ -41,9 +44,18 @@ public class DefaultRequestMappingHandlerMapping extends RequestMappingHandlerMa
 
     private static final Logger logger = LoggerFactory.getLogger(DefaultRequestMappingHandlerMapping.class);
 
+    @Autowired
+    private ApiVersioningCache apiVersioningCache;
+
+    @Autowired
+    private ApiVersioningConfigHolder apiVersioningConfigHolder;
+
     @Autowired
     private ApiVersioningUtility apiVersioningUtility;
 
+    @Autowired
+    private ApiVersioningStartupMetrics apiVersioningStartupMetrics;
+
     /**
      * <p>This method is used to lookup handler method for requested lookup path if
      * API versioning feature or API versioning fallback feature is disabled.
@@ -67,23 +79,30 @@ public class DefaultRequestMappingHandlerMapping extends RequestMappingHandlerMa
         // Flag to determine if lookup is required for requested lookup path.
         boolean lookupHandlerMethod = true;
 
+        ApiVersioningRuntimeConfig config = apiVersioningConfigHolder.getConfig();
+
         // Checking if API versioning feature is enabled for the application.
-        if (ApiVersioningConfigHolder.FEATURE_ENABLED) {
+        if (config.isFeatureEnabled()) {
             // Checking if requested API version is disabled.
-            if (ApiVersioningCache.DISABLED_APIS.contains(lookupPath)) {
+            if (apiVersioningCache.isApiDisabled(lookupPath)) {
                 // Checking if disabled APIs are allowed in the application.
-                if (ApiVersioningConfigHolder.ALLOW_DISABLED_API_VERSIONS) {
-                    logger.info("Disabled APIs are allowed for the application. Looking up handler method for the disabled API: [{}].", lookupPath);
+                // Logging rejections of client requests only, synthesized lookups are not to flood the log.
+                if (config.isAllowDisabledApiVersions()) {
+                    if (isClientRequest(request)) {
+                        logger.info("Disabled APIs are allowed for the application. Looking up handler method for the disabled API: [{}].", lookupPath);
+                    }
                 } else {
-                    logger.warn("Disabled APIs are not allowed for the application. Aborting request for the disabled API: [{}] with 404-NOT FOUND error.", lookupPath);
-                    
+                    if (isClientRequest(request)) {
+                        logger.warn("Disabled APIs are not allowed for the application. Aborting request for the disabled API: [{}] with 404-NOT FOUND error.", lookupPath);
+                    }
+
                     // Disabling lookup for requested disabled API version.
                     lookupHandlerMethod = false;
                 }
             }
         } else {
             // Checking if requested API is disabled.
-            if (ApiVersioningCache.DISABLED_APIS.contains(lookupPath)) {
+            if (apiVersioningCache.isApiDisabled(lookupPath) && isClientRequest(request)) {
                 logger.info("API Versioning feature is disabled for the application. Allowing request for the disabled API: [{}]", lookupPath);
             }
         }
@@ -91,11 +110,28 @@ public class DefaultRequestMappingHandlerMapping extends RequestMappingHandlerMa
         if (lookupHandlerMethod) {
             // Returning handler method for requested lookup path
             method = super.lookupHandlerMethod(lookupPath, request);
+
+            // Checking if matched API version is disabled at runtime.
+            if (null != method && config.isFeatureEnabled() && apiVersioningCache.isApiVersionedMappingDisabledAtRuntime((String) request.getAttribute(BEST_MATCHING_PATTERN_ATTRIBUTE))) {
+                if (isClientRequest(request)) {
+                    logger.warn("API version is disabled at runtime. Aborting request for the API: [{}] with 404-NOT FOUND error.", lookupPath);
+                }
+
+                method = null;
+            }
         }
 
         return method;
     }
 
+    /**
+     * This method is used to check if request is sent by client, i.e. it is
+     * not a synthesized warm-up request.
+     */
+    private boolean isClientRequest(HttpServletRequest request) {
+        return null == request.getAttribute(ApiVersioningWarmUpManager.WARM_UP_REQUEST_ATTRIBUTE);
+    }
+
     /**
      * <p>This method is used to get API versioned context mappings for handler methods if
      * particular handler is annotated with {@link ApiVersion} annotation and has valid numeric
@@ -105,11 +141,21 @@ public class DefaultRequestMappingHandlerMapping extends RequestMappingHandlerMa
      * 
      * @see {@link RequestMappingInfo}
      *
-     * @see <p>{@link ApiVersioningUtility#getApiVersionedRequestMappingInfoForHandlerMethod(Method, Class, RequestMappingInfo, boolean)}
+     * @see <p>{@link ApiVersioningUtility#getApiVersionedRequestMappingInfoForHandlerMethod(Method, Class, RequestMappingInfo, boolean, RequestMappingHandlerMapping)}
      *
      */
     @Override
     protected RequestMappingInfo getMappingForMethod(Method method, Class<?> handlerType) {
+        long startTime = System.nanoTime();
+
+        try {
+            return getApiVersionedMappingForMethod(method, handlerType);
+        } finally {
+            apiVersioningStartupMetrics.recordMappingForMethod(System.nanoTime() - startTime);
+        }
+    }
+
+    private RequestMappingInfo getApiVersionedMappingForMethod(Method method, Class<?> handlerType) {
         RequestMappingInfo existingRequestMappingInfo = super.getMappingForMethod(method, handlerType);
 
         // API versioning fallback is disabled for DefaultRequestMappingHandlerMapping.
@@ -121,7 +167,7 @@ public class DefaultRequestMappingHandlerMapping extends RequestMappingHandlerMa
             return existingRequestMappingInfo;
         } else {
             // Get API versioned RequestMappingInfo if applicable for handlerMethod.
-            RequestMappingInfo apiVersionedRequestMappingInfo = apiVersioningUtility.getApiVersionedRequestMappingInfoForHandlerMethod(method, handlerType, existingRequestMappingInfo, isApiVersioningFallbackEnabled);
+            RequestMappingInfo apiVersionedRequestMappingInfo = apiVersioningUtility.getApiVersionedRequestMappingInfoForHandlerMethod(method, handlerType, existingRequestMappingInfo, isApiVersioningFallbackEnabled, this);
             
             return apiVersionedRequestMappingInfo;
         }
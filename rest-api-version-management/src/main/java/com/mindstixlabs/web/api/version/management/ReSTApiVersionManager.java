@@ -0,0 +1,739 @@
+package com.mindstixlabs.web.api.version.management;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.handler.AbstractHandlerMethodMapping;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import com.mindstixlabs.web.api.version.management.batch.ApiVersionBatchManager;
+import com.mindstixlabs.web.api.version.management.cache.ApiVersionedMapping;
+import com.mindstixlabs.web.api.version.management.cache.ApiVersionedMappingDescriptor;
+import com.mindstixlabs.web.api.version.management.cache.ApiVersioningCache;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigHelper;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigHolder;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigKeys;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConstants;
+import com.mindstixlabs.web.api.version.management.core.ApiVersioningContext;
+import com.mindstixlabs.web.api.version.management.core.ApiVersioningContextMatcher;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningDefaultConfig;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningRuntimeConfig;
+import com.mindstixlabs.web.api.version.management.handlers.ApiVersionBulkheadManager;
+import com.mindstixlabs.web.api.version.management.handlers.ApiVersionFallbackResolver;
+import com.mindstixlabs.web.api.version.management.handlers.ApiVersionLatencyInterceptor;
+import com.mindstixlabs.web.api.version.management.handlers.ApiVersionRateLimiter;
+import com.mindstixlabs.web.api.version.management.handlers.ApiVersionResponseCacheInterceptor;
+import com.mindstixlabs.web.api.version.management.handlers.ApiVersionResponseInterceptor;
+import com.mindstixlabs.web.api.version.management.handlers.ApiVersionShadowInterceptor;
+import com.mindstixlabs.web.api.version.management.handlers.ApiVersionShadowManager;
+import com.mindstixlabs.web.api.version.management.handlers.ApiVersioningWarmUpManager;
+import com.mindstixlabs.web.api.version.management.metrics.ApiVersionCaptureRecorder;
+import com.mindstixlabs.web.api.version.management.metrics.ApiVersionUsageRecorder;
+import com.mindstixlabs.web.api.version.management.metrics.ApiVersioningStartupMetrics;
+import com.mindstixlabs.web.api.version.management.util.ApiVersioningUtility;
+
+/**
+ * <p>ReST API Version manager helps to support multiple versions of ReST APIs in
+ * runtime for backward compatibility between Old and New applications running
+ * across devices.
+ * 
+ * <p>Pattern followed for API versioned APIs is
+ * /${apiContext}/${versionContext}XX.YY where apiContext and versionContext are
+ * configurable. Multiple API contexts, each with its own version line, can be
+ * configured and are matched at start of the lookup path in a single pass.
+ * 
+ * <p>Here XX can be any numeric number (1 to n Digits) and Y is configurable as
+ * per decimal digit support number. for example, v1.1 (support = 1 digit),
+ * v1.10 (support = 2 digits), v1.100 (support = 3 digit) etc.
+ * 
+ * <p><b><i>Note: Version 1.1, 1.10 and 1.100 will be considered as 3 different
+ * versions by ReST API Version Manager.</i></b>
+ * 
+ * <p>This HandlerMapping applies API version context at boot-up time to
+ * application wide APIs if applicable and also takes care of disabled APIs as
+ * per configuration.
+ * 
+ * <p>By default, ReST API version manager serves requested version if requested
+ * version is not less than minimum supported version else returns
+ * {@code 404 Not Found} error.
+ * 
+ * <p>If API versioning fallback feature is enabled, Version manager looks up for
+ * latest available version in application using version-mapping cache if
+ * requested version is not available. This provides optimization during
+ * fallback of API versions.
+ * 
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ * 
+ * @version 0.0.1
+ * 
+ * @see {@link RequestMapping}
+ * @see {@link RequestMappingHandlerMapping}
+ * @see {@link AbstractHandlerMethodMapping}
+ */
+public class ReSTApiVersionManager extends RequestMappingHandlerMapping {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReSTApiVersionManager.class);
+
+    /**
+     * Name of request attribute holding lookup path of the version which served
+     * the request through fallback.
+     */
+    public static final String RESOLVED_LOOKUP_PATH_ATTRIBUTE = ReSTApiVersionManager.class.getName() + ".resolvedLookupPath";
+
+    @Autowired
+    private ApiVersioningCache apiVersioningCache;
+
+    @Autowired
+    private ApiVersioningConfigHolder apiVersioningConfigHolder;
+
+    @Autowired
+    private ContentNegotiationManager contentNegotiationManager;
+
+    @Autowired
+    private ApiVersioningConfigHelper apiVersioningPropertyManager;
+
+    @Autowired
+    private ApiVersioningUtility apiVersioningUtility;
+
+    @Autowired
+    private ApiVersionUsageRecorder apiVersionUsageRecorder;
+
+    @Autowired
+    private ApiVersionCaptureRecorder apiVersionCaptureRecorder;
+
+    @Autowired
+    private ApiVersionResponseInterceptor apiVersionResponseInterceptor;
+
+    @Autowired
+    private ApiVersionResponseCacheInterceptor apiVersionResponseCacheInterceptor;
+
+    @Autowired
+    private ApiVersionLatencyInterceptor apiVersionLatencyInterceptor;
+
+    @Autowired
+    private ApiVersionShadowInterceptor apiVersionShadowInterceptor;
+
+    @Autowired
+    private ApiVersionRateLimiter apiVersionRateLimiter;
+
+    @Autowired
+    private ApiVersionBulkheadManager apiVersionBulkheadManager;
+
+    @Autowired
+    private ApiVersionFallbackResolver apiVersionFallbackResolver;
+
+    @Autowired
+    private ApiVersioningStartupMetrics apiVersioningStartupMetrics;
+
+    /**
+     * Name of request attribute holding API versioning base URL of the version
+     * to be registered lazily before retrying lookup.
+     */
+    private static final String LAZY_REGISTRATION_ATTRIBUTE = ReSTApiVersionManager.class.getName() + ".lazyRegistration";
+
+    /**
+     * Versions below this version are registered lazily on the first request
+     * for the version. Lazy registration is disabled if not more than 0.
+     */
+    private double lazyRegistrationHotVersion;
+
+    /**
+     * Literal prefixes of registered patterns having wildcards or URI template
+     * variables. for eg. /api/v1.0/users/ for /api/v1.0/users/{id}
+     */
+    private volatile String[] patternPrefixes = new String[0];
+
+    /**
+     * Handler for which handler methods are being detected.
+     */
+    private Object detectingHandler;
+
+    /**
+     * This is initializer method used to set default configuration required for
+     * API version management at runtime.
+     */
+    @PostConstruct
+    public void init() {
+
+        logger.debug("Initializing ReSTApiVersionManager for ReST API version management.");
+
+        this.setOrder(0);
+
+        this.setRemoveSemicolonContent(false);
+
+        this.setContentNegotiationManager(contentNegotiationManager);
+
+        this.lazyRegistrationHotVersion = (Double) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.LAZY_REGISTRATION_HOT_VERSION, ApiVersioningDefaultConfig.LAZY_REGISTRATION_HOT_VERSION, Double.class);
+
+        if (lazyRegistrationHotVersion > 0) {
+            logger.info("API versions below [{}] will be registered lazily on the first request for the version.", lazyRegistrationHotVersion);
+        }
+
+    }
+
+    /**
+     * Registering interceptors to emit resolved API version in response, to
+     * serve cached responses, after the version is emitted or redirected, to
+     * record latency of handlers and to sample requests for shadow execution.
+     */
+    @Override
+    protected void extendInterceptors(List<Object> interceptors) {
+        if (apiVersionResponseInterceptor.isEnabled()) {
+            interceptors.add(apiVersionResponseInterceptor);
+        }
+
+        if (apiVersionResponseCacheInterceptor.isEnabled()) {
+            interceptors.add(apiVersionResponseCacheInterceptor);
+        }
+
+        if (apiVersionLatencyInterceptor.isEnabled()) {
+            interceptors.add(apiVersionLatencyInterceptor);
+        }
+
+        if (apiVersionShadowInterceptor.isEnabled()) {
+            interceptors.add(apiVersionShadowInterceptor);
+        }
+    }
+
+    /**
+     * Registering handler methods of versions registered lazily when lookup
+     * needs them and retrying lookup, after lookup has released the read lock
+     * of mapping registry.
+     */
+    @Override
+    protected HandlerMethod getHandlerInternal(HttpServletRequest request) throws Exception {
+        HandlerMethod method = super.getHandlerInternal(request);
+
+        // Fallback may need more than one version registered lazily, each retry registers one version.
+        String apiVersioningBaseUrl = (String) request.getAttribute(LAZY_REGISTRATION_ATTRIBUTE);
+
+        while (null != apiVersioningBaseUrl) {
+            request.removeAttribute(LAZY_REGISTRATION_ATTRIBUTE);
+
+            registerLazyApiVersionedMappings(apiVersioningBaseUrl);
+
+            method = super.getHandlerInternal(request);
+            apiVersioningBaseUrl = (String) request.getAttribute(LAZY_REGISTRATION_ATTRIBUTE);
+        }
+
+        if (null != method && apiVersionBulkheadManager.isEnabled() && DispatcherType.ASYNC != request.getDispatcherType()
+                && null == request.getAttribute(ApiVersionShadowManager.SHADOW_REQUEST_ATTRIBUTE) && null == request.getAttribute(ApiVersionBatchManager.BATCH_REQUEST_ATTRIBUTE)) {
+            // Running handler method in bulkhead of the resolved version, if configured. Shadow executions and batch sub-requests have their own executors,
+            // async dispatches only handle the result of the handler method.
+            method = apiVersionBulkheadManager.getBulkheadHandlerMethod(method, request);
+        }
+
+        return method;
+    }
+
+    /**
+     * <p>This method is used to lookup latest available handler method for
+     * requested API.
+     * 
+     * <p>By default, This method serves requested version if requested version is
+     * not less than minimum supported version else returns
+     * {@code 404 Not Found} error.
+     * 
+     * <p>If API versioning fallback feature is enabled, This method looks up for
+     * latest available version in application using version-mapping cache if
+     * requested version is not available. This provides optimization during
+     * fallback of API versions.
+     * 
+     */
+    @Override
+    protected HandlerMethod lookupHandlerMethod(String lookupPath, HttpServletRequest request) throws Exception {
+        // Reading configuration snapshot once so that the request sees consistent configuration during fallback.
+        ApiVersioningRuntimeConfig config = apiVersioningConfigHolder.getConfig();
+
+        // Capturing lookups of client requests, skipping error dispatches of requests already captured.
+        if (apiVersionCaptureRecorder.isEnabled() && isClientRequest(request) && DispatcherType.ERROR != request.getDispatcherType()) {
+            return lookupAndCaptureHandlerMethod(lookupPath, request, config);
+        }
+
+        return lookupAndRecordHandlerMethod(lookupPath, request, config);
+    }
+
+    /**
+     * This method is used to lookup handler method timing the lookup and
+     * capturing its outcome for offline replay.
+     */
+    private HandlerMethod lookupAndCaptureHandlerMethod(String lookupPath, HttpServletRequest request, ApiVersioningRuntimeConfig config) throws Exception {
+        long startTime = System.nanoTime();
+        HandlerMethod method;
+
+        try {
+            method = lookupAndRecordHandlerMethod(lookupPath, request, config);
+        } catch (Exception e) {
+            apiVersionCaptureRecorder.record(request.getMethod(), lookupPath, null, true, config, System.nanoTime() - startTime);
+            throw e;
+        }
+
+        // Lookup aborted for lazy registration is captured when it is retried.
+        if (null == request.getAttribute(LAZY_REGISTRATION_ATTRIBUTE)) {
+            apiVersionCaptureRecorder.record(request.getMethod(), lookupPath, null == method ? null : (String) request.getAttribute(BEST_MATCHING_PATTERN_ATTRIBUTE), false, config,
+                                             System.nanoTime() - startTime);
+        }
+
+        return method;
+    }
+
+    /**
+     * This method is used to lookup handler method and record requested and
+     * resolved versions for usage analytics.
+     */
+    private HandlerMethod lookupAndRecordHandlerMethod(String lookupPath, HttpServletRequest request, ApiVersioningRuntimeConfig config) throws Exception {
+        HandlerMethod method = lookupHandlerMethod(lookupPath, request, config, false);
+
+        if (apiVersionUsageRecorder.isEnabled() && isClientRequest(request)) {
+            // Recording requested and resolved versions for usage analytics, skipping warm-up requests and async dispatches.
+            apiVersionUsageRecorder.record(lookupPath, null == method ? null : (String) request.getAttribute(BEST_MATCHING_PATTERN_ATTRIBUTE), request, config);
+        }
+
+        return method;
+    }
+
+    /**
+     * This method is used to check if request is sent by client, i.e. it is
+     * neither a warm-up request, a shadow request nor async dispatch of a
+     * request already resolved.
+     */
+    private boolean isClientRequest(HttpServletRequest request) {
+        return null == request.getAttribute(ApiVersioningWarmUpManager.WARM_UP_REQUEST_ATTRIBUTE) && null == request.getAttribute(ApiVersionShadowManager.SHADOW_REQUEST_ATTRIBUTE)
+               && DispatcherType.ASYNC != request.getDispatcherType();
+    }
+
+    /**
+     * This method is used to lookup latest available handler method for
+     * requested API using given configuration snapshot.
+     * 
+     * @param lookupPath                         Lookup path for requested API.
+     * @param request                            Current request.
+     * @param config                             Configuration snapshot for the request.
+     * @param fallback                           Flag to determine if lookup is done for fallback version.
+     * @return                                   Returns handler method if available else null.
+     */
+    private HandlerMethod lookupHandlerMethod(String lookupPath, HttpServletRequest request, ApiVersioningRuntimeConfig config, boolean fallback) throws Exception {
+
+        logger.debug("Inside ReSTApiVersionManager, received request for lookupPath: [{}]", lookupPath);
+
+        // Matching API versioning context and version at start of lookup path in a single pass.
+        long contextMatch = config.getContextMatcher().match(lookupPath);
+
+        if (contextMatch == ApiVersioningContextMatcher.NO_MATCH) {
+            // Skipping API versioning for lookup path without API versioning context or with invalid version.
+            HandlerMethod method = super.lookupHandlerMethod(lookupPath, request);
+
+            if (null != method && fallback && apiVersionResponseInterceptor.isEnabled()) {
+                // Keeping lookup path of the base API which served the request to emit it in response.
+                request.setAttribute(RESOLVED_LOOKUP_PATH_ATTRIBUTE, lookupPath);
+            }
+
+            return method;
+        }
+
+        // Checking if requested API version is disabled.
+        if (apiVersioningCache.isApiDisabled(lookupPath)) {
+            // Checking if disabled APIs are allowed in the application.
+            // Logging rejections of client requests only, synthesized lookups are not to flood the log.
+            if (config.isAllowDisabledApiVersions()) {
+                if (isClientRequest(request)) {
+                    logger.info("Disabled APIs are allowed for the application. Looking up handler method for the disabled API: [{}].", lookupPath);
+                }
+            } else {
+                if (isClientRequest(request)) {
+                    logger.warn("Disabled APIs are not allowed for the application. Aborting request for the disabled API: [{}] with 404-NOT FOUND error.", lookupPath);
+                }
+
+                return null;
+            }
+        }
+
+        ApiVersioningContext context = config.getMatchedContext(contextMatch);
+
+        // The version is between API versioning context and base API path. If requested
+        // path has format /api/v1.0/users, version is 1.0 and base API path is /users.
+        int versionEndIndex = ApiVersioningContextMatcher.getVersionEndIndex(contextMatch);
+
+        double requestedVersion = ApiVersioningContextMatcher.parseVersion(lookupPath, context.getApiAndVersionContextLength(), versionEndIndex);
+
+        // Handling the scenario when requested version is less than minimum version.
+        if (requestedVersion < context.getMinVersionSupport()) {
+            if (isClientRequest(request)) {
+                logger.warn("Request received for API: [{}] with version: [{}] lower than minimum supported version: [{}]. Aborting request with 404-NOT FOUND error.", lookupPath, requestedVersion, context.getMinVersionSupport());
+            }
+
+            return null;
+        }
+
+        // Aborting lookup if handler methods of the requested version are to be registered lazily.
+        // Handler methods can't be registered while lookup holds the read lock of mapping registry,
+        // they are registered and lookup is retried by getHandlerInternal.
+        if (apiVersioningCache.hasLazyApiVersionedMappings() && null == request.getAttribute(ApiVersioningWarmUpManager.WARM_UP_REQUEST_ATTRIBUTE)) {
+            String apiVersioningBaseUrl = apiVersioningCache.getApiVersioningBaseUrl(context.getName(), requestedVersion);
+
+            // Handlers of the context may declare the version with different text, for eg. 2 and 2.0, hence
+            // handler methods registered with base URL of the requested path are the ones to be registered.
+            if (null != apiVersioningBaseUrl && (apiVersioningBaseUrl.length() != versionEndIndex || Boolean.FALSE.equals(lookupPath.startsWith(apiVersioningBaseUrl)))) {
+                apiVersioningBaseUrl = lookupPath.substring(0, versionEndIndex);
+            }
+
+            if (null != apiVersioningBaseUrl && null != apiVersioningCache.getLazyApiVersionedMappings(apiVersioningBaseUrl)) {
+                request.setAttribute(LAZY_REGISTRATION_ATTRIBUTE, apiVersioningBaseUrl);
+                return null;
+            }
+        }
+
+        // Limiting rate of requested version before lookup and fallback, skipping warm-up requests and async dispatches. Permit is acquired
+        // once per request, lookup retried after handler methods are registered lazily doesn't acquire it again.
+        if (Boolean.FALSE.equals(fallback) && apiVersionRateLimiter.isEnabled() && isClientRequest(request)) {
+            HandlerMethod throttledHandlerMethod = apiVersionRateLimiter.acquire(context, requestedVersion, lookupPath, versionEndIndex, request);
+
+            if (null != throttledHandlerMethod) {
+                return throttledHandlerMethod;
+            }
+        }
+
+        // Base API path removing /${apiContext}/${versionContext}${requested-api-version} from lookupPath.
+        // Context matcher ensures that base API path starts with '/'.
+        String baseLookupPath = lookupPath.substring(versionEndIndex);
+
+        // Key of base API path in version-mapping cache for the API context, base API paths of APIs registered
+        // with URI template variables or wildcards are resolved to key of the pattern. for eg. /users/42 -> /users/{id}
+        String mappingKey = apiVersioningCache.resolveVersionIndexKey(context.getMappingKey(baseLookupPath));
+
+        // Flag to determine if only mappings of the API in version-mapping cache can match the lookup path.
+        boolean cachedMappingsOnly = isMatchedByCachedMappingsOnly(lookupPath);
+
+        // Flag to determine if requested version is registered for the API but none of its handler methods can serve the request.
+        boolean unservedVersion = cachedMappingsOnly && Boolean.FALSE.equals(apiVersioningCache.isApiVersionServingRequest(mappingKey, requestedVersion, request));
+
+        // Matching all registered mappings to find that none matches is the costliest lookup, it is skipped if version-mapping
+        // cache tells that requested version is not registered for the API or can't serve request method and content types.
+        HandlerMethod method = unservedVersion || (cachedMappingsOnly && apiVersioningCache.isApiVersionUnregisteredForMapping(mappingKey, requestedVersion))
+                               ? null : super.lookupHandlerMethod(lookupPath, request);
+
+        if (null != method) {
+            if (apiVersioningCache.isApiVersionedMappingDisabledAtRuntime((String) request.getAttribute(BEST_MATCHING_PATTERN_ATTRIBUTE))) {
+                if (isClientRequest(request)) {
+                    logger.warn("API version is disabled at runtime. Aborting request for the API: [{}] with 404-NOT FOUND error.", lookupPath);
+                }
+
+                return null;
+            }
+
+            if (fallback && apiVersionResponseInterceptor.isEnabled()) {
+                // Keeping lookup path of the version which served the request to emit it in response.
+                request.setAttribute(RESOLVED_LOOKUP_PATH_ATTRIBUTE, lookupPath);
+            }
+
+            return method;
+        }
+
+        logger.debug("Handler method is not available for lookup path: [{}].", lookupPath);
+
+        // Resolving version to lookup, not less than minimum supported version.
+        int contextIndex = ApiVersioningContextMatcher.getContextIndex(contextMatch);
+
+        double previousVersion = apiVersionFallbackResolver.resolveFallbackVersion(config, context, contextIndex, mappingKey, requestedVersion);
+
+        // Lookup path of the first version skipped as none of its handler methods can serve the request.
+        String unservedLookupPath = unservedVersion ? lookupPath : null;
+
+        // Skipping previous versions which can't serve request method and content types, instead of looking them up.
+        while (Boolean.FALSE.equals(Double.isNaN(previousVersion)) && Boolean.FALSE.equals(apiVersioningCache.isApiVersionServingRequest(mappingKey, previousVersion, request))) {
+            String previousLookupPath = getApiVersionedLookupPath(config, context, mappingKey, previousVersion, baseLookupPath);
+
+            if (Boolean.FALSE.equals(isMatchedByCachedMappingsOnly(previousLookupPath))) {
+                break;
+            }
+
+            logger.debug("Skipping version: [{}] for lookup path: [{}] as it can't serve request method: [{}].", previousVersion, lookupPath, request.getMethod());
+
+            if (null == unservedLookupPath) {
+                unservedLookupPath = previousLookupPath;
+            }
+
+            previousVersion = apiVersionFallbackResolver.resolveFallbackVersion(config, context, contextIndex, mappingKey, previousVersion);
+        }
+
+        if (Boolean.FALSE.equals(Double.isNaN(previousVersion))) {
+            // Generating lookup path with previous version to lookup recursively.
+            lookupPath = getApiVersionedLookupPath(config, context, mappingKey, previousVersion, baseLookupPath);
+
+            return lookupHandlerMethod(lookupPath, new FallbackRequestWrapper(request, lookupPath), config, true);
+
+        } else if (null != unservedLookupPath) {
+
+            // Looking up the first skipped version, so that the request is rejected by handler mapping with
+            // status for the request method or content types which none of the versions can serve.
+            return super.lookupHandlerMethod(unservedLookupPath, new FallbackRequestWrapper(request, unservedLookupPath));
+
+        } else if (config.isFallbackRetryWithBaseLookupPath()) {
+
+            logger.debug("Retrying fallback with base lookup path: [{}]", baseLookupPath);
+
+            // Looking up for non-versioned base API path
+            return lookupHandlerMethod(baseLookupPath, new FallbackRequestWrapper(request, baseLookupPath), config, true);
+
+        }
+
+        return null;
+
+    }
+
+    /**
+     * This method is used to get lookup path of base API path for the version.
+     * API versioning base URL which the version of base mapping is registered
+     * with is used, the version is formatted only if it is not registered.
+     */
+    private String getApiVersionedLookupPath(ApiVersioningRuntimeConfig config, ApiVersioningContext context, String mappingKey, double apiVersion, String baseLookupPath) {
+        String apiVersioningBaseUrl = apiVersioningCache.getApiVersioningBaseUrl(mappingKey, context.getName(), apiVersion);
+
+        if (null == apiVersioningBaseUrl) {
+            apiVersioningBaseUrl = context.getApiAndVersionContext() + config.formatVersion(apiVersion);
+        }
+
+        return apiVersioningBaseUrl.concat(baseLookupPath);
+    }
+
+    /**
+     * This method is used to check if lookup path can be matched only by
+     * mappings of the API in version-mapping cache, i.e. the cache tells
+     * whether lookup of the version would match any of the mappings.
+     * 
+     * <p>Only lookup paths of APIs registered without wildcards or URI template
+     * variables are known to the cache, lookup paths ending with '/' or having
+     * extension are matched by suffix and trailing slash matching of mappings,
+     * they are always looked up.
+     */
+    private boolean isMatchedByCachedMappingsOnly(String lookupPath) {
+        int lastSlashIndex = lookupPath.lastIndexOf('/');
+
+        if (lastSlashIndex == lookupPath.length() - 1 || lookupPath.indexOf('.', lastSlashIndex) >= 0) {
+            return false;
+        }
+
+        for (String patternPrefix : patternPrefixes) {
+            if (lookupPath.startsWith(patternPrefix)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Keeping literal prefixes of patterns registered with wildcards or URI
+     * template variables, including patterns registered lazily, as the patterns
+     * may match lookup paths of versions not registered for the API.
+     */
+    @Override
+    protected void registerHandlerMethod(Object handler, Method method, RequestMappingInfo mapping) {
+        super.registerHandlerMethod(handler, method, mapping);
+
+        addPatternPrefixes(mapping);
+    }
+
+    @Override
+    public void registerMapping(RequestMappingInfo mapping, Object handler, Method method) {
+        super.registerMapping(mapping, handler, method);
+
+        addPatternPrefixes(mapping);
+    }
+
+    private synchronized void addPatternPrefixes(RequestMappingInfo mapping) {
+        List<String> prefixes = new ArrayList<>(Arrays.asList(patternPrefixes));
+
+        for (String pattern : mapping.getPatternsCondition().getPatterns()) {
+            if (getPathMatcher().isPattern(pattern)) {
+                String prefix = pattern.substring(0, StringUtils.indexOfAny(pattern, "*?{"));
+
+                if (Boolean.FALSE.equals(prefixes.contains(prefix))) {
+                    prefixes.add(prefix);
+                }
+            }
+        }
+
+        if (prefixes.size() != patternPrefixes.length) {
+            patternPrefixes = prefixes.toArray(new String[prefixes.size()]);
+        }
+    }
+
+    /**
+     * Keeping handler for which handler methods are detected to register the
+     * handler methods lazily.
+     */
+    @Override
+    protected void detectHandlerMethods(Object handler) {
+        detectingHandler = handler;
+
+        try {
+            super.detectHandlerMethods(handler);
+        } finally {
+            detectingHandler = null;
+        }
+    }
+
+    /**
+     * This method is used to get API versioned mapping for handler method if
+     * API versioning is enabled for particular handler.
+     * 
+     * <p>If lazy registration is enabled, mapping for version below the hot
+     * version is not returned and descriptor of the handler method is kept in
+     * {@link ApiVersioningCache} to register the mapping on the first request
+     * for the version.
+     * 
+     * @return                                   Returns API versioned RequestMappingInfo
+     */
+    @Override
+    protected RequestMappingInfo getMappingForMethod(Method method, Class<?> handlerType) {
+        long startTime = System.nanoTime();
+
+        try {
+            return getEagerApiVersionedMappingForMethod(method, handlerType);
+        } finally {
+            apiVersioningStartupMetrics.recordMappingForMethod(System.nanoTime() - startTime);
+        }
+    }
+
+    private RequestMappingInfo getEagerApiVersionedMappingForMethod(Method method, Class<?> handlerType) {
+        RequestMappingInfo mapping = getApiVersionedMappingForMethod(method, handlerType);
+
+        if (lazyRegistrationHotVersion > 0 && null != mapping && null != detectingHandler) {
+            String apiVersioningBaseUrl = getLazyApiVersioningBaseUrl(mapping);
+
+            if (null != apiVersioningBaseUrl) {
+                logger.debug("Deferring registration of handler method [{}] for API versioning base URL: [{}]", method, apiVersioningBaseUrl);
+
+                apiVersioningCache.cacheLazyApiVersionedMapping(apiVersioningBaseUrl, new ApiVersionedMappingDescriptor(detectingHandler, handlerType, method));
+
+                return null;
+            }
+        }
+
+        return mapping;
+    }
+
+    /**
+     * This method is used to get API versioning base URL of the mapping if its
+     * version is below the hot version.
+     * 
+     * @param mapping                            API versioned mapping.
+     * @return                                   Returns API versioning base URL or null if mapping is to be registered eagerly.
+     */
+    private String getLazyApiVersioningBaseUrl(RequestMappingInfo mapping) {
+        ApiVersioningRuntimeConfig config = apiVersioningConfigHolder.getConfig();
+
+        for (String pattern : mapping.getPatternsCondition().getPatterns()) {
+            ApiVersionedMapping versionedMapping = apiVersioningCache.getApiVersionedMapping(pattern);
+            long contextMatch = config.getContextMatcher().match(pattern);
+
+            if (null == versionedMapping || versionedMapping.getVersion() >= lazyRegistrationHotVersion || contextMatch == ApiVersioningContextMatcher.NO_MATCH) {
+                return null;
+            }
+
+            return pattern.substring(0, ApiVersioningContextMatcher.getVersionEndIndex(contextMatch));
+        }
+
+        return null;
+    }
+
+    /**
+     * This method is used to register handler methods kept for lazy
+     * registration of API version. The handler methods are registered only
+     * once, other requests for the version wait until they are registered.
+     * 
+     * @param apiVersioningBaseUrl               API versioning base URL for the version. for eg. /api/v1.0
+     */
+    private void registerLazyApiVersionedMappings(String apiVersioningBaseUrl) {
+        List<ApiVersionedMappingDescriptor> descriptors = null == apiVersioningBaseUrl ? null : apiVersioningCache.getLazyApiVersionedMappings(apiVersioningBaseUrl);
+
+        if (null == descriptors) {
+            return;
+        }
+
+        synchronized (descriptors) {
+            // Checking if handler methods are already registered by another request.
+            if (descriptors != apiVersioningCache.getLazyApiVersionedMappings(apiVersioningBaseUrl)) {
+                return;
+            }
+
+            long startTime = System.nanoTime();
+
+            for (ApiVersionedMappingDescriptor descriptor : descriptors) {
+                RequestMappingInfo mapping = getApiVersionedMappingForMethod(descriptor.getMethod(), descriptor.getHandlerType());
+
+                if (null != mapping) {
+                    registerHandlerMethod(descriptor.getHandler(), AopUtils.selectInvocableMethod(descriptor.getMethod(), descriptor.getHandlerType()), mapping);
+                }
+            }
+
+            apiVersioningCache.recordLazyRegistration(apiVersioningBaseUrl, descriptors);
+
+            logger.info("Registered [{}] handler methods lazily for API versioning base URL: [{}] in [{}] ms.", descriptors.size(), apiVersioningBaseUrl, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        }
+    }
+
+    private RequestMappingInfo getApiVersionedMappingForMethod(Method method, Class<?> handlerType) {
+        RequestMappingInfo existingRequestMappingInfo = super.getMappingForMethod(method, handlerType);
+
+        // API versioning fallback is enabled for ReSTApiVersionManager.
+        boolean isApiVersioningFallbackEnabled = true;
+
+        if (handlerType.getName().equals(ApiVersioningConstants.BASEI_ERROR_CONTROLLER_CLASS_NAME)) {
+            // If handlerType is basic error controller, return existingRequestMappingInfo
+            logger.debug("Returning existing handler mapping for handlerType: [{}]", handlerType.getName());
+            return existingRequestMappingInfo;
+        } else {
+            // Get API Versioned RequestMappingInfo if applicable for handlerMethod.
+            RequestMappingInfo apiVersionedRequestMappingInfo = apiVersioningUtility.getApiVersionedRequestMappingInfoForHandlerMethod(method, handlerType, existingRequestMappingInfo, isApiVersioningFallbackEnabled, this);
+            
+            return apiVersionedRequestMappingInfo;
+        }
+    }
+
+    /**
+     * Request wrapper exposing lookup path of the version looked up during
+     * fallback. Fallback of a wrapped request wraps the original request, so
+     * that requests are not nested once per fallback step.
+     */
+    private static final class FallbackRequestWrapper extends HttpServletRequestWrapper {
+
+        private final String lookupPath;
+
+        private FallbackRequestWrapper(HttpServletRequest request, String lookupPath) {
+            super(request instanceof FallbackRequestWrapper ? (HttpServletRequest) ((FallbackRequestWrapper) request).getRequest() : request);
+            this.lookupPath = lookupPath;
+        }
+
+        @Override
+        public String getRequestURI() {
+            return lookupPath;
+        }
+
+        @Override
+        public String getServletPath() {
+            return lookupPath;
+        }
+
+    }
+
+}
@@ -0,0 +1,358 @@
+package com.mindstixlabs.web.api.version.management.admin;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.mindstixlabs.web.api.version.management.annotations.ApiVersion;
+import com.mindstixlabs.web.api.version.management.batch.ApiVersionBatchManager;
+import com.mindstixlabs.web.api.version.management.cache.ApiVersionResponseCache;
+import com.mindstixlabs.web.api.version.management.cache.ApiVersioningCache;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigHolder;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigKeys;
+import com.mindstixlabs.web.api.version.management.core.ApiVersioningContext;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningDefaultConfig;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningRuntimeConfig;
+import com.mindstixlabs.web.api.version.management.handlers.ApiVersionBulkheadManager;
+import com.mindstixlabs.web.api.version.management.handlers.ApiVersionFallbackResolver;
+import com.mindstixlabs.web.api.version.management.handlers.ApiVersionRateLimiter;
+import com.mindstixlabs.web.api.version.management.handlers.ApiVersionShadowManager;
+import com.mindstixlabs.web.api.version.management.handlers.ApiVersioningWarmUpManager;
+import com.mindstixlabs.web.api.version.management.metrics.ApiVersionCaptureRecorder;
+import com.mindstixlabs.web.api.version.management.metrics.ApiVersionLatencyRecorder;
+import com.mindstixlabs.web.api.version.management.metrics.ApiVersionUsageRecorder;
+import com.mindstixlabs.web.api.version.management.metrics.ApiVersioningFootprintEstimator;
+import com.mindstixlabs.web.api.version.management.metrics.ApiVersioningStartupMetrics;
+import com.mindstixlabs.web.api.version.management.metrics.ApiVersionUsageSnapshot;
+import com.mindstixlabs.web.api.version.management.util.ApiVersioningUtility;
+
+/**
+ * <code>ApiVersioningAdminEndpoint</code> is used to manage API versions at
+ * runtime without restarting the application.
+ * 
+ * <p>This endpoint allows to disable or re-enable particular version of an API
+ * and to raise or lower minimum supported version. Disabled versions are
+ * rejected with {@code 404 Not Found} error and skipped during fallback.
+ * 
+ * <p>The endpoint is available only if
+ * <code>rest.api.version.management.admin.enabled</code> is true. Securing the
+ * endpoint is responsibility of the application.
+ * 
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+@RestController
+@ApiVersion(skipVersioning = true)
+@ConditionalOnProperty(name = ApiVersioningConfigKeys.ADMIN_ENDPOINT_ENABLED, havingValue = "true")
+@RequestMapping("${" + ApiVersioningConfigKeys.ADMIN_ENDPOINT_PATH + ":" + ApiVersioningDefaultConfig.ADMIN_ENDPOINT_PATH + "}")
+public class ApiVersioningAdminEndpoint {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiVersioningAdminEndpoint.class);
+
+    @Autowired
+    private ApiVersioningCache apiVersioningCache;
+
+    @Autowired
+    private ApiVersioningConfigHolder apiVersioningConfigHolder;
+
+    @Autowired
+    private ApiVersionUsageRecorder apiVersionUsageRecorder;
+
+    @Autowired
+    private ApiVersioningWarmUpManager apiVersioningWarmUpManager;
+
+    @Autowired
+    private ApiVersioningFootprintEstimator apiVersioningFootprintEstimator;
+
+    @Autowired
+    private ApiVersionRateLimiter apiVersionRateLimiter;
+
+    @Autowired
+    private ApiVersionBulkheadManager apiVersionBulkheadManager;
+
+    @Autowired
+    private ApiVersionResponseCache apiVersionResponseCache;
+
+    @Autowired
+    private ApiVersionFallbackResolver apiVersionFallbackResolver;
+
+    @Autowired
+    private ApiVersionShadowManager apiVersionShadowManager;
+
+    @Autowired
+    private ApiVersionLatencyRecorder apiVersionLatencyRecorder;
+
+    @Autowired
+    private ApiVersioningStartupMetrics apiVersioningStartupMetrics;
+
+    @Autowired
+    private ApiVersionBatchManager apiVersionBatchManager;
+
+    @Autowired
+    private ApiVersionCaptureRecorder apiVersionCaptureRecorder;
+
+    /**
+     * This method is used to get API versions state managed at runtime.
+     * 
+     * @return                                   Returns minimum, current and disabled versions.
+     */
+    @RequestMapping(method = RequestMethod.GET)
+    public Map<String, Object> getApiVersionsState() {
+        ApiVersioningRuntimeConfig config = apiVersioningConfigHolder.getConfig();
+
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("minVersionSupport", config.getMinVersionSupport());
+        state.put("currentVersionSupport", config.getCurrentVersionSupport());
+        state.put("disabledVersions", apiVersioningCache.getRuntimeDisabledApiVersions());
+
+        Map<String, Object> contexts = new LinkedHashMap<>();
+
+        // Version support of additional API contexts.
+        for (ApiVersioningContext context : config.getContexts()) {
+            if (Boolean.FALSE.equals(context.isPrimary())) {
+                Map<String, Object> contextState = new LinkedHashMap<>();
+                contextState.put("baseUrl", context.getApiAndVersionContext());
+                contextState.put("minVersionSupport", context.getMinVersionSupport());
+                contextState.put("currentVersionSupport", context.getCurrentVersionSupport());
+
+                contexts.put(context.getName(), contextState);
+            }
+        }
+
+        state.put("contexts", contexts);
+
+        Map<String, Object> lazyRegistration = new LinkedHashMap<>();
+        lazyRegistration.put("pendingVersions", apiVersioningCache.getLazyApiVersioningBaseUrls());
+        lazyRegistration.put("registrations", apiVersioningCache.getLazyRegistrations());
+        lazyRegistration.put("registeredMappings", apiVersioningCache.getLazyRegisteredMappings());
+
+        state.put("lazyRegistration", lazyRegistration);
+
+        return state;
+    }
+
+    /**
+     * This method is used to get latest API version usage snapshot.
+     * 
+     * @return                                   Returns latest usage snapshot or 404 if usage analytics is disabled.
+     */
+    @RequestMapping(value = "/usage", method = RequestMethod.GET)
+    public ResponseEntity<ApiVersionUsageSnapshot> getApiVersionUsage() {
+        if (Boolean.FALSE.equals(apiVersionUsageRecorder.isEnabled())) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok(apiVersionUsageRecorder.getLatestSnapshot());
+    }
+
+    /**
+     * This method is used to get warm-up progress and readiness of versioned APIs.
+     * 
+     * @return                                   Returns warm-up progress with 503 until the application is ready.
+     */
+    @RequestMapping(value = "/warm-up", method = RequestMethod.GET)
+    public ResponseEntity<Map<String, Object>> getWarmUpProgress() {
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("ready", apiVersioningWarmUpManager.isReady());
+        progress.put("state", apiVersioningWarmUpManager.getState());
+        progress.put("completedLookups", apiVersioningWarmUpManager.getCompletedLookups());
+        progress.put("totalLookups", apiVersioningWarmUpManager.getTotalLookups());
+        progress.put("elapsedMillis", apiVersioningWarmUpManager.getElapsedMillis());
+        progress.put("timeBudgetMillis", apiVersioningWarmUpManager.getTimeBudgetMillis());
+
+        return ResponseEntity.status(apiVersioningWarmUpManager.isReady() ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(progress);
+    }
+
+    /**
+     * This method is used to get estimated memory retained by API versioning.
+     * 
+     * @return                                   Returns estimated bytes retained in mapping registry and versioning caches.
+     */
+    @RequestMapping(value = "/footprint", method = RequestMethod.GET)
+    public Map<String, Object> getApiVersioningFootprint() {
+        return apiVersioningFootprintEstimator.estimate();
+    }
+
+    /**
+     * This method is used to get time spent by API versioning at startup.
+     * 
+     * @return                                   Returns time spent to build versioned mappings and to validate API versions.
+     */
+    @RequestMapping(value = "/startup", method = RequestMethod.GET)
+    public Map<String, Object> getApiVersioningStartupMetrics() {
+        return apiVersioningStartupMetrics.getMetrics();
+    }
+
+    /**
+     * This method is used to get configured rate limits for API versions.
+     * 
+     * @return                                   Returns rate limits with number of throttled requests.
+     */
+    @RequestMapping(value = "/rate-limits", method = RequestMethod.GET)
+    public List<Map<String, Object>> getApiVersionRateLimits() {
+        return apiVersionRateLimiter.getRateLimits();
+    }
+
+    /**
+     * This method is used to get saturation metrics of bulkheads for API versions.
+     * 
+     * @return                                   Returns usage of threads and queue of each bulkhead.
+     */
+    @RequestMapping(value = "/bulkheads", method = RequestMethod.GET)
+    public List<Map<String, Object>> getApiVersionBulkheads() {
+        return apiVersionBulkheadManager.getBulkheads();
+    }
+
+    /**
+     * This method is used to get statistics of cached responses of API versions.
+     * 
+     * @return                                   Returns number of cached responses, bytes, hits, misses, evictions and invalidations.
+     */
+    @RequestMapping(value = "/response-cache", method = RequestMethod.GET)
+    public Map<String, Object> getApiVersionResponseCache() {
+        return apiVersionResponseCache.getStats();
+    }
+
+    /**
+     * This method is used to get statistics of generated fallback dispatcher.
+     * 
+     * @return                                   Returns number of generations and size of current dispatcher.
+     */
+    @RequestMapping(value = "/fallback-dispatcher", method = RequestMethod.GET)
+    public Map<String, Object> getApiVersionFallbackDispatcher() {
+        return apiVersionFallbackResolver.getStats();
+    }
+
+    /**
+     * This method is used to compare latency and allocation of API versions
+     * with their shadow versions.
+     * 
+     * @return                                   Returns metrics of shadow rules.
+     */
+    @RequestMapping(value = "/shadows", method = RequestMethod.GET)
+    public List<Map<String, Object>> getApiVersionShadows() {
+        return apiVersionShadowManager.getShadows();
+    }
+
+    /**
+     * This method is used to get latency percentiles of handlers per base
+     * mapping and version.
+     * 
+     * @return                                   Returns latency summary of versioned mappings.
+     */
+    @RequestMapping(value = "/latency", method = RequestMethod.GET)
+    public List<Map<String, Object>> getApiVersionLatencies() {
+        return apiVersionLatencyRecorder.getLatencies();
+    }
+
+    /**
+     * This method is used to compare latency of API versions with their
+     * previous versions.
+     * 
+     * @param regressedOnly                      Flag to return only versions regressed beyond configured margin.
+     * @return                                   Returns p50 and p99 latency of versions and their previous versions.
+     */
+    @RequestMapping(value = "/latency/regressions", method = RequestMethod.GET)
+    public List<Map<String, Object>> getApiVersionLatencyRegressions(@RequestParam(value = "regressedOnly", defaultValue = "false") boolean regressedOnly) {
+        return apiVersionLatencyRecorder.getRegressions(regressedOnly);
+    }
+
+    /**
+     * This method is used to get number of batches and sub-requests executed by batch endpoint.
+     * 
+     * @return                                   Returns number of batches with executed, rejected and failed sub-requests.
+     */
+    @RequestMapping(value = "/batches", method = RequestMethod.GET)
+    public Map<String, Object> getBatches() {
+        return apiVersionBatchManager.getMetrics();
+    }
+
+    /**
+     * This method is used to get number of lookups captured for offline replay.
+     * 
+     * @return                                   Returns captured and dropped lookups with capture files written.
+     */
+    @RequestMapping(value = "/capture", method = RequestMethod.GET)
+    public Map<String, Object> getCapture() {
+        return apiVersionCaptureRecorder.getMetrics();
+    }
+
+    /**
+     * This method is used to disable API version for handler mapping at runtime.
+     * 
+     * @param mapping                            Base mapping for API. for eg. /users or partner:/users
+     * @param version                            API version to be disabled.
+     */
+    @RequestMapping(value = "/disabled-versions", method = RequestMethod.PUT)
+    public ResponseEntity<Map<String, Object>> disableApiVersion(@RequestParam("mapping") String mapping, @RequestParam("version") String version) {
+        return setApiVersionDisabled(mapping, version, true);
+    }
+
+    /**
+     * This method is used to re-enable API version for handler mapping at runtime.
+     * 
+     * @param mapping                            Base mapping for API. for eg. /users
+     * @param version                            API version to be re-enabled.
+     */
+    @RequestMapping(value = "/disabled-versions", method = RequestMethod.DELETE)
+    public ResponseEntity<Map<String, Object>> enableApiVersion(@RequestParam("mapping") String mapping, @RequestParam("version") String version) {
+        return setApiVersionDisabled(mapping, version, false);
+    }
+
+    /**
+     * This method is used to raise or lower minimum supported version at runtime.
+     * 
+     * @param version                            New minimum supported version.
+     * @param contextName                        Name of API context, primary context if empty.
+     */
+    @RequestMapping(value = "/min-version", method = RequestMethod.PUT)
+    public ResponseEntity<Map<String, Object>> updateMinVersionSupport(@RequestParam("version") String version, @RequestParam(value = "context", defaultValue = "") String contextName) {
+        ApiVersioningContext context = apiVersioningConfigHolder.getConfig().getContext(contextName);
+
+        if (Boolean.FALSE.equals(isValidVersionParam(version)) || null == context) {
+            return ResponseEntity.badRequest().body(getApiVersionsState());
+        }
+
+        double minVersionSupport = Double.parseDouble(version);
+
+        if (minVersionSupport > context.getCurrentVersionSupport()) {
+            logger.warn("Minimum version support: [{}] can not be more than current version support. Ignoring the update.", minVersionSupport);
+            return ResponseEntity.badRequest().body(getApiVersionsState());
+        }
+
+        apiVersioningConfigHolder.updateConfig(config -> config.withContextVersionSupport(contextName, minVersionSupport, config.getContext(contextName).getCurrentVersionSupport()));
+
+        logger.warn("Minimum version support for API context: [{}] is updated to [{}] at runtime.", contextName, minVersionSupport);
+
+        return ResponseEntity.ok(getApiVersionsState());
+    }
+
+    private boolean isValidVersionParam(String version) {
+        return StringUtils.isNotBlank(version) && ApiVersioningUtility.isValidApiVersion(version);
+    }
+
+    private ResponseEntity<Map<String, Object>> setApiVersionDisabled(String mapping, String version, boolean disabled) {
+        if (Boolean.FALSE.equals(isValidVersionParam(version))
+                || Boolean.FALSE.equals(apiVersioningCache.isApiVersionRegistered(mapping, Double.parseDouble(version)))) {
+            logger.warn("Version: [{}] is not registered for handler mapping: [{}].", version, mapping);
+            return ResponseEntity.badRequest().body(getApiVersionsState());
+        }
+
+        apiVersioningCache.setApiVersionDisabledAtRuntime(mapping, Double.parseDouble(version), disabled);
+
+        return ResponseEntity.ok(getApiVersionsState());
+    }
+
+}
@@ -29,4 +29,11 @@ public @interface ApiVersion {
      */
     public boolean skipVersioning() default false;
 
+    /**
+     * Name of the API context configured using rest.api.version.management.contexts
+     * for all APIs in the controller. Primary API context is used if empty.
+     * @return
+     */
+    public String context() default "";
+
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.mindstixlabs.web.api.version.management.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import com.mindstixlabs.web.api.version.management.ReSTApiVersionManager;
+
+/**
+ * <code>ApiVersionCacheable</code> is an annotation used for caching responses
+ * of idempotent GET APIs.<br>
+ *
+ * Responses are cached against the handler method and the version resolved by
+ * {@link ReSTApiVersionManager} instead of the requested path, so requests for
+ * all versions served by the same handler through fallback share one cached
+ * response. Headers of the response are cached with its body, requests
+ * carrying credentials or having a session are not cached. The annotation is
+ * effective only if response cache is enabled.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(value = { ElementType.TYPE, ElementType.METHOD })
+public @interface ApiVersionCacheable {
+
+    /**
+     * Time to live of cached responses in seconds.
+     */
+    long ttlSeconds() default 60;
+
+}
@@ -0,0 +1,78 @@
+package com.mindstixlabs.web.api.version.management.batch;
+
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import com.mindstixlabs.web.api.version.management.annotations.ApiVersion;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigKeys;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningDefaultConfig;
+
+/**
+ * <code>ApiVersionBatchEndpoint</code> is used to execute versioned
+ * sub-requests in one call, to save round-trips of clients making many small
+ * calls at once.
+ * 
+ * <p>The endpoint accepts a JSON array of {@link ApiVersionBatchRequest} and
+ * streams result of every sub-request as a line of JSON, in the order in which
+ * sub-requests finish. for eg.
+ * 
+ * <pre>
+ * POST /batch
+ * [{"id": "user", "method": "GET", "path": "/api/v2.0/users/7"},
+ *  {"id": "order", "method": "POST", "path": "/api/v2.0/orders", "body": {"item": 1}, "dependsOn": "user"}]
+ * 
+ * {"id":"user","status":200,"elapsedMillis":3,"headers":{...},"body":{...}}
+ * {"id":"order","status":201,"elapsedMillis":5,"headers":{...},"body":{...}}
+ * </pre>
+ * 
+ * <p>The endpoint is available only if
+ * <code>rest.api.version.management.batch.enabled</code> is true.
+ * 
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ *
+ * @see {@link ApiVersionBatchManager}
+ */
+@RestController
+@ApiVersion(skipVersioning = true)
+@ConditionalOnProperty(name = ApiVersioningConfigKeys.BATCH_ENABLED, havingValue = "true")
+@RequestMapping("${" + ApiVersioningConfigKeys.BATCH_PATH + ":" + ApiVersioningDefaultConfig.BATCH_PATH + "}")
+public class ApiVersionBatchEndpoint {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiVersionBatchEndpoint.class);
+
+    @Autowired
+    private ApiVersionBatchManager apiVersionBatchManager;
+
+    /**
+     * This method is used to execute sub-requests of a batch.
+     * 
+     * @param requests                           Sub-requests of the batch.
+     * @return                                   Returns results of sub-requests streamed as JSON lines, 400-BAD REQUEST if the batch is invalid.
+     */
+    @RequestMapping(method = RequestMethod.POST, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> executeBatch(@RequestBody List<ApiVersionBatchRequest> requests, HttpServletRequest request) {
+        String error = apiVersionBatchManager.validate(requests);
+
+        if (null != error) {
+            logger.warn("Rejecting invalid batch with 400-BAD REQUEST error: {}.", error);
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok().contentType(ApiVersionBatchManager.BATCH_RESULTS_MEDIA_TYPE).body(apiVersionBatchManager.execute(requests, request));
+    }
+
+}
@@ -0,0 +1,574 @@
+package com.mindstixlabs.web.api.version.management.batch;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+/**
+ * <code>ApiVersionBatchExchange</code> is request and response of a
+ * sub-request executed by {@link ApiVersionBatchManager}.
+ *
+ * <p>The request is built from a copy of the batch request taken on the
+ * servlet thread, as the batch request must not be accessed by threads
+ * executing sub-requests. The response keeps status, headers and body written
+ * by the handler method to be sent as result of the sub-request. Methods not
+ * needed to resolve and invoke handler methods return default values.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+final class ApiVersionBatchExchange {
+
+    private static final DateTimeFormatter DATE_HEADER_FORMAT = DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC);
+
+    private final HttpServletRequest request;
+
+    private final HttpServletResponse response;
+
+    private int status = HttpServletResponse.SC_OK;
+
+    private final Map<String, List<String>> responseHeaders = new LinkedCaseInsensitiveMap<>();
+
+    private String contentType;
+
+    private String characterEncoding;
+
+    private final ByteArrayOutputStream responseBody = new ByteArrayOutputStream();
+
+    private PrintWriter writer;
+
+    private boolean committed;
+
+    ApiVersionBatchExchange(Origin origin, String method, String path, Map<String, String> headers, byte[] body, Map<String, Object> attributes) {
+        this.request = createRequest(origin, method, path, headers, body, attributes);
+        this.response = createResponse();
+    }
+
+    HttpServletRequest getRequest() {
+        return request;
+    }
+
+    HttpServletResponse getResponse() {
+        return response;
+    }
+
+    int getStatus() {
+        return status;
+    }
+
+    /**
+     * This method is used to get headers of the response including content type.
+     *
+     * @return                                   Returns headers with all values of every header.
+     */
+    Map<String, List<String>> getResponseHeaders() {
+        Map<String, List<String>> headers = new LinkedHashMap<>(responseHeaders);
+
+        if (null != contentType) {
+            headers.put(HttpHeaders.CONTENT_TYPE, Collections.singletonList(getFullContentType()));
+        }
+
+        return headers;
+    }
+
+    String getContentType() {
+        return getFullContentType();
+    }
+
+    /**
+     * This method is used to get body written to the response.
+     *
+     * @return                                   Returns body flushing text written by writer of the response.
+     */
+    byte[] getResponseBody() {
+        if (null != writer) {
+            writer.flush();
+        }
+
+        return responseBody.toByteArray();
+    }
+
+    Charset getResponseCharset() {
+        return null == characterEncoding ? StandardCharsets.UTF_8 : Charset.forName(characterEncoding);
+    }
+
+    private String getFullContentType() {
+        if (null == contentType || null == characterEncoding || contentType.toLowerCase(Locale.ENGLISH).contains("charset=")) {
+            return contentType;
+        }
+
+        return contentType + ";charset=" + characterEncoding;
+    }
+
+    private static HttpServletRequest createRequest(Origin origin, String method, String path, Map<String, String> headers, byte[] body, Map<String, Object> attributes) {
+        UriComponents uriComponents = UriComponentsBuilder.fromUriString(path).build();
+
+        String lookupPath = uriComponents.getPath();
+        String queryString = uriComponents.getQuery();
+
+        // Keeping servlet path if dispatcher servlet is mapped to a path, lookup path is the path info then.
+        String servletPath = origin.servletPathMapped ? origin.servletPath : lookupPath;
+        String pathInfo = origin.servletPathMapped ? lookupPath : null;
+        String requestUri = origin.contextPath + (null == pathInfo ? servletPath : servletPath + pathInfo);
+
+        Map<String, String[]> parameters = Collections.unmodifiableMap(getParameters(uriComponents.getQueryParams()));
+
+        Map<String, List<String>> requestHeaders = new LinkedCaseInsensitiveMap<>();
+        requestHeaders.putAll(origin.headers);
+
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            requestHeaders.put(header.getKey(), Collections.singletonList(header.getValue()));
+        }
+
+        String contentType = getFirst(requestHeaders, HttpHeaders.CONTENT_TYPE);
+        String characterEncoding = getCharacterEncoding(contentType);
+
+        ServletInputStream inputStream = new BodyInputStream(body);
+
+        return (HttpServletRequest) Proxy.newProxyInstance(ApiVersionBatchExchange.class.getClassLoader(), new Class<?>[] { HttpServletRequest.class }, (proxy, invokedMethod, args) -> {
+            switch (invokedMethod.getName()) {
+                case "getMethod":
+                    return method;
+                case "getRequestURI":
+                    return requestUri;
+                case "getRequestURL":
+                    return new StringBuffer(origin.scheme).append("://").append(origin.serverName).append(':').append(origin.serverPort).append(requestUri);
+                case "getContextPath":
+                    return origin.contextPath;
+                case "getServletPath":
+                    return servletPath;
+                case "getPathInfo":
+                    return pathInfo;
+                case "getQueryString":
+                    return queryString;
+                case "getParameter":
+                    String[] values = parameters.get(args[0]);
+                    return null == values || values.length == 0 ? null : values[0];
+                case "getParameterValues":
+                    return parameters.get(args[0]);
+                case "getParameterMap":
+                    return parameters;
+                case "getParameterNames":
+                    return Collections.enumeration(parameters.keySet());
+                case "getHeader":
+                    return getFirst(requestHeaders, (String) args[0]);
+                case "getHeaders":
+                    return Collections.enumeration(requestHeaders.getOrDefault(args[0], Collections.emptyList()));
+                case "getHeaderNames":
+                    return Collections.enumeration(requestHeaders.keySet());
+                case "getIntHeader":
+                    String intHeader = getFirst(requestHeaders, (String) args[0]);
+                    return null == intHeader ? -1 : Integer.parseInt(intHeader);
+                case "getDateHeader":
+                    String dateHeader = getFirst(requestHeaders, (String) args[0]);
+                    return null == dateHeader ? -1L : Instant.from(DATE_HEADER_FORMAT.parse(dateHeader)).toEpochMilli();
+                case "getContentType":
+                    return contentType;
+                case "getContentLength":
+                    return body.length;
+                case "getContentLengthLong":
+                    return (long) body.length;
+                case "getCharacterEncoding":
+                    return characterEncoding;
+                case "getInputStream":
+                    return inputStream;
+                case "getReader":
+                    return new BufferedReader(new InputStreamReader(inputStream, null == characterEncoding ? StandardCharsets.UTF_8 : Charset.forName(characterEncoding)));
+                case "getCookies":
+                    return null == origin.cookies ? null : origin.cookies.clone();
+                case "getLocale":
+                    return origin.locale;
+                case "getLocales":
+                    return Collections.enumeration(Collections.singletonList(origin.locale));
+                case "getProtocol":
+                    return origin.protocol;
+                case "getScheme":
+                    return origin.scheme;
+                case "isSecure":
+                    return origin.secure;
+                case "getServerName":
+                    return origin.serverName;
+                case "getServerPort":
+                    return origin.serverPort;
+                case "getRemoteAddr":
+                case "getRemoteHost":
+                    return origin.remoteAddr;
+                case "getUserPrincipal":
+                    return origin.userPrincipal;
+                case "getRemoteUser":
+                    return null == origin.userPrincipal ? null : origin.userPrincipal.getName();
+                case "getServletContext":
+                    return origin.servletContext;
+                case "getDispatcherType":
+                    return DispatcherType.REQUEST;
+                case "getAttribute":
+                    return attributes.get(args[0]);
+                case "setAttribute":
+                    if (null == args[1]) {
+                        attributes.remove(args[0]);
+                    } else {
+                        attributes.put((String) args[0], args[1]);
+                    }
+                    return null;
+                case "removeAttribute":
+                    attributes.remove(args[0]);
+                    return null;
+                case "getAttributeNames":
+                    return Collections.enumeration(new ArrayList<>(attributes.keySet()));
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "Batch " + method + " " + requestUri;
+                default:
+                    break;
+            }
+
+            return getDefaultValue(invokedMethod.getReturnType());
+        });
+    }
+
+    private HttpServletResponse createResponse() {
+        ServletOutputStream outputStream = new ServletOutputStream() {
+
+            @Override
+            public void write(int b) {
+                responseBody.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                responseBody.write(b, off, len);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        };
+
+        return (HttpServletResponse) Proxy.newProxyInstance(ApiVersionBatchExchange.class.getClassLoader(), new Class<?>[] { HttpServletResponse.class }, (proxy, invokedMethod, args) -> {
+            switch (invokedMethod.getName()) {
+                case "setStatus":
+                case "sendError":
+                    status = (Integer) args[0];
+                    committed = committed || "sendError".equals(invokedMethod.getName());
+                    return null;
+                case "sendRedirect":
+                    status = HttpServletResponse.SC_FOUND;
+                    responseHeaders.put(HttpHeaders.LOCATION, Collections.singletonList((String) args[0]));
+                    committed = true;
+                    return null;
+                case "getStatus":
+                    return status;
+                case "setHeader":
+                case "addHeader":
+                    setHeader((String) args[0], (String) args[1], "addHeader".equals(invokedMethod.getName()));
+                    return null;
+                case "setIntHeader":
+                case "addIntHeader":
+                    setHeader((String) args[0], String.valueOf(args[1]), "addIntHeader".equals(invokedMethod.getName()));
+                    return null;
+                case "setDateHeader":
+                case "addDateHeader":
+                    setHeader((String) args[0], DATE_HEADER_FORMAT.format(Instant.ofEpochMilli((Long) args[1])), "addDateHeader".equals(invokedMethod.getName()));
+                    return null;
+                case "containsHeader":
+                    return responseHeaders.containsKey(args[0]) || (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase((String) args[0]) && null != contentType);
+                case "getHeader":
+                    return HttpHeaders.CONTENT_TYPE.equalsIgnoreCase((String) args[0]) ? getFullContentType() : getFirst(responseHeaders, (String) args[0]);
+                case "getHeaders":
+                    return new ArrayList<>(responseHeaders.getOrDefault(args[0], Collections.emptyList()));
+                case "getHeaderNames":
+                    return new ArrayList<>(responseHeaders.keySet());
+                case "setContentType":
+                    setContentType((String) args[0]);
+                    return null;
+                case "getContentType":
+                    return getFullContentType();
+                case "setCharacterEncoding":
+                    characterEncoding = (String) args[0];
+                    return null;
+                case "getCharacterEncoding":
+                    return null == characterEncoding ? StandardCharsets.ISO_8859_1.name() : characterEncoding;
+                case "setContentLength":
+                case "setContentLengthLong":
+                    responseHeaders.put(HttpHeaders.CONTENT_LENGTH, Collections.singletonList(String.valueOf(args[0])));
+                    return null;
+                case "getOutputStream":
+                    return outputStream;
+                case "getWriter":
+                    if (null == writer) {
+                        writer = new PrintWriter(new OutputStreamWriter(outputStream, getResponseCharset()));
+                    }
+                    return writer;
+                case "flushBuffer":
+                    if (null != writer) {
+                        writer.flush();
+                    }
+                    committed = true;
+                    return null;
+                case "isCommitted":
+                    return committed;
+                case "reset":
+                    status = HttpServletResponse.SC_OK;
+                    responseHeaders.clear();
+                    contentType = null;
+                    characterEncoding = null;
+                    responseBody.reset();
+                    return null;
+                case "resetBuffer":
+                    responseBody.reset();
+                    return null;
+                case "getLocale":
+                    return Locale.getDefault();
+                case "encodeURL":
+                case "encodeRedirectURL":
+                case "encodeUrl":
+                case "encodeRedirectUrl":
+                    return args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "Batch response";
+                default:
+                    break;
+            }
+
+            return getDefaultValue(invokedMethod.getReturnType());
+        });
+    }
+
+    private void setHeader(String name, String value, boolean add) {
+        if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+            setContentType(value);
+        } else if (add) {
+            responseHeaders.computeIfAbsent(name, header -> new ArrayList<>()).add(value);
+        } else {
+            List<String> values = new ArrayList<>();
+            values.add(value);
+
+            responseHeaders.put(name, values);
+        }
+    }
+
+    private void setContentType(String value) {
+        contentType = value;
+
+        String charset = getCharacterEncoding(value);
+
+        if (null != charset) {
+            characterEncoding = charset;
+        }
+    }
+
+    private static String getCharacterEncoding(String contentType) {
+        if (null == contentType) {
+            return null;
+        }
+
+        try {
+            Charset charset = MediaType.parseMediaType(contentType).getCharset();
+
+            return null == charset ? null : charset.name();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static Map<String, String[]> getParameters(MultiValueMap<String, String> queryParams) {
+        MultiValueMap<String, String> parameters = new LinkedMultiValueMap<>();
+
+        for (Map.Entry<String, List<String>> queryParam : queryParams.entrySet()) {
+            for (String value : queryParam.getValue()) {
+                parameters.add(decode(queryParam.getKey()), null == value ? "" : decode(value));
+            }
+        }
+
+        Map<String, String[]> parameterMap = new LinkedHashMap<>();
+
+        for (Map.Entry<String, List<String>> parameter : parameters.entrySet()) {
+            parameterMap.put(parameter.getKey(), parameter.getValue().toArray(new String[0]));
+        }
+
+        return parameterMap;
+    }
+
+    private static String decode(String value) {
+        try {
+            return UriUtils.decode(value.replace('+', ' '), StandardCharsets.UTF_8.name());
+        } catch (Exception e) {
+            return value;
+        }
+    }
+
+    private static String getFirst(Map<String, List<String>> headers, String name) {
+        List<String> values = headers.get(name);
+
+        return null == values || values.isEmpty() ? null : values.get(0);
+    }
+
+    private static Object getDefaultValue(Class<?> returnType) {
+        if (Enumeration.class.equals(returnType)) {
+            return Collections.emptyEnumeration();
+        } else if (Collection.class.isAssignableFrom(returnType)) {
+            return Collections.emptyList();
+        } else if (boolean.class.equals(returnType)) {
+            return false;
+        } else if (int.class.equals(returnType)) {
+            return 0;
+        } else if (long.class.equals(returnType)) {
+            return 0L;
+        }
+
+        return null;
+    }
+
+    /**
+     * Copy of the batch request inherited by its sub-requests, taken before
+     * the batch request is handed over to sub-requests.
+     */
+    static final class Origin {
+
+        private final String contextPath;
+
+        private final String servletPath;
+
+        /**
+         * Flag to determine if dispatcher servlet is mapped to a path, lookup path is the path info then.
+         */
+        private final boolean servletPathMapped;
+
+        private final Map<String, List<String>> headers = new LinkedCaseInsensitiveMap<>();
+
+        private final Cookie[] cookies;
+
+        private final Locale locale;
+
+        private final String protocol;
+
+        private final String scheme;
+
+        private final boolean secure;
+
+        private final String serverName;
+
+        private final int serverPort;
+
+        private final String remoteAddr;
+
+        private final Principal userPrincipal;
+
+        private final ServletContext servletContext;
+
+        Origin(HttpServletRequest request, Collection<String> excludedHeaders) {
+            this.contextPath = request.getContextPath();
+            this.servletPath = request.getServletPath();
+            this.servletPathMapped = null != request.getPathInfo();
+
+            Enumeration<String> headerNames = request.getHeaderNames();
+
+            while (null != headerNames && headerNames.hasMoreElements()) {
+                String headerName = headerNames.nextElement();
+
+                if (Boolean.FALSE.equals(excludedHeaders.contains(headerName.toLowerCase(Locale.ENGLISH)))) {
+                    headers.put(headerName, Collections.list(request.getHeaders(headerName)));
+                }
+            }
+
+            this.cookies = request.getCookies();
+            this.locale = request.getLocale();
+            this.protocol = request.getProtocol();
+            this.scheme = request.getScheme();
+            this.secure = request.isSecure();
+            this.serverName = request.getServerName();
+            this.serverPort = request.getServerPort();
+            this.remoteAddr = request.getRemoteAddr();
+            this.userPrincipal = request.getUserPrincipal();
+            this.servletContext = request.getServletContext();
+        }
+
+    }
+
+    /**
+     * Input stream of body of a sub-request.
+     */
+    private static final class BodyInputStream extends ServletInputStream {
+
+        private final ByteArrayInputStream body;
+
+        private BodyInputStream(byte[] body) {
+            this.body = new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public int read() {
+            return body.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            return body.read(b, off, len);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return body.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+        }
+
+    }
+
+}
@@ -0,0 +1,679 @@
+package com.mindstixlabs.web.api.version.management.batch;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mindstixlabs.web.api.version.management.ReSTApiVersionManager;
+import com.mindstixlabs.web.api.version.management.admin.ApiVersioningAdminEndpoint;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigHelper;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigKeys;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningDefaultConfig;
+import com.mindstixlabs.web.api.version.management.util.ApiVersioningThreadContext;
+
+/**
+ * <code>ApiVersionBatchManager</code> executes sub-requests of a batch sent to
+ * {@link ApiVersionBatchEndpoint} and streams their results as they finish.
+ *
+ * <p>Every sub-request is resolved by the handler mapping of the application,
+ * i.e. by {@link ReSTApiVersionManager} with the same version index and
+ * fallback rules as requests sent by clients, and is handled with
+ * interceptors of the handler mapping and exception resolvers of the
+ * application. Sub-requests are executed concurrently on a bounded executor
+ * shared by all batches, except sub-requests depending on a previous
+ * sub-request, which are executed once the previous sub-request completes.
+ *
+ * <p>Servlet filters, for eg. URL rules and CSRF protection of Spring
+ * Security, are applied to the batch request only and not to sub-requests.
+ * Hence only paths matching
+ * <code>rest.api.version.management.batch.allowedPaths</code> can be requested
+ * by sub-requests, none by default, and sub-requests are rejected with
+ * {@code 403 Forbidden} otherwise. Paths allowed are to be authorized by the
+ * same rules as the batch path. Admin and batch endpoints are never allowed.
+ * Sub-requests are executed with principal, locale, MDC and security context
+ * of Spring Security of the batch request, see {@link ApiVersioningThreadContext}.
+ *
+ * <p>Handler methods processing requests asynchronously, for eg. returning
+ * {@link Callable} or {@link ResponseBodyEmitter}, are
+ * not supported in sub-requests and are rejected with
+ * {@code 501 Not Implemented}.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+@Component("api-version-batch-manager")
+@DependsOn("api-versioning-config-holder")
+public class ApiVersionBatchManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiVersionBatchManager.class);
+
+    /**
+     * Name of request attribute marking sub-requests of batches.
+     */
+    public static final String BATCH_REQUEST_ATTRIBUTE = ApiVersionBatchManager.class.getName() + ".batchRequest";
+
+    public static final MediaType BATCH_RESULTS_MEDIA_TYPE = MediaType.parseMediaType("application/x-ndjson");
+
+    /**
+     * Headers of the batch request, in lower case, not inherited by sub-requests as they describe the batch request.
+     */
+    private static final Set<String> EXCLUDED_HEADERS = new HashSet<>(Arrays.asList("accept", "content-type", "content-length", "content-encoding",
+                                                                                    "transfer-encoding", "expect", "connection"));
+
+    private static final String DEFAULT_HANDLER_MAPPING_BEAN_NAME = "requestMappingHandlerMapping";
+
+    private static final String DEFAULT_HANDLER_ADAPTER_BEAN_NAME = "requestMappingHandlerAdapter";
+
+    /**
+     * Return types of handler methods processing requests asynchronously.
+     */
+    private static final List<Class<?>> ASYNC_RETURN_TYPES = Arrays.asList(Callable.class, WebAsyncTask.class, DeferredResult.class, ListenableFuture.class,
+                                                                           CompletionStage.class, ResponseBodyEmitter.class, StreamingResponseBody.class);
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    @Autowired
+    private ApiVersioningConfigHelper apiVersioningPropertyManager;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private boolean enabled;
+
+    private int maxRequests;
+
+    private long timeoutMillis;
+
+    /**
+     * Ant patterns of lookup paths sub-requests are allowed to request.
+     */
+    private List<String> allowedPaths = Collections.emptyList();
+
+    /**
+     * Ant patterns of lookup paths never allowed, i.e. admin and batch endpoints.
+     */
+    private List<String> deniedPaths = Collections.emptyList();
+
+    private ThreadPoolTaskExecutor executor;
+
+    private volatile RequestMappingHandlerMapping handlerMapping;
+
+    private volatile RequestMappingHandlerAdapter handlerAdapter;
+
+    private volatile List<HandlerExceptionResolver> exceptionResolvers;
+
+    private final LongAdder batches = new LongAdder();
+
+    private final LongAdder subRequests = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    private final LongAdder timedOut = new LongAdder();
+
+    private final LongAdder forbidden = new LongAdder();
+
+    private final LongAdder unsupported = new LongAdder();
+
+    private final LongAdder cancelled = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        enabled = (Boolean) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.BATCH_ENABLED, ApiVersioningDefaultConfig.BATCH_ENABLED, Boolean.class);
+
+        if (Boolean.FALSE.equals(enabled)) {
+            return;
+        }
+
+        maxRequests = Math.max(1, (Integer) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.BATCH_MAX_REQUESTS, ApiVersioningDefaultConfig.BATCH_MAX_REQUESTS, Integer.class));
+        timeoutMillis = (Long) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.BATCH_TIMEOUT_MILLIS, ApiVersioningDefaultConfig.BATCH_TIMEOUT_MILLIS, Long.class);
+
+        List<String> configuredAllowedPaths = new ArrayList<>();
+
+        for (String allowedPath : (String[]) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.BATCH_ALLOWED_PATHS, ApiVersioningDefaultConfig.BATCH_ALLOWED_PATHS, String[].class)) {
+            if (StringUtils.isNotBlank(allowedPath)) {
+                configuredAllowedPaths.add(allowedPath.trim());
+            }
+        }
+
+        allowedPaths = Collections.unmodifiableList(configuredAllowedPaths);
+
+        String adminPath = apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.ADMIN_ENDPOINT_PATH, ApiVersioningDefaultConfig.ADMIN_ENDPOINT_PATH);
+        String batchPath = apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.BATCH_PATH, ApiVersioningDefaultConfig.BATCH_PATH);
+
+        deniedPaths = Collections.unmodifiableList(Arrays.asList(adminPath, adminPath + "/**", batchPath, batchPath + "/**"));
+
+        if (allowedPaths.isEmpty()) {
+            logger.warn("API version batch endpoint is enabled but [{}] is not configured, every sub-request will be rejected with 403-FORBIDDEN error.", ApiVersioningConfigKeys.BATCH_ALLOWED_PATHS);
+        }
+
+        int maxConcurrent = Math.max(1, (Integer) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.BATCH_MAX_CONCURRENT, ApiVersioningDefaultConfig.BATCH_MAX_CONCURRENT, Integer.class));
+        int queueCapacity = Math.max(0, (Integer) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.BATCH_QUEUE_CAPACITY, ApiVersioningDefaultConfig.BATCH_QUEUE_CAPACITY, Integer.class));
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("api-version-batch-");
+        executor.setDaemon(true);
+        executor.initialize();
+
+        logger.info("API version batch endpoint is enabled with at most [{}] sub-requests per batch, [{}] concurrent and [{}] queued sub-requests.", maxRequests, maxConcurrent, queueCapacity);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * This method is used to validate sub-requests of a batch.
+     *
+     * @param requests                           Sub-requests of the batch.
+     * @return                                   Returns reason of the batch being invalid, null if the batch is valid.
+     */
+    public String validate(List<ApiVersionBatchRequest> requests) {
+        if (null == requests || requests.isEmpty()) {
+            return "Batch has no sub-requests";
+        }
+
+        if (requests.size() > maxRequests) {
+            return String.format("Batch has [%d] sub-requests, at most [%d] are allowed", requests.size(), maxRequests);
+        }
+
+        Set<String> ids = new HashSet<>();
+
+        for (int index = 0; index < requests.size(); index++) {
+            ApiVersionBatchRequest request = requests.get(index);
+
+            if (null == request || null == request.getMethod() || null == HttpMethod.resolve(request.getMethod().toUpperCase(Locale.ENGLISH))) {
+                return String.format("Sub-request [%d] has invalid method", index);
+            }
+
+            if (StringUtils.isBlank(request.getPath()) || Boolean.FALSE.equals(request.getPath().startsWith("/"))) {
+                return String.format("Sub-request [%d] has invalid path, path is to start with '/'", index);
+            }
+
+            // Allowing dependencies on previous sub-requests only, so that dependencies can not be cyclic.
+            if (null != request.getDependsOn() && Boolean.FALSE.equals(ids.contains(request.getDependsOn()))) {
+                return String.format("Sub-request [%d] depends on [%s] which is not a previous sub-request", index, request.getDependsOn());
+            }
+
+            if (Boolean.FALSE.equals(ids.add(getId(request, index)))) {
+                return String.format("Sub-request [%d] has duplicate id [%s]", index, getId(request, index));
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * This method is used to execute valid sub-requests of a batch.
+     *
+     * @param requests                           Sub-requests of the batch.
+     * @param batchRequest                       Batch request, inherited by the sub-requests.
+     * @return                                   Returns emitter sending result of every sub-request as a JSON line once it finishes.
+     */
+    public ResponseBodyEmitter execute(List<ApiVersionBatchRequest> requests, HttpServletRequest batchRequest) {
+        batches.increment();
+        subRequests.add(requests.size());
+
+        ApiVersionBatchExchange.Origin origin = new ApiVersionBatchExchange.Origin(batchRequest, EXCLUDED_HEADERS);
+
+        // Capturing locale, MDC and security context on the servlet thread, sub-requests run on executor threads.
+        ApiVersioningThreadContext threadContext = ApiVersioningThreadContext.capture();
+
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeoutMillis);
+
+        AtomicBoolean batchTimedOut = new AtomicBoolean();
+
+        Map<String, CompletableFuture<Void>> futures = new HashMap<>();
+        List<CompletableFuture<Void>> allFutures = new ArrayList<>(requests.size());
+
+        for (int index = 0; index < requests.size(); index++) {
+            ApiVersionBatchRequest request = requests.get(index);
+            String id = getId(request, index);
+
+            CompletableFuture<Void> dependency = null == request.getDependsOn() ? CompletableFuture.completedFuture(null) : futures.get(request.getDependsOn());
+
+            CompletableFuture<Void> future = dependency.handle((result, failure) -> null)
+                                                       .thenRunAsync(() -> {
+                                                           // Skipping sub-requests still queued once the batch times out, the emitter is completed then.
+                                                           if (batchTimedOut.get()) {
+                                                               cancelled.increment();
+                                                           } else {
+                                                               send(emitter, execute(origin, request, id, threadContext));
+                                                           }
+                                                       }, executor)
+                                                       .exceptionally(failure -> {
+                                                           handleFailure(emitter, id, failure, batchTimedOut.get());
+                                                           return null;
+                                                       });
+
+            futures.put(id, future);
+            allFutures.add(future);
+        }
+
+        CompletableFuture<Void> batch = CompletableFuture.allOf(allFutures.toArray(new CompletableFuture<?>[0]));
+
+        emitter.onTimeout(() -> {
+            batchTimedOut.set(true);
+            timedOut.increment();
+            logger.warn("Batch of [{}] sub-requests timed out after [{}] ms, pending sub-requests are cancelled.", requests.size(), timeoutMillis);
+            allFutures.forEach(future -> future.cancel(false));
+        });
+
+        batch.whenComplete((result, failure) -> {
+            try {
+                emitter.complete();
+            } catch (IllegalStateException e) {
+                logger.debug("Batch is already completed.", e);
+            }
+        });
+
+        return emitter;
+    }
+
+    /**
+     * This method is used to send result of a sub-request which could not be
+     * executed, unless the batch is timed out and its emitter is completed.
+     */
+    private void handleFailure(ResponseBodyEmitter emitter, String id, Throwable failure, boolean batchTimedOut) {
+        Throwable cause = failure instanceof CompletionException && null != failure.getCause() ? failure.getCause() : failure;
+
+        if (cause instanceof CancellationException || batchTimedOut) {
+            // Sub-request is cancelled as the batch timed out.
+            cancelled.increment();
+        } else if (cause instanceof RejectedExecutionException) {
+            rejected.increment();
+            send(emitter, getResult(id, HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Batch executor is saturated", 0L));
+        } else {
+            failed.increment();
+            logger.debug("Sub-request [{}] of batch could not be executed.", id, cause);
+            send(emitter, getResult(id, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Sub-request failed", 0L));
+        }
+    }
+
+    private Map<String, Object> execute(ApiVersionBatchExchange.Origin origin, ApiVersionBatchRequest request, String id, ApiVersioningThreadContext threadContext) {
+        long startTime = System.nanoTime();
+
+        try {
+            Map<String, String> headers = null == request.getHeaders() ? Collections.emptyMap() : request.getHeaders();
+            byte[] body = getBody(request, headers);
+
+            if (body.length > 0 && Boolean.FALSE.equals(containsHeader(headers, HttpHeaders.CONTENT_TYPE))) {
+                headers = new LinkedHashMap<>(headers);
+                headers.put(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_UTF8_VALUE);
+            }
+
+            Map<String, Object> attributes = new HashMap<>();
+            attributes.put(BATCH_REQUEST_ATTRIBUTE, Boolean.TRUE);
+
+            ApiVersionBatchExchange exchange = new ApiVersionBatchExchange(origin, request.getMethod().toUpperCase(Locale.ENGLISH), request.getPath(), headers, body, attributes);
+
+            handle(exchange, threadContext);
+
+            Map<String, Object> result = getResult(id, exchange.getStatus(), null, System.nanoTime() - startTime);
+            result.put("headers", exchange.getResponseHeaders());
+            result.put("body", readBody(exchange));
+
+            return result;
+        } catch (Exception e) {
+            failed.increment();
+            logger.debug("Sub-request [{}] of batch failed for path: [{}].", id, request.getPath(), e);
+
+            // Not sending message of the exception, which may reveal internals of the application.
+            return getResult(id, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Sub-request failed", System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * This method is used to handle sub-request like dispatcher servlet does,
+     * applying interceptors and resolving exceptions of the handler method,
+     * if the path of the sub-request is allowed.
+     */
+    private void handle(ApiVersionBatchExchange exchange, ApiVersioningThreadContext threadContext) throws Exception {
+        HttpServletRequest request = exchange.getRequest();
+        HttpServletResponse response = exchange.getResponse();
+
+        threadContext.bind(new ServletRequestAttributes(request, response));
+        LocaleContextHolder.setLocale(request.getLocale());
+
+        HandlerExecutionChain handlerExecutionChain = null;
+        HandlerInterceptor[] interceptors = null;
+        int appliedInterceptorIndex = -1;
+        Exception failure = null;
+
+        try {
+            if (Boolean.FALSE.equals(isAllowedPath(getHandlerMapping().getUrlPathHelper().getLookupPathForRequest(request)))) {
+                forbidden.increment();
+                response.sendError(HttpServletResponse.SC_FORBIDDEN);
+                return;
+            }
+
+            handlerExecutionChain = getHandlerMapping().getHandler(request);
+
+            if (null == handlerExecutionChain) {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+
+            Object handler = handlerExecutionChain.getHandler();
+
+            // Rejecting admin endpoint and nested batches, which would wait for the executor running them, even if their paths are allowed by mistake.
+            if (handler instanceof HandlerMethod && (ApiVersionBatchEndpoint.class.isAssignableFrom(((HandlerMethod) handler).getBeanType())
+                                                     || ApiVersioningAdminEndpoint.class.isAssignableFrom(((HandlerMethod) handler).getBeanType()))) {
+                forbidden.increment();
+                response.sendError(HttpServletResponse.SC_FORBIDDEN);
+                return;
+            }
+
+            if (handler instanceof HandlerMethod && isAsync((HandlerMethod) handler)) {
+                unsupported.increment();
+                response.sendError(HttpServletResponse.SC_NOT_IMPLEMENTED);
+                return;
+            }
+
+            interceptors = handlerExecutionChain.getInterceptors();
+
+            if (null != interceptors) {
+                for (int index = 0; index < interceptors.length; index++) {
+                    if (Boolean.FALSE.equals(interceptors[index].preHandle(request, response, handler))) {
+                        return;
+                    }
+
+                    appliedInterceptorIndex = index;
+                }
+            }
+
+            ModelAndView modelAndView = getHandlerAdapter().handle(request, response, handler);
+
+            if (null != interceptors) {
+                for (int index = interceptors.length - 1; index >= 0; index--) {
+                    interceptors[index].postHandle(request, response, handler, modelAndView);
+                }
+            }
+        } catch (Exception e) {
+            failure = e;
+
+            resolveException(request, response, null == handlerExecutionChain ? null : handlerExecutionChain.getHandler(), e);
+        } finally {
+            for (int index = appliedInterceptorIndex; index >= 0; index--) {
+                try {
+                    interceptors[index].afterCompletion(request, response, handlerExecutionChain.getHandler(), failure);
+                } catch (Exception e) {
+                    logger.debug("Interceptor failed after completion of sub-request.", e);
+                }
+            }
+
+            ApiVersioningThreadContext.reset();
+        }
+    }
+
+    /**
+     * This method is used to check if lookup path of a sub-request matches
+     * allowed paths and none of the denied paths. Lookup paths which are not
+     * normalized, for eg. having <code>..</code> segments, are never allowed.
+     */
+    private boolean isAllowedPath(String lookupPath) {
+        if (Boolean.FALSE.equals(lookupPath.equals(org.springframework.util.StringUtils.cleanPath(lookupPath))) || lookupPath.contains("//")) {
+            return false;
+        }
+
+        for (String deniedPath : deniedPaths) {
+            if (pathMatcher.match(deniedPath, lookupPath)) {
+                return false;
+            }
+        }
+
+        for (String allowedPath : allowedPaths) {
+            if (pathMatcher.match(allowedPath, lookupPath)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * This method is used to check if handler method processes requests
+     * asynchronously, which isn't supported in sub-requests.
+     */
+    private static boolean isAsync(HandlerMethod handlerMethod) {
+        ResolvableType returnType = ResolvableType.forMethodParameter(handlerMethod.getReturnType());
+
+        if (HttpEntity.class.isAssignableFrom(returnType.resolve(Object.class))) {
+            returnType = returnType.as(HttpEntity.class).getGeneric(0);
+        }
+
+        Class<?> returnClass = returnType.resolve(Object.class);
+
+        for (Class<?> asyncReturnType : ASYNC_RETURN_TYPES) {
+            if (asyncReturnType.isAssignableFrom(returnClass)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void resolveException(HttpServletRequest request, HttpServletResponse response, Object handler, Exception exception) throws Exception {
+        for (HandlerExceptionResolver exceptionResolver : getExceptionResolvers()) {
+            if (null != exceptionResolver.resolveException(request, response, handler, exception)) {
+                return;
+            }
+        }
+
+        throw exception;
+    }
+
+    private byte[] getBody(ApiVersionBatchRequest request, Map<String, String> headers) throws Exception {
+        JsonNode body = request.getBody();
+
+        if (null == body || body.isNull()) {
+            return new byte[0];
+        }
+
+        String contentType = getHeader(headers, HttpHeaders.CONTENT_TYPE);
+
+        // Sending text as is for content types other than JSON, for eg. form or plain text bodies.
+        if (body.isTextual() && null != contentType && Boolean.FALSE.equals(MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_JSON))) {
+            return body.asText().getBytes(StandardCharsets.UTF_8);
+        }
+
+        return objectMapper.writeValueAsBytes(body);
+    }
+
+    /**
+     * This method is used to read body of sub-request response, as JSON if
+     * the response is JSON and as text otherwise.
+     */
+    private Object readBody(ApiVersionBatchExchange exchange) {
+        byte[] body = exchange.getResponseBody();
+
+        if (body.length == 0) {
+            return null;
+        }
+
+        String contentType = exchange.getContentType();
+
+        try {
+            if (null != contentType && MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return objectMapper.readTree(body);
+            }
+        } catch (Exception e) {
+            logger.debug("Unable to read JSON body of sub-request, sending body as text.", e);
+        }
+
+        return new String(body, exchange.getResponseCharset());
+    }
+
+    private Map<String, Object> getResult(String id, int status, String error, long elapsedNanos) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("id", id);
+        result.put("status", status);
+        result.put("elapsedMillis", TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+
+        if (null != error) {
+            result.put("error", error);
+        }
+
+        return result;
+    }
+
+    /**
+     * Sending result as a line of JSON. Results are sent by executor threads,
+     * hence the result and the line break are sent together.
+     */
+    private void send(ResponseBodyEmitter emitter, Map<String, Object> result) {
+        synchronized (emitter) {
+            try {
+                emitter.send(result, MediaType.APPLICATION_JSON);
+                emitter.send("\n", MediaType.TEXT_PLAIN);
+            } catch (Exception e) {
+                logger.debug("Unable to send result of sub-request [{}], batch is completed or client is disconnected.", result.get("id"), e);
+            }
+        }
+    }
+
+    private static String getId(ApiVersionBatchRequest request, int index) {
+        return StringUtils.isBlank(request.getId()) ? String.valueOf(index) : request.getId();
+    }
+
+    private static boolean containsHeader(Map<String, String> headers, String name) {
+        return null != getHeader(headers, name);
+    }
+
+    private static String getHeader(Map<String, String> headers, String name) {
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey())) {
+                return header.getValue();
+            }
+        }
+
+        return null;
+    }
+
+    private RequestMappingHandlerMapping getHandlerMapping() {
+        if (null == handlerMapping) {
+            Map<String, RequestMappingHandlerMapping> handlerMappings = applicationContext.getBeansOfType(RequestMappingHandlerMapping.class);
+
+            // Preferring handler mapping of Spring MVC, overridden by API versioning, over mappings of other modules.
+            handlerMapping = handlerMappings.containsKey(DEFAULT_HANDLER_MAPPING_BEAN_NAME) ? handlerMappings.get(DEFAULT_HANDLER_MAPPING_BEAN_NAME) : handlerMappings.values().iterator().next();
+        }
+
+        return handlerMapping;
+    }
+
+    private RequestMappingHandlerAdapter getHandlerAdapter() {
+        if (null == handlerAdapter) {
+            Map<String, RequestMappingHandlerAdapter> handlerAdapters = applicationContext.getBeansOfType(RequestMappingHandlerAdapter.class);
+
+            // Preferring handler adapter of Spring MVC over adapters of other modules, for eg. Spring Data REST.
+            handlerAdapter = handlerAdapters.containsKey(DEFAULT_HANDLER_ADAPTER_BEAN_NAME) ? handlerAdapters.get(DEFAULT_HANDLER_ADAPTER_BEAN_NAME) : handlerAdapters.values().iterator().next();
+        }
+
+        return handlerAdapter;
+    }
+
+    private List<HandlerExceptionResolver> getExceptionResolvers() {
+        if (null == exceptionResolvers) {
+            List<HandlerExceptionResolver> resolvers = new ArrayList<>(applicationContext.getBeansOfType(HandlerExceptionResolver.class).values());
+            AnnotationAwareOrderComparator.sort(resolvers);
+
+            exceptionResolvers = resolvers;
+        }
+
+        return exceptionResolvers;
+    }
+
+    /**
+     * This method is used to get number of batches and sub-requests executed.
+     *
+     * @return                                   Returns number of batches with executed, rejected and failed sub-requests.
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("batches", batches.sum());
+        metrics.put("subRequests", subRequests.sum());
+        metrics.put("rejected", rejected.sum());
+        metrics.put("failed", failed.sum());
+        metrics.put("timedOut", timedOut.sum());
+        metrics.put("cancelled", cancelled.sum());
+        metrics.put("forbidden", forbidden.sum());
+        metrics.put("unsupported", unsupported.sum());
+
+        if (null != executor) {
+            metrics.put("activeSubRequests", executor.getActiveCount());
+            metrics.put("queuedSubRequests", executor.getThreadPoolExecutor().getQueue().size());
+        }
+
+        return metrics;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (null != executor) {
+            executor.shutdown();
+        }
+    }
+
+}
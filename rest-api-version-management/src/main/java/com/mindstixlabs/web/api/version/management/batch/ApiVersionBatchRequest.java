@@ -0,0 +1,91 @@
+package com.mindstixlabs.web.api.version.management.batch;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * <code>ApiVersionBatchRequest</code> is a sub-request of a batch sent to
+ * {@link ApiVersionBatchEndpoint}.
+ *
+ * <p>Path of the sub-request is relative to the dispatcher servlet, like the
+ * versioned path requested by clients, and may have a query string. for eg.
+ * <code>/api/v2.0/users/7?fields=name</code>. Headers of the batch request
+ * are inherited by the sub-request, except headers describing body of the
+ * batch request, and are overridden by headers of the sub-request.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+public class ApiVersionBatchRequest {
+
+    /**
+     * Identifier of the sub-request echoed in its result, index of the sub-request in the batch if empty.
+     */
+    private String id;
+
+    private String method;
+
+    private String path;
+
+    private Map<String, String> headers;
+
+    /**
+     * JSON body of the sub-request. Text is sent as is if content type of the sub-request is not JSON.
+     */
+    private JsonNode body;
+
+    /**
+     * Identifier of a previous sub-request of the batch to be completed before the sub-request is executed.
+     */
+    private String dependsOn;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public void setMethod(String method) {
+        this.method = method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public void setHeaders(Map<String, String> headers) {
+        this.headers = headers;
+    }
+
+    public JsonNode getBody() {
+        return body;
+    }
+
+    public void setBody(JsonNode body) {
+        this.body = body;
+    }
+
+    public String getDependsOn() {
+        return dependsOn;
+    }
+
+    public void setDependsOn(String dependsOn) {
+        this.dependsOn = dependsOn;
+    }
+
+}
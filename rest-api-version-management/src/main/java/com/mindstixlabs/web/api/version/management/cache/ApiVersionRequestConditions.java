@@ -0,0 +1,198 @@
+package com.mindstixlabs.web.api.version.management.cache;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.web.servlet.mvc.condition.ConsumesRequestCondition;
+import org.springframework.web.servlet.mvc.condition.ProducesRequestCondition;
+import org.springframework.web.servlet.mvc.condition.RequestMethodsRequestCondition;
+
+/**
+ * <code>ApiVersionRequestConditions</code> holds request method, consumes and
+ * produces conditions of handler methods registered for every version of a
+ * base mapping, so that fallback skips versions of the base mapping which
+ * can't serve the request without matching all registered mappings.
+ *
+ * <p>Instances are immutable, a new instance is published for every version
+ * or handler method added for the base mapping. Conditions are checked only if
+ * they differ between versions of the base mapping, if all versions have the
+ * same conditions, every version is considered to serve the request as looking
+ * up any of them gives the same result.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+public final class ApiVersionRequestConditions {
+
+    /**
+     * Request conditions of a base mapping without any version.
+     */
+    public static final ApiVersionRequestConditions EMPTY = new ApiVersionRequestConditions(new double[0], new Conditions[0][], false);
+
+    /**
+     * Versions of the base mapping sorted in ascending order.
+     */
+    private final double[] versions;
+
+    /**
+     * Conditions of handler methods registered for the versions, at index of the version.
+     */
+    private final Conditions[][] conditions;
+
+    /**
+     * Flag to determine if conditions differ between versions of the base mapping.
+     */
+    private final boolean varying;
+
+    private ApiVersionRequestConditions(double[] versions, Conditions[][] conditions, boolean varying) {
+        this.versions = versions;
+        this.conditions = conditions;
+        this.varying = varying;
+    }
+
+    /**
+     * This method is used to get request conditions including conditions of a
+     * handler method registered for the version.
+     *
+     * @param version                            API version of the handler method.
+     * @param methodsCondition                   Request methods condition of the handler method.
+     * @param consumesCondition                  Consumes condition of the handler method.
+     * @param producesCondition                  Produces condition of the handler method.
+     * @return                                   Returns this instance if the conditions are already included else a new instance.
+     */
+    public ApiVersionRequestConditions with(double version, RequestMethodsRequestCondition methodsCondition, ConsumesRequestCondition consumesCondition, ProducesRequestCondition producesCondition) {
+        Conditions handlerConditions = new Conditions(methodsCondition, consumesCondition, producesCondition);
+
+        int index = Arrays.binarySearch(versions, version);
+
+        double[] updatedVersions;
+        Conditions[][] updatedConditions;
+
+        if (index >= 0) {
+            // Skipping conditions already included as mappings registered lazily are cached again.
+            if (Arrays.asList(conditions[index]).contains(handlerConditions)) {
+                return this;
+            }
+
+            updatedVersions = versions;
+            updatedConditions = conditions.clone();
+
+            updatedConditions[index] = Arrays.copyOf(conditions[index], conditions[index].length + 1);
+            updatedConditions[index][conditions[index].length] = handlerConditions;
+        } else {
+            int insertionIndex = -index - 1;
+
+            updatedVersions = new double[versions.length + 1];
+            updatedConditions = new Conditions[conditions.length + 1][];
+
+            System.arraycopy(versions, 0, updatedVersions, 0, insertionIndex);
+            System.arraycopy(versions, insertionIndex, updatedVersions, insertionIndex + 1, versions.length - insertionIndex);
+            System.arraycopy(conditions, 0, updatedConditions, 0, insertionIndex);
+            System.arraycopy(conditions, insertionIndex, updatedConditions, insertionIndex + 1, conditions.length - insertionIndex);
+
+            updatedVersions[insertionIndex] = version;
+            updatedConditions[insertionIndex] = new Conditions[] { handlerConditions };
+        }
+
+        return new ApiVersionRequestConditions(updatedVersions, updatedConditions, isVarying(updatedConditions));
+    }
+
+    private static boolean isVarying(Conditions[][] conditions) {
+        Set<Conditions> firstVersionConditions = new HashSet<>(Arrays.asList(conditions[0]));
+
+        for (int index = 1; index < conditions.length; index++) {
+            if (Boolean.FALSE.equals(firstVersionConditions.equals(new HashSet<>(Arrays.asList(conditions[index]))))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public boolean isVarying() {
+        return varying;
+    }
+
+    /**
+     * This method is used to check if any handler method registered for the
+     * version can serve request method and content types of the request.
+     *
+     * @param version                            API version to be checked.
+     * @param request                            Current request.
+     * @return                                   Returns false only if conditions differ between versions and no
+     *                                           handler method of the version matches the request.
+     */
+    public boolean isServing(double version, HttpServletRequest request) {
+        if (Boolean.FALSE.equals(varying)) {
+            return true;
+        }
+
+        int index = Arrays.binarySearch(versions, version);
+
+        // Versions without conditions are not known to serve or reject the request.
+        if (index < 0) {
+            return true;
+        }
+
+        for (Conditions handlerConditions : conditions[index]) {
+            if (handlerConditions.matches(request)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Request method, consumes and produces conditions of a handler method.
+     */
+    private static final class Conditions {
+
+        private final RequestMethodsRequestCondition methodsCondition;
+
+        private final ConsumesRequestCondition consumesCondition;
+
+        private final ProducesRequestCondition producesCondition;
+
+        private Conditions(RequestMethodsRequestCondition methodsCondition, ConsumesRequestCondition consumesCondition, ProducesRequestCondition producesCondition) {
+            this.methodsCondition = methodsCondition;
+            this.consumesCondition = consumesCondition;
+            this.producesCondition = producesCondition;
+        }
+
+        /**
+         * Matching conditions as matched by the handler mapping, empty conditions match every request.
+         */
+        private boolean matches(HttpServletRequest request) {
+            return null != methodsCondition.getMatchingCondition(request)
+                   && (consumesCondition.isEmpty() || null != consumesCondition.getMatchingCondition(request))
+                   && (producesCondition.isEmpty() || null != producesCondition.getMatchingCondition(request));
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+
+            if (Boolean.FALSE.equals(other instanceof Conditions)) {
+                return false;
+            }
+
+            Conditions otherConditions = (Conditions) other;
+
+            return methodsCondition.equals(otherConditions.methodsCondition) && consumesCondition.equals(otherConditions.consumesCondition)
+                   && producesCondition.equals(otherConditions.producesCondition);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * methodsCondition.hashCode() + consumesCondition.hashCode()) + producesCondition.hashCode();
+        }
+
+    }
+
+}
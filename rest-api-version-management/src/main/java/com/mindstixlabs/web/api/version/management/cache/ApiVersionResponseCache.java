@@ -0,0 +1,298 @@
+package com.mindstixlabs.web.api.version.management.cache;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.mindstixlabs.web.api.version.management.annotations.ApiVersionCacheable;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigHelper;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigHolder;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigKeys;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningDefaultConfig;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningRuntimeConfig;
+
+/**
+ * <code>ApiVersionResponseCache</code> holds responses of APIs annotated with
+ * {@link ApiVersionCacheable} keyed on the resolved handler method and the
+ * resolved versioned path, so all requested versions served by the same
+ * version share one entry. Headers of the response are cached with its body
+ * and replayed on a hit.
+ *
+ * <p>Entries are evicted in least recently used order once the number of
+ * entries or their bytes exceed configured bounds, and expire after their time
+ * to live. The cache is cleared whenever API versions are registered lazily,
+ * disabled or re-enabled at runtime or the versioning configuration changes.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+@Component("api-version-response-cache")
+public class ApiVersionResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiVersionResponseCache.class);
+
+    /**
+     * Estimated bytes of an entry besides its body and key strings.
+     */
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    @Autowired
+    private ApiVersioningCache apiVersioningCache;
+
+    @Autowired
+    private ApiVersioningConfigHolder apiVersioningConfigHolder;
+
+    @Autowired
+    private ApiVersioningConfigHelper apiVersioningPropertyManager;
+
+    private int maxEntries;
+
+    private long maxBytes;
+
+    /**
+     * Entries in access order, guarded by this cache.
+     */
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long bytes;
+
+    /**
+     * Registry generation and configuration snapshot for which entries are cached.
+     */
+    private long registryGeneration;
+
+    private ApiVersioningRuntimeConfig config;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder invalidations = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        maxEntries = (Integer) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.RESPONSE_CACHE_MAX_ENTRIES, ApiVersioningDefaultConfig.RESPONSE_CACHE_MAX_ENTRIES, Integer.class);
+        maxBytes = (Long) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.RESPONSE_CACHE_MAX_BYTES, ApiVersioningDefaultConfig.RESPONSE_CACHE_MAX_BYTES, Long.class);
+    }
+
+    /**
+     * This method is used to get cached response which is not expired.
+     *
+     * @param key                                Key of the response.
+     * @return                                   Returns cached response or null if response is not cached.
+     */
+    public synchronized Entry get(Key key) {
+        invalidateIfRegistryChanged();
+
+        Entry entry = entries.get(key);
+
+        if (null != entry && entry.expiresAtMillis <= System.currentTimeMillis()) {
+            remove(key);
+            entry = null;
+        }
+
+        (null == entry ? misses : hits).increment();
+
+        return entry;
+    }
+
+    /**
+     * This method is used to cache response evicting least recently used
+     * responses if bounds are exceeded.
+     *
+     * @param key                                Key of the response.
+     * @param contentType                        Content type of the response.
+     * @param headers                            Headers of the response other than content type and length.
+     * @param body                               Body of the response.
+     */
+    public synchronized void put(Key key, String contentType, Map<String, List<String>> headers, byte[] body) {
+        Entry entry = new Entry(contentType, Collections.unmodifiableMap(headers), body, System.currentTimeMillis() + key.ttlMillis, key.estimateBytes() + estimateBytes(headers) + body.length);
+
+        if (entry.bytes > maxBytes) {
+            logger.debug("Skipping response of [{}] bytes larger than response cache for: [{}].", body.length, key.resolvedPath);
+            return;
+        }
+
+        invalidateIfRegistryChanged();
+
+        remove(key);
+        entries.put(key, entry);
+        bytes += entry.bytes;
+
+        Iterator<Entry> iterator = entries.values().iterator();
+
+        while ((entries.size() > maxEntries || bytes > maxBytes) && iterator.hasNext()) {
+            bytes -= iterator.next().bytes;
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    private static long estimateBytes(Map<String, List<String>> headers) {
+        long headerBytes = 0;
+
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            headerBytes += header.getKey().length();
+
+            for (String value : header.getValue()) {
+                headerBytes += Key.length(value);
+            }
+        }
+
+        return headerBytes;
+    }
+
+    private void remove(Key key) {
+        Entry entry = entries.remove(key);
+
+        if (null != entry) {
+            bytes -= entry.bytes;
+        }
+    }
+
+    private void invalidateIfRegistryChanged() {
+        long currentRegistryGeneration = apiVersioningCache.getRegistryGeneration();
+        ApiVersioningRuntimeConfig currentConfig = apiVersioningConfigHolder.getConfig();
+
+        if (currentRegistryGeneration != registryGeneration || currentConfig != config) {
+            if (Boolean.FALSE.equals(entries.isEmpty())) {
+                logger.debug("API versions are changed, clearing [{}] cached responses.", entries.size());
+                invalidations.increment();
+            }
+
+            entries.clear();
+            bytes = 0;
+            registryGeneration = currentRegistryGeneration;
+            config = currentConfig;
+        }
+    }
+
+    /**
+     * This method is used to get statistics of the cache.
+     *
+     * @return                                   Returns number of entries, bytes, hits, misses, evictions and invalidations.
+     */
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", entries.size());
+        stats.put("bytes", bytes);
+        stats.put("maxEntries", maxEntries);
+        stats.put("maxBytes", maxBytes);
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("invalidations", invalidations.sum());
+
+        return stats;
+    }
+
+    /**
+     * Key of cached response, made of resolved handler method, resolved
+     * versioned path, query string and accepted media types.
+     */
+    public static final class Key {
+
+        private final Method method;
+
+        private final String resolvedPath;
+
+        private final String queryString;
+
+        private final String accept;
+
+        private final long ttlMillis;
+
+        private final int hashCode;
+
+        public Key(Method method, String resolvedPath, String queryString, String accept, long ttlMillis) {
+            this.method = method;
+            this.resolvedPath = resolvedPath;
+            this.queryString = queryString;
+            this.accept = accept;
+            this.ttlMillis = ttlMillis;
+            this.hashCode = Objects.hash(method, resolvedPath, queryString, accept);
+        }
+
+        private int estimateBytes() {
+            return ENTRY_OVERHEAD_BYTES + length(resolvedPath) + length(queryString) + length(accept);
+        }
+
+        private static int length(String value) {
+            return null == value ? 0 : value.length();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+
+            if (!(other instanceof Key)) {
+                return false;
+            }
+
+            Key otherKey = (Key) other;
+
+            return method.equals(otherKey.method) && Objects.equals(resolvedPath, otherKey.resolvedPath)
+                    && Objects.equals(queryString, otherKey.queryString) && Objects.equals(accept, otherKey.accept);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+    }
+
+    /**
+     * Cached response.
+     */
+    public static final class Entry {
+
+        private final String contentType;
+
+        private final Map<String, List<String>> headers;
+
+        private final byte[] body;
+
+        private final long expiresAtMillis;
+
+        private final long bytes;
+
+        private Entry(String contentType, Map<String, List<String>> headers, byte[] body, long expiresAtMillis, long bytes) {
+            this.contentType = contentType;
+            this.headers = headers;
+            this.body = body;
+            this.expiresAtMillis = expiresAtMillis;
+            this.bytes = bytes;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public Map<String, List<String>> getHeaders() {
+            return headers;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+    }
+
+}
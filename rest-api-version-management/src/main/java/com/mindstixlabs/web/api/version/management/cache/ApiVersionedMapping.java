@@ -0,0 +1,55 @@
+package com.mindstixlabs.web.api.version.management.cache;
+
+/**
+ * <code>ApiVersionedMapping</code> holds the base mapping and the API version
+ * for a mapping registered with API versioning context.
+ * 
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+public final class ApiVersionedMapping {
+
+    /**
+     * Base mapping of handler method without API versioning context. for eg. /users
+     */
+    private final String mapping;
+
+    /**
+     * API version of the handler method.
+     */
+    private final double version;
+
+    /**
+     * API version as declared for the handler. for eg. 1.0
+     */
+    private final String versionName;
+
+    /**
+     * Name of API context of the handler method, empty for the primary context.
+     */
+    private final String contextName;
+
+    public ApiVersionedMapping(String mapping, double version, String versionName, String contextName) {
+        this.mapping = mapping;
+        this.version = version;
+        this.versionName = versionName;
+        this.contextName = contextName;
+    }
+
+    public String getMapping() {
+        return mapping;
+    }
+
+    public double getVersion() {
+        return version;
+    }
+
+    public String getVersionName() {
+        return versionName;
+    }
+
+    public String getContextName() {
+        return contextName;
+    }
+
+}
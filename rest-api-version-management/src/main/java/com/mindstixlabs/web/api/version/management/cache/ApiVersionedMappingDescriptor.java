@@ -0,0 +1,51 @@
+package com.mindstixlabs.web.api.version.management.cache;
+
+import java.lang.reflect.Method;
+
+/**
+ * <code>ApiVersionedMappingDescriptor</code> is a compact description of a
+ * handler method whose API versioned mapping is registered lazily, on the
+ * first request for its version.
+ * 
+ * <p>Only the handler, handler type and method are kept, the API versioned
+ * mapping is built again when the handler method is registered.
+ * 
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+public final class ApiVersionedMappingDescriptor {
+
+    /**
+     * Handler as detected by handler mapping, bean name or bean instance.
+     */
+    private final Object handler;
+
+    /**
+     * User class of the handler.
+     */
+    private final Class<?> handlerType;
+
+    /**
+     * Handler method.
+     */
+    private final Method method;
+
+    public ApiVersionedMappingDescriptor(Object handler, Class<?> handlerType, Method method) {
+        this.handler = handler;
+        this.handlerType = handlerType;
+        this.method = method;
+    }
+
+    public Object getHandler() {
+        return handler;
+    }
+
+    public Class<?> getHandlerType() {
+        return handlerType;
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+}
@@ -0,0 +1,586 @@
+package com.mindstixlabs.web.api.version.management.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+
+import com.mindstixlabs.web.api.version.management.core.ApiVersionIndex;
+
+/**
+ * <code>ApiVersioningCache</code> is used to cache data required for API Versioning.
+ * 
+ * <p>The cache is written while handler mappings are registered and read by
+ * request threads. Version lists are never modified in place, a new sorted and
+ * unmodifiable list is published for every write so that readers always see a
+ * complete list.
+ * 
+ * <p>The cache is scoped to the application context it is created in, so that
+ * several application contexts in a JVM, for eg. one per dispatcher servlet,
+ * keep independent version tables. It is injected into handler mappings and
+ * other components of the context instead of being accessed statically.
+ * 
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ *
+ */
+@Component("api-versioning-cache")
+public class ApiVersioningCache {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ApiVersioningCache.class);
+
+    /**
+     * Map contains list of versions supported for APIs.
+     */
+    private final Map<String, List<Double>> apiVersionMappingCache = new ConcurrentHashMap<>();
+
+    /**
+     * Immutable index of versions of base mappings, built again on the first
+     * lookup after registry generation changes.
+     */
+    private volatile ApiVersionIndex versionIndex = ApiVersionIndex.EMPTY;
+
+    /**
+     * Canonical instances of metadata shared by API versioned mappings of the
+     * application context, released with the context.
+     */
+    private final ApiVersioningMetadataInterner metadataInterner = new ApiVersioningMetadataInterner();
+
+    /**
+     * Map contains request method, consumes and produces conditions of handler
+     * methods per version of APIs. for eg. /orders -> 2.0 -> [GET], 3.0 -> [POST]
+     */
+    private final Map<String, ApiVersionRequestConditions> apiVersionRequestConditions = new ConcurrentHashMap<>();
+
+    /**
+     * Set contains disabled APIs for versioning using <code>DisabledApi</code> annotation.
+     */
+    private final Set<String> disabledApis = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Map contains base mapping and version for API versioned mappings.
+     */
+    private final Map<String, ApiVersionedMapping> apiVersionedMappings = new ConcurrentHashMap<>();
+
+    /**
+     * Map contains API versioning base URL registered for API versions of API contexts. for eg. "" -> 1.0 -> /api/v1.0
+     */
+    private final Map<String, Map<Double, String>> apiVersionBaseUrls = new ConcurrentHashMap<>();
+
+    /**
+     * Sorted copy of API versioning base URLs per API context, republished
+     * whenever a base URL is registered, so that base URL of a version is
+     * looked up during fallback without boxing the version.
+     */
+    private final Map<String, VersionBaseUrls> apiVersionBaseUrlIndex = new ConcurrentHashMap<>();
+
+    /**
+     * Map contains API versioning base URL of base mappings declaring a version
+     * with text different from base URL registered for the version of their API
+     * context. for eg. /users -> 2.0 -> /api/v2 while "" -> 2.0 -> /api/v2.0
+     */
+    private final Map<String, Map<Double, String>> mappingApiVersionBaseUrls = new ConcurrentHashMap<>();
+
+    /**
+     * Map contains descriptors of handler methods to be registered lazily for
+     * API versioning base URL of their version. for eg. /api/v1.0 -> [descriptors]
+     */
+    private final Map<String, List<ApiVersionedMappingDescriptor>> lazyApiVersionedMappings = new ConcurrentHashMap<>();
+
+    /**
+     * Number of API versions registered lazily.
+     */
+    private final AtomicLong lazyRegistrations = new AtomicLong();
+
+    /**
+     * Number of handler methods registered lazily.
+     */
+    private final AtomicLong lazyRegisteredMappings = new AtomicLong();
+
+    /**
+     * Generation of versions registered or disabled at runtime, incremented
+     * whenever a version is cached or registered lazily or disabled or re-enabled.
+     */
+    private final AtomicLong registryGeneration = new AtomicLong();
+
+    /**
+     * Immutable map of API versions disabled at runtime for base mappings. The
+     * map is replaced as a whole whenever a version is disabled or enabled.
+     */
+    private final AtomicReference<Map<String, Set<Double>>> runtimeDisabledApiVersions = new AtomicReference<>(Collections.emptyMap());
+
+    /**
+     * This method is used to add new version entry for handler mapping in Cache.
+     * 
+     * @param handlerMethodMapping               API path for which version entry is to be done.
+     * @param apiVersion                         New version entry to be added against API path.
+     */
+    public void cacheApiVersionForMapping(String handlerMethodMapping, Double apiVersion) {
+        List<Double> existingApiVersions = apiVersionMappingCache.get(handlerMethodMapping);
+
+        List<Double> cachedApiVersions = apiVersionMappingCache.compute(handlerMethodMapping, (mapping, existingVersions) -> {
+            List<Double> apiVersionsSupported = CollectionUtils.isEmpty(existingVersions) ? new ArrayList<>() : new ArrayList<>(existingVersions);
+
+            // Skipping version already cached as mappings registered lazily are cached again.
+            if (apiVersionsSupported.contains(apiVersion)) {
+                return existingVersions;
+            }
+
+            apiVersionsSupported.add(apiVersion);
+
+            // Sorting list of versions in descending order before adding to cache.
+            Collections.sort(apiVersionsSupported, Collections.reverseOrder());
+
+            return Collections.unmodifiableList(apiVersionsSupported);
+        });
+
+        if (cachedApiVersions != existingApiVersions) {
+            registryGeneration.incrementAndGet();
+        }
+
+        logger.debug("Version: [{}] is added in Cache for handler mapping: [{}].", apiVersion, handlerMethodMapping);
+    }
+
+    /**
+     * This method is used to get list of API versions supported for handler mapping in descending order.
+     * 
+     * @param handlerMethodMapping               API path for which supported versions are to be fetched.
+     * @return                                   Returns List of API versions supported for requested API path.
+     */
+    public List<Double> getCachedApiVersionsForMapping(String handlerMethodMapping) {
+        List<Double> apiVersionsSupported = apiVersionMappingCache.get(handlerMethodMapping);
+        
+        if (CollectionUtils.isEmpty(apiVersionsSupported)) {
+            apiVersionsSupported = Collections.emptyList();
+        }
+
+        return apiVersionsSupported;
+    }
+
+    /**
+     * This method is used to resolve key of handler mapping in version-mapping
+     * cache for base mapping key of requested path. Requested paths of APIs
+     * registered with URI template variables or wildcards are resolved to the
+     * registered pattern. for eg. /users/42 -> /users/{id}
+     * 
+     * @param handlerMethodMapping               Base mapping key of requested path. for eg. /users/42
+     * @return                                   Returns key of the registered pattern matching the path, or the given key if
+     *                                           it is cached as it is or no pattern matches it.
+     */
+    public String resolveVersionIndexKey(String handlerMethodMapping) {
+        if (apiVersionMappingCache.containsKey(handlerMethodMapping)) {
+            return handlerMethodMapping;
+        }
+
+        return getVersionIndex().resolveMappingKey(handlerMethodMapping);
+    }
+
+    /**
+     * This method is used to get immutable index of versions registered and
+     * disabled at runtime for handler mappings, building it again if registry
+     * generation has changed since it was built.
+     * 
+     * @return                                   Returns version index of current registry generation.
+     */
+    public ApiVersionIndex getVersionIndex() {
+        ApiVersionIndex index = versionIndex;
+
+        if (index.getGeneration() != registryGeneration.get()) {
+            synchronized (this) {
+                index = versionIndex;
+
+                // Reading generation before the cache, so that index is built again if cache changes meanwhile.
+                long currentGeneration = registryGeneration.get();
+
+                if (index.getGeneration() != currentGeneration) {
+                    index = ApiVersionIndex.build(currentGeneration, apiVersionMappingCache, runtimeDisabledApiVersions.get());
+                    versionIndex = index;
+
+                    logger.debug("Built version index of [{}] handler mappings for registry generation: [{}].", index.size(), currentGeneration);
+                }
+            }
+        }
+
+        return index;
+    }
+
+    /**
+     * This method is used to get interner sharing metadata of API versioned
+     * mappings registered for the application context.
+     * 
+     * @return                                   Returns metadata interner of the application context.
+     */
+    public ApiVersioningMetadataInterner getMetadataInterner() {
+        return metadataInterner;
+    }
+
+    /**
+     * This method is used to add request conditions of handler method for
+     * version of handler mapping in Cache.
+     * 
+     * @param handlerMethodMapping               Base mapping key for API. for eg. /orders
+     * @param apiVersion                         API version of the handler method.
+     * @param requestMappingInfo                 Request mapping of the handler method, its conditions are shared with the registered mapping.
+     */
+    public void cacheApiVersionRequestConditions(String handlerMethodMapping, double apiVersion, RequestMappingInfo requestMappingInfo) {
+        apiVersionRequestConditions.compute(handlerMethodMapping, (mapping, existingConditions) -> (null == existingConditions ? ApiVersionRequestConditions.EMPTY : existingConditions)
+                .with(apiVersion, metadataInterner.intern(requestMappingInfo.getMethodsCondition()), metadataInterner.intern(requestMappingInfo.getConsumesCondition()),
+                      metadataInterner.intern(requestMappingInfo.getProducesCondition())));
+    }
+
+    /**
+     * This method is used to check if handler methods registered for API
+     * version of handler mapping can serve request method and content types
+     * of the request, as per request conditions cached for the mapping.
+     * 
+     * @param handlerMethodMapping               Base mapping key for API. for eg. /orders
+     * @param apiVersion                         API version to be checked.
+     * @param request                            Current request.
+     * @return                                   Returns false only if conditions of the version are cached and none matches the request.
+     */
+    public boolean isApiVersionServingRequest(String handlerMethodMapping, double apiVersion, HttpServletRequest request) {
+        ApiVersionRequestConditions requestConditions = apiVersionRequestConditions.get(handlerMethodMapping);
+
+        return null == requestConditions || requestConditions.isServing(apiVersion, request);
+    }
+
+    /**
+     * This method is used to check if API is registered in version-mapping
+     * cache without the API version.
+     * 
+     * @param handlerMethodMapping               Base mapping key for API. for eg. /users
+     * @param apiVersion                         API version to be checked.
+     * @return                                   Returns true if versions of the mapping are cached and the version is not one of them.
+     */
+    public boolean isApiVersionUnregisteredForMapping(String handlerMethodMapping, double apiVersion) {
+        List<Double> apiVersionsSupported = apiVersionMappingCache.get(handlerMethodMapping);
+
+        if (CollectionUtils.isEmpty(apiVersionsSupported)) {
+            return false;
+        }
+
+        // Iterating by index to avoid allocating an iterator per lookup.
+        for (int index = 0; index < apiVersionsSupported.size(); index++) {
+            if (apiVersionsSupported.get(index) == apiVersion) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * This method is used to add entry for API versioned mapping in Cache.
+     * 
+     * @param apiVersionedMapping                API versioned mapping. for eg. /api/v1.0/users
+     * @param handlerMethodMapping               Base mapping key for the API versioned mapping. for eg. /users
+     * @param apiVersion                         API version as declared for the handler.
+     * @param contextName                        Name of API context of the handler, empty for the primary context.
+     * @param apiVersioningBaseUrl               API versioning base URL for the version. for eg. /api/v1.0
+     */
+    public void cacheApiVersionedMapping(String apiVersionedMapping, String handlerMethodMapping, String apiVersion, String contextName, String apiVersioningBaseUrl) {
+        Double version = Double.valueOf(apiVersion);
+
+        apiVersionedMappings.put(apiVersionedMapping, new ApiVersionedMapping(handlerMethodMapping, version, apiVersion, contextName));
+        Map<Double, String> apiVersioningBaseUrls = apiVersionBaseUrls.computeIfAbsent(contextName, name -> new ConcurrentHashMap<>());
+
+        String registeredBaseUrl = apiVersioningBaseUrls.putIfAbsent(version, apiVersioningBaseUrl);
+
+        if (null == registeredBaseUrl) {
+            // Copying under the lock of the context entry, so that the last copy includes all registered base URLs.
+            apiVersionBaseUrlIndex.compute(contextName, (name, existingBaseUrls) -> new VersionBaseUrls(apiVersioningBaseUrls));
+        } else if (Boolean.FALSE.equals(registeredBaseUrl.equals(apiVersioningBaseUrl))) {
+            // Version is declared with different text by handlers of the context, for eg. 2 and 2.0, hence
+            // base URL of the version is kept for the base mapping to generate lookup paths it is registered with.
+            mappingApiVersionBaseUrls.computeIfAbsent(handlerMethodMapping, mapping -> new ConcurrentHashMap<>()).putIfAbsent(version, apiVersioningBaseUrl);
+        }
+    }
+
+    /**
+     * This method is used to get API versioning base URL registered for API version of API context.
+     * 
+     * @param contextName                        Name of API context, empty for the primary context.
+     * @param apiVersion                         API version for which base URL is to be fetched.
+     * @return                                   Returns API versioning base URL or null if version is not registered.
+     */
+    public String getApiVersioningBaseUrl(String contextName, double apiVersion) {
+        VersionBaseUrls apiVersioningBaseUrls = apiVersionBaseUrlIndex.get(contextName);
+
+        return null == apiVersioningBaseUrls ? null : apiVersioningBaseUrls.get(apiVersion);
+    }
+
+    /**
+     * This method is used to get API versioning base URL which API version of
+     * base mapping is registered with. Base URL registered for the version of
+     * API context is returned unless the mapping declares the version with
+     * different text. for eg. 2 instead of 2.0
+     * 
+     * @param handlerMethodMapping               Base mapping key for API. for eg. /users
+     * @param contextName                        Name of API context, empty for the primary context.
+     * @param apiVersion                         API version for which base URL is to be fetched.
+     * @return                                   Returns API versioning base URL or null if version is not registered.
+     */
+    public String getApiVersioningBaseUrl(String handlerMethodMapping, String contextName, double apiVersion) {
+        // Checking emptiness first, so that version is boxed only if any version is declared with different text.
+        if (Boolean.FALSE.equals(mappingApiVersionBaseUrls.isEmpty())) {
+            Map<Double, String> apiVersioningBaseUrls = mappingApiVersionBaseUrls.get(handlerMethodMapping);
+            String apiVersioningBaseUrl = null == apiVersioningBaseUrls ? null : apiVersioningBaseUrls.get(apiVersion);
+
+            if (null != apiVersioningBaseUrl) {
+                return apiVersioningBaseUrl;
+            }
+        }
+
+        return getApiVersioningBaseUrl(contextName, apiVersion);
+    }
+
+    /**
+     * This method is used to keep descriptor of handler method to be registered
+     * lazily on the first request for its version.
+     * 
+     * @param apiVersioningBaseUrl               API versioning base URL for the version. for eg. /api/v1.0
+     * @param descriptor                         Descriptor of the handler method.
+     */
+    public void cacheLazyApiVersionedMapping(String apiVersioningBaseUrl, ApiVersionedMappingDescriptor descriptor) {
+        lazyApiVersionedMappings.computeIfAbsent(apiVersioningBaseUrl, baseUrl -> Collections.synchronizedList(new ArrayList<>())).add(descriptor);
+    }
+
+    /**
+     * This method is used to record API version registered lazily.
+     * 
+     * @param apiVersioningBaseUrl               API versioning base URL for the version. for eg. /api/v1.0
+     * @param descriptors                        Descriptors of handler methods registered for the version.
+     */
+    public void recordLazyRegistration(String apiVersioningBaseUrl, List<ApiVersionedMappingDescriptor> descriptors) {
+        lazyApiVersionedMappings.remove(apiVersioningBaseUrl, descriptors);
+
+        lazyRegistrations.incrementAndGet();
+        lazyRegisteredMappings.addAndGet(descriptors.size());
+        registryGeneration.incrementAndGet();
+    }
+
+    public long getLazyRegistrations() {
+        return lazyRegistrations.get();
+    }
+
+    public long getLazyRegisteredMappings() {
+        return lazyRegisteredMappings.get();
+    }
+
+    public long getRegistryGeneration() {
+        return registryGeneration.get();
+    }
+
+    /**
+     * This method is used to get versions supported for handler mappings.
+     * 
+     * @return                                   Returns unmodifiable view of versions of handler mappings in descending order.
+     */
+    public Map<String, List<Double>> getApiVersionMappingCache() {
+        return Collections.unmodifiableMap(apiVersionMappingCache);
+    }
+
+    /**
+     * This method is used to get base mapping and version of API versioned mapping.
+     * 
+     * @param apiVersionedMapping                API versioned mapping. for eg. /api/v1.0/users
+     * @return                                   Returns base mapping and version or null if the mapping is not API versioned.
+     */
+    public ApiVersionedMapping getApiVersionedMapping(String apiVersionedMapping) {
+        return apiVersionedMappings.get(apiVersionedMapping);
+    }
+
+    /**
+     * This method is used to mark API versioned mapping disabled using <code>DisabledApi</code> annotation.
+     * 
+     * @param apiVersionedMapping                API versioned mapping. for eg. /api/v1.0/users
+     */
+    public void addDisabledApi(String apiVersionedMapping) {
+        disabledApis.add(apiVersionedMapping);
+    }
+
+    /**
+     * This method is used to check if API versioned mapping is disabled using <code>DisabledApi</code> annotation.
+     * 
+     * @param apiVersionedMapping                API versioned mapping or lookup path. for eg. /api/v1.0/users
+     * @return                                   Returns true if the mapping is disabled.
+     */
+    public boolean isApiDisabled(String apiVersionedMapping) {
+        return disabledApis.contains(apiVersionedMapping);
+    }
+
+    public Set<String> getDisabledApis() {
+        return Collections.unmodifiableSet(disabledApis);
+    }
+
+    /**
+     * This method is used to check if any version is still to be registered lazily.
+     * 
+     * @return                                   Returns true if handler methods of a version are waiting for lazy registration.
+     */
+    public boolean hasLazyApiVersionedMappings() {
+        return Boolean.FALSE.equals(lazyApiVersionedMappings.isEmpty());
+    }
+
+    /**
+     * This method is used to get descriptors of handler methods to be registered lazily for API versioning base URL.
+     * 
+     * @param apiVersioningBaseUrl               API versioning base URL for the version. for eg. /api/v1.0
+     * @return                                   Returns descriptors or null if the version is not to be registered lazily.
+     */
+    public List<ApiVersionedMappingDescriptor> getLazyApiVersionedMappings(String apiVersioningBaseUrl) {
+        return lazyApiVersionedMappings.get(apiVersioningBaseUrl);
+    }
+
+    public Set<String> getLazyApiVersioningBaseUrls() {
+        return Collections.unmodifiableSet(lazyApiVersionedMappings.keySet());
+    }
+
+    /**
+     * This method is used to check if API version is registered for handler mapping.
+     * 
+     * @param handlerMethodMapping               Base mapping for API. for eg. /users
+     * @param apiVersion                         API version to be checked.
+     * @return                                   Returns true if the version is registered for the mapping.
+     */
+    public boolean isApiVersionRegistered(String handlerMethodMapping, double apiVersion) {
+        for (ApiVersionedMapping versionedMapping : apiVersionedMappings.values()) {
+            if (versionedMapping.getMapping().equals(handlerMethodMapping) && versionedMapping.getVersion() == apiVersion) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * This method is used to check if API versioned mapping is disabled at runtime.
+     * 
+     * @param apiVersionedMapping                API versioned mapping. for eg. /api/v1.0/users
+     * @return                                   Returns true if the version of the mapping is disabled at runtime.
+     */
+    public boolean isApiVersionedMappingDisabledAtRuntime(String apiVersionedMapping) {
+        Map<String, Set<Double>> disabledApiVersions = runtimeDisabledApiVersions.get();
+
+        if (disabledApiVersions.isEmpty() || null == apiVersionedMapping) {
+            return false;
+        }
+
+        ApiVersionedMapping versionedMapping = apiVersionedMappings.get(apiVersionedMapping);
+
+        return null != versionedMapping && isApiVersionDisabledAtRuntime(disabledApiVersions, versionedMapping.getMapping(), versionedMapping.getVersion());
+    }
+
+    /**
+     * This method is used to check if API version is disabled at runtime for handler mapping.
+     * 
+     * @param handlerMethodMapping               Base mapping for API. for eg. /users
+     * @param apiVersion                         API version to be checked.
+     * @return                                   Returns true if the version is disabled at runtime.
+     */
+    public boolean isApiVersionDisabledAtRuntime(String handlerMethodMapping, double apiVersion) {
+        return isApiVersionDisabledAtRuntime(runtimeDisabledApiVersions.get(), handlerMethodMapping, apiVersion);
+    }
+
+    private boolean isApiVersionDisabledAtRuntime(Map<String, Set<Double>> disabledApiVersions, String handlerMethodMapping, double apiVersion) {
+        Set<Double> disabledVersions = disabledApiVersions.get(handlerMethodMapping);
+
+        return null != disabledVersions && disabledVersions.contains(apiVersion);
+    }
+
+    /**
+     * This method is used to disable or re-enable API version for handler
+     * mapping at runtime. A new immutable map is published for every change so
+     * that request threads never wait for the change.
+     * 
+     * @param handlerMethodMapping               Base mapping for API. for eg. /users
+     * @param apiVersion                         API version to be disabled or enabled.
+     * @param disabled                           True to disable the version, false to re-enable it.
+     * @return                                   Returns true if the state of the version is changed.
+     */
+    public boolean setApiVersionDisabledAtRuntime(String handlerMethodMapping, double apiVersion, boolean disabled) {
+        while (true) {
+            Map<String, Set<Double>> existingDisabledApiVersions = runtimeDisabledApiVersions.get();
+
+            Set<Double> disabledVersions = new HashSet<>(existingDisabledApiVersions.getOrDefault(handlerMethodMapping, Collections.emptySet()));
+
+            boolean changed = disabled ? disabledVersions.add(apiVersion) : disabledVersions.remove(apiVersion);
+
+            if (!changed) {
+                return false;
+            }
+
+            Map<String, Set<Double>> updatedDisabledApiVersions = new HashMap<>(existingDisabledApiVersions);
+
+            if (disabledVersions.isEmpty()) {
+                updatedDisabledApiVersions.remove(handlerMethodMapping);
+            } else {
+                updatedDisabledApiVersions.put(handlerMethodMapping, Collections.unmodifiableSet(disabledVersions));
+            }
+
+            if (runtimeDisabledApiVersions.compareAndSet(existingDisabledApiVersions, Collections.unmodifiableMap(updatedDisabledApiVersions))) {
+                logger.warn("Version: [{}] for handler mapping: [{}] is {} at runtime.", apiVersion, handlerMethodMapping, disabled ? "disabled" : "enabled");
+                registryGeneration.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * This method is used to get API versions disabled at runtime for handler mappings.
+     * 
+     * @return                                   Returns immutable map of disabled versions for handler mappings.
+     */
+    public Map<String, Set<Double>> getRuntimeDisabledApiVersions() {
+        return runtimeDisabledApiVersions.get();
+    }
+
+    /**
+     * Versions and API versioning base URLs of an API context, sorted by version.
+     */
+    private static final class VersionBaseUrls {
+
+        private final double[] versions;
+
+        private final String[] baseUrls;
+
+        private VersionBaseUrls(Map<Double, String> apiVersioningBaseUrls) {
+            Map<Double, String> sortedBaseUrls = new TreeMap<>(apiVersioningBaseUrls);
+
+            versions = new double[sortedBaseUrls.size()];
+            baseUrls = new String[sortedBaseUrls.size()];
+
+            int index = 0;
+
+            for (Map.Entry<Double, String> entry : sortedBaseUrls.entrySet()) {
+                versions[index] = entry.getKey();
+                baseUrls[index] = entry.getValue();
+                index++;
+            }
+        }
+
+        private String get(double version) {
+            int index = Arrays.binarySearch(versions, version);
+
+            return index < 0 ? null : baseUrls[index];
+        }
+
+    }
+
+}
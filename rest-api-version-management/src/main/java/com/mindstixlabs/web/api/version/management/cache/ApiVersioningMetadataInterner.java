@@ -0,0 +1,118 @@
+package com.mindstixlabs.web.api.version.management.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.web.servlet.mvc.condition.RequestCondition;
+
+/**
+ * <code>ApiVersioningMetadataInterner</code> is used to share metadata of API
+ * versioned mappings which is identical across handler methods and versions.
+ *
+ * <p>Versioning prefixes, patterns and base mappings are repeated for every
+ * versioned mapping and request conditions like methods, params, headers,
+ * consumes and produces are mostly same for many handler methods. Equal
+ * strings and conditions are replaced with a single canonical instance, so
+ * mapping registry and {@link ApiVersioningCache} hold one copy of each.
+ *
+ * <p>The interner is owned by {@link ApiVersioningCache} of the application
+ * context, so canonical instances and counters are per context and are
+ * released with it. It is written while handler mappings are registered,
+ * eagerly or lazily.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+public final class ApiVersioningMetadataInterner {
+
+    /**
+     * Canonical instances of strings used by API versioned mappings.
+     */
+    private final ConcurrentMap<String, String> strings = new ConcurrentHashMap<>();
+
+    /**
+     * Canonical instances of request conditions used by API versioned mappings.
+     */
+    private final ConcurrentMap<RequestCondition<?>, RequestCondition<?>> conditions = new ConcurrentHashMap<>();
+
+    /**
+     * Number of strings replaced by canonical instance.
+     */
+    private final AtomicLong stringDuplicates = new AtomicLong();
+
+    /**
+     * Number of request conditions replaced by canonical instance.
+     */
+    private final AtomicLong conditionDuplicates = new AtomicLong();
+
+    ApiVersioningMetadataInterner() {
+    }
+
+    /**
+     * This method is used to get canonical instance of string.
+     *
+     * @param value                              String to be interned.
+     * @return                                   Returns canonical instance equal to the string or null if string is null.
+     */
+    public String intern(String value) {
+        if (null == value) {
+            return null;
+        }
+
+        String canonicalValue = strings.putIfAbsent(value, value);
+
+        if (null == canonicalValue) {
+            return value;
+        }
+
+        if (canonicalValue != value) {
+            stringDuplicates.incrementAndGet();
+        }
+
+        return canonicalValue;
+    }
+
+    /**
+     * This method is used to get canonical instance of request condition.
+     * Conditions are equal if they are of same type and have same content.
+     *
+     * @param condition                          Request condition to be interned.
+     * @return                                   Returns canonical instance equal to the condition or null if condition is null.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends RequestCondition<?>> T intern(T condition) {
+        if (null == condition) {
+            return null;
+        }
+
+        RequestCondition<?> canonicalCondition = conditions.putIfAbsent(condition, condition);
+
+        if (null == canonicalCondition) {
+            return condition;
+        }
+
+        if (canonicalCondition != condition) {
+            conditionDuplicates.incrementAndGet();
+        }
+
+        return (T) canonicalCondition;
+    }
+
+    public int getInternedStrings() {
+        return strings.size();
+    }
+
+    public long getStringDuplicates() {
+        return stringDuplicates.get();
+    }
+
+    public int getInternedConditions() {
+        return conditions.size();
+    }
+
+    public long getConditionDuplicates() {
+        return conditionDuplicates.get();
+    }
+
+}
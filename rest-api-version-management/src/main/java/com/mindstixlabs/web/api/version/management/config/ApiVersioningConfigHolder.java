@@ -0,0 +1,177 @@
+package com.mindstixlabs.web.api.version.management.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+import javax.annotation.PostConstruct;
+
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import com.mindstixlabs.web.api.version.management.core.ApiVersioningContext;
+
+/**
+ * <code>ApiVersioningPropertyHolder</code> holds configuration being used for API versioning.
+ * 
+ * <p>Configuration is held per application context, so that application
+ * contexts in a JVM can be configured independently of each other.
+ * 
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+@Component("api-versioning-config-holder")
+@DependsOn("api-versioning-config-helper")
+public class ApiVersioningConfigHolder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiVersioningConfigHolder.class);
+
+    @Autowired
+    private ApiVersioningConfigHelper apiVersioningPropertyManager;
+
+    /**
+     * Immutable snapshot of the configuration used for API versioning. The
+     * snapshot is replaced as a whole whenever the configuration changes.
+     */
+    private final AtomicReference<ApiVersioningRuntimeConfig> config = new AtomicReference<>();
+
+    /**
+     * Minimum version support loaded from properties.
+     */
+    private double minVersionSupport;
+
+    /**
+     * Current version support loaded from properties.
+     */
+    private double currentVersionSupport;
+
+    @PostConstruct
+    public void init() {
+        // Loading optional configuration from properties or using default values.
+        boolean featureEnabled = (Boolean) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.FEATURE_EANBLED, ApiVersioningDefaultConfig.FEATURE_ENABLED, Boolean.class);
+
+        boolean fallbackEnabled;
+
+        if (featureEnabled) {
+            // Overriding fallback flag for API versioning from properties, keeping default value as true.
+            fallbackEnabled = (Boolean) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.FALLBACK_ENABLED, ApiVersioningDefaultConfig.FALLBACK_ENABLED, Boolean.class);
+        } else {
+            // Force disabling Versioning fallback if API Versioning feature is disabled.
+            fallbackEnabled = false;
+
+            logger.warn("API versioning feature is disabled for the application. Force disabling API versioning fallback.");
+        }
+
+        String apiContext = (String) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.API_CONTEXT, ApiVersioningDefaultConfig.API_CONTEXT, String.class);
+        String versionContext = (String) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.VERSION_CONTEXT, ApiVersioningDefaultConfig.VERSION_CONTEXT, String.class);
+        int maxDecimalDigitsSupport = (Integer) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.MAX_DECIMANL_DIGITS_SUPPORT, ApiVersioningDefaultConfig.MAX_DECIMAL_DIGIT_SUPPORT, Integer.class);
+        boolean fallbackRetryWithBaseLookupPath = (Boolean) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.FALLBACK_RETRY_WITH_BASE_LOOKUP_PATH, ApiVersioningDefaultConfig.FALLBACK_RETRY_WITH_BASE_LOOKUP_PATH, Boolean.class);
+        boolean allowDisabledApiVersions = (Boolean) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.ALLOW_DISABLED_API_VERSIONS, ApiVersioningDefaultConfig.ALLOW_DISABLED_API_VERSIONS, Boolean.class);
+
+        boolean disabledApiVersionsFallbackEnabled;
+
+        if (allowDisabledApiVersions) {
+            // Overriding fallback flag for disabled API versions from properties, keeping default value as true.
+            disabledApiVersionsFallbackEnabled = (Boolean) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.DISABLED_API_VERSIONS_FALLBACK_ENABLED, true, Boolean.class);
+        } else {
+            // Force disabling fallback for disabled API versions if not allowed.
+            disabledApiVersionsFallbackEnabled = false;
+
+            logger.warn("Disabled API versions are not allowed for the application. Force disabling fallback for disabled API versions.");
+        }
+
+        List<ApiVersioningContext> contexts = new ArrayList<>();
+
+        // Primary context configured using API context and version context properties.
+        contexts.add(new ApiVersioningContext(ApiVersioningConstants.EMPTY_STRING, apiContext, versionContext, minVersionSupport, currentVersionSupport));
+
+        contexts.addAll(loadAdditionalContexts(versionContext));
+
+        config.set(new ApiVersioningRuntimeConfig(featureEnabled, fallbackEnabled, contexts, maxDecimalDigitsSupport,
+                                                  fallbackRetryWithBaseLookupPath, allowDisabledApiVersions,
+                                                  disabledApiVersionsFallbackEnabled));
+    }
+
+    /**
+     * This method is used to load additional API versioning contexts configured by name.
+     *
+     * @param defaultVersionContext              Version context used if not configured for the context.
+     * @return                                   Returns list of additional contexts.
+     */
+    private List<ApiVersioningContext> loadAdditionalContexts(String defaultVersionContext) {
+        String[] contextNames = (String[]) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.CONTEXTS, ApiVersioningDefaultConfig.CONTEXTS, String[].class);
+
+        List<ApiVersioningContext> contexts = new ArrayList<>();
+
+        for (String contextName : contextNames) {
+            if (StringUtils.isBlank(contextName)) {
+                continue;
+            }
+
+            String name = contextName.trim();
+
+            // Using context name as API context if not configured.
+            String apiContext = (String) apiVersioningPropertyManager.getValueForProperty(String.format(ApiVersioningConfigKeys.CONTEXT_API_CONTEXT, name), name, String.class);
+            String versionContext = (String) apiVersioningPropertyManager.getValueForProperty(String.format(ApiVersioningConfigKeys.CONTEXT_VERSION_CONTEXT, name), defaultVersionContext, String.class);
+            double contextMinVersionSupport = (Double) apiVersioningPropertyManager.getValueForProperty(String.format(ApiVersioningConfigKeys.CONTEXT_MIN_VERSION_SUPPORT, name), ApiVersioningDefaultConfig.MIN_VERSION_SUPPORT, Double.class);
+            double contextCurrentVersionSupport = (Double) apiVersioningPropertyManager.getValueForProperty(String.format(ApiVersioningConfigKeys.CONTEXT_CURRENT_VERSION_SUPPORT, name), ApiVersioningDefaultConfig.CURRENT_VERSION_SUPPORT, Double.class);
+
+            ApiVersioningContext context = new ApiVersioningContext(name, apiContext, versionContext, contextMinVersionSupport, contextCurrentVersionSupport);
+
+            logger.info("API Versioning config: Loaded API context: [{}] with base URL: [{}]", name, context.getApiAndVersionContext());
+
+            contexts.add(context);
+        }
+
+        return contexts;
+    }
+
+    /**
+     * This method is used to get current snapshot of the API versioning
+     * configuration. Callers should read the snapshot once and use it for the
+     * whole request to see a consistent configuration.
+     *
+     * @return                                   Returns current configuration snapshot.
+     */
+    public ApiVersioningRuntimeConfig getConfig() {
+        return config.get();
+    }
+
+    /**
+     * This method is used to atomically replace the API versioning
+     * configuration with the snapshot derived from the current one.
+     *
+     * @param updateFunction                     Function deriving the new snapshot from the current one.
+     * @return                                   Returns the published configuration snapshot.
+     */
+    public ApiVersioningRuntimeConfig updateConfig(UnaryOperator<ApiVersioningRuntimeConfig> updateFunction) {
+        return config.updateAndGet(updateFunction);
+    }
+
+    @Value("${rest.api.version.management.min.version.support}")
+    private void setMinVersionSupport(Double minVersionSupport) {
+        if (null != minVersionSupport) {
+            this.minVersionSupport = minVersionSupport;
+        } else {
+            this.minVersionSupport = ApiVersioningDefaultConfig.MIN_VERSION_SUPPORT;
+            logger.warn("Invalid value: [{}] for minimum version support key: [api.versioning.min.version.support].");
+        }
+    }
+
+    @Value("${rest.api.version.management.current.version.support}")
+    private void setCurrentVersion(Double currentVersionSupport) {
+        if (null != currentVersionSupport) {
+            this.currentVersionSupport = currentVersionSupport;
+        } else {
+            this.currentVersionSupport = ApiVersioningDefaultConfig.CURRENT_VERSION_SUPPORT;
+            logger.warn("Invalid value: [{}] for current version support key: [api.versioning.current.version.support].");
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,139 @@
+package com.mindstixlabs.web.api.version.management.config;
+
+/**
+ * <code>ApiVersioningConfigKeys<code> holds config keys used for ReST Services.
+ * 
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+public class ApiVersioningConfigKeys {
+
+    public static final String FEATURE_EANBLED = "rest.api.version.management.feature.enabled";
+
+    public static final String FALLBACK_ENABLED = "rest.api.version.management.fallback.enabled";
+
+    public static final String API_CONTEXT = "rest.api.version.management.apiContext";
+
+    public static final String VERSION_CONTEXT = "rest.api.version.management.versionContext";
+
+    public static final String MIN_VERSION_SUPPORT = "rest.api.version.management.min.version.support";
+
+    public static final String MAX_DECIMANL_DIGITS_SUPPORT = "rest.api.version.management.max.decimal.digit.support";
+
+    public static final String DEFAULT_SCAN_PACKAGES = "rest.api.version.management.deafult.scanPackages";
+
+    public static final String DEFAULT_IGNORE_PACKAGES = "rest.api.version.management.deafult.ignorePackages";
+
+    public static final String DEFAULT_IGNORE_CLASSES = "rest.api.version.management.deafult.ignoreClasses";
+
+    public static final String DEFAULT_STOP_APP_ON_CHECK_FAIL = "rest.api.version.management.deafult.stopAppOnCheckFail";
+
+    public static final String FALLBACK_RETRY_WITH_BASE_LOOKUP_PATH = "rest.api.version.management.fallback.retryWithBaseLookupPath";
+
+    public static final String ALLOW_DISABLED_API_VERSIONS = "rest.api.version.management.disabledApiVersions.allowed";
+
+    public static final String DISABLED_API_VERSIONS_FALLBACK_ENABLED = "rest.api.version.management.disabledApiVersions.fallback.enabled";
+
+    public static final String ADMIN_ENDPOINT_ENABLED = "rest.api.version.management.admin.enabled";
+
+    public static final String ADMIN_ENDPOINT_PATH = "rest.api.version.management.admin.path";
+
+    public static final String USAGE_ENABLED = "rest.api.version.management.usage.enabled";
+
+    public static final String USAGE_CLIENT_HEADER = "rest.api.version.management.usage.clientHeader";
+
+    public static final String USAGE_TOP_CLIENTS = "rest.api.version.management.usage.topClients";
+
+    public static final String USAGE_SNAPSHOT_INTERVAL_SECONDS = "rest.api.version.management.usage.snapshotIntervalSeconds";
+
+    public static final String USAGE_ROLLUP_FILE = "rest.api.version.management.usage.rollupFile";
+
+    public static final String RESPONSE_VERSION_HEADER = "rest.api.version.management.response.versionHeader";
+
+    public static final String RESPONSE_REDIRECT_ENABLED = "rest.api.version.management.response.redirect.enabled";
+
+    public static final String RESPONSE_REDIRECT_STATUS = "rest.api.version.management.response.redirect.status";
+
+    public static final String RESPONSE_REDIRECT_MAX_AGE_SECONDS = "rest.api.version.management.response.redirect.maxAgeSeconds";
+
+    public static final String CONTEXTS = "rest.api.version.management.contexts";
+
+    public static final String CONTEXT_API_CONTEXT = "rest.api.version.management.contexts.%s.apiContext";
+
+    public static final String CONTEXT_VERSION_CONTEXT = "rest.api.version.management.contexts.%s.versionContext";
+
+    public static final String CONTEXT_MIN_VERSION_SUPPORT = "rest.api.version.management.contexts.%s.min.version.support";
+
+    public static final String CONTEXT_CURRENT_VERSION_SUPPORT = "rest.api.version.management.contexts.%s.current.version.support";
+
+    public static final String WARM_UP_ENABLED = "rest.api.version.management.warmup.enabled";
+
+    public static final String WARM_UP_ITERATIONS = "rest.api.version.management.warmup.iterations";
+
+    public static final String WARM_UP_TIME_BUDGET_MILLIS = "rest.api.version.management.warmup.timeBudgetMillis";
+
+    public static final String LAZY_REGISTRATION_HOT_VERSION = "rest.api.version.management.lazyRegistration.hotVersion";
+
+    public static final String REJECT_FILTER_ENABLED = "rest.api.version.management.rejectFilter.enabled";
+
+    public static final String REJECT_FILTER_STATUS = "rest.api.version.management.rejectFilter.status";
+
+    public static final String REJECT_FILTER_CONTENT_TYPE = "rest.api.version.management.rejectFilter.contentType";
+
+    public static final String REJECT_FILTER_BODY = "rest.api.version.management.rejectFilter.body";
+
+    public static final String REJECT_FILTER_HEADERS = "rest.api.version.management.rejectFilter.headers";
+
+    public static final String RATE_LIMIT_RULES = "rest.api.version.management.rateLimit.rules";
+
+    public static final String BULKHEAD_RULES = "rest.api.version.management.bulkhead.rules";
+
+    public static final String BULKHEAD_REJECTION_POLICY = "rest.api.version.management.bulkhead.rejectionPolicy";
+
+    public static final String BULKHEAD_TIMEOUT_MILLIS = "rest.api.version.management.bulkhead.timeoutMillis";
+
+    public static final String RESPONSE_CACHE_ENABLED = "rest.api.version.management.responseCache.enabled";
+
+    public static final String RESPONSE_CACHE_MAX_ENTRIES = "rest.api.version.management.responseCache.maxEntries";
+
+    public static final String RESPONSE_CACHE_MAX_BYTES = "rest.api.version.management.responseCache.maxBytes";
+
+    public static final String FALLBACK_DISPATCHER_GENERATED = "rest.api.version.management.fallbackDispatcher.generated";
+
+    public static final String SHADOW_RULES = "rest.api.version.management.shadow.rules";
+
+    public static final String SHADOW_MAX_CONCURRENT = "rest.api.version.management.shadow.maxConcurrent";
+
+    public static final String SHADOW_MAX_PER_SECOND = "rest.api.version.management.shadow.maxPerSecond";
+
+    public static final String LATENCY_ENABLED = "rest.api.version.management.latency.enabled";
+
+    public static final String LATENCY_REGRESSION_MARGIN_PERCENT = "rest.api.version.management.latency.regressionMarginPercent";
+
+    public static final String LATENCY_MIN_SAMPLES = "rest.api.version.management.latency.minSamples";
+
+    public static final String BATCH_ENABLED = "rest.api.version.management.batch.enabled";
+
+    public static final String BATCH_PATH = "rest.api.version.management.batch.path";
+
+    public static final String BATCH_MAX_REQUESTS = "rest.api.version.management.batch.maxRequests";
+
+    public static final String BATCH_MAX_CONCURRENT = "rest.api.version.management.batch.maxConcurrent";
+
+    public static final String BATCH_QUEUE_CAPACITY = "rest.api.version.management.batch.queueCapacity";
+
+    public static final String BATCH_TIMEOUT_MILLIS = "rest.api.version.management.batch.timeoutMillis";
+
+    public static final String BATCH_ALLOWED_PATHS = "rest.api.version.management.batch.allowedPaths";
+
+    public static final String CAPTURE_ENABLED = "rest.api.version.management.capture.enabled";
+
+    public static final String CAPTURE_DIRECTORY = "rest.api.version.management.capture.directory";
+
+    public static final String CAPTURE_MAX_FILE_BYTES = "rest.api.version.management.capture.maxFileBytes";
+
+    public static final String CAPTURE_MAX_FILES = "rest.api.version.management.capture.maxFiles";
+
+    public static final String CAPTURE_QUEUE_CAPACITY = "rest.api.version.management.capture.queueCapacity";
+
+}
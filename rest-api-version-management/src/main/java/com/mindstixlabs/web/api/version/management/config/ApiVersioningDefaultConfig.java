@@ -0,0 +1,133 @@
+package com.mindstixlabs.web.api.version.management.config;
+
+/**
+ * <code>ApiVersioningDefaultConfig<code> holds default configuration used for ReST Services.
+ * 
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+public class ApiVersioningDefaultConfig {
+
+    public static final Boolean FEATURE_ENABLED = true;
+
+    public static final boolean FALLBACK_ENABLED = true;
+
+    public static final String API_CONTEXT = "";
+    
+    public static final String VERSION_CONTEXT = "";
+
+    public static final double MIN_VERSION_SUPPORT = 0.0;
+
+    public static final Double CURRENT_VERSION_SUPPORT = 0.0;
+
+    public static final int MAX_DECIMAL_DIGIT_SUPPORT = 1;
+
+    public static final boolean VERSIONING_ENFORCEMENT = false;
+
+    public static final String SCAN_PACKAGES = "";
+
+    public static final String IGNORE_PACKAGES = "";
+
+    public static final String IGNORE_CLASSES = "";
+
+    public static final boolean STOP_APP_ON_CHECK_FAIL = false;
+
+    public static final boolean FALLBACK_RETRY_WITH_BASE_LOOKUP_PATH = false;
+
+    public static final boolean ALLOW_DISABLED_API_VERSIONS = false;
+
+    public static final boolean DISABLED_API_VERSIONS_FALLBACK_ENABLED = false;
+
+    public static final String ADMIN_ENDPOINT_PATH = "/api-versioning";
+
+    public static final boolean USAGE_ENABLED = false;
+
+    public static final String USAGE_CLIENT_HEADER = "";
+
+    public static final int USAGE_TOP_CLIENTS = 20;
+
+    public static final int USAGE_SNAPSHOT_INTERVAL_SECONDS = 60;
+
+    public static final String USAGE_ROLLUP_FILE = "";
+
+    public static final String RESPONSE_VERSION_HEADER = "";
+
+    public static final boolean RESPONSE_REDIRECT_ENABLED = false;
+
+    public static final int RESPONSE_REDIRECT_STATUS = 308;
+
+    public static final int RESPONSE_REDIRECT_MAX_AGE_SECONDS = 86400;
+
+    public static final String[] CONTEXTS = new String[0];
+
+    public static final boolean WARM_UP_ENABLED = false;
+
+    public static final int WARM_UP_ITERATIONS = 1000;
+
+    public static final long WARM_UP_TIME_BUDGET_MILLIS = 10000L;
+
+    public static final double LAZY_REGISTRATION_HOT_VERSION = 0.0;
+
+    public static final boolean REJECT_FILTER_ENABLED = false;
+
+    public static final int REJECT_FILTER_STATUS = 404;
+
+    public static final String REJECT_FILTER_CONTENT_TYPE = "application/json;charset=UTF-8";
+
+    public static final String REJECT_FILTER_BODY = "";
+
+    public static final String REJECT_FILTER_HEADERS = "";
+
+    public static final String[] RATE_LIMIT_RULES = new String[0];
+
+    public static final String[] BULKHEAD_RULES = new String[0];
+
+    public static final String BULKHEAD_REJECTION_POLICY = "REJECT";
+
+    public static final long BULKHEAD_TIMEOUT_MILLIS = 0L;
+
+    public static final boolean RESPONSE_CACHE_ENABLED = false;
+
+    public static final int RESPONSE_CACHE_MAX_ENTRIES = 10000;
+
+    public static final long RESPONSE_CACHE_MAX_BYTES = 16L * 1024 * 1024;
+
+    public static final boolean FALLBACK_DISPATCHER_GENERATED = false;
+
+    public static final String[] SHADOW_RULES = new String[0];
+
+    public static final int SHADOW_MAX_CONCURRENT = 2;
+
+    public static final double SHADOW_MAX_PER_SECOND = 10.0;
+
+    public static final boolean LATENCY_ENABLED = false;
+
+    public static final double LATENCY_REGRESSION_MARGIN_PERCENT = 20.0;
+
+    public static final long LATENCY_MIN_SAMPLES = 100L;
+
+    public static final boolean BATCH_ENABLED = false;
+
+    public static final String BATCH_PATH = "/batch";
+
+    public static final int BATCH_MAX_REQUESTS = 20;
+
+    public static final int BATCH_MAX_CONCURRENT = 4;
+
+    public static final int BATCH_QUEUE_CAPACITY = 100;
+
+    public static final long BATCH_TIMEOUT_MILLIS = 30000L;
+
+    public static final String[] BATCH_ALLOWED_PATHS = new String[0];
+
+    public static final boolean CAPTURE_ENABLED = false;
+
+    public static final String CAPTURE_DIRECTORY = "api-version-capture";
+
+    public static final long CAPTURE_MAX_FILE_BYTES = 67108864L;
+
+    public static final int CAPTURE_MAX_FILES = 5;
+
+    public static final int CAPTURE_QUEUE_CAPACITY = 65536;
+
+}
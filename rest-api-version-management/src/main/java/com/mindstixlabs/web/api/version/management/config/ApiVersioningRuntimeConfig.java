@@ -0,0 +1,211 @@
+package com.mindstixlabs.web.api.version.management.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.mindstixlabs.web.api.version.management.core.ApiVersioningContext;
+import com.mindstixlabs.web.api.version.management.core.ApiVersioningContextMatcher;
+
+/**
+ * <code>ApiVersioningRuntimeConfig</code> is an immutable snapshot of the
+ * configuration used for API versioning at runtime.
+ *
+ * <p>All the values are kept as primitives and the values derived from them,
+ * like the normalized API and version contexts and the prefix automaton
+ * matching them, are computed once when the snapshot is created. A new snapshot is published through
+ * {@link ApiVersioningConfigHolder} whenever the configuration changes, so a
+ * request reading the snapshot once always sees a consistent configuration.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+public final class ApiVersioningRuntimeConfig {
+
+    /**
+     * Flag to enable API versioning for the application.
+     */
+    private final boolean featureEnabled;
+
+    /**
+     * Flag to fallback to previous versions if requested API version is not found.
+     */
+    private final boolean fallbackEnabled;
+
+    /**
+     * API versioning contexts, the primary context being the first one.
+     */
+    private final List<ApiVersioningContext> contexts;
+
+    /**
+     * Prefix automaton matching the API versioning contexts at start of lookup path.
+     */
+    private final ApiVersioningContextMatcher contextMatcher;
+
+    /**
+     * Maximum decimal digits supported as part of API version.
+     */
+    private final int maxDecimalDigitsSupport;
+
+    /**
+     * Flag to retry fallback with base lookup path without versioning.
+     */
+    private final boolean fallbackRetryWithBaseLookupPath;
+
+    /**
+     * Flag to allow requests to disabled API versions.
+     */
+    private final boolean allowDisabledApiVersions;
+
+    /**
+     * Flag to include disabled API versions in fallback.
+     */
+    private final boolean disabledApiVersionsFallbackEnabled;
+
+    /**
+     * Format used to print API versions as per decimal digit support. for eg. %.1f
+     */
+    private final String versionFormat;
+
+    public ApiVersioningRuntimeConfig(boolean featureEnabled, boolean fallbackEnabled, List<ApiVersioningContext> contexts,
+                                      int maxDecimalDigitsSupport, boolean fallbackRetryWithBaseLookupPath,
+                                      boolean allowDisabledApiVersions, boolean disabledApiVersionsFallbackEnabled) {
+        this.featureEnabled = featureEnabled;
+        this.fallbackEnabled = fallbackEnabled;
+        this.contexts = Collections.unmodifiableList(new ArrayList<>(contexts));
+        this.maxDecimalDigitsSupport = maxDecimalDigitsSupport;
+        this.fallbackRetryWithBaseLookupPath = fallbackRetryWithBaseLookupPath;
+        this.allowDisabledApiVersions = allowDisabledApiVersions;
+        this.disabledApiVersionsFallbackEnabled = disabledApiVersionsFallbackEnabled;
+
+        this.contextMatcher = new ApiVersioningContextMatcher(this.contexts);
+
+        this.versionFormat = "%." + maxDecimalDigitsSupport + "f";
+    }
+
+    /**
+     * This method is used to get copy of this configuration with given minimum
+     * and current version support for the primary context.
+     *
+     * @param minVersionSupport                  Minimum version supported for API versioning.
+     * @param currentVersionSupport              Current version supported for API versioning.
+     * @return                                   Returns new configuration snapshot.
+     */
+    public ApiVersioningRuntimeConfig withVersionSupport(double minVersionSupport, double currentVersionSupport) {
+        return withContextVersionSupport(getPrimaryContext().getName(), minVersionSupport, currentVersionSupport);
+    }
+
+    /**
+     * This method is used to get copy of this configuration with given minimum
+     * and current version support for the context.
+     *
+     * @param contextName                        Name of the context, empty for the primary context.
+     * @param minVersionSupport                  Minimum version supported for the context.
+     * @param currentVersionSupport              Current version supported for the context.
+     * @return                                   Returns new configuration snapshot.
+     */
+    public ApiVersioningRuntimeConfig withContextVersionSupport(String contextName, double minVersionSupport, double currentVersionSupport) {
+        List<ApiVersioningContext> updatedContexts = new ArrayList<>(contexts.size());
+
+        for (ApiVersioningContext context : contexts) {
+            updatedContexts.add(context.getName().equals(contextName) ? context.withVersionSupport(minVersionSupport, currentVersionSupport) : context);
+        }
+
+        return new ApiVersioningRuntimeConfig(featureEnabled, fallbackEnabled, updatedContexts, maxDecimalDigitsSupport,
+                                              fallbackRetryWithBaseLookupPath, allowDisabledApiVersions,
+                                              disabledApiVersionsFallbackEnabled);
+    }
+
+    /**
+     * This method is used to get API versioning context by name.
+     *
+     * @param contextName                        Name of the context, empty for the primary context.
+     * @return                                   Returns the context or null if context is not configured.
+     */
+    public ApiVersioningContext getContext(String contextName) {
+        for (ApiVersioningContext context : contexts) {
+            if (context.getName().equals(contextName)) {
+                return context;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * This method is used to get API versioning context matched by {@link ApiVersioningContextMatcher}.
+     *
+     * @param contextMatch                       Encoded match returned by the context matcher.
+     * @return                                   Returns the matched context.
+     */
+    public ApiVersioningContext getMatchedContext(long contextMatch) {
+        return contexts.get(ApiVersioningContextMatcher.getContextIndex(contextMatch));
+    }
+
+    public ApiVersioningContext getPrimaryContext() {
+        return contexts.get(0);
+    }
+
+    /**
+     * This method is used to format API version as per decimal digits supported.
+     *
+     * @param apiVersion                         API version to be formatted.
+     * @return                                   Returns formatted API version. for eg. 1.0
+     */
+    public String formatVersion(double apiVersion) {
+        return String.format(versionFormat, apiVersion);
+    }
+
+    public boolean isFeatureEnabled() {
+        return featureEnabled;
+    }
+
+    public boolean isFallbackEnabled() {
+        return fallbackEnabled;
+    }
+
+    public List<ApiVersioningContext> getContexts() {
+        return contexts;
+    }
+
+    public ApiVersioningContextMatcher getContextMatcher() {
+        return contextMatcher;
+    }
+
+    public String getApiContext() {
+        return getPrimaryContext().getApiContext();
+    }
+
+    public String getVersionContext() {
+        return getPrimaryContext().getVersionContext();
+    }
+
+    public double getMinVersionSupport() {
+        return getPrimaryContext().getMinVersionSupport();
+    }
+
+    public double getCurrentVersionSupport() {
+        return getPrimaryContext().getCurrentVersionSupport();
+    }
+
+    public int getMaxDecimalDigitsSupport() {
+        return maxDecimalDigitsSupport;
+    }
+
+    public boolean isFallbackRetryWithBaseLookupPath() {
+        return fallbackRetryWithBaseLookupPath;
+    }
+
+    public boolean isAllowDisabledApiVersions() {
+        return allowDisabledApiVersions;
+    }
+
+    public boolean isDisabledApiVersionsFallbackEnabled() {
+        return disabledApiVersionsFallbackEnabled;
+    }
+
+    public String getApiAndVersionContext() {
+        return getPrimaryContext().getApiAndVersionContext();
+    }
+
+}
@@ -5,11 +5,14 @@ import org.springframework.boot.autoconfigure.web.WebMvcRegistrationsAdapter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.DependsOn;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 
+import com.mindstixlabs.web.api.version.management.ApiVersioningRequestMappingHandlerAdapter;
 import com.mindstixlabs.web.api.version.management.DefaultRequestMappingHandlerMapping;
 import com.mindstixlabs.web.api.version.management.ReSTApiVersionManager;
 import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigHolder;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningRuntimeConfig;
 
 /**
  * Configuration class to support API Version Handling.
@@ -32,18 +35,27 @@ public class ApiVersioningWebConfiguration {
      * Overriding RequestMappingHandlerMapping with our custom class called as
      * ReSTApiVersionManager to have logic to manage ReST api version
      * 
+     * @param apiVersioningConfigHolder          API versioning configuration of the application context.
      * @return
      */
     @Bean
     @DependsOn("api-versioning-config-holder")
-    public WebMvcRegistrations customWebRegistrations() {
-        if (ApiVersioningConfigHolder.FEATURE_ENABLED && ApiVersioningConfigHolder.FALLBACK_ENABLED) {
+    public WebMvcRegistrations customWebRegistrations(ApiVersioningConfigHolder apiVersioningConfigHolder) {
+        ApiVersioningRuntimeConfig config = apiVersioningConfigHolder.getConfig();
+
+        if (config.isFeatureEnabled() && config.isFallbackEnabled()) {
             // Overriding RequestMappingHandlerMapping if versioning feature & fallback is enabled.
             return new WebMvcRegistrationsAdapter() {
                 @Override
                 public RequestMappingHandlerMapping getRequestMappingHandlerMapping() {
                     return new ReSTApiVersionManager();
                 }
+
+                @Override
+                public RequestMappingHandlerAdapter getRequestMappingHandlerAdapter() {
+                    // Overriding RequestMappingHandlerAdapter to run handlers of API versions in bulkheads.
+                    return new ApiVersioningRequestMappingHandlerAdapter();
+                }
             };
         } else {
             return new WebMvcRegistrationsAdapter() {
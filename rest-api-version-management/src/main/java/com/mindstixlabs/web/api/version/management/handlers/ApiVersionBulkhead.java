@@ -0,0 +1,146 @@
+package com.mindstixlabs.web.api.version.management.handlers;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * <code>ApiVersionBulkhead</code> is a bounded executor dedicated to handler
+ * methods of an API version range, so that slow handlers of old versions can't
+ * exhaust servlet threads used by other versions.
+ *
+ * <p>Handler methods admitted to the bulkhead are limited to the number of
+ * threads and queue capacity of the bulkhead using a semaphore. The executor
+ * queue is larger than queue capacity so that tasks admitted by the semaphore
+ * are never rejected by the executor.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+public class ApiVersionBulkhead {
+
+    private final String rule;
+
+    private final String contextName;
+
+    private final double fromVersion;
+
+    private final double toVersion;
+
+    private final int threads;
+
+    private final int queueCapacity;
+
+    private final ThreadPoolTaskExecutor executor;
+
+    /**
+     * Permits for handler methods running or queued in the bulkhead.
+     */
+    private final Semaphore permits;
+
+    private final LongAdder admitted = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final LongAdder callerRuns = new LongAdder();
+
+    public ApiVersionBulkhead(String rule, String contextName, double fromVersion, double toVersion, int threads, int queueCapacity) {
+        this.rule = rule;
+        this.contextName = contextName;
+        this.fromVersion = fromVersion;
+        this.toVersion = toVersion;
+        this.threads = threads;
+        this.queueCapacity = queueCapacity;
+        this.permits = new Semaphore(threads + queueCapacity);
+
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(threads);
+        this.executor.setMaxPoolSize(threads);
+        this.executor.setQueueCapacity(threads + queueCapacity);
+        this.executor.setThreadNamePrefix("api-version-bulkhead-" + rule.replaceAll("[^-\\w.]", "_") + "-");
+        this.executor.setDaemon(true);
+        this.executor.initialize();
+    }
+
+    /**
+     * This method is used to check if bulkhead is configured for API version of API context.
+     *
+     * @param requestedContextName               Name of API context, empty for the primary context.
+     * @param version                            API version.
+     * @return                                   Returns true if version is in version range of the bulkhead.
+     */
+    public boolean matches(String requestedContextName, double version) {
+        return version >= fromVersion && version <= toVersion && contextName.equals(requestedContextName);
+    }
+
+    /**
+     * This method is used to admit a handler method to the bulkhead.
+     *
+     * @return                                   Returns true if handler method can run or queue in the bulkhead.
+     */
+    public boolean tryAcquire() {
+        if (permits.tryAcquire()) {
+            admitted.increment();
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * This method is used to release permit once admitted handler method completes.
+     */
+    public void release() {
+        permits.release();
+    }
+
+    public void recordRejection() {
+        rejected.increment();
+    }
+
+    public void recordCallerRuns() {
+        callerRuns.increment();
+    }
+
+    public AsyncTaskExecutor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * This method is used to get saturation metrics of the bulkhead.
+     *
+     * @return                                   Returns usage of threads and queue with number of admitted and rejected handler methods.
+     */
+    public Map<String, Object> getMetrics() {
+        ThreadPoolExecutor threadPoolExecutor = executor.getThreadPoolExecutor();
+        int inFlight = threads + queueCapacity - permits.availablePermits();
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("rule", rule);
+        metrics.put("threads", threads);
+        metrics.put("queueCapacity", queueCapacity);
+        metrics.put("activeThreads", threadPoolExecutor.getActiveCount());
+        metrics.put("queued", threadPoolExecutor.getQueue().size());
+        metrics.put("saturation", (double) inFlight / (threads + queueCapacity));
+        metrics.put("admitted", admitted.sum());
+        metrics.put("rejected", rejected.sum());
+        metrics.put("callerRuns", callerRuns.sum());
+
+        return metrics;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return rule;
+    }
+
+}
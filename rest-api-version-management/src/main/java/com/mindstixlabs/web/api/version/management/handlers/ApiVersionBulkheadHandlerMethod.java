@@ -0,0 +1,25 @@
+package com.mindstixlabs.web.api.version.management.handlers;
+
+import org.springframework.web.method.HandlerMethod;
+
+/**
+ * <code>ApiVersionBulkheadHandlerMethod</code> is a handler method resolved
+ * for an API version which is to be invoked on executor of its bulkhead.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+public class ApiVersionBulkheadHandlerMethod extends HandlerMethod {
+
+    private final ApiVersionBulkhead bulkhead;
+
+    public ApiVersionBulkheadHandlerMethod(HandlerMethod handlerMethod, ApiVersionBulkhead bulkhead) {
+        super(handlerMethod);
+        this.bulkhead = bulkhead;
+    }
+
+    public ApiVersionBulkhead getBulkhead() {
+        return bulkhead;
+    }
+
+}
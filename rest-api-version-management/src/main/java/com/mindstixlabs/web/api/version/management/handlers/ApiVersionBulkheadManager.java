@@ -0,0 +1,278 @@
+package com.mindstixlabs.web.api.version.management.handlers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.mindstixlabs.web.api.version.management.ReSTApiVersionManager;
+import com.mindstixlabs.web.api.version.management.cache.ApiVersionedMapping;
+import com.mindstixlabs.web.api.version.management.cache.ApiVersioningCache;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigHelper;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigHolder;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigKeys;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningDefaultConfig;
+
+/**
+ * <code>ApiVersionBulkheadManager</code> is used to run handler methods of
+ * configured API version ranges on dedicated bounded executors, so that slow
+ * handlers of deprecated versions can't exhaust servlet threads used by
+ * current versions.
+ *
+ * <p>Bulkheads are configured as rules for a version or an inclusive version
+ * range, optionally for an API context, in format
+ * <code>[context:]fromVersion[-toVersion]=threads[/queueCapacity]</code>.
+ * for eg. <code>0-1.9=10/50</code>. The first bulkhead matching the version
+ * resolved by {@link ReSTApiVersionManager} applies.
+ *
+ * <p>Handler methods are invoked on the bulkhead executor using Servlet async
+ * processing and the result is handled on the async dispatch. If bulkhead is
+ * saturated, the request is rejected with precomputed
+ * {@code 503 Service Unavailable} response or, with caller runs policy,
+ * handled on the servlet thread. Handler methods without return value or
+ * already returning an async result are not run in bulkheads.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+@Component("api-version-bulkhead-manager")
+@DependsOn("api-versioning-config-holder")
+public class ApiVersionBulkheadManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiVersionBulkheadManager.class);
+
+    private static final Pattern RULE_PATTERN = Pattern.compile("^(?:([-\\w]+):)?(\\d+(?:\\.\\d+)?)(?:-(\\d+(?:\\.\\d+)?))?=(\\d+)(?:/(\\d+))?$");
+
+    private static final String CALLER_RUNS_POLICY = "CALLER_RUNS";
+
+    private static final int NO_BULKHEAD = -1;
+
+    private static final byte[] REJECTED_BODY = String.format("{\"status\":%d,\"error\":\"%s\"}", HttpStatus.SERVICE_UNAVAILABLE.value(), HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase()).getBytes(StandardCharsets.UTF_8);
+
+    private static final Class<?>[] ASYNC_RETURN_TYPES = { Callable.class, WebAsyncTask.class, DeferredResult.class, ListenableFuture.class,
+                                                           CompletionStage.class, ResponseBodyEmitter.class, StreamingResponseBody.class };
+
+    @Autowired
+    private ApiVersioningCache apiVersioningCache;
+
+    @Autowired
+    private ApiVersioningConfigHolder apiVersioningConfigHolder;
+
+    @Autowired
+    private ApiVersioningConfigHelper apiVersioningPropertyManager;
+
+    private List<ApiVersionBulkhead> bulkheads = Collections.emptyList();
+
+    private boolean callerRunsOnRejection;
+
+    /**
+     * Timeout of async processing of handler methods in bulkheads, null for container default.
+     */
+    private Long timeoutMillis;
+
+    /**
+     * Index of bulkhead for handler methods, handler methods which can't run in
+     * bulkheads are mapped to {@link #NO_BULKHEAD}.
+     */
+    private final Map<HandlerMethod, Integer> bulkheadIndexes = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        String[] configuredRules = (String[]) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.BULKHEAD_RULES, ApiVersioningDefaultConfig.BULKHEAD_RULES, String[].class);
+
+        List<ApiVersionBulkhead> configuredBulkheads = new ArrayList<>();
+
+        for (String configuredRule : configuredRules) {
+            ApiVersionBulkhead bulkhead = parseRule(configuredRule.trim());
+
+            if (null != bulkhead) {
+                configuredBulkheads.add(bulkhead);
+            }
+        }
+
+        bulkheads = Collections.unmodifiableList(configuredBulkheads);
+
+        String rejectionPolicy = (String) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.BULKHEAD_REJECTION_POLICY, ApiVersioningDefaultConfig.BULKHEAD_REJECTION_POLICY, String.class);
+        callerRunsOnRejection = CALLER_RUNS_POLICY.equalsIgnoreCase(rejectionPolicy);
+
+        long configuredTimeoutMillis = (Long) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.BULKHEAD_TIMEOUT_MILLIS, ApiVersioningDefaultConfig.BULKHEAD_TIMEOUT_MILLIS, Long.class);
+        timeoutMillis = configuredTimeoutMillis > 0 ? configuredTimeoutMillis : null;
+
+        if (isEnabled()) {
+            logger.info("API version bulkheads are enabled with rules: {} and rejection policy: [{}].", bulkheads, callerRunsOnRejection ? CALLER_RUNS_POLICY : rejectionPolicy);
+        }
+    }
+
+    private ApiVersionBulkhead parseRule(String configuredRule) {
+        Matcher matcher = RULE_PATTERN.matcher(configuredRule);
+
+        if (Boolean.FALSE.equals(matcher.matches())) {
+            logger.warn("Ignoring invalid bulkhead rule: [{}], expected format is [context:]fromVersion[-toVersion]=threads[/queueCapacity].", configuredRule);
+            return null;
+        }
+
+        String contextName = null == matcher.group(1) ? "" : matcher.group(1);
+
+        if (null == apiVersioningConfigHolder.getConfig().getContext(contextName)) {
+            logger.warn("Ignoring bulkhead rule: [{}] for API context [{}] which is not configured.", configuredRule, contextName);
+            return null;
+        }
+
+        double fromVersion = Double.parseDouble(matcher.group(2));
+        double toVersion = null == matcher.group(3) ? fromVersion : Double.parseDouble(matcher.group(3));
+        int threads = Integer.parseInt(matcher.group(4));
+        int queueCapacity = null == matcher.group(5) ? threads : Integer.parseInt(matcher.group(5));
+
+        if (threads <= 0 || fromVersion > toVersion) {
+            logger.warn("Ignoring bulkhead rule: [{}] with empty version range or without threads.", configuredRule);
+            return null;
+        }
+
+        return new ApiVersionBulkhead(configuredRule, contextName, fromVersion, toVersion, threads, queueCapacity);
+    }
+
+    /**
+     * This method is used to check if bulkheads are configured.
+     *
+     * @return                                   Returns true if any bulkhead is configured.
+     */
+    public boolean isEnabled() {
+        return Boolean.FALSE.equals(bulkheads.isEmpty());
+    }
+
+    public boolean isCallerRunsOnRejection() {
+        return callerRunsOnRejection;
+    }
+
+    public Long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    /**
+     * This method is used to get handler method to be invoked in bulkhead of
+     * the resolved API version.
+     *
+     * @param handlerMethod                      Handler method resolved for the request.
+     * @param request                            Current request.
+     * @return                                   Returns bulkhead handler method or given handler method if resolved version has no bulkhead.
+     */
+    public HandlerMethod getBulkheadHandlerMethod(HandlerMethod handlerMethod, HttpServletRequest request) {
+        String matchedPattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        ApiVersionedMapping versionedMapping = null == matchedPattern ? null : apiVersioningCache.getApiVersionedMapping(matchedPattern);
+
+        if (null == versionedMapping) {
+            return handlerMethod;
+        }
+
+        int bulkheadIndex = bulkheadIndexes.computeIfAbsent(handlerMethod, method -> getBulkheadIndex(method, versionedMapping));
+
+        // Handler method is resolved with bean instance for every request, hence it is wrapped for every request.
+        return bulkheadIndex == NO_BULKHEAD ? handlerMethod : new ApiVersionBulkheadHandlerMethod(handlerMethod, bulkheads.get(bulkheadIndex));
+    }
+
+    private int getBulkheadIndex(HandlerMethod handlerMethod, ApiVersionedMapping versionedMapping) {
+        for (int index = 0; index < bulkheads.size(); index ++) {
+            ApiVersionBulkhead bulkhead = bulkheads.get(index);
+
+            if (bulkhead.matches(versionedMapping.getContextName(), versionedMapping.getVersion())) {
+                if (isAsyncOrVoid(handlerMethod)) {
+                    logger.debug("Handler method: [{}] has no return value or returns async result, skipping bulkhead: [{}].", handlerMethod, bulkhead);
+                    return NO_BULKHEAD;
+                }
+
+                return index;
+            }
+        }
+
+        return NO_BULKHEAD;
+    }
+
+    private boolean isAsyncOrVoid(HandlerMethod handlerMethod) {
+        Class<?> returnType = handlerMethod.getMethod().getReturnType();
+
+        if (void.class == returnType || Void.class == returnType) {
+            return true;
+        }
+
+        if (HttpEntity.class.isAssignableFrom(returnType)) {
+            // Body of response entity may be an async result as well.
+            Class<?> bodyType = ResolvableType.forMethodReturnType(handlerMethod.getMethod()).as(HttpEntity.class).getGeneric(0).resolve();
+            returnType = null == bodyType ? Object.class : bodyType;
+        }
+
+        for (Class<?> asyncReturnType : ASYNC_RETURN_TYPES) {
+            if (asyncReturnType.isAssignableFrom(returnType)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * This method is used to write precomputed response for request rejected by saturated bulkhead.
+     *
+     * @param response                           Response of rejected request.
+     */
+    public void writeRejectedResponse(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        response.setContentLength(REJECTED_BODY.length);
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.getOutputStream().write(REJECTED_BODY);
+    }
+
+    /**
+     * This method is used to get saturation metrics of configured bulkheads.
+     *
+     * @return                                   Returns metrics of bulkheads in the order in which they are matched.
+     */
+    public List<Map<String, Object>> getBulkheads() {
+        List<Map<String, Object>> metrics = new ArrayList<>();
+
+        for (ApiVersionBulkhead bulkhead : bulkheads) {
+            metrics.add(bulkhead.getMetrics());
+        }
+
+        return metrics;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ApiVersionBulkhead bulkhead : bulkheads) {
+            bulkhead.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,405 @@
+package com.mindstixlabs.web.api.version.management.handlers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningRuntimeConfig;
+import com.mindstixlabs.web.api.version.management.core.ApiVersionFallbackDispatcher;
+import com.mindstixlabs.web.api.version.management.core.ApiVersioningContext;
+
+/**
+ * <code>ApiVersionFallbackDispatcherGenerator</code> generates bytecode of
+ * {@link ApiVersionFallbackDispatcher} for a snapshot of the version index.
+ *
+ * <p>Every base mapping key is assigned a dense code. The generated dispatcher
+ * switches on the code and compares requested version with constant version
+ * thresholds of the mapping, which already leave out versions disabled at
+ * runtime and versions below minimum supported version. Keys are split in
+ * buckets, each compiled to its own method, to keep methods within size
+ * limits of the JVM.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+final class ApiVersionFallbackDispatcherGenerator {
+
+    private static final String DISPATCHER_INTERNAL_NAME = Type.getInternalName(ApiVersionFallbackDispatcher.class);
+
+    private static final String RESOLVE_DESCRIPTOR = "(IID)D";
+
+    private static final String BUCKET_DESCRIPTOR = "(ID)D";
+
+    /**
+     * Bits of mapping code holding index of the mapping within its bucket.
+     */
+    private static final int BUCKET_SHIFT = 16;
+
+    private static final int MAX_MAPPINGS_PER_BUCKET = 1 << BUCKET_SHIFT;
+
+    /**
+     * Estimated bytecode size of a bucket method, kept well within 64KB limit of the JVM.
+     */
+    private static final int MAX_BUCKET_CODE_BYTES = 24 * 1024;
+
+    private static final int CHAIN_CODE_BYTES = 16;
+
+    private static final int THRESHOLD_CODE_BYTES = 12;
+
+    private static final AtomicLong GENERATED_CLASSES = new AtomicLong();
+
+    private ApiVersionFallbackDispatcherGenerator() {
+    }
+
+    /**
+     * This method is used to generate dispatcher for given configuration and
+     * version index.
+     *
+     * @param config                             Configuration snapshot of which version support is compiled in.
+     * @param versionIndex                       Versions of base mapping keys in descending order.
+     * @param runtimeDisabledVersions            Versions disabled at runtime for base mapping keys.
+     * @return                                   Returns generated dispatcher with codes of base mapping keys.
+     */
+    static GeneratedDispatcher generate(ApiVersioningRuntimeConfig config, Map<String, List<Double>> versionIndex, Map<String, Set<Double>> runtimeDisabledVersions) {
+        List<ApiVersioningContext> contexts = config.getContexts();
+
+        List<String> mappingKeys = new ArrayList<>(versionIndex.keySet());
+
+        for (String mappingKey : runtimeDisabledVersions.keySet()) {
+            if (Boolean.FALSE.equals(versionIndex.containsKey(mappingKey))) {
+                mappingKeys.add(mappingKey);
+            }
+        }
+
+        Collections.sort(mappingKeys);
+
+        // Assigning mapping keys to buckets as per estimated size of their code.
+        List<List<Chain>> buckets = new ArrayList<>();
+        List<Chain> bucket = null;
+        int bucketCodeBytes = 0;
+
+        Map<String, Integer> mappingCodes = new HashMap<>();
+        Map<String, Integer> mappingContextIndexes = new HashMap<>();
+
+        for (String mappingKey : mappingKeys) {
+            int contextIndex = getContextIndex(contexts, mappingKey);
+
+            Chain chain = new Chain(contexts.get(contextIndex), versionIndex.getOrDefault(mappingKey, Collections.emptyList()), runtimeDisabledVersions.getOrDefault(mappingKey, Collections.emptySet()));
+
+            int chainCodeBytes = CHAIN_CODE_BYTES + THRESHOLD_CODE_BYTES * chain.thresholds.length;
+
+            if (null == bucket || bucket.size() == MAX_MAPPINGS_PER_BUCKET || (bucketCodeBytes + chainCodeBytes > MAX_BUCKET_CODE_BYTES && Boolean.FALSE.equals(bucket.isEmpty()))) {
+                bucket = new ArrayList<>();
+                buckets.add(bucket);
+                bucketCodeBytes = 0;
+            }
+
+            mappingCodes.put(mappingKey, ((buckets.size() - 1) << BUCKET_SHIFT) | bucket.size());
+            mappingContextIndexes.put(mappingKey, contextIndex);
+
+            bucket.add(chain);
+            bucketCodeBytes += chainCodeBytes;
+        }
+
+        String internalName = DISPATCHER_INTERNAL_NAME + "$Generated" + GENERATED_CLASSES.incrementAndGet();
+
+        byte[] classBytes = generateClass(internalName, contexts, buckets);
+
+        ApiVersionFallbackDispatcher dispatcher = new DispatcherClassLoader(ApiVersionFallbackDispatcher.class.getClassLoader()).newDispatcher(internalName.replace('/', '.'), classBytes);
+
+        return new GeneratedDispatcher(dispatcher, mappingCodes, mappingContextIndexes, buckets.size(), classBytes.length);
+    }
+
+    /**
+     * This method is used to get index of API context of base mapping key,
+     * keys of additional contexts are prefixed with name of the context.
+     */
+    private static int getContextIndex(List<ApiVersioningContext> contexts, String mappingKey) {
+        for (int i = 0; i < contexts.size(); i++) {
+            ApiVersioningContext context = contexts.get(i);
+
+            if (Boolean.FALSE.equals(context.isPrimary()) && mappingKey.startsWith(context.getMappingKey(""))) {
+                return i;
+            }
+        }
+
+        // Primary context is the first context.
+        return 0;
+    }
+
+    private static byte[] generateClass(String internalName, List<ApiVersioningContext> contexts, List<List<Chain>> buckets) {
+        ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+        classWriter.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, internalName, null, DISPATCHER_INTERNAL_NAME, null);
+
+        MethodVisitor constructor = classWriter.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, DISPATCHER_INTERNAL_NAME, "<init>", "()V", false);
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+
+        generateResolveMethod(classWriter, internalName, contexts, buckets.size());
+
+        for (int i = 0; i < buckets.size(); i++) {
+            generateBucketMethod(classWriter, i, buckets.get(i));
+        }
+
+        classWriter.visitEnd();
+
+        return classWriter.toByteArray();
+    }
+
+    /**
+     * Generating resolve method which switches on bucket of known mappings and
+     * on API context of unknown mappings.
+     */
+    private static void generateResolveMethod(ClassWriter classWriter, String internalName, List<ApiVersioningContext> contexts, int bucketCount) {
+        MethodVisitor method = classWriter.visitMethod(Opcodes.ACC_PUBLIC, "resolve", RESOLVE_DESCRIPTOR, null, null);
+        method.visitCode();
+
+        Label unknownMapping = new Label();
+        Label noVersion = new Label();
+
+        method.visitVarInsn(Opcodes.ILOAD, 1);
+        method.visitJumpInsn(Opcodes.IFLT, unknownMapping);
+
+        if (bucketCount > 0) {
+            Label[] bucketLabels = newLabels(bucketCount);
+
+            method.visitVarInsn(Opcodes.ILOAD, 1);
+            method.visitLdcInsn(BUCKET_SHIFT);
+            method.visitInsn(Opcodes.IUSHR);
+            method.visitTableSwitchInsn(0, bucketCount - 1, unknownMapping, bucketLabels);
+
+            for (int i = 0; i < bucketCount; i++) {
+                method.visitLabel(bucketLabels[i]);
+                method.visitVarInsn(Opcodes.ILOAD, 1);
+                method.visitLdcInsn(MAX_MAPPINGS_PER_BUCKET - 1);
+                method.visitInsn(Opcodes.IAND);
+                method.visitVarInsn(Opcodes.DLOAD, 3);
+                method.visitMethodInsn(Opcodes.INVOKESTATIC, internalName, "bucket" + i, BUCKET_DESCRIPTOR, false);
+                method.visitInsn(Opcodes.DRETURN);
+            }
+        }
+
+        // Mappings which are not in the index have no versions, only requested version above current version falls back.
+        method.visitLabel(unknownMapping);
+
+        Label[] contextLabels = newLabels(contexts.size());
+
+        method.visitVarInsn(Opcodes.ILOAD, 2);
+        method.visitTableSwitchInsn(0, contexts.size() - 1, noVersion, contextLabels);
+
+        for (int i = 0; i < contexts.size(); i++) {
+            method.visitLabel(contextLabels[i]);
+            generateChain(method, 3, new Chain(contexts.get(i), Collections.emptyList(), Collections.emptySet()));
+        }
+
+        method.visitLabel(noVersion);
+        method.visitLdcInsn(ApiVersionFallbackDispatcher.NO_VERSION);
+        method.visitInsn(Opcodes.DRETURN);
+
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+    }
+
+    private static void generateBucketMethod(ClassWriter classWriter, int bucketIndex, List<Chain> chains) {
+        MethodVisitor method = classWriter.visitMethod(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC, "bucket" + bucketIndex, BUCKET_DESCRIPTOR, null, null);
+        method.visitCode();
+
+        Label noVersion = new Label();
+        Label[] mappingLabels = newLabels(chains.size());
+
+        method.visitVarInsn(Opcodes.ILOAD, 0);
+        method.visitTableSwitchInsn(0, chains.size() - 1, noVersion, mappingLabels);
+
+        for (int i = 0; i < chains.size(); i++) {
+            method.visitLabel(mappingLabels[i]);
+            generateChain(method, 1, chains.get(i));
+        }
+
+        method.visitLabel(noVersion);
+        method.visitLdcInsn(ApiVersionFallbackDispatcher.NO_VERSION);
+        method.visitInsn(Opcodes.DRETURN);
+
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+    }
+
+    /**
+     * Generating comparisons of requested version with current version and
+     * thresholds of a mapping in descending order, returning the first
+     * threshold below requested version.
+     */
+    private static void generateChain(MethodVisitor method, int requestedVersionSlot, Chain chain) {
+        Label notAboveCurrentVersion = new Label();
+
+        method.visitVarInsn(Opcodes.DLOAD, requestedVersionSlot);
+        method.visitLdcInsn(chain.currentVersion);
+        method.visitInsn(Opcodes.DCMPL);
+        method.visitJumpInsn(Opcodes.IFLE, notAboveCurrentVersion);
+        method.visitLdcInsn(chain.aboveCurrentVersion);
+        method.visitInsn(Opcodes.DRETURN);
+
+        method.visitLabel(notAboveCurrentVersion);
+
+        for (double threshold : chain.thresholds) {
+            Label nextThreshold = new Label();
+
+            method.visitVarInsn(Opcodes.DLOAD, requestedVersionSlot);
+            method.visitLdcInsn(threshold);
+            method.visitInsn(Opcodes.DCMPL);
+            method.visitJumpInsn(Opcodes.IFLE, nextThreshold);
+            method.visitLdcInsn(threshold);
+            method.visitInsn(Opcodes.DRETURN);
+
+            method.visitLabel(nextThreshold);
+        }
+
+        method.visitLdcInsn(ApiVersionFallbackDispatcher.NO_VERSION);
+        method.visitInsn(Opcodes.DRETURN);
+    }
+
+    private static Label[] newLabels(int count) {
+        Label[] labels = new Label[count];
+
+        for (int i = 0; i < count; i++) {
+            labels[i] = new Label();
+        }
+
+        return labels;
+    }
+
+    /**
+     * Constants compiled for a base mapping, as resolved by
+     * {@link ApiVersionFallbackResolver} for the same version index.
+     */
+    private static final class Chain {
+
+        private final double currentVersion;
+
+        /**
+         * Version looked up if requested version is above current version.
+         */
+        private final double aboveCurrentVersion;
+
+        /**
+         * Versions below current version in descending order, which are
+         * neither disabled at runtime nor below minimum version.
+         */
+        private final double[] thresholds;
+
+        private Chain(ApiVersioningContext context, List<Double> versions, Set<Double> disabledVersions) {
+            this.currentVersion = context.getCurrentVersionSupport();
+
+            double minVersion = context.getMinVersionSupport();
+            double previousVersion = ApiVersionFallbackDispatcher.NO_VERSION;
+
+            List<Double> enabledVersions = new ArrayList<>();
+
+            for (Double version : versions) {
+                if (version < currentVersion && version >= minVersion && Boolean.FALSE.equals(disabledVersions.contains(version))) {
+                    enabledVersions.add(version);
+
+                    if (Double.isNaN(previousVersion)) {
+                        previousVersion = version;
+                    }
+                }
+            }
+
+            // Current version is looked up unless it is disabled, even if it is not registered for the mapping.
+            double versionAboveCurrent = disabledVersions.contains(currentVersion) ? previousVersion : currentVersion;
+
+            this.aboveCurrentVersion = versionAboveCurrent >= minVersion ? versionAboveCurrent : ApiVersionFallbackDispatcher.NO_VERSION;
+            this.thresholds = enabledVersions.stream().mapToDouble(Double::doubleValue).toArray();
+        }
+
+    }
+
+    /**
+     * Generated dispatcher with codes of base mapping keys.
+     */
+    static final class GeneratedDispatcher {
+
+        private final ApiVersionFallbackDispatcher dispatcher;
+
+        private final Map<String, Integer> mappingCodes;
+
+        private final Map<String, Integer> mappingContextIndexes;
+
+        private final int buckets;
+
+        private final int classBytes;
+
+        private GeneratedDispatcher(ApiVersionFallbackDispatcher dispatcher, Map<String, Integer> mappingCodes, Map<String, Integer> mappingContextIndexes, int buckets, int classBytes) {
+            this.dispatcher = dispatcher;
+            this.mappingCodes = mappingCodes;
+            this.mappingContextIndexes = mappingContextIndexes;
+            this.buckets = buckets;
+            this.classBytes = classBytes;
+        }
+
+        ApiVersionFallbackDispatcher getDispatcher() {
+            return dispatcher;
+        }
+
+        /**
+         * This method is used to get code of base mapping key.
+         *
+         * @param mappingKey                     Base mapping key. for eg. /users or partner:/users
+         * @return                               Returns code of the key or {@link ApiVersionFallbackDispatcher#UNKNOWN_MAPPING}.
+         */
+        int getMappingCode(String mappingKey) {
+            Integer mappingCode = mappingCodes.get(mappingKey);
+
+            return null == mappingCode ? ApiVersionFallbackDispatcher.UNKNOWN_MAPPING : mappingCode;
+        }
+
+        Map<String, Integer> getMappingContextIndexes() {
+            return mappingContextIndexes;
+        }
+
+        int getBuckets() {
+            return buckets;
+        }
+
+        int getClassBytes() {
+            return classBytes;
+        }
+
+    }
+
+    /**
+     * Class loader of a generated dispatcher, so that dispatchers replaced on
+     * regeneration can be unloaded.
+     */
+    private static final class DispatcherClassLoader extends ClassLoader {
+
+        private DispatcherClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        private ApiVersionFallbackDispatcher newDispatcher(String className, byte[] classBytes) {
+            Class<?> dispatcherClass = defineClass(className, classBytes, 0, classBytes.length);
+
+            try {
+                return (ApiVersionFallbackDispatcher) dispatcherClass.getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Unable to instantiate generated dispatcher " + className, e);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,359 @@
+package com.mindstixlabs.web.api.version.management.handlers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import com.mindstixlabs.web.api.version.management.ReSTApiVersionManager;
+import com.mindstixlabs.web.api.version.management.cache.ApiVersioningCache;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigHelper;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigHolder;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigKeys;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningDefaultConfig;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningRuntimeConfig;
+import com.mindstixlabs.web.api.version.management.core.ApiVersionFallbackDispatcher;
+import com.mindstixlabs.web.api.version.management.core.ApiVersionIndex;
+import com.mindstixlabs.web.api.version.management.core.ApiVersionResolver;
+import com.mindstixlabs.web.api.version.management.core.ApiVersioningContext;
+
+/**
+ * <code>ApiVersionFallbackResolver</code> resolves version to be looked up by
+ * {@link ReSTApiVersionManager} if requested version of an API is not
+ * available.
+ *
+ * <p>By default, the version is resolved by walking versions of the API in
+ * version-mapping cache. If generated dispatcher is enabled, an
+ * {@link ApiVersionFallbackDispatcher} is generated from the version-mapping
+ * cache with minimum and current version support compiled in as constants and
+ * is used instead. The dispatcher is regenerated whenever versions are
+ * registered or disabled at runtime or version support is updated, requests
+ * seeing a stale dispatcher meanwhile are resolved from version-mapping cache.
+ * Every generated dispatcher is compared with version-mapping cache for a
+ * bounded sample of versions before it is used, generated dispatcher is
+ * disabled if they don't match.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+@Component("api-version-fallback-resolver")
+@DependsOn("api-versioning-config-holder")
+public class ApiVersionFallbackResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiVersionFallbackResolver.class);
+
+    /**
+     * Maximum number of resolutions compared with version-mapping cache after
+     * a dispatcher is generated.
+     */
+    private static final int MAX_SELF_CHECK_SAMPLES = 512;
+
+    private static final String SELF_CHECK_UNKNOWN_MAPPING = "/api-version-fallback-resolver/self-check";
+
+    @Autowired
+    private ApiVersioningCache apiVersioningCache;
+
+    @Autowired
+    private ApiVersioningConfigHolder apiVersioningConfigHolder;
+
+    @Autowired
+    private ApiVersioningConfigHelper apiVersioningPropertyManager;
+
+    /**
+     * Flag to determine if generated dispatcher is used, it is reset if
+     * dispatcher can't be generated.
+     */
+    private volatile boolean generatedDispatcherEnabled;
+
+    private volatile DispatcherState dispatcherState;
+
+    private final ReentrantLock generationLock = new ReentrantLock();
+
+    private final LongAdder generations = new LongAdder();
+
+    /**
+     * Number of resolutions done from version-mapping cache while dispatcher was being regenerated.
+     */
+    private final LongAdder staleResolutions = new LongAdder();
+
+    /**
+     * Number of resolutions of generated dispatchers which didn't match version-mapping cache.
+     */
+    private final LongAdder selfCheckMismatches = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        generatedDispatcherEnabled = (Boolean) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.FALLBACK_DISPATCHER_GENERATED, ApiVersioningDefaultConfig.FALLBACK_DISPATCHER_GENERATED, Boolean.class);
+
+        if (generatedDispatcherEnabled) {
+            logger.info("API version fallback will be resolved using generated dispatcher.");
+        }
+    }
+
+    public boolean isGeneratedDispatcherEnabled() {
+        return generatedDispatcherEnabled;
+    }
+
+    /**
+     * This method is used to resolve version to be looked up for requested
+     * version which is not available.
+     *
+     * @param config                             Configuration snapshot for the request.
+     * @param context                            API context of the request.
+     * @param contextIndex                       Index of API context in the configuration.
+     * @param mappingKey                         Base mapping key. for eg. /users or partner:/users
+     * @param requestedVersion                   Requested API version.
+     * @return                                   Returns version not less than minimum supported version or
+     *                                           {@link ApiVersionFallbackDispatcher#NO_VERSION}.
+     */
+    public double resolveFallbackVersion(ApiVersioningRuntimeConfig config, ApiVersioningContext context, int contextIndex, String mappingKey, double requestedVersion) {
+        if (generatedDispatcherEnabled) {
+            DispatcherState state = getDispatcherState(config);
+
+            if (null != state) {
+                return state.resolve(contextIndex, mappingKey, requestedVersion);
+            }
+
+            staleResolutions.increment();
+        }
+
+        return resolveFromVersionIndex(context, mappingKey, requestedVersion);
+    }
+
+    /**
+     * This method is used to resolve fallback version by walking versions of
+     * the API in version index built from version-mapping cache.
+     */
+    private double resolveFromVersionIndex(ApiVersioningContext context, String mappingKey, double requestedVersion) {
+        if (logger.isDebugEnabled() && requestedVersion > context.getCurrentVersionSupport()) {
+            logger.debug("Requested version: [{}] for API: [{}] is above maximum supported version: [{}]. Lookup will start from version: [{}]",
+                          requestedVersion, mappingKey, context.getCurrentVersionSupport(), context.getCurrentVersionSupport());
+        }
+
+        return ApiVersionResolver.resolveFallbackVersion(context, apiVersioningCache.getVersionIndex(), mappingKey, requestedVersion);
+    }
+
+    /**
+     * This method is used to get dispatcher generated for configuration
+     * snapshot and current registry generation, regenerating it if stale.
+     *
+     * @return                                   Returns dispatcher or null if it is being regenerated by another request.
+     */
+    private DispatcherState getDispatcherState(ApiVersioningRuntimeConfig config) {
+        DispatcherState state = dispatcherState;
+
+        if (null != state && state.isCurrent(config, apiVersioningCache.getRegistryGeneration())) {
+            return state;
+        }
+
+        // Regenerating on the request which finds dispatcher stale, concurrent requests don't wait for it.
+        if (generationLock.tryLock()) {
+            try {
+                return generateDispatcher(config);
+            } finally {
+                generationLock.unlock();
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * This method is used to generate dispatcher for current configuration
+     * and version-mapping cache, if generated dispatcher is enabled.
+     */
+    public void generateDispatcher() {
+        if (generatedDispatcherEnabled) {
+            generationLock.lock();
+
+            try {
+                generateDispatcher(apiVersioningConfigHolder.getConfig());
+            } finally {
+                generationLock.unlock();
+            }
+        }
+    }
+
+    private DispatcherState generateDispatcher(ApiVersioningRuntimeConfig config) {
+        DispatcherState state = dispatcherState;
+
+        if (null != state && state.isCurrent(config, apiVersioningCache.getRegistryGeneration())) {
+            return state;
+        }
+
+        // Reading registry generation before the cache, so that dispatcher is regenerated if cache changes meanwhile.
+        long registryGeneration = apiVersioningCache.getRegistryGeneration();
+
+        long startNanos = System.nanoTime();
+
+        Map<String, List<Double>> versionMappings = new HashMap<>(apiVersioningCache.getApiVersionMappingCache());
+
+        try {
+            ApiVersionFallbackDispatcherGenerator.GeneratedDispatcher generatedDispatcher = ApiVersionFallbackDispatcherGenerator.generate(config, versionMappings, apiVersioningCache.getRuntimeDisabledApiVersions());
+
+            state = new DispatcherState(config, registryGeneration, generatedDispatcher, System.nanoTime() - startNanos);
+        } catch (RuntimeException | LinkageError e) {
+            logger.error("Unable to generate API version fallback dispatcher, resolving fallback versions using version-mapping cache.", e);
+
+            generatedDispatcherEnabled = false;
+
+            return null;
+        }
+
+        long mismatches = selfCheck(state, versionMappings);
+
+        // Mismatches are expected if versions are registered or disabled while checking, such dispatcher is regenerated by the next request.
+        if (mismatches > 0 && registryGeneration == apiVersioningCache.getRegistryGeneration()) {
+            selfCheckMismatches.add(mismatches);
+
+            logger.error("Generated API version fallback dispatcher resolved [{}] versions differently from version-mapping cache, resolving fallback versions using version-mapping cache.", mismatches);
+
+            generatedDispatcherEnabled = false;
+
+            return null;
+        }
+
+        dispatcherState = state;
+        generations.increment();
+
+        logger.info("Generated API version fallback dispatcher for [{}] mappings in [{}] ms.", state.generatedDispatcher.getMappingContextIndexes().size(), TimeUnit.NANOSECONDS.toMillis(state.generationNanos));
+
+        return state;
+    }
+
+    /**
+     * This method is used to get statistics of generated dispatcher.
+     *
+     * @return                                   Returns number of generations and size of current dispatcher.
+     */
+    public Map<String, Object> getStats() {
+        DispatcherState state = dispatcherState;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("generatedDispatcherEnabled", generatedDispatcherEnabled);
+        stats.put("generations", generations.sum());
+        stats.put("staleResolutions", staleResolutions.sum());
+        stats.put("selfCheckMismatches", selfCheckMismatches.sum());
+
+        if (null != state) {
+            stats.put("current", state.isCurrent(apiVersioningConfigHolder.getConfig(), apiVersioningCache.getRegistryGeneration()));
+            stats.put("registryGeneration", state.registryGeneration);
+            stats.put("mappings", state.generatedDispatcher.getMappingContextIndexes().size());
+            stats.put("buckets", state.generatedDispatcher.getBuckets());
+            stats.put("classBytes", state.generatedDispatcher.getClassBytes());
+            stats.put("generationMicros", TimeUnit.NANOSECONDS.toMicros(state.generationNanos));
+        }
+
+        return stats;
+    }
+
+    /**
+     * This method is used to compare generated dispatcher with version-mapping
+     * cache for a bounded sample of registered versions, versions just above
+     * them which are resolved through fallback and versions above current
+     * version support, so that a defect of generated code doesn't serve wrong
+     * versions. Comparing performance of both is done by
+     * <code>ApiVersionFallbackDispatcherBenchmark</code> of the benchmark module.
+     *
+     * @param state                              Generated dispatcher.
+     * @param versionMappings                    Versions of base mapping keys the dispatcher is generated from.
+     * @return                                   Returns number of mismatching resolutions.
+     */
+    private long selfCheck(DispatcherState state, Map<String, List<Double>> versionMappings) {
+        List<ApiVersioningContext> contexts = state.config.getContexts();
+        ApiVersionIndex versionIndex = apiVersioningCache.getVersionIndex();
+
+        // Smallest version step as per decimal digits supported. for eg. 0.1
+        double versionStep = Math.pow(10, -state.config.getMaxDecimalDigitsSupport());
+
+        long mismatches = 0;
+        int samples = 0;
+
+        for (int i = 0; i < contexts.size(); i++) {
+            ApiVersioningContext context = contexts.get(i);
+
+            mismatches += selfCheck(state, versionIndex, context, i, context.getMappingKey(SELF_CHECK_UNKNOWN_MAPPING), context.getCurrentVersionSupport() + 1);
+            samples++;
+        }
+
+        for (Map.Entry<String, Integer> mapping : state.generatedDispatcher.getMappingContextIndexes().entrySet()) {
+            if (samples >= MAX_SELF_CHECK_SAMPLES) {
+                break;
+            }
+
+            ApiVersioningContext context = contexts.get(mapping.getValue());
+
+            List<Double> versions = new ArrayList<>(versionMappings.getOrDefault(mapping.getKey(), Collections.emptyList()));
+            versions.add(context.getCurrentVersionSupport());
+
+            for (Double version : versions) {
+                mismatches += selfCheck(state, versionIndex, context, mapping.getValue(), mapping.getKey(), version);
+                mismatches += selfCheck(state, versionIndex, context, mapping.getValue(), mapping.getKey(), version + versionStep);
+                samples += 2;
+            }
+        }
+
+        return mismatches;
+    }
+
+    private int selfCheck(DispatcherState state, ApiVersionIndex versionIndex, ApiVersioningContext context, int contextIndex, String mappingKey, double requestedVersion) {
+        double expectedVersion = ApiVersionResolver.resolveFallbackVersion(context, versionIndex, mappingKey, requestedVersion);
+        double generatedVersion = state.resolve(contextIndex, mappingKey, requestedVersion);
+
+        if (Double.compare(expectedVersion, generatedVersion) != 0) {
+            logger.warn("Generated dispatcher resolved version: [{}] instead of [{}] for requested version: [{}] of mapping: [{}].", generatedVersion, expectedVersion, requestedVersion, mappingKey);
+
+            return 1;
+        }
+
+        return 0;
+    }
+
+    /**
+     * Generated dispatcher with configuration snapshot and registry generation
+     * it is generated for.
+     */
+    private static final class DispatcherState {
+
+        private final ApiVersioningRuntimeConfig config;
+
+        private final long registryGeneration;
+
+        private final ApiVersionFallbackDispatcherGenerator.GeneratedDispatcher generatedDispatcher;
+
+        private final ApiVersionFallbackDispatcher dispatcher;
+
+        private final long generationNanos;
+
+        private DispatcherState(ApiVersioningRuntimeConfig config, long registryGeneration, ApiVersionFallbackDispatcherGenerator.GeneratedDispatcher generatedDispatcher, long generationNanos) {
+            this.config = config;
+            this.registryGeneration = registryGeneration;
+            this.generatedDispatcher = generatedDispatcher;
+            this.dispatcher = generatedDispatcher.getDispatcher();
+            this.generationNanos = generationNanos;
+        }
+
+        private boolean isCurrent(ApiVersioningRuntimeConfig currentConfig, long currentRegistryGeneration) {
+            return config == currentConfig && registryGeneration == currentRegistryGeneration;
+        }
+
+        private double resolve(int contextIndex, String mappingKey, double requestedVersion) {
+            return dispatcher.resolve(generatedDispatcher.getMappingCode(mappingKey), contextIndex, requestedVersion);
+        }
+
+    }
+
+}
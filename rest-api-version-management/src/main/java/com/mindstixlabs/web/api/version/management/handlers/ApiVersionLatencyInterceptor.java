@@ -0,0 +1,98 @@
+package com.mindstixlabs.web.api.version.management.handlers;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import com.mindstixlabs.web.api.version.management.ReSTApiVersionManager;
+import com.mindstixlabs.web.api.version.management.cache.ApiVersionedMapping;
+import com.mindstixlabs.web.api.version.management.cache.ApiVersioningCache;
+import com.mindstixlabs.web.api.version.management.metrics.ApiVersionLatencyRecorder;
+
+/**
+ * <code>ApiVersionLatencyInterceptor</code> measures latency of requests from
+ * resolution of the handler method until the request is complete, and records
+ * it for the versioned mapping resolved by {@link ReSTApiVersionManager}.
+ *
+ * <p>Latency of requests served asynchronously, including requests running in
+ * bulkheads, is recorded once the async dispatch is complete. Responses served
+ * from response cache are not recorded.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+@Component("api-version-latency-interceptor")
+public class ApiVersionLatencyInterceptor extends HandlerInterceptorAdapter {
+
+    /**
+     * Name of request attribute holding measurement of the request.
+     */
+    private static final String MEASUREMENT_ATTRIBUTE = ApiVersionLatencyInterceptor.class.getName() + ".measurement";
+
+    @Autowired
+    private ApiVersioningCache apiVersioningCache;
+
+    @Autowired
+    private ApiVersionLatencyRecorder apiVersionLatencyRecorder;
+
+    public boolean isEnabled() {
+        return apiVersionLatencyRecorder.isEnabled();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        // Measurement started by the initial dispatch is kept for async dispatch.
+        if (Boolean.FALSE.equals(handler instanceof HandlerMethod) || DispatcherType.REQUEST != request.getDispatcherType()) {
+            return true;
+        }
+
+        String matchedPattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        ApiVersionedMapping versionedMapping = null == matchedPattern ? null : apiVersioningCache.getApiVersionedMapping(matchedPattern);
+
+        if (null != versionedMapping) {
+            request.setAttribute(MEASUREMENT_ATTRIBUTE, new Measurement(versionedMapping, System.nanoTime()));
+        }
+
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) throws Exception {
+        Measurement measurement = (Measurement) request.getAttribute(MEASUREMENT_ATTRIBUTE);
+
+        if (null == measurement) {
+            return;
+        }
+
+        request.removeAttribute(MEASUREMENT_ATTRIBUTE);
+
+        // Requests failed with unhandled exceptions are not recorded, as they would skew latency of the version.
+        if (null == ex) {
+            apiVersionLatencyRecorder.record(measurement.versionedMapping, System.nanoTime() - measurement.startNanos);
+        }
+    }
+
+    /**
+     * Measurement of request in progress.
+     */
+    private static final class Measurement {
+
+        private final ApiVersionedMapping versionedMapping;
+
+        private final long startNanos;
+
+        private Measurement(ApiVersionedMapping versionedMapping, long startNanos) {
+            this.versionedMapping = versionedMapping;
+            this.startNanos = startNanos;
+        }
+
+    }
+
+}
@@ -0,0 +1,327 @@
+package com.mindstixlabs.web.api.version.management.handlers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.method.HandlerMethod;
+
+import com.mindstixlabs.web.api.version.management.ReSTApiVersionManager;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigHelper;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigHolder;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigKeys;
+import com.mindstixlabs.web.api.version.management.core.ApiVersioningContext;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningDefaultConfig;
+
+/**
+ * <code>ApiVersionRateLimiter</code> is used to limit rate of requests for
+ * API versions, so that old clients stuck in retry loops can't use capacity
+ * meant for current clients.
+ *
+ * <p>Limits are configured as rules for a version or an inclusive version
+ * range, optionally for an API context and for base mappings matching an Ant
+ * pattern, in format
+ * <code>[context:]fromVersion[-toVersion][@mappingPattern]=permitsPerSecond[/burst]</code>.
+ * for eg. <code>0-1.9=100/200</code> or <code>partner:5.0@/orders/**=10</code>.
+ * Rules with mapping pattern are checked before rules without it and the first
+ * matching rule applies.
+ *
+ * <p>Each rule has a lock-free token bucket, implemented as generic cell rate
+ * algorithm on a single atomic theoretical arrival time. The limit is enforced
+ * by {@link ReSTApiVersionManager} once the requested version is resolved and
+ * throttled requests are served by a handler writing a precomputed
+ * {@code 429 Too Many Requests} response.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+@Component("api-version-rate-limiter")
+@DependsOn("api-versioning-config-holder")
+public class ApiVersionRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiVersionRateLimiter.class);
+
+    /**
+     * Name of request attribute holding rule which throttled the request.
+     */
+    private static final String THROTTLED_RULE_ATTRIBUTE = ApiVersionRateLimiter.class.getName() + ".throttledRule";
+
+    /**
+     * Name of request attribute holding rule from which permit is acquired for the request.
+     */
+    private static final String ACQUIRED_RULE_ATTRIBUTE = ApiVersionRateLimiter.class.getName() + ".acquiredRule";
+
+    private static final Pattern RULE_PATTERN = Pattern.compile("^(?:([-\\w]+):)?(\\d+(?:\\.\\d+)?)(?:-(\\d+(?:\\.\\d+)?))?(?:@(\\S+))?=(\\d+(?:\\.\\d+)?)(?:/(\\d+))?$");
+
+    private static final byte[] THROTTLED_BODY = String.format("{\"status\":%d,\"error\":\"%s\"}", HttpStatus.TOO_MANY_REQUESTS.value(), HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase()).getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private ApiVersioningConfigHolder apiVersioningConfigHolder;
+
+    @Autowired
+    private ApiVersioningConfigHelper apiVersioningPropertyManager;
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    /**
+     * Rules with mapping pattern followed by rules without it.
+     */
+    private List<RateLimitRule> rules = Collections.emptyList();
+
+    /**
+     * Flag to determine if any rule has mapping pattern, to avoid extracting
+     * base lookup path if no rule needs it.
+     */
+    private boolean hasMappingRules;
+
+    private HandlerMethod throttledHandlerMethod;
+
+    @PostConstruct
+    public void init() throws NoSuchMethodException {
+        throttledHandlerMethod = new HandlerMethod(this, "writeThrottledResponse", HttpServletRequest.class, HttpServletResponse.class);
+
+        String[] configuredRules = (String[]) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.RATE_LIMIT_RULES, ApiVersioningDefaultConfig.RATE_LIMIT_RULES, String[].class);
+
+        List<RateLimitRule> mappingRules = new ArrayList<>();
+        List<RateLimitRule> versionRules = new ArrayList<>();
+
+        for (String configuredRule : configuredRules) {
+            RateLimitRule rule = parseRule(configuredRule.trim());
+
+            if (null != rule) {
+                (null == rule.mappingPattern ? versionRules : mappingRules).add(rule);
+            }
+        }
+
+        hasMappingRules = Boolean.FALSE.equals(mappingRules.isEmpty());
+
+        mappingRules.addAll(versionRules);
+        rules = Collections.unmodifiableList(mappingRules);
+
+        if (isEnabled()) {
+            logger.info("API version rate limiting is enabled with rules: {}", rules);
+        }
+    }
+
+    private RateLimitRule parseRule(String configuredRule) {
+        Matcher matcher = RULE_PATTERN.matcher(configuredRule);
+
+        if (Boolean.FALSE.equals(matcher.matches())) {
+            logger.warn("Ignoring invalid rate limit rule: [{}], expected format is [context:]fromVersion[-toVersion][@mappingPattern]=permitsPerSecond[/burst].", configuredRule);
+            return null;
+        }
+
+        String contextName = null == matcher.group(1) ? "" : matcher.group(1);
+
+        if (null == apiVersioningConfigHolder.getConfig().getContext(contextName)) {
+            logger.warn("Ignoring rate limit rule: [{}] for API context [{}] which is not configured.", configuredRule, contextName);
+            return null;
+        }
+
+        double fromVersion = Double.parseDouble(matcher.group(2));
+        double toVersion = null == matcher.group(3) ? fromVersion : Double.parseDouble(matcher.group(3));
+        double permitsPerSecond = Double.parseDouble(matcher.group(5));
+        int burst = null == matcher.group(6) ? (int) Math.max(1, Math.ceil(permitsPerSecond)) : Integer.parseInt(matcher.group(6));
+
+        if (permitsPerSecond <= 0 || burst <= 0 || fromVersion > toVersion) {
+            logger.warn("Ignoring rate limit rule: [{}] with empty version range or without permits.", configuredRule);
+            return null;
+        }
+
+        return new RateLimitRule(configuredRule, contextName, fromVersion, toVersion, matcher.group(4), permitsPerSecond, burst);
+    }
+
+    /**
+     * This method is used to check if rate limiting is configured.
+     *
+     * @return                                   Returns true if any rate limit rule is configured.
+     */
+    public boolean isEnabled() {
+        return Boolean.FALSE.equals(rules.isEmpty());
+    }
+
+    /**
+     * This method is used to acquire permit for request of API version. Permit
+     * is acquired once per request, as lookup is retried for the request once
+     * handler methods of its versions are registered lazily.
+     *
+     * @param context                            API context of requested API.
+     * @param requestedVersion                   Requested API version.
+     * @param lookupPath                         Lookup path for requested API.
+     * @param versionEndIndex                    Index of lookup path at which base API path starts.
+     * @param request                            Current request.
+     * @return                                   Returns handler writing throttled response if no permit is available, else null.
+     */
+    public HandlerMethod acquire(ApiVersioningContext context, double requestedVersion, String lookupPath, int versionEndIndex, HttpServletRequest request) {
+        if (null != request.getAttribute(ACQUIRED_RULE_ATTRIBUTE)) {
+            return null;
+        }
+
+        String baseLookupPath = hasMappingRules ? lookupPath.substring(versionEndIndex) : null;
+
+        for (RateLimitRule rule : rules) {
+            if (rule.matches(context.getName(), requestedVersion) && (null == rule.mappingPattern || pathMatcher.match(rule.mappingPattern, baseLookupPath))) {
+                if (rule.tryAcquire()) {
+                    request.setAttribute(ACQUIRED_RULE_ATTRIBUTE, rule);
+                    return null;
+                }
+
+                rule.throttled.increment();
+                request.setAttribute(THROTTLED_RULE_ATTRIBUTE, rule);
+
+                logger.debug("Throttling request for API: [{}] by rate limit rule: [{}].", lookupPath, rule);
+
+                return throttledHandlerMethod;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * This method is used to write precomputed response for throttled request.
+     *
+     * @param request                            Throttled request.
+     * @param response                           Response of throttled request.
+     */
+    public void writeThrottledResponse(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        RateLimitRule rule = (RateLimitRule) request.getAttribute(THROTTLED_RULE_ATTRIBUTE);
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        response.setContentLength(THROTTLED_BODY.length);
+
+        if (null != rule) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, rule.retryAfterSeconds);
+        }
+
+        response.getOutputStream().write(THROTTLED_BODY);
+    }
+
+    /**
+     * This method is used to get configured rate limits with number of throttled requests.
+     *
+     * @return                                   Returns rate limits in the order in which they are checked.
+     */
+    public List<Map<String, Object>> getRateLimits() {
+        List<Map<String, Object>> rateLimits = new ArrayList<>();
+
+        for (RateLimitRule rule : rules) {
+            Map<String, Object> rateLimit = new LinkedHashMap<>();
+            rateLimit.put("rule", rule.rule);
+            rateLimit.put("permitsPerSecond", rule.permitsPerSecond);
+            rateLimit.put("burst", rule.burst);
+            rateLimit.put("throttled", rule.throttled.sum());
+
+            rateLimits.add(rateLimit);
+        }
+
+        return rateLimits;
+    }
+
+    /**
+     * Rate limit rule with its token bucket.
+     */
+    private static final class RateLimitRule {
+
+        private final String rule;
+
+        private final String contextName;
+
+        private final double fromVersion;
+
+        private final double toVersion;
+
+        private final String mappingPattern;
+
+        private final double permitsPerSecond;
+
+        private final int burst;
+
+        private final String retryAfterSeconds;
+
+        /**
+         * Time in nanoseconds in which one permit is added to the bucket.
+         */
+        private final long emissionIntervalNanos;
+
+        /**
+         * Time in nanoseconds for which requests can arrive ahead of emission
+         * interval, i.e. burst size less one permit.
+         */
+        private final long toleranceNanos;
+
+        /**
+         * Theoretical arrival time of next request in nanoseconds, the bucket
+         * is full if it is not after current time.
+         */
+        private final AtomicLong theoreticalArrivalTime = new AtomicLong(System.nanoTime());
+
+        private final LongAdder throttled = new LongAdder();
+
+        private RateLimitRule(String rule, String contextName, double fromVersion, double toVersion, String mappingPattern, double permitsPerSecond, int burst) {
+            this.rule = rule;
+            this.contextName = contextName;
+            this.fromVersion = fromVersion;
+            this.toVersion = toVersion;
+            this.mappingPattern = mappingPattern;
+            this.permitsPerSecond = permitsPerSecond;
+            this.burst = burst;
+            this.retryAfterSeconds = String.valueOf((long) Math.max(1, Math.ceil(1 / permitsPerSecond)));
+            this.emissionIntervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+            this.toleranceNanos = emissionIntervalNanos * (burst - 1);
+        }
+
+        private boolean matches(String requestedContextName, double requestedVersion) {
+            return requestedVersion >= fromVersion && requestedVersion <= toVersion && contextName.equals(requestedContextName);
+        }
+
+        private boolean tryAcquire() {
+            while (true) {
+                long now = System.nanoTime();
+                long arrivalTime = theoreticalArrivalTime.get();
+
+                // Comparing differences of nano times as nano time may overflow.
+                if (arrivalTime - now > toleranceNanos) {
+                    return false;
+                }
+
+                long nextArrivalTime = (arrivalTime - now > 0 ? arrivalTime : now) + emissionIntervalNanos;
+
+                if (theoreticalArrivalTime.compareAndSet(arrivalTime, nextArrivalTime)) {
+                    return true;
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return rule;
+        }
+
+    }
+
+}
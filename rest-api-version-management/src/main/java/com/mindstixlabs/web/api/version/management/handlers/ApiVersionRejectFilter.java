@@ -0,0 +1,248 @@
+package com.mindstixlabs.web.api.version.management.handlers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.UrlPathHelper;
+
+import com.mindstixlabs.web.api.version.management.DefaultRequestMappingHandlerMapping;
+import com.mindstixlabs.web.api.version.management.ReSTApiVersionManager;
+import com.mindstixlabs.web.api.version.management.cache.ApiVersioningCache;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigHelper;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigHolder;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigKeys;
+import com.mindstixlabs.web.api.version.management.core.ApiVersioningContext;
+import com.mindstixlabs.web.api.version.management.core.ApiVersioningContextMatcher;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningDefaultConfig;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningRuntimeConfig;
+
+/**
+ * <code>ApiVersionRejectFilter</code> is used to reject requests for retired
+ * API versions before they reach the dispatcher.
+ *
+ * <p>Requests for versions lower than minimum supported version, for disabled
+ * APIs if disabled APIs are not allowed and for versions disabled at runtime
+ * are otherwise dispatched, fail the handler lookup and are forwarded to error
+ * dispatch. The filter makes the same checks as the handler mappings on the
+ * requested lookup path and writes a response precomputed from configuration,
+ * so such requests skip dispatcher, interceptors and error dispatch.
+ * Versions disabled at runtime are checked for the registered pattern the
+ * lookup path resolves to in version-mapping cache, for eg.
+ * /api/v1.0/users/42 -> /api/v1.0/users/{id}, as handler mappings check the
+ * best matching pattern. Patterns are resolved by version index across
+ * versions, preferring literal segments as Spring MVC does, hence a path
+ * resolving to a pattern not registered for the requested version is left to
+ * the handler mappings.
+ *
+ * <p>Rejected requests are not recorded in usage analytics. The filter is
+ * available only if <code>rest.api.version.management.rejectFilter.enabled</code>
+ * is true.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+@Component("api-version-reject-filter")
+@ConditionalOnProperty(name = ApiVersioningConfigKeys.REJECT_FILTER_ENABLED, havingValue = "true")
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ApiVersionRejectFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiVersionRejectFilter.class);
+
+    /**
+     * Separator of response headers configured for rejected requests.
+     */
+    private static final String HEADER_SEPARATOR = "\\|";
+
+    private static final char HEADER_NAME_VALUE_SEPARATOR = ':';
+
+    @Autowired
+    private ApiVersioningCache apiVersioningCache;
+
+    @Autowired
+    private ApiVersioningConfigHolder apiVersioningConfigHolder;
+
+    @Autowired
+    private ApiVersioningConfigHelper apiVersioningPropertyManager;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    private int rejectStatus;
+
+    private String rejectContentType;
+
+    private byte[] rejectBody;
+
+    /**
+     * Name and value pairs of response headers for rejected requests.
+     */
+    private String[][] rejectHeaders;
+
+    /**
+     * Path helper of API versioning handler mapping, resolved on first request
+     * as handler mappings are created after filters.
+     */
+    private volatile UrlPathHelper urlPathHelper;
+
+    @PostConstruct
+    public void init() {
+        rejectStatus = (Integer) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.REJECT_FILTER_STATUS, ApiVersioningDefaultConfig.REJECT_FILTER_STATUS, Integer.class);
+        rejectContentType = (String) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.REJECT_FILTER_CONTENT_TYPE, ApiVersioningDefaultConfig.REJECT_FILTER_CONTENT_TYPE, String.class);
+
+        String body = (String) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.REJECT_FILTER_BODY, ApiVersioningDefaultConfig.REJECT_FILTER_BODY, String.class);
+
+        if (StringUtils.isBlank(body)) {
+            body = String.format("{\"status\":%d,\"error\":\"%s\"}", rejectStatus, getReasonPhrase(rejectStatus));
+        }
+
+        rejectBody = body.getBytes(StandardCharsets.UTF_8);
+
+        String headers = (String) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.REJECT_FILTER_HEADERS, ApiVersioningDefaultConfig.REJECT_FILTER_HEADERS, String.class);
+        List<String[]> headerList = new ArrayList<>();
+
+        if (StringUtils.isNotBlank(headers)) {
+            for (String header : headers.split(HEADER_SEPARATOR)) {
+                int separatorIndex = header.indexOf(HEADER_NAME_VALUE_SEPARATOR);
+
+                if (separatorIndex <= 0) {
+                    logger.warn("Ignoring invalid response header: [{}] for rejected requests, expected format is Name:Value.", header);
+                    continue;
+                }
+
+                headerList.add(new String[] { header.substring(0, separatorIndex).trim(), header.substring(separatorIndex + 1).trim() });
+            }
+        }
+
+        rejectHeaders = headerList.toArray(new String[headerList.size()][]);
+
+        logger.info("API version reject filter is enabled with status: [{}] and [{}] response headers.", rejectStatus, rejectHeaders.length);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        ApiVersioningRuntimeConfig config = apiVersioningConfigHolder.getConfig();
+
+        if (config.isFeatureEnabled() && isRejected(getUrlPathHelper().getLookupPathForRequest(request), config)) {
+            response.setStatus(rejectStatus);
+            response.setContentType(rejectContentType);
+            response.setContentLength(rejectBody.length);
+
+            for (String[] header : rejectHeaders) {
+                response.setHeader(header[0], header[1]);
+            }
+
+            response.getOutputStream().write(rejectBody);
+
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * This method is used to check if request for lookup path is rejected by
+     * handler mappings without lookup of handler method.
+     *
+     * @param lookupPath                         Lookup path for requested API.
+     * @param config                             Configuration snapshot for the request.
+     * @return                                   Returns true if requested API version is retired.
+     */
+    private boolean isRejected(String lookupPath, ApiVersioningRuntimeConfig config) {
+        long contextMatch = config.getContextMatcher().match(lookupPath);
+
+        if (contextMatch == ApiVersioningContextMatcher.NO_MATCH) {
+            return false;
+        }
+
+        if (Boolean.FALSE.equals(config.isAllowDisabledApiVersions()) && apiVersioningCache.isApiDisabled(lookupPath)) {
+            logger.debug("Rejecting request for the disabled API: [{}].", lookupPath);
+            return true;
+        }
+
+        ApiVersioningContext context = config.getMatchedContext(contextMatch);
+
+        if (Boolean.FALSE.equals(apiVersioningCache.getRuntimeDisabledApiVersions().isEmpty())
+                && apiVersioningCache.isApiVersionedMappingDisabledAtRuntime(getRegisteredPattern(lookupPath, context, ApiVersioningContextMatcher.getVersionEndIndex(contextMatch)))) {
+            logger.debug("Rejecting request for the API: [{}] disabled at runtime.", lookupPath);
+            return true;
+        }
+
+        // Minimum supported version is enforced only if fallback is enabled.
+        if (config.isFallbackEnabled()) {
+            double requestedVersion = ApiVersioningContextMatcher.parseVersion(lookupPath, context.getApiAndVersionContextLength(), ApiVersioningContextMatcher.getVersionEndIndex(contextMatch));
+
+            if (requestedVersion < context.getMinVersionSupport()) {
+                logger.debug("Rejecting request for the API: [{}] with version lower than minimum supported version: [{}].", lookupPath, context.getMinVersionSupport());
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * This method is used to get registered pattern of the API which lookup
+     * path resolves to, keeping version of the lookup path as it is requested.
+     *
+     * @param lookupPath                         Lookup path for requested API. for eg. /api/v1.0/users/42
+     * @param context                            API context matching the lookup path.
+     * @param versionEndIndex                    Index of end of version in the lookup path.
+     * @return                                   Returns registered pattern. for eg. /api/v1.0/users/{id}
+     */
+    private String getRegisteredPattern(String lookupPath, ApiVersioningContext context, int versionEndIndex) {
+        // Base API path removing /${apiContext}/${versionContext}${requested-api-version} from lookupPath.
+        String mappingKey = apiVersioningCache.resolveVersionIndexKey(context.getMappingKey(lookupPath.substring(versionEndIndex)));
+
+        // Keys of additional contexts are prefixed with name of the context.
+        return lookupPath.substring(0, versionEndIndex) + mappingKey.substring(context.getMappingKey("").length());
+    }
+
+    private static String getReasonPhrase(int status) {
+        try {
+            return HttpStatus.valueOf(status).getReasonPhrase();
+        } catch (IllegalArgumentException e) {
+            return HttpStatus.NOT_FOUND.getReasonPhrase();
+        }
+    }
+
+    private UrlPathHelper getUrlPathHelper() {
+        UrlPathHelper helper = urlPathHelper;
+
+        if (null == helper) {
+            // Using default path helper if API versioning handler mapping is not available.
+            helper = new UrlPathHelper();
+
+            for (RequestMappingHandlerMapping handlerMapping : applicationContext.getBeansOfType(RequestMappingHandlerMapping.class).values()) {
+                if (handlerMapping instanceof ReSTApiVersionManager || handlerMapping instanceof DefaultRequestMappingHandlerMapping) {
+                    helper = handlerMapping.getUrlPathHelper();
+                    break;
+                }
+            }
+
+            urlPathHelper = helper;
+        }
+
+        return helper;
+    }
+
+}
@@ -0,0 +1,144 @@
+package com.mindstixlabs.web.api.version.management.handlers;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import com.mindstixlabs.web.api.version.management.cache.ApiVersionResponseCache;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigHolder;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigKeys;
+import com.mindstixlabs.web.api.version.management.core.ApiVersioningContextMatcher;
+
+/**
+ * <code>ApiVersionResponseCacheFilter</code> buffers responses of GET requests
+ * for versioned APIs and caches the responses for which
+ * {@link ApiVersionResponseCacheInterceptor} has kept a key.
+ *
+ * <p>Only complete {@code 200 OK} responses which don't set cookies, are not
+ * marked private or no-store and don't vary by request headers other than
+ * {@code Accept} are cached, along with their headers. Responses of handler
+ * methods run asynchronously are cached once the async dispatch completes.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+@Component("api-version-response-cache-filter")
+@ConditionalOnProperty(name = ApiVersioningConfigKeys.RESPONSE_CACHE_ENABLED, havingValue = "true")
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class ApiVersionResponseCacheFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private ApiVersioningConfigHolder apiVersioningConfigHolder;
+
+    @Autowired
+    private ApiVersionResponseCache apiVersionResponseCache;
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        ContentCachingResponseWrapper responseWrapper = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+
+        // Buffering response only for initial dispatch of GET request for versioned API, async dispatch gets the buffered response.
+        if (null == responseWrapper) {
+            if (Boolean.FALSE.equals(HttpMethod.GET.matches(request.getMethod())) || Boolean.FALSE.equals(isApiVersioned(request))) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+
+            responseWrapper = new ContentCachingResponseWrapper(response);
+        }
+
+        try {
+            filterChain.doFilter(request, responseWrapper);
+        } finally {
+            if (Boolean.FALSE.equals(isAsyncStarted(request))) {
+                cacheResponse(request, responseWrapper);
+                responseWrapper.copyBodyToResponse();
+            }
+        }
+    }
+
+    private boolean isApiVersioned(HttpServletRequest request) {
+        // Path within application is enough to skip requests which can't be versioned, it is matched by handler mappings.
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+
+        return apiVersioningConfigHolder.getConfig().getContextMatcher().match(path) != ApiVersioningContextMatcher.NO_MATCH;
+    }
+
+    private void cacheResponse(HttpServletRequest request, ContentCachingResponseWrapper responseWrapper) {
+        ApiVersionResponseCache.Key key = (ApiVersionResponseCache.Key) request.getAttribute(ApiVersionResponseCacheInterceptor.RESPONSE_CACHE_KEY_ATTRIBUTE);
+
+        // Session may be created by the handler, its response is then specific to the user.
+        if (null == key || responseWrapper.getStatusCode() != HttpServletResponse.SC_OK || responseWrapper.containsHeader(HttpHeaders.SET_COOKIE)
+                || ApiVersionResponseCacheInterceptor.isUserSpecific(request) || Boolean.FALSE.equals(isVaryingByAcceptOnly(responseWrapper))) {
+            return;
+        }
+
+        String cacheControl = responseWrapper.getHeader(HttpHeaders.CACHE_CONTROL);
+
+        if (null != cacheControl && (cacheControl.contains("no-store") || cacheControl.contains("private"))) {
+            return;
+        }
+
+        request.removeAttribute(ApiVersionResponseCacheInterceptor.RESPONSE_CACHE_KEY_ATTRIBUTE);
+
+        apiVersionResponseCache.put(key, responseWrapper.getContentType(), getHeaders(responseWrapper), responseWrapper.getContentAsByteArray());
+    }
+
+    /**
+     * This method is used to check if response varies only by accepted media
+     * types, the only request header in key of cached responses.
+     */
+    private boolean isVaryingByAcceptOnly(HttpServletResponse response) {
+        for (String vary : response.getHeaders(HttpHeaders.VARY)) {
+            for (String header : vary.split(",")) {
+                if (Boolean.FALSE.equals(HttpHeaders.ACCEPT.equalsIgnoreCase(header.trim()))) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * This method is used to get headers of the response to be replayed with
+     * cached body, content type and length are replayed from the body.
+     */
+    private Map<String, List<String>> getHeaders(HttpServletResponse response) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+
+        for (String name : response.getHeaderNames()) {
+            if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name) || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                continue;
+            }
+
+            headers.put(name, new ArrayList<>(response.getHeaders(name)));
+        }
+
+        return headers;
+    }
+
+}
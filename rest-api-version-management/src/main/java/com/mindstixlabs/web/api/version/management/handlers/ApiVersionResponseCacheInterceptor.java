@@ -0,0 +1,160 @@
+package com.mindstixlabs.web.api.version.management.handlers;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import com.mindstixlabs.web.api.version.management.ReSTApiVersionManager;
+import com.mindstixlabs.web.api.version.management.annotations.ApiVersionCacheable;
+import com.mindstixlabs.web.api.version.management.cache.ApiVersionResponseCache;
+import com.mindstixlabs.web.api.version.management.cache.ApiVersioningCache;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigHelper;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigKeys;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningDefaultConfig;
+
+/**
+ * <code>ApiVersionResponseCacheInterceptor</code> serves cached responses of
+ * APIs annotated with {@link ApiVersionCacheable} once the handler method and
+ * version are resolved, before the handler method is invoked.
+ *
+ * <p>If the response is not cached, key of the response is kept in request
+ * attribute and the response is cached by {@link ApiVersionResponseCacheFilter}
+ * once it is complete. The interceptor is registered by
+ * {@link ReSTApiVersionManager}.
+ *
+ * <p>Responses may be specific to the user, hence requests carrying
+ * credentials or having a session are neither served from the cache nor
+ * cached.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+@Component("api-version-response-cache-interceptor")
+public class ApiVersionResponseCacheInterceptor extends HandlerInterceptorAdapter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiVersionResponseCacheInterceptor.class);
+
+    /**
+     * Name of request attribute holding key of response to be cached.
+     */
+    public static final String RESPONSE_CACHE_KEY_ATTRIBUTE = ApiVersionResponseCacheInterceptor.class.getName() + ".key";
+
+    private static final long NOT_CACHEABLE = 0L;
+
+    @Autowired
+    private ApiVersioningCache apiVersioningCache;
+
+    @Autowired
+    private ApiVersioningConfigHelper apiVersioningPropertyManager;
+
+    @Autowired
+    private ApiVersionResponseCache apiVersionResponseCache;
+
+    private boolean enabled;
+
+    /**
+     * Time to live in milliseconds of responses of handler methods, 0 if
+     * handler method is not cacheable.
+     */
+    private final Map<Method, Long> ttlMillis = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        enabled = (Boolean) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.RESPONSE_CACHE_ENABLED, ApiVersioningDefaultConfig.RESPONSE_CACHE_ENABLED, Boolean.class);
+
+        if (enabled) {
+            logger.info("API version response cache is enabled for APIs annotated with ApiVersionCacheable annotation.");
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        // Response of async dispatch is cached using key kept by the initial dispatch.
+        if (Boolean.FALSE.equals(handler instanceof HandlerMethod) || Boolean.FALSE.equals(HttpMethod.GET.matches(request.getMethod())) || DispatcherType.ASYNC == request.getDispatcherType()) {
+            return true;
+        }
+
+        HandlerMethod handlerMethod = (HandlerMethod) handler;
+
+        long handlerTtlMillis = ttlMillis.computeIfAbsent(handlerMethod.getMethod(), method -> getTtlMillis(handlerMethod));
+
+        String matchedPattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        // Caching responses of API versioned mappings only if the response is buffered by the filter.
+        if (handlerTtlMillis == NOT_CACHEABLE || null == matchedPattern || null == apiVersioningCache.getApiVersionedMapping(matchedPattern)
+                || null == WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class) || isUserSpecific(request)) {
+            return true;
+        }
+
+        // Path within handler mapping is the versioned path of the version which is resolved through fallback.
+        ApiVersionResponseCache.Key key = new ApiVersionResponseCache.Key(handlerMethod.getMethod(), (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE),
+                                                                          request.getQueryString(), request.getHeader(HttpHeaders.ACCEPT), handlerTtlMillis);
+
+        ApiVersionResponseCache.Entry entry = apiVersionResponseCache.get(key);
+
+        if (null == entry) {
+            request.setAttribute(RESPONSE_CACHE_KEY_ATTRIBUTE, key);
+            return true;
+        }
+
+        for (Map.Entry<String, List<String>> header : entry.getHeaders().entrySet()) {
+            // Keeping headers already set for the request, for eg. by filters, instead of their cached values.
+            if (response.containsHeader(header.getKey())) {
+                continue;
+            }
+
+            for (String value : header.getValue()) {
+                response.addHeader(header.getKey(), value);
+            }
+        }
+
+        response.setContentType(entry.getContentType());
+        response.setContentLength(entry.getBody().length);
+        response.getOutputStream().write(entry.getBody());
+
+        return false;
+    }
+
+    /**
+     * This method is used to check if response of the request may be specific
+     * to the user, i.e. the request carries credentials or has a session.
+     */
+    static boolean isUserSpecific(HttpServletRequest request) {
+        return null != request.getHeader(HttpHeaders.AUTHORIZATION) || null != request.getUserPrincipal() || null != request.getSession(false);
+    }
+
+    private long getTtlMillis(HandlerMethod handlerMethod) {
+        ApiVersionCacheable cacheable = handlerMethod.getMethodAnnotation(ApiVersionCacheable.class);
+
+        if (null == cacheable) {
+            cacheable = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), ApiVersionCacheable.class);
+        }
+
+        return null == cacheable ? NOT_CACHEABLE : TimeUnit.SECONDS.toMillis(Math.max(0, cacheable.ttlSeconds()));
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.mindstixlabs.web.api.version.management.handlers;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import com.mindstixlabs.web.api.version.management.ReSTApiVersionManager;
+import com.mindstixlabs.web.api.version.management.cache.ApiVersionedMapping;
+import com.mindstixlabs.web.api.version.management.cache.ApiVersioningCache;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigHelper;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigKeys;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningDefaultConfig;
+
+/**
+ * <code>ApiVersionResponseInterceptor</code> is used to tell clients which API
+ * version served their request.
+ * 
+ * <p>If version header is configured, the resolved API version is emitted as
+ * response header. If redirect is enabled, GET and HEAD requests served by
+ * fallback to a previous version are redirected to the URL of the resolved
+ * version with cacheable redirect, so clients and proxy caches can store the
+ * mapping and stop sending requests which need fallback.
+ * 
+ * <p>The interceptor is registered by {@link ReSTApiVersionManager}.
+ * 
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+@Component("api-version-response-interceptor")
+public class ApiVersionResponseInterceptor extends HandlerInterceptorAdapter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiVersionResponseInterceptor.class);
+
+    @Autowired
+    private ApiVersioningCache apiVersioningCache;
+
+    @Autowired
+    private ApiVersioningConfigHelper apiVersioningPropertyManager;
+
+    private String versionHeader;
+
+    private boolean redirectEnabled;
+
+    private int redirectStatus;
+
+    /**
+     * Cache-Control header value for redirects, precomputed from max age.
+     */
+    private String redirectCacheControl;
+
+    @PostConstruct
+    public void init() {
+        versionHeader = (String) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.RESPONSE_VERSION_HEADER, ApiVersioningDefaultConfig.RESPONSE_VERSION_HEADER, String.class);
+        redirectEnabled = (Boolean) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.RESPONSE_REDIRECT_ENABLED, ApiVersioningDefaultConfig.RESPONSE_REDIRECT_ENABLED, Boolean.class);
+        redirectStatus = (Integer) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.RESPONSE_REDIRECT_STATUS, ApiVersioningDefaultConfig.RESPONSE_REDIRECT_STATUS, Integer.class);
+
+        int redirectMaxAgeSeconds = (Integer) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.RESPONSE_REDIRECT_MAX_AGE_SECONDS, ApiVersioningDefaultConfig.RESPONSE_REDIRECT_MAX_AGE_SECONDS, Integer.class);
+        redirectCacheControl = "public, max-age=" + redirectMaxAgeSeconds;
+
+        if (isEnabled()) {
+            logger.info("API version response handling is enabled with version header: [{}] and redirect: [{}].", versionHeader, redirectEnabled);
+        }
+    }
+
+    /**
+     * This method is used to check if resolved version is to be emitted in
+     * response header or served by redirect.
+     * 
+     * @return                                   Returns true if version header or redirect is enabled.
+     */
+    public boolean isEnabled() {
+        return StringUtils.isNotBlank(versionHeader) || redirectEnabled;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (Boolean.FALSE.equals(isEnabled())) {
+            return true;
+        }
+
+        String matchedPattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        ApiVersionedMapping versionedMapping = null == matchedPattern ? null : apiVersioningCache.getApiVersionedMapping(matchedPattern);
+
+        if (null == versionedMapping) {
+            return true;
+        }
+
+        if (StringUtils.isNotBlank(versionHeader)) {
+            response.setHeader(versionHeader, versionedMapping.getVersionName());
+
+            // Resolved version depends on the Accept header if the handler produces specific media types.
+            if (null != request.getAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE)) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            }
+        }
+
+        String resolvedLookupPath = (String) request.getAttribute(ReSTApiVersionManager.RESOLVED_LOOKUP_PATH_ATTRIBUTE);
+
+        if (redirectEnabled && null != resolvedLookupPath && isSafeMethod(request)) {
+            StringBuilder location = new StringBuilder(request.getContextPath());
+
+            // Keeping servlet path if the dispatcher is mapped to a path prefix.
+            if (null != request.getPathInfo()) {
+                location.append(request.getServletPath());
+            }
+
+            location.append(resolvedLookupPath);
+
+            if (null != request.getQueryString()) {
+                location.append('?').append(request.getQueryString());
+            }
+
+            logger.debug("Redirecting request: [{}] to resolved version URL: [{}]", request.getRequestURI(), location);
+
+            response.setStatus(redirectStatus);
+            response.setHeader(HttpHeaders.LOCATION, location.toString());
+            response.setHeader(HttpHeaders.CACHE_CONTROL, redirectCacheControl);
+
+            return false;
+        }
+
+        return true;
+    }
+
+    private boolean isSafeMethod(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.mindstixlabs.web.api.version.management.handlers;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import com.mindstixlabs.web.api.version.management.ReSTApiVersionManager;
+import com.mindstixlabs.web.api.version.management.cache.ApiVersioningCache;
+import com.mindstixlabs.web.api.version.management.cache.ApiVersionedMapping;
+import com.mindstixlabs.web.api.version.management.util.ApiVersioningUtility;
+
+/**
+ * <code>ApiVersionShadowInterceptor</code> samples GET requests resolved to API
+ * versions having a shadow rule, measures latency and allocation of the
+ * sampled requests and hands them over to {@link ApiVersionShadowManager} once
+ * they are complete. The interceptor is registered by
+ * {@link ReSTApiVersionManager}.
+ *
+ * <p>Requests served asynchronously, including requests running in bulkheads,
+ * are not sampled.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+@Component("api-version-shadow-interceptor")
+public class ApiVersionShadowInterceptor extends HandlerInterceptorAdapter {
+
+    /**
+     * Name of request attribute holding measurement of sampled request.
+     */
+    private static final String SAMPLE_ATTRIBUTE = ApiVersionShadowInterceptor.class.getName() + ".sample";
+
+    @Autowired
+    private ApiVersioningCache apiVersioningCache;
+
+    @Autowired
+    private ApiVersionShadowManager apiVersionShadowManager;
+
+    public boolean isEnabled() {
+        return apiVersionShadowManager.isEnabled();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (Boolean.FALSE.equals(handler instanceof HandlerMethod) || handler instanceof ApiVersionBulkheadHandlerMethod || Boolean.FALSE.equals(HttpMethod.GET.matches(request.getMethod()))
+                || DispatcherType.REQUEST != request.getDispatcherType() || null != request.getAttribute(ApiVersionShadowManager.SHADOW_REQUEST_ATTRIBUTE)) {
+            return true;
+        }
+
+        String matchedPattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        ApiVersionedMapping versionedMapping = null == matchedPattern ? null : apiVersioningCache.getApiVersionedMapping(matchedPattern);
+
+        if (null == versionedMapping) {
+            return true;
+        }
+
+        ApiVersionShadowRule rule = apiVersionShadowManager.getRule(versionedMapping.getContextName(), versionedMapping.getVersion());
+
+        if (null != rule && rule.sample()) {
+            request.setAttribute(SAMPLE_ATTRIBUTE, new Sample(rule, System.nanoTime(), ApiVersioningUtility.getThreadAllocatedBytes()));
+        }
+
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) throws Exception {
+        Sample sample = (Sample) request.getAttribute(SAMPLE_ATTRIBUTE);
+
+        if (null == sample) {
+            return;
+        }
+
+        request.removeAttribute(SAMPLE_ATTRIBUTE);
+
+        // Requests which failed are not compared, as shadow execution would not reproduce the failure.
+        if (null == ex) {
+            long elapsedNanos = System.nanoTime() - sample.startNanos;
+            long allocatedBytes = sample.startAllocatedBytes < 0 ? -1L : ApiVersioningUtility.getThreadAllocatedBytes() - sample.startAllocatedBytes;
+
+            apiVersionShadowManager.submit(sample.rule, request, (HandlerMethod) handler, elapsedNanos, allocatedBytes, response.getStatus());
+        }
+    }
+
+    /**
+     * Measurement of sampled request.
+     */
+    private static final class Sample {
+
+        private final ApiVersionShadowRule rule;
+
+        private final long startNanos;
+
+        private final long startAllocatedBytes;
+
+        private Sample(ApiVersionShadowRule rule, long startNanos, long startAllocatedBytes) {
+            this.rule = rule;
+            this.startNanos = startNanos;
+            this.startAllocatedBytes = startAllocatedBytes;
+        }
+
+    }
+
+}
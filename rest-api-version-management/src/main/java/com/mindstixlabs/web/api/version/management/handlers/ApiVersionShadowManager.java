@@ -0,0 +1,740 @@
+package com.mindstixlabs.web.api.version.management.handlers;
+
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.servlet.DispatcherType;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import com.mindstixlabs.web.api.version.management.ReSTApiVersionManager;
+import com.mindstixlabs.web.api.version.management.cache.ApiVersioningCache;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigHelper;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigHolder;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigKeys;
+import com.mindstixlabs.web.api.version.management.core.ApiVersioningContext;
+import com.mindstixlabs.web.api.version.management.core.ApiVersioningContextMatcher;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningDefaultConfig;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningRuntimeConfig;
+import com.mindstixlabs.web.api.version.management.util.ApiVersioningThreadContext;
+import com.mindstixlabs.web.api.version.management.util.ApiVersioningUtility;
+
+/**
+ * <code>ApiVersionShadowManager</code> executes sampled GET requests resolved to
+ * an API version again against a shadow version, to compare latency and
+ * allocation of both versions on real traffic before retiring a version.
+ *
+ * <p>Shadows are configured as rules for a version or an inclusive version
+ * range, optionally for an API context, in format
+ * <code>[context:]fromVersion[-toVersion]=shadowVersion[@samplePercent]</code>.
+ * for eg. <code>2.0=3.0@5</code>. The first rule matching the version resolved
+ * by {@link ReSTApiVersionManager} applies.
+ *
+ * <p>Once the sampled request completes, the handler method which
+ * {@link ReSTApiVersionManager} resolves for the shadow version is invoked on
+ * a background thread with a copy of the request and its response is
+ * discarded. Interceptors are not applied to shadow executions. Number of
+ * concurrent shadow executions and shadow executions per second are capped,
+ * samples beyond the budget are skipped.
+ *
+ * <p>The shadow handler method runs with request attributes of the shadow
+ * request bound to {@link RequestContextHolder}, and with locale, MDC and
+ * security context of Spring Security of the sampled request, see
+ * {@link ApiVersioningThreadContext}. Shadow requests have method, path,
+ * parameters, headers, cookies and principal of the sampled request only.
+ * Handler methods using session, request body, roles of the user,
+ * authentication, multipart parts or async processing, for eg. returning
+ * {@link java.util.concurrent.Callable}, are aborted and recorded as
+ * unsupported instead of failed.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+@Component("api-version-shadow-manager")
+@DependsOn("api-versioning-config-holder")
+public class ApiVersionShadowManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiVersionShadowManager.class);
+
+    /**
+     * Name of request attribute marking shadow requests.
+     */
+    public static final String SHADOW_REQUEST_ATTRIBUTE = ApiVersionShadowManager.class.getName() + ".shadowRequest";
+
+    private static final Pattern RULE_PATTERN = Pattern.compile("^(?:([-\\w]+):)?(\\d+(?:\\.\\d+)?)(?:-(\\d+(?:\\.\\d+)?))?=(\\d+(?:\\.\\d+)?)(?:@(\\d+(?:\\.\\d+)?))?$");
+
+    private static final double DEFAULT_SAMPLE_PERCENT = 1.0;
+
+    private static final String DEFAULT_HANDLER_ADAPTER_BEAN_NAME = "requestMappingHandlerAdapter";
+
+    /**
+     * Methods of shadow requests for request features which are not copied from the sampled request.
+     */
+    private static final Set<String> UNSUPPORTED_REQUEST_METHODS = new HashSet<>(Arrays.asList("getInputStream", "getReader", "isUserInRole", "authenticate", "login", "logout",
+                                                                                               "getPart", "getParts", "upgrade", "changeSessionId", "startAsync",
+                                                                                               "isAsyncSupported", "getAsyncContext"));
+
+    @Autowired
+    private ApiVersioningCache apiVersioningCache;
+
+    @Autowired
+    private ApiVersioningConfigHolder apiVersioningConfigHolder;
+
+    @Autowired
+    private ApiVersioningConfigHelper apiVersioningPropertyManager;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    private List<ApiVersionShadowRule> rules = Collections.emptyList();
+
+    private int maxConcurrent;
+
+    /**
+     * Minimum interval between shadow executions, 0 if executions per second are not capped.
+     */
+    private long intervalNanos;
+
+    private final AtomicLong nextExecutionNanos = new AtomicLong(System.nanoTime());
+
+    private Semaphore permits;
+
+    private ThreadPoolTaskExecutor executor;
+
+    private volatile RequestMappingHandlerMapping handlerMapping;
+
+    private volatile RequestMappingHandlerAdapter handlerAdapter;
+
+    @PostConstruct
+    public void init() {
+        String[] configuredRules = (String[]) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.SHADOW_RULES, ApiVersioningDefaultConfig.SHADOW_RULES, String[].class);
+
+        List<ApiVersionShadowRule> configuredShadowRules = new ArrayList<>();
+
+        for (String configuredRule : configuredRules) {
+            ApiVersionShadowRule rule = parseRule(configuredRule.trim());
+
+            if (null != rule) {
+                configuredShadowRules.add(rule);
+            }
+        }
+
+        rules = Collections.unmodifiableList(configuredShadowRules);
+
+        if (Boolean.FALSE.equals(isEnabled())) {
+            return;
+        }
+
+        maxConcurrent = Math.max(1, (Integer) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.SHADOW_MAX_CONCURRENT, ApiVersioningDefaultConfig.SHADOW_MAX_CONCURRENT, Integer.class));
+
+        double maxPerSecond = (Double) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.SHADOW_MAX_PER_SECOND, ApiVersioningDefaultConfig.SHADOW_MAX_PER_SECOND, Double.class);
+        intervalNanos = maxPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / maxPerSecond) : 0;
+
+        permits = new Semaphore(maxConcurrent);
+
+        // Queue can hold all admitted executions, so that executions admitted by the semaphore are never rejected.
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        executor.setQueueCapacity(maxConcurrent);
+        executor.setThreadNamePrefix("api-version-shadow-");
+        executor.setDaemon(true);
+        executor.initialize();
+
+        logger.info("API version shadow execution is enabled with rules: {}, at most [{}] concurrent and [{}] per second executions.", rules, maxConcurrent, maxPerSecond);
+    }
+
+    private ApiVersionShadowRule parseRule(String configuredRule) {
+        Matcher matcher = RULE_PATTERN.matcher(configuredRule);
+
+        if (Boolean.FALSE.equals(matcher.matches())) {
+            logger.warn("Ignoring invalid shadow rule: [{}], expected format is [context:]fromVersion[-toVersion]=shadowVersion[@samplePercent].", configuredRule);
+            return null;
+        }
+
+        String contextName = null == matcher.group(1) ? "" : matcher.group(1);
+
+        if (null == apiVersioningConfigHolder.getConfig().getContext(contextName)) {
+            logger.warn("Ignoring shadow rule: [{}] for API context [{}] which is not configured.", configuredRule, contextName);
+            return null;
+        }
+
+        double fromVersion = Double.parseDouble(matcher.group(2));
+        double toVersion = null == matcher.group(3) ? fromVersion : Double.parseDouble(matcher.group(3));
+        double shadowVersion = Double.parseDouble(matcher.group(4));
+        double samplePercent = null == matcher.group(5) ? DEFAULT_SAMPLE_PERCENT : Double.parseDouble(matcher.group(5));
+
+        if (fromVersion > toVersion || samplePercent <= 0 || samplePercent > 100) {
+            logger.warn("Ignoring shadow rule: [{}] with empty version range or sample percentage out of range.", configuredRule);
+            return null;
+        }
+
+        return new ApiVersionShadowRule(configuredRule, contextName, fromVersion, toVersion, shadowVersion, samplePercent);
+    }
+
+    /**
+     * This method is used to check if shadow rules are configured.
+     *
+     * @return                                   Returns true if any shadow rule is configured.
+     */
+    public boolean isEnabled() {
+        return Boolean.FALSE.equals(rules.isEmpty());
+    }
+
+    /**
+     * This method is used to get shadow rule for resolved API version.
+     *
+     * @param contextName                        Name of API context, empty for the primary context.
+     * @param version                            Resolved API version.
+     * @return                                   Returns the first matching rule or null.
+     */
+    public ApiVersionShadowRule getRule(String contextName, double version) {
+        for (ApiVersionShadowRule rule : rules) {
+            if (rule.matches(contextName, version)) {
+                return rule;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * This method is used to execute completed sampled request against shadow
+     * version in background, if budget allows.
+     *
+     * @param rule                               Shadow rule of the resolved version.
+     * @param request                            Completed request.
+     * @param primaryHandlerMethod               Handler method which served the request.
+     * @param primaryElapsedNanos                Latency of the request.
+     * @param primaryAllocatedBytes              Bytes allocated by the request, negative if not measured.
+     * @param primaryStatus                      Status of the response.
+     */
+    public void submit(ApiVersionShadowRule rule, HttpServletRequest request, HandlerMethod primaryHandlerMethod, long primaryElapsedNanos, long primaryAllocatedBytes, int primaryStatus) {
+        String shadowPath = getShadowPath(rule, (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE));
+
+        if (null == shadowPath) {
+            rule.recordUnresolved();
+            return;
+        }
+
+        if (Boolean.FALSE.equals(tryAcquireRate()) || Boolean.FALSE.equals(permits.tryAcquire())) {
+            rule.recordSkipped();
+            return;
+        }
+
+        rule.recordSampled();
+
+        RequestSnapshot snapshot = new RequestSnapshot(request, shadowPath);
+        Method primaryMethod = primaryHandlerMethod.getMethod();
+
+        // Capturing locale, MDC and security context of the sampled request on the servlet thread.
+        ApiVersioningThreadContext threadContext = ApiVersioningThreadContext.capture();
+
+        try {
+            executor.execute(() -> {
+                try {
+                    execute(rule, snapshot, threadContext, primaryMethod, primaryElapsedNanos, primaryAllocatedBytes, primaryStatus);
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (TaskRejectedException e) {
+            permits.release();
+            rule.recordSkipped();
+        }
+    }
+
+    /**
+     * Admitting shadow execution if minimum interval is elapsed since the previous one.
+     */
+    private boolean tryAcquireRate() {
+        if (intervalNanos == 0) {
+            return true;
+        }
+
+        while (true) {
+            long now = System.nanoTime();
+            long next = nextExecutionNanos.get();
+
+            if (next - now > 0) {
+                return false;
+            }
+
+            if (nextExecutionNanos.compareAndSet(next, now + intervalNanos)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * This method is used to get path of the request for shadow version,
+     * replacing version of path resolved for the request.
+     */
+    private String getShadowPath(ApiVersionShadowRule rule, String resolvedPath) {
+        if (null == resolvedPath) {
+            return null;
+        }
+
+        ApiVersioningRuntimeConfig config = apiVersioningConfigHolder.getConfig();
+
+        long contextMatch = config.getContextMatcher().match(resolvedPath);
+        ApiVersioningContext context = config.getContext(rule.getContextName());
+
+        if (contextMatch == ApiVersioningContextMatcher.NO_MATCH || null == context) {
+            return null;
+        }
+
+        String baseLookupPath = resolvedPath.substring(ApiVersioningContextMatcher.getVersionEndIndex(contextMatch));
+
+        // Base URL which the shadow version of the API is registered with, it may differ from base URL of the context for the version.
+        String mappingKey = apiVersioningCache.resolveVersionIndexKey(context.getMappingKey(baseLookupPath));
+        String apiVersioningBaseUrl = apiVersioningCache.getApiVersioningBaseUrl(mappingKey, context.getName(), rule.getShadowVersion());
+
+        if (null == apiVersioningBaseUrl) {
+            apiVersioningBaseUrl = context.getApiAndVersionContext() + config.formatVersion(rule.getShadowVersion());
+        }
+
+        return apiVersioningBaseUrl + baseLookupPath;
+    }
+
+    private void execute(ApiVersionShadowRule rule, RequestSnapshot snapshot, ApiVersioningThreadContext threadContext, Method primaryMethod, long primaryElapsedNanos, long primaryAllocatedBytes,
+                         int primaryStatus) {
+        HttpServletRequest shadowRequest = createShadowRequest(snapshot);
+        int[] shadowStatus = { HttpServletResponse.SC_OK };
+        HttpServletResponse shadowResponse = createShadowResponse(shadowStatus);
+
+        threadContext.bind(new ServletRequestAttributes(shadowRequest, shadowResponse));
+
+        try {
+            HandlerExecutionChain handlerExecutionChain = getHandlerMapping().getHandler(shadowRequest);
+
+            if (null == handlerExecutionChain || Boolean.FALSE.equals(handlerExecutionChain.getHandler() instanceof HandlerMethod)) {
+                rule.recordUnresolved();
+                return;
+            }
+
+            HandlerMethod shadowHandlerMethod = (HandlerMethod) handlerExecutionChain.getHandler();
+
+            // Skipping comparison if shadow version falls back to the handler which served the request.
+            if (shadowHandlerMethod.getMethod().equals(primaryMethod)) {
+                rule.recordSameHandler();
+                return;
+            }
+
+            long startAllocatedBytes = ApiVersioningUtility.getThreadAllocatedBytes();
+            long startNanos = System.nanoTime();
+
+            getHandlerAdapter().handle(shadowRequest, shadowResponse, shadowHandlerMethod);
+
+            long shadowElapsedNanos = System.nanoTime() - startNanos;
+            long shadowAllocatedBytes = startAllocatedBytes < 0 ? -1L : ApiVersioningUtility.getThreadAllocatedBytes() - startAllocatedBytes;
+
+            rule.recordComparison(primaryElapsedNanos, primaryAllocatedBytes, primaryStatus, shadowElapsedNanos, shadowAllocatedBytes, shadowStatus[0]);
+        } catch (Exception e) {
+            if (isUnsupported(e)) {
+                logger.debug("Shadow execution for path: [{}] needs request features not supported by shadow requests.", snapshot.shadowPath, e);
+                rule.recordUnsupported();
+            } else {
+                logger.debug("Shadow execution failed for path: [{}].", snapshot.shadowPath, e);
+                rule.recordFailure();
+            }
+        } finally {
+            ApiVersioningThreadContext.reset();
+        }
+    }
+
+    /**
+     * This method is used to check if shadow execution failed as the handler
+     * method needs request features not supported by shadow requests, which
+     * may be wrapped by Spring MVC.
+     */
+    private static boolean isUnsupported(Throwable failure) {
+        for (Throwable cause = failure; null != cause; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof UnsupportedShadowRequestException) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private RequestMappingHandlerMapping getHandlerMapping() {
+        if (null == handlerMapping) {
+            for (RequestMappingHandlerMapping candidate : applicationContext.getBeansOfType(RequestMappingHandlerMapping.class).values()) {
+                if (candidate instanceof ReSTApiVersionManager) {
+                    handlerMapping = candidate;
+                }
+            }
+        }
+
+        return handlerMapping;
+    }
+
+    private RequestMappingHandlerAdapter getHandlerAdapter() {
+        if (null == handlerAdapter) {
+            Map<String, RequestMappingHandlerAdapter> handlerAdapters = applicationContext.getBeansOfType(RequestMappingHandlerAdapter.class);
+
+            // Preferring handler adapter of Spring MVC over adapters of other modules, for eg. Spring Data REST.
+            handlerAdapter = handlerAdapters.containsKey(DEFAULT_HANDLER_ADAPTER_BEAN_NAME) ? handlerAdapters.get(DEFAULT_HANDLER_ADAPTER_BEAN_NAME) : handlerAdapters.values().iterator().next();
+        }
+
+        return handlerAdapter;
+    }
+
+    /**
+     * This method is used to get comparison of shadowed versions.
+     *
+     * @return                                   Returns metrics of shadow rules in the order in which they are matched.
+     */
+    public List<Map<String, Object>> getShadows() {
+        List<Map<String, Object>> metrics = new ArrayList<>();
+
+        for (ApiVersionShadowRule rule : rules) {
+            metrics.add(rule.getMetrics());
+        }
+
+        return metrics;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (null != executor) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * This method is used to create shadow request from copy of sampled
+     * request. Methods for request features which are not copied, for eg.
+     * session and request body, throw {@link UnsupportedShadowRequestException},
+     * other methods not needed to resolve and invoke handler method return
+     * default values.
+     */
+    private static HttpServletRequest createShadowRequest(RequestSnapshot snapshot) {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(SHADOW_REQUEST_ATTRIBUTE, Boolean.TRUE);
+
+        return (HttpServletRequest) Proxy.newProxyInstance(ApiVersionShadowManager.class.getClassLoader(), new Class<?>[] { HttpServletRequest.class }, (proxy, invokedMethod, args) -> {
+            if (UNSUPPORTED_REQUEST_METHODS.contains(invokedMethod.getName())) {
+                throw new UnsupportedShadowRequestException(invokedMethod.getName());
+            }
+
+            switch (invokedMethod.getName()) {
+                case "getSession":
+                    // Shadow request has no session, a session can't be created for it.
+                    if (null == args || Boolean.TRUE.equals(args[0])) {
+                        throw new UnsupportedShadowRequestException(invokedMethod.getName());
+                    }
+                    return null;
+                case "getMethod":
+                    return snapshot.method;
+                case "getRequestURI":
+                    return snapshot.requestUri;
+                case "getRequestURL":
+                    return new StringBuffer(snapshot.scheme).append("://").append(snapshot.serverName).append(':').append(snapshot.serverPort).append(snapshot.requestUri);
+                case "getContextPath":
+                    return snapshot.contextPath;
+                case "getServletPath":
+                    return snapshot.servletPath;
+                case "getPathInfo":
+                    return snapshot.pathInfo;
+                case "getQueryString":
+                    return snapshot.queryString;
+                case "getParameter":
+                    String[] values = snapshot.parameters.get(args[0]);
+                    return null == values || values.length == 0 ? null : values[0];
+                case "getParameterValues":
+                    return snapshot.parameters.get(args[0]);
+                case "getParameterMap":
+                    return snapshot.parameters;
+                case "getParameterNames":
+                    return Collections.enumeration(snapshot.parameters.keySet());
+                case "getHeader":
+                    List<String> headerValues = snapshot.headers.get(args[0]);
+                    return null == headerValues || headerValues.isEmpty() ? null : headerValues.get(0);
+                case "getHeaders":
+                    return Collections.enumeration(snapshot.headers.getOrDefault(args[0], Collections.emptyList()));
+                case "getHeaderNames":
+                    return Collections.enumeration(snapshot.headers.keySet());
+                case "getIntHeader":
+                    List<String> intHeaderValues = snapshot.headers.get(args[0]);
+                    return null == intHeaderValues || intHeaderValues.isEmpty() ? -1 : Integer.parseInt(intHeaderValues.get(0));
+                case "getDateHeader":
+                    return -1L;
+                case "getCookies":
+                    return null == snapshot.cookies ? null : snapshot.cookies.clone();
+                case "getLocale":
+                    return snapshot.locale;
+                case "getLocales":
+                    return Collections.enumeration(Collections.singletonList(snapshot.locale));
+                case "getCharacterEncoding":
+                    return snapshot.characterEncoding;
+                case "getScheme":
+                    return snapshot.scheme;
+                case "getServerName":
+                    return snapshot.serverName;
+                case "getServerPort":
+                    return snapshot.serverPort;
+                case "getRemoteAddr":
+                    return snapshot.remoteAddr;
+                case "getUserPrincipal":
+                    return snapshot.userPrincipal;
+                case "getServletContext":
+                    return snapshot.servletContext;
+                case "getDispatcherType":
+                    return DispatcherType.REQUEST;
+                case "getAttribute":
+                    return attributes.get(args[0]);
+                case "setAttribute":
+                    if (null == args[1]) {
+                        attributes.remove(args[0]);
+                    } else {
+                        attributes.put((String) args[0], args[1]);
+                    }
+                    return null;
+                case "removeAttribute":
+                    attributes.remove(args[0]);
+                    return null;
+                case "getAttributeNames":
+                    return Collections.enumeration(new ArrayList<>(attributes.keySet()));
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "Shadow " + snapshot.method + " " + snapshot.requestUri;
+                default:
+                    break;
+            }
+
+            return getDefaultValue(invokedMethod.getReturnType());
+        });
+    }
+
+    /**
+     * This method is used to create response discarding its body and keeping its status.
+     */
+    private static HttpServletResponse createShadowResponse(int[] status) {
+        ServletOutputStream outputStream = new ServletOutputStream() {
+
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        };
+
+        PrintWriter writer = new PrintWriter(new Writer() {
+
+            @Override
+            public void write(char[] cbuf, int off, int len) {
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+
+        return (HttpServletResponse) Proxy.newProxyInstance(ApiVersionShadowManager.class.getClassLoader(), new Class<?>[] { HttpServletResponse.class }, (proxy, invokedMethod, args) -> {
+            switch (invokedMethod.getName()) {
+                case "setStatus":
+                case "sendError":
+                    status[0] = (Integer) args[0];
+                    return null;
+                case "getStatus":
+                    return status[0];
+                case "getOutputStream":
+                    return outputStream;
+                case "getWriter":
+                    return writer;
+                case "getCharacterEncoding":
+                    return "UTF-8";
+                case "getLocale":
+                    return Locale.getDefault();
+                case "encodeURL":
+                case "encodeRedirectURL":
+                case "encodeUrl":
+                case "encodeRedirectUrl":
+                    return args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "Shadow response";
+                default:
+                    break;
+            }
+
+            return getDefaultValue(invokedMethod.getReturnType());
+        });
+    }
+
+    private static Object getDefaultValue(Class<?> returnType) {
+        if (Enumeration.class.equals(returnType)) {
+            return Collections.emptyEnumeration();
+        } else if (Collection.class.isAssignableFrom(returnType)) {
+            return Collections.emptyList();
+        } else if (boolean.class.equals(returnType)) {
+            return false;
+        } else if (int.class.equals(returnType)) {
+            return 0;
+        } else if (long.class.equals(returnType)) {
+            return 0L;
+        }
+
+        return null;
+    }
+
+    /**
+     * Exception thrown by shadow requests for request features which are not
+     * copied from the sampled request.
+     */
+    private static final class UnsupportedShadowRequestException extends UnsupportedOperationException {
+
+        private static final long serialVersionUID = 1L;
+
+        private UnsupportedShadowRequestException(String requestMethod) {
+            super("Shadow request doesn't support " + requestMethod);
+        }
+
+    }
+
+    /**
+     * Copy of sampled request, taken before the request is recycled by the container.
+     */
+    private static final class RequestSnapshot {
+
+        private final String method;
+
+        private final String shadowPath;
+
+        private final String requestUri;
+
+        private final String contextPath;
+
+        private final String servletPath;
+
+        private final String pathInfo;
+
+        private final String queryString;
+
+        private final Map<String, String[]> parameters;
+
+        private final Map<String, List<String>> headers = new LinkedCaseInsensitiveMap<>();
+
+        private final Cookie[] cookies;
+
+        private final Locale locale;
+
+        private final String characterEncoding;
+
+        private final String scheme;
+
+        private final String serverName;
+
+        private final int serverPort;
+
+        private final String remoteAddr;
+
+        private final Principal userPrincipal;
+
+        private final ServletContext servletContext;
+
+        private RequestSnapshot(HttpServletRequest request, String shadowPath) {
+            this.method = request.getMethod();
+            this.shadowPath = shadowPath;
+            this.contextPath = request.getContextPath();
+
+            // Keeping servlet path if dispatcher servlet is mapped to a path, lookup path is the path info then.
+            if (null == request.getPathInfo()) {
+                this.servletPath = shadowPath;
+                this.pathInfo = null;
+            } else {
+                this.servletPath = request.getServletPath();
+                this.pathInfo = shadowPath;
+            }
+
+            this.requestUri = contextPath + (null == pathInfo ? servletPath : servletPath + pathInfo);
+            this.queryString = request.getQueryString();
+            this.parameters = Collections.unmodifiableMap(new LinkedHashMap<>(request.getParameterMap()));
+
+            Enumeration<String> headerNames = request.getHeaderNames();
+
+            while (null != headerNames && headerNames.hasMoreElements()) {
+                String headerName = headerNames.nextElement();
+                headers.put(headerName, Collections.list(request.getHeaders(headerName)));
+            }
+
+            this.cookies = request.getCookies();
+            this.locale = request.getLocale();
+            this.characterEncoding = request.getCharacterEncoding();
+            this.scheme = request.getScheme();
+            this.serverName = request.getServerName();
+            this.serverPort = request.getServerPort();
+            this.remoteAddr = request.getRemoteAddr();
+            this.userPrincipal = request.getUserPrincipal();
+            this.servletContext = request.getServletContext();
+        }
+
+    }
+
+}
@@ -0,0 +1,186 @@
+package com.mindstixlabs.web.api.version.management.handlers;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <code>ApiVersionShadowRule</code> samples requests resolved to an API version
+ * range to be executed again against a shadow version, and keeps latency and
+ * allocation of both executions of the sampled requests.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+public class ApiVersionShadowRule {
+
+    private final String rule;
+
+    private final String contextName;
+
+    private final double fromVersion;
+
+    private final double toVersion;
+
+    private final double shadowVersion;
+
+    private final double samplePercent;
+
+    private final LongAdder sampled = new LongAdder();
+
+    private final LongAdder skipped = new LongAdder();
+
+    private final LongAdder sameHandler = new LongAdder();
+
+    private final LongAdder unresolved = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     * Number of shadow executions aborted as the handler method needs request features not supported by shadow requests, for eg. session.
+     */
+    private final LongAdder unsupported = new LongAdder();
+
+    private final LongAdder compared = new LongAdder();
+
+    private final LongAdder statusMismatches = new LongAdder();
+
+    private final LongAdder primaryNanos = new LongAdder();
+
+    private final LongAdder primaryBytes = new LongAdder();
+
+    private final LongAdder shadowNanos = new LongAdder();
+
+    private final LongAdder shadowBytes = new LongAdder();
+
+    public ApiVersionShadowRule(String rule, String contextName, double fromVersion, double toVersion, double shadowVersion, double samplePercent) {
+        this.rule = rule;
+        this.contextName = contextName;
+        this.fromVersion = fromVersion;
+        this.toVersion = toVersion;
+        this.shadowVersion = shadowVersion;
+        this.samplePercent = samplePercent;
+    }
+
+    /**
+     * This method is used to check if rule is configured for API version of API context.
+     *
+     * @param resolvedContextName                Name of API context, empty for the primary context.
+     * @param version                            Resolved API version.
+     * @return                                   Returns true if version is in version range of the rule.
+     */
+    public boolean matches(String resolvedContextName, double version) {
+        return version >= fromVersion && version <= toVersion && version != shadowVersion && contextName.equals(resolvedContextName);
+    }
+
+    /**
+     * This method is used to sample request as per sample percentage of the rule.
+     *
+     * @return                                   Returns true if request is to be shadowed.
+     */
+    public boolean sample() {
+        return ThreadLocalRandom.current().nextDouble(100) < samplePercent;
+    }
+
+    public String getContextName() {
+        return contextName;
+    }
+
+    public double getShadowVersion() {
+        return shadowVersion;
+    }
+
+    public void recordSampled() {
+        sampled.increment();
+    }
+
+    public void recordSkipped() {
+        skipped.increment();
+    }
+
+    public void recordSameHandler() {
+        sameHandler.increment();
+    }
+
+    public void recordUnresolved() {
+        unresolved.increment();
+    }
+
+    public void recordFailure() {
+        failed.increment();
+    }
+
+    public void recordUnsupported() {
+        unsupported.increment();
+    }
+
+    /**
+     * This method is used to record execution of a sampled request by
+     * resolved version and shadow version.
+     *
+     * @param primaryElapsedNanos                Latency of the request.
+     * @param primaryAllocatedBytes              Bytes allocated by the request, negative if not measured.
+     * @param primaryStatus                      Status of the response.
+     * @param shadowElapsedNanos                 Latency of shadow execution.
+     * @param shadowAllocatedBytes               Bytes allocated by shadow execution, negative if not measured.
+     * @param shadowStatus                       Status of discarded shadow response.
+     */
+    public void recordComparison(long primaryElapsedNanos, long primaryAllocatedBytes, int primaryStatus, long shadowElapsedNanos, long shadowAllocatedBytes, int shadowStatus) {
+        compared.increment();
+
+        primaryNanos.add(primaryElapsedNanos);
+        shadowNanos.add(shadowElapsedNanos);
+
+        if (primaryAllocatedBytes >= 0 && shadowAllocatedBytes >= 0) {
+            primaryBytes.add(primaryAllocatedBytes);
+            shadowBytes.add(shadowAllocatedBytes);
+        }
+
+        if (primaryStatus != shadowStatus) {
+            statusMismatches.increment();
+        }
+    }
+
+    /**
+     * This method is used to get comparison of resolved and shadow versions.
+     *
+     * @return                                   Returns average latency and allocation of both with number of sampled requests.
+     */
+    public Map<String, Object> getMetrics() {
+        long comparisons = compared.sum();
+
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("rule", rule);
+        metrics.put("shadowVersion", shadowVersion);
+        metrics.put("samplePercent", samplePercent);
+        metrics.put("sampled", sampled.sum());
+        metrics.put("skippedByBudget", skipped.sum());
+        metrics.put("sameHandler", sameHandler.sum());
+        metrics.put("unresolved", unresolved.sum());
+        metrics.put("failed", failed.sum());
+        metrics.put("unsupported", unsupported.sum());
+        metrics.put("compared", comparisons);
+        metrics.put("statusMismatches", statusMismatches.sum());
+
+        if (comparisons > 0) {
+            double primaryMicros = (double) TimeUnit.NANOSECONDS.toMicros(primaryNanos.sum()) / comparisons;
+            double shadowMicros = (double) TimeUnit.NANOSECONDS.toMicros(shadowNanos.sum()) / comparisons;
+
+            metrics.put("primaryAvgMicros", primaryMicros);
+            metrics.put("shadowAvgMicros", shadowMicros);
+            metrics.put("shadowLatencyRatio", primaryMicros == 0 ? 0 : shadowMicros / primaryMicros);
+            metrics.put("primaryAvgAllocatedBytes", primaryBytes.sum() / comparisons);
+            metrics.put("shadowAvgAllocatedBytes", shadowBytes.sum() / comparisons);
+        }
+
+        return metrics;
+    }
+
+    @Override
+    public String toString() {
+        return rule;
+    }
+
+}
@@ -0,0 +1,338 @@
+package com.mindstixlabs.web.api.version.management.handlers;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import com.mindstixlabs.web.api.version.management.DefaultRequestMappingHandlerMapping;
+import com.mindstixlabs.web.api.version.management.ReSTApiVersionManager;
+import com.mindstixlabs.web.api.version.management.cache.ApiVersionedMapping;
+import com.mindstixlabs.web.api.version.management.cache.ApiVersioningCache;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigHelper;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigHolder;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigKeys;
+import com.mindstixlabs.web.api.version.management.core.ApiVersioningContext;
+import com.mindstixlabs.web.api.version.management.core.ApiVersioningContextMatcher;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningDefaultConfig;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningRuntimeConfig;
+
+/**
+ * <code>ApiVersioningWarmUpManager</code> warms up resolution of versioned
+ * APIs before the application reports readiness.
+ *
+ * <p>After {@link AutoApiVersionConfigurationManager} validates API versioning,
+ * lookups are synthesized for every registered versioned mapping, for its
+ * version and for a version in between which is served by fallback, and are
+ * run against the handler mapping in rounds on a background thread. This gets
+ * the resolution code compiled by the JIT and populates the caches filled by
+ * lookups before live traffic arrives.
+ *
+ * <p>Warm-up stops when configured number of rounds is done or time budget is
+ * spent, whichever is first. The application is reported ready only after
+ * warm-up stops. If warm-up is disabled, the application is always ready.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+@Component("api-versioning-warm-up-manager")
+public class ApiVersioningWarmUpManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiVersioningWarmUpManager.class);
+
+    /**
+     * Name of request attribute marking synthesized warm-up requests.
+     */
+    public static final String WARM_UP_REQUEST_ATTRIBUTE = ApiVersioningWarmUpManager.class.getName() + ".warmUpRequest";
+
+    /**
+     * Value used for URI template variables and wildcards of synthesized lookup paths.
+     */
+    private static final String PATH_VARIABLE_VALUE = "1";
+
+    /**
+     * State of warm-up.
+     */
+    public enum State {
+        DISABLED, NOT_STARTED, RUNNING, COMPLETED, BUDGET_EXHAUSTED, FAILED
+    }
+
+    @Autowired
+    private ApiVersioningCache apiVersioningCache;
+
+    @Autowired
+    private ApiVersioningConfigHolder apiVersioningConfigHolder;
+
+    @Autowired
+    private ApiVersioningConfigHelper apiVersioningPropertyManager;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    private boolean enabled;
+
+    private int iterations;
+
+    private long timeBudgetMillis;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.NOT_STARTED);
+
+    private final AtomicLong completedLookups = new AtomicLong();
+
+    private volatile long totalLookups;
+
+    private volatile long startTimeMillis;
+
+    private volatile long endTimeMillis;
+
+    @PostConstruct
+    public void init() {
+        enabled = (Boolean) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.WARM_UP_ENABLED, ApiVersioningDefaultConfig.WARM_UP_ENABLED, Boolean.class);
+        iterations = (Integer) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.WARM_UP_ITERATIONS, ApiVersioningDefaultConfig.WARM_UP_ITERATIONS, Integer.class);
+        timeBudgetMillis = (Long) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.WARM_UP_TIME_BUDGET_MILLIS, ApiVersioningDefaultConfig.WARM_UP_TIME_BUDGET_MILLIS, Long.class);
+
+        if (Boolean.FALSE.equals(enabled)) {
+            state.set(State.DISABLED);
+        }
+    }
+
+    /**
+     * This method is used to start warm-up in background once API versioning
+     * is validated. Warm-up is started only once.
+     */
+    public void startWarmUp() {
+        if (Boolean.FALSE.equals(state.compareAndSet(State.NOT_STARTED, State.RUNNING))) {
+            return;
+        }
+
+        startTimeMillis = System.currentTimeMillis();
+
+        Thread warmUpThread = new Thread(this::warmUp, "api-versioning-warm-up");
+        warmUpThread.setDaemon(true);
+        warmUpThread.start();
+    }
+
+    /**
+     * This method is used to check if the application is ready to serve
+     * versioned APIs.
+     *
+     * @return                                   Returns true if warm-up is disabled or stopped.
+     */
+    public boolean isReady() {
+        State currentState = state.get();
+
+        return currentState != State.NOT_STARTED && currentState != State.RUNNING;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public long getCompletedLookups() {
+        return completedLookups.get();
+    }
+
+    public long getTotalLookups() {
+        return totalLookups;
+    }
+
+    public long getTimeBudgetMillis() {
+        return timeBudgetMillis;
+    }
+
+    /**
+     * This method is used to get time spent in warm-up.
+     *
+     * @return                                   Returns elapsed milliseconds or 0 if warm-up is not started.
+     */
+    public long getElapsedMillis() {
+        if (0 == startTimeMillis) {
+            return 0;
+        }
+
+        return (0 == endTimeMillis ? System.currentTimeMillis() : endTimeMillis) - startTimeMillis;
+    }
+
+    private void warmUp() {
+        State finalState = State.FAILED;
+
+        try {
+            List<RequestMappingHandlerMapping> handlerMappings = getApiVersioningHandlerMappings();
+            List<String[]> lookups = getWarmUpLookups(handlerMappings, apiVersioningConfigHolder.getConfig());
+
+            totalLookups = (long) lookups.size() * handlerMappings.size() * iterations;
+
+            logger.info("Warming up API versioning with [{}] lookups in [{}] rounds within [{}] ms.", lookups.size(), iterations, timeBudgetMillis);
+
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis);
+
+            finalState = State.COMPLETED;
+
+            rounds:
+            for (int round = 0; round < iterations; round++) {
+                for (RequestMappingHandlerMapping handlerMapping : handlerMappings) {
+                    for (String[] lookup : lookups) {
+                        if (System.nanoTime() - deadline > 0) {
+                            finalState = State.BUDGET_EXHAUSTED;
+                            break rounds;
+                        }
+
+                        handlerMapping.getHandler(createWarmUpRequest(lookup[0], lookup[1]));
+
+                        completedLookups.incrementAndGet();
+                    }
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Error occurred while warming up API versioning.", e);
+        } finally {
+            endTimeMillis = System.currentTimeMillis();
+            state.set(finalState);
+
+            logger.info("API versioning warm-up is [{}] after [{}] of [{}] lookups in [{}] ms.", finalState, completedLookups.get(), totalLookups, getElapsedMillis());
+        }
+    }
+
+    private List<RequestMappingHandlerMapping> getApiVersioningHandlerMappings() {
+        List<RequestMappingHandlerMapping> handlerMappings = new ArrayList<>();
+
+        for (RequestMappingHandlerMapping handlerMapping : applicationContext.getBeansOfType(RequestMappingHandlerMapping.class).values()) {
+            if (handlerMapping instanceof ReSTApiVersionManager || handlerMapping instanceof DefaultRequestMappingHandlerMapping) {
+                handlerMappings.add(handlerMapping);
+            }
+        }
+
+        return handlerMappings;
+    }
+
+    /**
+     * This method is used to synthesize method and lookup path for every
+     * registered versioned mapping and for a version above it served by fallback.
+     */
+    private List<String[]> getWarmUpLookups(List<RequestMappingHandlerMapping> handlerMappings, ApiVersioningRuntimeConfig config) {
+        Set<String> lookupKeys = new LinkedHashSet<>();
+        List<String[]> lookups = new ArrayList<>();
+
+        // Smallest version step as per decimal digits supported. for eg. 0.1
+        double versionStep = Math.pow(10, -config.getMaxDecimalDigitsSupport());
+
+        for (RequestMappingHandlerMapping handlerMapping : handlerMappings) {
+            for (RequestMappingInfo mappingInfo : handlerMapping.getHandlerMethods().keySet()) {
+                Set<RequestMethod> methods = mappingInfo.getMethodsCondition().getMethods();
+
+                for (String pattern : mappingInfo.getPatternsCondition().getPatterns()) {
+                    ApiVersionedMapping versionedMapping = apiVersioningCache.getApiVersionedMapping(pattern);
+
+                    // Skipping mappings which are not versioned or rejected as disabled APIs.
+                    if (null == versionedMapping || (apiVersioningCache.isApiDisabled(pattern) && Boolean.FALSE.equals(config.isAllowDisabledApiVersions()))) {
+                        continue;
+                    }
+
+                    String lookupPath = pattern.replaceAll("\\{[^}]*\\}|\\*+", PATH_VARIABLE_VALUE);
+                    List<String> lookupPaths = new ArrayList<>();
+                    lookupPaths.add(lookupPath);
+
+                    long contextMatch = config.getContextMatcher().match(lookupPath);
+
+                    if (contextMatch != ApiVersioningContextMatcher.NO_MATCH) {
+                        ApiVersioningContext context = config.getMatchedContext(contextMatch);
+
+                        // Lookup path with version above registered version to warm up fallback.
+                        lookupPaths.add(context.getApiAndVersionContext()
+                                      + config.formatVersion(versionedMapping.getVersion() + versionStep)
+                                      + lookupPath.substring(ApiVersioningContextMatcher.getVersionEndIndex(contextMatch)));
+                    }
+
+                    for (RequestMethod method : methods.isEmpty() ? Collections.singleton(RequestMethod.GET) : methods) {
+                        for (String path : lookupPaths) {
+                            if (lookupKeys.add(method.name() + " " + path)) {
+                                lookups.add(new String[] { method.name(), path });
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        return lookups;
+    }
+
+    /**
+     * This method is used to create minimal request for handler lookup.
+     * Methods not needed for lookup return default values.
+     */
+    private static HttpServletRequest createWarmUpRequest(String method, String lookupPath) {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(WARM_UP_REQUEST_ATTRIBUTE, Boolean.TRUE);
+
+        return (HttpServletRequest) Proxy.newProxyInstance(ApiVersioningWarmUpManager.class.getClassLoader(), new Class<?>[] { HttpServletRequest.class }, (proxy, invokedMethod, args) -> {
+            switch (invokedMethod.getName()) {
+                case "getMethod":
+                    return method;
+                case "getRequestURI":
+                case "getServletPath":
+                    return lookupPath;
+                case "getContextPath":
+                    return "";
+                case "getDispatcherType":
+                    return DispatcherType.REQUEST;
+                case "getAttribute":
+                    return attributes.get(args[0]);
+                case "setAttribute":
+                    attributes.put((String) args[0], args[1]);
+                    return null;
+                case "removeAttribute":
+                    attributes.remove(args[0]);
+                    return null;
+                case "getAttributeNames":
+                    return Collections.enumeration(new ArrayList<>(attributes.keySet()));
+                case "getParameterMap":
+                    return Collections.emptyMap();
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return method + " " + lookupPath;
+                default:
+                    break;
+            }
+
+            Class<?> returnType = invokedMethod.getReturnType();
+
+            if (Enumeration.class.equals(returnType)) {
+                return Collections.emptyEnumeration();
+            } else if (boolean.class.equals(returnType)) {
+                return false;
+            } else if (int.class.equals(returnType)) {
+                return 0;
+            } else if (long.class.equals(returnType)) {
+                return 0L;
+            }
+
+            return null;
+        });
+    }
+
+}
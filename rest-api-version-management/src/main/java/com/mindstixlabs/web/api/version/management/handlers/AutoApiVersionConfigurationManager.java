@@ -3,6 +3,8 @@ package com.mindstixlabs.web.api.version.management.handlers;
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -20,6 +22,7 @@ import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.stereotype.Component;
 import org.springframework.stereotype.Controller;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.CollectionUtils;
 
 import com.mindstixlabs.web.api.version.management.annotations.ApiVersion;
@@ -29,7 +32,10 @@ import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigHel
 import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigHolder;
 import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigKeys;
 import com.mindstixlabs.web.api.version.management.config.ApiVersioningConstants;
+import com.mindstixlabs.web.api.version.management.core.ApiVersioningContext;
 import com.mindstixlabs.web.api.version.management.config.ApiVersioningDefaultConfig;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningRuntimeConfig;
+import com.mindstixlabs.web.api.version.management.metrics.ApiVersioningStartupMetrics;
 import com.mindstixlabs.web.api.version.management.util.ApiVersioningUtility;
 
 /**
@@ -50,9 +56,24 @@ public class AutoApiVersionConfigurationManager implements ApplicationListener<C
     @Autowired
     private ApiVersioningConfigHelper apiVersioningPropertyManager;
     
+    @Autowired
+    private ApiVersioningCache apiVersioningCache;
+
+    @Autowired
+    private ApiVersioningConfigHolder apiVersioningConfigHolder;
+
     @Autowired
     private ApplicationContext applicationContext;
 
+    @Autowired
+    private ApiVersioningWarmUpManager apiVersioningWarmUpManager;
+
+    @Autowired
+    private ApiVersionFallbackResolver apiVersionFallbackResolver;
+
+    @Autowired
+    private ApiVersioningStartupMetrics apiVersioningStartupMetrics;
+
     /**
      * List of controllers for which versioning is enabled.
      */
@@ -97,12 +118,22 @@ public class AutoApiVersionConfigurationManager implements ApplicationListener<C
     /**
      * Used to fetch the max version used among all the controllers in the application.
      */
-    public static double currentVersion = ApiVersioningConfigHolder.CURRENT_VERSION_SUPPORT;
+    private volatile double currentVersion = ApiVersioningDefaultConfig.CURRENT_VERSION_SUPPORT;
 
     /**
      * Used to fetch the minimum version used among all the controllers in the application.
      */
-    public static double minVersionSupport = ApiVersioningConfigHolder.MIN_VERSION_SUPPORT;
+    private volatile double minVersionSupport = ApiVersioningDefaultConfig.MIN_VERSION_SUPPORT;
+
+    /**
+     * Used to fetch the max version used among the controllers of additional API contexts.
+     */
+    private Map<String, Double> contextCurrentVersions = new HashMap<String, Double>();
+
+    /**
+     * Used to fetch the minimum version used among the controllers of additional API contexts.
+     */
+    private Map<String, Double> contextMinVersions = new HashMap<String, Double>();
 
     /**
      * Flag to decide if API versioning is to be enforced for the application.<br>
@@ -118,8 +149,29 @@ public class AutoApiVersionConfigurationManager implements ApplicationListener<C
     private boolean forceStopApp = false;
 
     public void onApplicationEvent(ContextRefreshedEvent event) {
-        if (ApiVersioningConfigHolder.FEATURE_ENABLED) {
-            Map<String, Object> autoApiVersionCheckAnnotationMap = applicationContext.getBeansWithAnnotation(ApiVersionCheck.class);
+        // Refresh events of child contexts are propagated to parent context, versions are configured for own context only.
+        if (event.getApplicationContext() != applicationContext) {
+            return;
+        }
+
+        long startTime = System.nanoTime();
+
+        try {
+            configureApiVersioning();
+        } finally {
+            apiVersioningStartupMetrics.recordConfiguration(System.nanoTime() - startTime);
+        }
+    }
+
+    private void configureApiVersioning() {
+        ApiVersioningRuntimeConfig config = apiVersioningConfigHolder.getConfig();
+
+        if (config.isFeatureEnabled()) {
+            // Starting with the version support provided in properties.
+            currentVersion = config.getCurrentVersionSupport();
+            minVersionSupport = config.getMinVersionSupport();
+
+            Map<String, Class<?>> autoApiVersionCheckAnnotationMap = getBeanTypesWithAnnotation(ApiVersionCheck.class);
 
             ApiVersionCheck autoApiVersionCheckAnnotation = null;
 
@@ -141,7 +193,7 @@ public class AutoApiVersionConfigurationManager implements ApplicationListener<C
                 
                 enforceApiVersioning = autoApiVersionCheckAnnotation.stopAppOnCheckFail();
             } else {
-                autoApiVersionCheckAnnotation = AnnotationUtils.findAnnotation(autoApiVersionCheckAnnotationMap.values().iterator().next().getClass(), ApiVersionCheck.class);
+                autoApiVersionCheckAnnotation = AnnotationUtils.findAnnotation(autoApiVersionCheckAnnotationMap.values().iterator().next(), ApiVersionCheck.class);
 
                 if (autoApiVersionCheckAnnotation != null) {
                     // Setting scanPackages for AutoApiVersionCheck if empty.
@@ -167,7 +219,7 @@ public class AutoApiVersionConfigurationManager implements ApplicationListener<C
             }
 
             // Logging auto API versioning configuration
-            logApiVersioningConfig(autoApiVersionCheckAnnotation);
+            logApiVersioningConfig(autoApiVersionCheckAnnotation, config);
 
             if (enforceApiVersioning) {
                 logger.info("Enabling enforcement for auto-api-versioning.");
@@ -175,18 +227,18 @@ public class AutoApiVersionConfigurationManager implements ApplicationListener<C
                 logger.info("Disabling enforcement for auto-api-versioning.");
             }
 
-            // Extracting application wide controllers and RestControllers
-            Map<String, Object> controllers = applicationContext.getBeansWithAnnotation(Controller.class);
+            // Extracting application wide controllers and RestControllers from bean definitions, without creating lazy controllers.
+            Map<String, Class<?>> controllers = getBeanTypesWithAnnotation(Controller.class);
 
-            for (Object controller : controllers.values()) {
+            for (Class<?> controllerType : controllers.values()) {
                 // Checking if the controller is annotated with AutoApiVersion annotation.
-                if (isApiVersioningAnnotationPresent(controller)) {
+                if (isApiVersioningAnnotationPresent(controllerType)) {
                     // Checking if the controller is skipped explicitly using skipVersioning flag.
                     
                     // Checking if skipVersioning flag is disabled
-                    if (isVersioningEnabledForController(controller)) {
+                    if (isVersioningEnabledForController(controllerType)) {
                         // Extracting AutoApiVersion annotation for controller.
-                        ApiVersion autoApiVersionAnnotation = controller.getClass().getAnnotation(ApiVersion.class);
+                        ApiVersion autoApiVersionAnnotation = controllerType.getAnnotation(ApiVersion.class);
 
                         String apiVersion = autoApiVersionAnnotation.value();
 
@@ -195,9 +247,9 @@ public class AutoApiVersionConfigurationManager implements ApplicationListener<C
 
                         // Checking if version is a valid double number
                         if (Boolean.FALSE.equals(isVersionValid)) {
-                            logger.warn("Invalid version [{}] is specified for controller {}", apiVersion, controller.getClass().getName());
+                            logger.warn("Invalid version [{}] is specified for controller {}", apiVersion, controllerType.getName());
                             
-                            String controllerWithInvalidVersion = String.format("%s-v%s", controller.getClass().getName(), apiVersion);
+                            String controllerWithInvalidVersion = String.format("%s-v%s", controllerType.getName(), apiVersion);
                             versioningInvalidControllers.add(controllerWithInvalidVersion);
                             
                             forceStopApp = true;
@@ -207,69 +259,117 @@ public class AutoApiVersionConfigurationManager implements ApplicationListener<C
                         // Checking if blank/empty version is provided for AutoApiVersion annotation
                         if (StringUtils.isBlank(apiVersion)) {
                             // Checking if API versioning is enforced and if controller belongs to packages to be scanned.
-                            if (enforceApiVersioning && isControllerBelongsToPackagesToBeScanned(controller, autoApiVersionCheckAnnotation)) {
-                                if (Boolean.FALSE.equals(isControllerIgnored(controller, autoApiVersionCheckAnnotation))) {
+                            if (enforceApiVersioning && isControllerBelongsToPackagesToBeScanned(controllerType, autoApiVersionCheckAnnotation)) {
+                                if (Boolean.FALSE.equals(isControllerIgnored(controllerType, autoApiVersionCheckAnnotation))) {
 
                                     // If controller is not ignored using ignoredPackages or ignoredClasses.
-                                    versioningMissingControllers.add(controller.getClass().getName());
+                                    versioningMissingControllers.add(controllerType.getName());
 
                                     forceStopApp = true;
                                 }
                             } else {
-                                versioningIgnoredControllersByDisablingVersioningEnforcement.add(controller.getClass().getName());
+                                versioningIgnoredControllersByDisablingVersioningEnforcement.add(controllerType.getName());
                             }
 
                             continue;
                         }
 
-                        // Updating max version support (current version) throughout the application
-                        if (Double.valueOf(apiVersion) > currentVersion) {
-                            currentVersion = Double.valueOf(apiVersion);
+                        ApiVersioningContext context = config.getContext(autoApiVersionAnnotation.context());
+
+                        // Checking if API context specified for controller is configured
+                        if (null == context) {
+                            logger.warn("API context [{}] specified for controller {} is not configured", autoApiVersionAnnotation.context(), controllerType.getName());
+
+                            String controllerWithInvalidContext = String.format("%s-context-%s", controllerType.getName(), autoApiVersionAnnotation.context());
+                            versioningInvalidControllers.add(controllerWithInvalidContext);
+
+                            forceStopApp = true;
+
+                            continue;
                         }
 
-                        // Updating min version support throughout the application
-                        if (Double.valueOf(apiVersion) < minVersionSupport || minVersionSupport == ApiVersioningDefaultConfig.MIN_VERSION_SUPPORT) {
-                            minVersionSupport = Double.valueOf(apiVersion);
+                        if (context.isPrimary()) {
+                            // Updating max version support (current version) throughout the application
+                            if (Double.valueOf(apiVersion) > currentVersion) {
+                                currentVersion = Double.valueOf(apiVersion);
+                            }
+
+                            // Updating min version support throughout the application
+                            if (Double.valueOf(apiVersion) < minVersionSupport || minVersionSupport == ApiVersioningDefaultConfig.MIN_VERSION_SUPPORT) {
+                                minVersionSupport = Double.valueOf(apiVersion);
+                            }
+                        } else {
+                            // Updating max and min version support for the API context
+                            contextCurrentVersions.merge(context.getName(), Double.valueOf(apiVersion), Math::max);
+                            contextMinVersions.merge(context.getName(), Double.valueOf(apiVersion), Math::min);
                         }
 
-                        String controllerWithVersion = String.format("%s-v%s", controller.getClass().getName(), apiVersion);
+                        String controllerWithVersion = String.format("%s-v%s", controllerType.getName(), apiVersion);
 
                         versioningEnabledControllers.add(controllerWithVersion);
                     }
                 } else {
                     // Checking if API versioning is enforced and if controller belongs to packages to be scanned
-                    if (enforceApiVersioning && isControllerBelongsToPackagesToBeScanned(controller, autoApiVersionCheckAnnotation)) {
-                        if (Boolean.FALSE.equals(isControllerIgnored(controller, autoApiVersionCheckAnnotation))) {
+                    if (enforceApiVersioning && isControllerBelongsToPackagesToBeScanned(controllerType, autoApiVersionCheckAnnotation)) {
+                        if (Boolean.FALSE.equals(isControllerIgnored(controllerType, autoApiVersionCheckAnnotation))) {
                             // If controller is not ignored using ignoredPackages or ignoredClasses.
-                            versioningMissingControllers.add(controller.getClass().getName());
+                            versioningMissingControllers.add(controllerType.getName());
 
                             forceStopApp = true;
                             
                             continue;
                         }
                     } else {
-                        versioningIgnoredControllersByDisablingVersioningEnforcement.add(controller.getClass().getName());
+                        versioningIgnoredControllersByDisablingVersioningEnforcement.add(controllerType.getName());
 
                         continue;
                     }
                 }
             }
 
+            double currentVersionSupport = config.getCurrentVersionSupport();
+
             // If current version support provided in properties is null/empty, using current version loaded from code.
-            if (null == ApiVersioningConfigHolder.CURRENT_VERSION_SUPPORT || ApiVersioningConfigHolder.CURRENT_VERSION_SUPPORT == ApiVersioningDefaultConfig.CURRENT_VERSION_SUPPORT) {
-                ApiVersioningConfigHolder.CURRENT_VERSION_SUPPORT = currentVersion;
-                logger.info("The current version support provided is null/empty. Loaded maximum supported version [{}] determined by the system as current version.", ApiVersioningConfigHolder.CURRENT_VERSION_SUPPORT);
-            } else if (ApiVersioningConfigHolder.CURRENT_VERSION_SUPPORT < currentVersion) {
+            if (currentVersionSupport == ApiVersioningDefaultConfig.CURRENT_VERSION_SUPPORT) {
+                currentVersionSupport = currentVersion;
+                logger.info("The current version support provided is null/empty. Loaded maximum supported version [{}] determined by the system as current version.", currentVersionSupport);
+            } else if (currentVersionSupport < currentVersion) {
                 // If current version provided is less than current version determined by system, logging the warning.
-                logger.warn("The current version support provided [{}] is less than current version determined by system [{}]", ApiVersioningConfigHolder.CURRENT_VERSION_SUPPORT, currentVersion);
+                logger.warn("The current version support provided [{}] is less than current version determined by system [{}]", currentVersionSupport, currentVersion);
             }
 
-            // If current version support provided in properties is null/empty, using current version loaded from code.
-            if (null == ApiVersioningConfigHolder.MIN_VERSION_SUPPORT || ApiVersioningConfigHolder.MIN_VERSION_SUPPORT == ApiVersioningDefaultConfig.MIN_VERSION_SUPPORT) {
-                ApiVersioningConfigHolder.MIN_VERSION_SUPPORT = minVersionSupport;
-                logger.info("The minimum version support provided is null/empty. Loaded minimum supported version [{}] determined by the system.", ApiVersioningConfigHolder.MIN_VERSION_SUPPORT);
+            double minVersionSupportProvided = config.getMinVersionSupport();
+
+            // If minimum version support provided in properties is null/empty, using minimum version loaded from code.
+            if (minVersionSupportProvided == ApiVersioningDefaultConfig.MIN_VERSION_SUPPORT) {
+                minVersionSupportProvided = minVersionSupport;
+                logger.info("The minimum version support provided is null/empty. Loaded minimum supported version [{}] determined by the system.", minVersionSupportProvided);
             }
-            
+
+            // Publishing version support determined by the system as a single configuration update.
+            final double resolvedMinVersionSupport = minVersionSupportProvided;
+            final double resolvedCurrentVersionSupport = currentVersionSupport;
+
+            apiVersioningConfigHolder.updateConfig(existingConfig -> {
+                ApiVersioningRuntimeConfig updatedConfig = existingConfig.withVersionSupport(resolvedMinVersionSupport, resolvedCurrentVersionSupport);
+
+                for (ApiVersioningContext context : existingConfig.getContexts()) {
+                    if (Boolean.FALSE.equals(context.isPrimary())) {
+                        updatedConfig = updatedConfig.withContextVersionSupport(context.getName(),
+                                                                                resolveContextVersionSupport(context.getMinVersionSupport(), ApiVersioningDefaultConfig.MIN_VERSION_SUPPORT, contextMinVersions.get(context.getName())),
+                                                                                resolveContextVersionSupport(context.getCurrentVersionSupport(), ApiVersioningDefaultConfig.CURRENT_VERSION_SUPPORT, contextCurrentVersions.get(context.getName())));
+                    }
+                }
+
+                return updatedConfig;
+            });
+
+            for (ApiVersioningContext context : apiVersioningConfigHolder.getConfig().getContexts()) {
+                if (Boolean.FALSE.equals(context.isPrimary())) {
+                    logger.info("API Versioning config: Version support for API context [{}] with base URL [{}] is [{}] to [{}]", context.getName(), context.getApiAndVersionContext(), context.getMinVersionSupport(), context.getCurrentVersionSupport());
+                }
+            }
+
             if (Boolean.FALSE.equals(CollectionUtils.isEmpty(versioningEnabledControllers))) {
                 logger.info("Enabling the API Versioning for controllers {}", Arrays.toString(versioningEnabledControllers.toArray()));
             }
@@ -298,25 +398,49 @@ public class AutoApiVersionConfigurationManager implements ApplicationListener<C
                 logger.warn("Invalid version is passed for controllers {}", Arrays.toString(versioningInvalidControllers.toArray()));
             }
             
-            if (Boolean.FALSE.equals(CollectionUtils.isEmpty(ApiVersioningCache.DISABLED_APIS))) {
-                logger.warn("APIs disabled for Versioning {}", Arrays.toString(ApiVersioningCache.DISABLED_APIS.toArray()));
+            if (Boolean.FALSE.equals(CollectionUtils.isEmpty(apiVersioningCache.getDisabledApis()))) {
+                logger.warn("APIs disabled for Versioning {}", Arrays.toString(apiVersioningCache.getDisabledApis().toArray()));
             }
             
             // Calling shutdown method to force stop app
             if (forceStopApp) {
                 shutDown(applicationContext);
+            } else {
+                // Generating fallback dispatcher for the final version support, before it is warmed up.
+                apiVersionFallbackResolver.generateDispatcher();
+
+                // Warming up resolution of versioned APIs once validation is successful.
+                apiVersioningWarmUpManager.startWarmUp();
             }
         } else {
             logger.info("The API Versioning feature is disabled for the application, skipping configurations and validations for API Versioning.");
         }
     }
 
+    /**
+     * This method is used to resolve version support of an additional API
+     * context, using version determined by the system if not provided.
+     * 
+     * @param versionSupportProvided             Version support provided in properties.
+     * @param defaultVersionSupport              Default version support used if not provided in properties.
+     * @param versionDetermined                  Version determined from controllers of the context or null.
+     * @return                                   Returns resolved version support.
+     */
+    private double resolveContextVersionSupport(double versionSupportProvided, double defaultVersionSupport, Double versionDetermined) {
+        if (versionSupportProvided == defaultVersionSupport && null != versionDetermined) {
+            return versionDetermined;
+        }
+
+        return versionSupportProvided;
+    }
+
     /**
      * This method is used to log final auto-api-versioning configuration
      * 
      * @param autoApiVersionCheckAnnotation      AutoApiVersionCheck annotation instance
+     * @param config                             API versioning configuration snapshot
      */
-    private void logApiVersioningConfig(ApiVersionCheck autoApiVersionCheckAnnotation) {
+    private void logApiVersioningConfig(ApiVersionCheck autoApiVersionCheckAnnotation, ApiVersioningRuntimeConfig config) {
         if (null != autoApiVersionCheckAnnotation) {
             // Logging AutoApiVersionCheck values
             logger.info("API Versioning Config: Packages to scan for versioning are {}.", Arrays.toString(autoApiVersionCheckAnnotation.scanPackages()));
@@ -325,15 +449,15 @@ public class AutoApiVersionConfigurationManager implements ApplicationListener<C
         }
 
         // Logging API Versioning configuration value
-        logger.info("API Versioning config: Flag to enable API Versioning feature is [{}]", ApiVersioningConfigHolder.FEATURE_ENABLED);
-        logger.info("API Versioning config: Flag to enable API Versioning fallback is [{}]", ApiVersioningConfigHolder.FALLBACK_ENABLED);
-        logger.info("API Versioning config: API context for Versioning is [{}]", ApiVersioningConfigHolder.API_CONTEXT);
-        logger.info("API Versioning config: Version context for API Versioning is [{}]", ApiVersioningConfigHolder.VERSION_CONTEXT);
-        logger.info("API Versioning config: Minimum version support for API Versioning is [{}]", ApiVersioningConfigHolder.MIN_VERSION_SUPPORT);
-        logger.info("API Versioning config: Current version support for API Versioning is [{}]", ApiVersioningConfigHolder.CURRENT_VERSION_SUPPORT);
-        logger.info("API Versioning config: Flag to retry fallback with base lookup path is [{}]", ApiVersioningConfigHolder.FALLBACK_RETRY_WITH_BASE_LOOKUP_PATH);
-        logger.info("API Versioning config: Flag to allow disabled API versions is [{}]", ApiVersioningConfigHolder.ALLOW_DISABLED_API_VERSIONS);
-        logger.info("API Versioning config: Flag to enable fallback for disabled API versions is [{}]", ApiVersioningConfigHolder.DISABLED_API_VERSIONS_FALLBACK_ENABLED);
+        logger.info("API Versioning config: Flag to enable API Versioning feature is [{}]", config.isFeatureEnabled());
+        logger.info("API Versioning config: Flag to enable API Versioning fallback is [{}]", config.isFallbackEnabled());
+        logger.info("API Versioning config: API context for Versioning is [{}]", config.getApiContext());
+        logger.info("API Versioning config: Version context for API Versioning is [{}]", config.getVersionContext());
+        logger.info("API Versioning config: Minimum version support for API Versioning is [{}]", config.getMinVersionSupport());
+        logger.info("API Versioning config: Current version support for API Versioning is [{}]", config.getCurrentVersionSupport());
+        logger.info("API Versioning config: Flag to retry fallback with base lookup path is [{}]", config.isFallbackRetryWithBaseLookupPath());
+        logger.info("API Versioning config: Flag to allow disabled API versions is [{}]", config.isAllowDisabledApiVersions());
+        logger.info("API Versioning config: Flag to enable fallback for disabled API versions is [{}]", config.isDisabledApiVersionsFallbackEnabled());
     }
 
     /**
@@ -347,13 +471,13 @@ public class AutoApiVersionConfigurationManager implements ApplicationListener<C
     public ApiVersionCheck setScanPackagesForAutoApiVersionCheck(ApiVersionCheck autoApiVersionCheckAnnotation, ApplicationContext applicationContext) {
         // Checking if scanPackages array is empty
         if (null == autoApiVersionCheckAnnotation.scanPackages() || autoApiVersionCheckAnnotation.scanPackages().length == 0) {
-            Map<String, Object> componentScanAnnotationMap = applicationContext.getBeansWithAnnotation(ComponentScan.class);
+            Map<String, Class<?>> componentScanAnnotationMap = getBeanTypesWithAnnotation(ComponentScan.class);
 
             // List that will contain all the packages to be scan.
             List<String> totalScanPackages = new ArrayList<String>();
 
-            for (Object componentScanAnnotatedBean : componentScanAnnotationMap.values()) {
-                ComponentScan componentScanAnnotation = AnnotationUtils.findAnnotation(componentScanAnnotatedBean.getClass(), ComponentScan.class);
+            for (Class<?> componentScanAnnotatedType : componentScanAnnotationMap.values()) {
+                ComponentScan componentScanAnnotation = AnnotationUtils.findAnnotation(componentScanAnnotatedType, ComponentScan.class);
                 
                 // Adding base packages in component scan annotation to list that contains total packages to be scan.
                 totalScanPackages.addAll(Arrays.asList(componentScanAnnotation.basePackages()));
@@ -461,12 +585,12 @@ public class AutoApiVersionConfigurationManager implements ApplicationListener<C
     /**
      * Method to check if controller is annotated with <code>AutoApiVersion<code> annotation.
      * 
-     * @param controller                         Controller instance.
+     * @param controllerType                     Controller class.
      * @return                                   Returns true if controller is annotated else returns false.
      */
-    private boolean isApiVersioningAnnotationPresent(Object controller) {
+    private boolean isApiVersioningAnnotationPresent(Class<?> controllerType) {
 
-        if (controller.getClass().isAnnotationPresent(ApiVersion.class)) {
+        if (controllerType.isAnnotationPresent(ApiVersion.class)) {
             return true;
         }
 
@@ -477,14 +601,14 @@ public class AutoApiVersionConfigurationManager implements ApplicationListener<C
      * Method to check if controller is skipped for versioning by enabling
      * skipVersioning flag for <code>AutoApiVersion<code> annotation.
      * 
-     * @param controller                         Controller instance.
+     * @param controllerType                     Controller class.
      * @return                                   Returns true if controller is skipped for versioning.
      */
-    private boolean isVersioningEnabledForController(Object controller) {
-        ApiVersion autoApiVersionAnnotation = controller.getClass().getAnnotation(ApiVersion.class);
+    private boolean isVersioningEnabledForController(Class<?> controllerType) {
+        ApiVersion autoApiVersionAnnotation = controllerType.getAnnotation(ApiVersion.class);
 
         if (autoApiVersionAnnotation.skipVersioning()) {
-            versioningSkippedControllers.add(controller.getClass().getName());
+            versioningSkippedControllers.add(controllerType.getName());
             return false;
         }
 
@@ -495,10 +619,10 @@ public class AutoApiVersionConfigurationManager implements ApplicationListener<C
      * Method to check if controller is ignored for versioning in
      * <code>AutoApiVersionScan<code>
      * 
-     * @param controller                         Controller instance.
+     * @param controllerType                     Controller class.
      * @return                                   Returns true if controller is skipped for versioning.
      */
-    private boolean isControllerIgnored(Object controller, ApiVersionCheck autoApiVersionCheckAnnotation) {
+    private boolean isControllerIgnored(Class<?> controllerType, ApiVersionCheck autoApiVersionCheckAnnotation) {
         if (null != autoApiVersionCheckAnnotation) {
             List<String> totalIgnoredPackages = new ArrayList<>();
             List<String> totalIgnoredClasses = new ArrayList<>();
@@ -566,9 +690,9 @@ public class AutoApiVersionConfigurationManager implements ApplicationListener<C
             boolean isControlledIgnored = false;
             
             // Checking if controller belongs to ignoredClassed in AutoApiVersionCheck
-            if (ArrayUtils.contains(ignoredClasses, controller.getClass().getName())) {
+            if (ArrayUtils.contains(ignoredClasses, controllerType.getName())) {
                 isControlledIgnored = true;
-                versioningIgnoredControllersAtClassLevel.add(controller.getClass().getName());
+                versioningIgnoredControllersAtClassLevel.add(controllerType.getName());
             }
             
             // Checking if controller package belongs to packages/sub-packages
@@ -578,9 +702,9 @@ public class AutoApiVersionConfigurationManager implements ApplicationListener<C
                     for (int i = 0; i < ignoredPackages.length; i++) {
                         // Checking if package of controller belongs to package or
                         // sub-package to be ignored.
-                        if (controller.getClass().getPackage().getName().contains(ignoredPackages[i])) {
+                        if (controllerType.getPackage().getName().contains(ignoredPackages[i])) {
                             isControlledIgnored = true;
-                            versioningIgnoredControllersAtPackageLevel.add(controller.getClass().getName());
+                            versioningIgnoredControllersAtPackageLevel.add(controllerType.getName());
                         }
                     }
                 }
@@ -596,14 +720,14 @@ public class AutoApiVersionConfigurationManager implements ApplicationListener<C
     /**
      * Method to check if controller is available in packages or sub-packeges to be scanned.
      * 
-     * @param controller                         Controller instance.
+     * @param controllerType                     Controller class.
      * @param applicationContext                 Application context.
      * @return                                   Returns true if controller is available in package/sub-package to be scanned.
      *                                           Returns false if controller is not available in package/sub-package to be scanned.
      *                                           Returns true if version check annotation is not available.
      *                                           Returns true if scanPackages param is not mentioned.
      */
-    private boolean isControllerBelongsToPackagesToBeScanned(Object controller, ApiVersionCheck autoApiVersionCheckAnnotation) {
+    private boolean isControllerBelongsToPackagesToBeScanned(Class<?> controllerType, ApiVersionCheck autoApiVersionCheckAnnotation) {
         // Packages to be considered for API versioning
         String[] scanPackages = autoApiVersionCheckAnnotation.scanPackages();
 
@@ -634,7 +758,7 @@ public class AutoApiVersionConfigurationManager implements ApplicationListener<C
             for (int i = 0; i < scanPackages.length; i++) {
                 // Checking if package of controller belongs to package or
                 // sub-package to be scanned.
-                if (controller.getClass().getPackage().getName().contains(scanPackages[i])) {
+                if (controllerType.getPackage().getName().contains(scanPackages[i])) {
                     return true;
                 }
             }
@@ -649,6 +773,29 @@ public class AutoApiVersionConfigurationManager implements ApplicationListener<C
         return true;
     }
 
+    /**
+     * This method is used to get classes of beans annotated with given
+     * annotation. Bean classes are determined from bean definitions, so beans
+     * which are not yet created, for eg. lazy controllers, are not created just
+     * to read their annotations.
+     * 
+     * @param annotationType                     Annotation to look for on bean classes.
+     * @return                                   Returns user classes of annotated beans keyed on bean names.
+     */
+    private Map<String, Class<?>> getBeanTypesWithAnnotation(Class<? extends Annotation> annotationType) {
+        Map<String, Class<?>> beanTypes = new LinkedHashMap<>();
+
+        for (String beanName : applicationContext.getBeanNamesForAnnotation(annotationType)) {
+            Class<?> beanType = applicationContext.getType(beanName);
+
+            if (null != beanType) {
+                beanTypes.put(beanName, ClassUtils.getUserClass(beanType));
+            }
+        }
+
+        return beanTypes;
+    }
+
     /**
      * This method is used to shutdown application when API versioning is
      * missing from classes to be considered for API versioning.
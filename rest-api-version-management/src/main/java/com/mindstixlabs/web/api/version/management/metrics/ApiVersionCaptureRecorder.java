@@ -0,0 +1,176 @@
+package com.mindstixlabs.web.api.version.management.metrics;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import com.mindstixlabs.web.api.version.management.ReSTApiVersionManager;
+import com.mindstixlabs.web.api.version.management.cache.ApiVersionedMapping;
+import com.mindstixlabs.web.api.version.management.cache.ApiVersioningCache;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigHelper;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigKeys;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningDefaultConfig;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningRuntimeConfig;
+import com.mindstixlabs.web.api.version.management.core.ApiVersionFallbackDispatcher;
+import com.mindstixlabs.web.api.version.management.core.capture.ApiVersionCaptureRecord;
+import com.mindstixlabs.web.api.version.management.core.capture.ApiVersionCaptureRecord.Outcome;
+import com.mindstixlabs.web.api.version.management.core.capture.ApiVersionCaptureWriter;
+
+/**
+ * <code>ApiVersionCaptureRecorder</code> captures lookups of client requests
+ * resolved by {@link ReSTApiVersionManager} to rolling binary files, so that
+ * the traffic can be replayed offline against the framework-independent
+ * resolver to measure its throughput and to compare outcomes of a new
+ * resolver with the captured ones.
+ *
+ * <p>Records are written by a background thread of
+ * {@link ApiVersionCaptureWriter}, a request only offers its record to a
+ * bounded queue and the record is dropped if the queue is full. API versioning
+ * contexts and version index are captured along with the records whenever
+ * configuration is reloaded or versions are registered or disabled.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+@Component("api-version-capture-recorder")
+@DependsOn("api-versioning-config-holder")
+public class ApiVersionCaptureRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiVersionCaptureRecorder.class);
+
+    private static final String CAPTURE_FILE_PREFIX = "api-version-capture";
+
+    @Autowired
+    private ApiVersioningCache apiVersioningCache;
+
+    @Autowired
+    private ApiVersioningConfigHelper apiVersioningPropertyManager;
+
+    private boolean enabled;
+
+    private ApiVersionCaptureWriter captureWriter;
+
+    /**
+     * Configuration and registry generation whose contexts and index are last captured.
+     */
+    private volatile ApiVersioningRuntimeConfig capturedConfig;
+
+    private volatile long capturedRegistryGeneration = Long.MIN_VALUE;
+
+    @PostConstruct
+    public void init() {
+        enabled = (Boolean) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.CAPTURE_ENABLED, ApiVersioningDefaultConfig.CAPTURE_ENABLED, Boolean.class);
+
+        if (Boolean.FALSE.equals(enabled)) {
+            return;
+        }
+
+        String directory = (String) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.CAPTURE_DIRECTORY, ApiVersioningDefaultConfig.CAPTURE_DIRECTORY, String.class);
+        long maxFileBytes = (Long) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.CAPTURE_MAX_FILE_BYTES, ApiVersioningDefaultConfig.CAPTURE_MAX_FILE_BYTES, Long.class);
+        int maxFiles = (Integer) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.CAPTURE_MAX_FILES, ApiVersioningDefaultConfig.CAPTURE_MAX_FILES, Integer.class);
+        int queueCapacity = (Integer) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.CAPTURE_QUEUE_CAPACITY, ApiVersioningDefaultConfig.CAPTURE_QUEUE_CAPACITY, Integer.class);
+
+        Path captureDirectory = Paths.get(directory).toAbsolutePath();
+
+        try {
+            captureWriter = new ApiVersionCaptureWriter(captureDirectory, CAPTURE_FILE_PREFIX, maxFileBytes, maxFiles, queueCapacity);
+        } catch (IOException e) {
+            logger.error("Unable to create API version capture directory: [{}], capture is disabled.", captureDirectory, e);
+            enabled = false;
+            return;
+        }
+
+        logger.info("API version capture is enabled with directory: [{}], max file bytes: [{}], max files: [{}] and queue capacity: [{}].", captureDirectory, maxFileBytes, maxFiles, queueCapacity);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (null != captureWriter) {
+            // Writing queued records before shutting down.
+            captureWriter.close();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * This method is used to capture lookup of a client request.
+     *
+     * @param method                             HTTP method of the request.
+     * @param lookupPath                         Requested lookup path.
+     * @param matchedPattern                     Pattern matched for the request, null if no handler method is found.
+     * @param rejected                           Flag to determine if lookup is rejected by handler mapping.
+     * @param config                             API versioning configuration snapshot for the request.
+     * @param latencyNanos                       Time taken by the lookup.
+     */
+    public void record(String method, String lookupPath, String matchedPattern, boolean rejected, ApiVersioningRuntimeConfig config, long latencyNanos) {
+        // Capturing contexts and index before the record, so that the record is replayed against configuration it is resolved with.
+        if (config != capturedConfig) {
+            capturedConfig = config;
+            captureWriter.captureContexts(config.getContexts());
+        }
+
+        long registryGeneration = apiVersioningCache.getRegistryGeneration();
+
+        if (registryGeneration != capturedRegistryGeneration) {
+            capturedRegistryGeneration = registryGeneration;
+            captureWriter.captureIndex(apiVersioningCache.getVersionIndex());
+        }
+
+        Outcome outcome;
+        double resolvedVersion = ApiVersionFallbackDispatcher.NO_VERSION;
+
+        if (rejected) {
+            outcome = Outcome.REJECTED;
+        } else if (null == matchedPattern) {
+            outcome = Outcome.NOT_FOUND;
+        } else {
+            ApiVersionedMapping versionedMapping = apiVersioningCache.getApiVersionedMapping(matchedPattern);
+
+            if (null == versionedMapping) {
+                outcome = Outcome.UNVERSIONED;
+            } else {
+                outcome = Outcome.RESOLVED;
+                resolvedVersion = versionedMapping.getVersion();
+            }
+        }
+
+        captureWriter.capture(new ApiVersionCaptureRecord(System.currentTimeMillis(), method, lookupPath, outcome, resolvedVersion, latencyNanos));
+    }
+
+    /**
+     * This method is used to get metrics of capture.
+     *
+     * @return                                   Returns captured and dropped records, files and current file.
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", enabled);
+
+        if (null != captureWriter) {
+            metrics.put("capturedRecords", captureWriter.getCapturedRecords());
+            metrics.put("droppedRecords", captureWriter.getDroppedRecords());
+            metrics.put("queuedRecords", captureWriter.getQueuedRecords());
+            metrics.put("files", captureWriter.getFiles());
+            metrics.put("writtenBytes", captureWriter.getWrittenBytes());
+            metrics.put("currentFile", null == captureWriter.getCurrentFile() ? null : captureWriter.getCurrentFile().toString());
+            metrics.put("stopped", captureWriter.isClosed());
+        }
+
+        return metrics;
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.mindstixlabs.web.api.version.management.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <code>ApiVersionClientSketch</code> is a bounded heavy-hitter sketch used to
+ * find clients calling versioned APIs most frequently.
+ * 
+ * <p>The sketch uses Space-Saving algorithm. Each stripe keeps at most
+ * <code>capacity</code> client counters, when a stripe is full the client with
+ * the lowest count is replaced and its count is kept as the error of the new
+ * client. Memory used by the sketch is bounded irrespective of number of
+ * distinct clients. Clients are spread over stripes by hash to reduce
+ * contention between request threads.
+ * 
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+public class ApiVersionClientSketch {
+
+    /**
+     * Number of stripes used for the sketch.
+     */
+    private static final int STRIPES = 8;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    private final int capacity;
+
+    public ApiVersionClientSketch(int capacity) {
+        this.capacity = capacity;
+
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(capacity);
+        }
+    }
+
+    /**
+     * This method is used to record a request for client.
+     * 
+     * @param client                             Client identifier.
+     */
+    public void record(String client) {
+        stripes[(client.hashCode() & 0x7fffffff) % STRIPES].record(client);
+    }
+
+    /**
+     * This method is used to get top clients in descending order of count.
+     * 
+     * @return                                   Returns top clients with estimated count and maximum over-estimation.
+     */
+    public List<ApiVersionUsageSnapshot.ClientUsage> getTopClients() {
+        List<ApiVersionUsageSnapshot.ClientUsage> clients = new ArrayList<>();
+
+        for (Stripe stripe : stripes) {
+            stripe.copyTo(clients);
+        }
+
+        clients.sort(Comparator.comparingLong(ApiVersionUsageSnapshot.ClientUsage::getCount).reversed());
+
+        return clients.size() > capacity ? new ArrayList<>(clients.subList(0, capacity)) : clients;
+    }
+
+    /**
+     * This method is used to reset counters of the sketch.
+     */
+    public void reset() {
+        for (Stripe stripe : stripes) {
+            stripe.reset();
+        }
+    }
+
+    /**
+     * Stripe of the sketch holding bounded number of client counters.
+     */
+    private static final class Stripe {
+
+        /**
+         * Counters for clients, index 0 is count and index 1 is error.
+         */
+        private final Map<String, long[]> counters;
+
+        private final int capacity;
+
+        Stripe(int capacity) {
+            this.capacity = capacity;
+            this.counters = new HashMap<>(capacity * 2);
+        }
+
+        synchronized void record(String client) {
+            long[] counter = counters.get(client);
+
+            if (null != counter) {
+                counter[0]++;
+                return;
+            }
+
+            if (counters.size() < capacity) {
+                counters.put(client, new long[] { 1, 0 });
+                return;
+            }
+
+            // Replacing client with minimum count, new client inherits the count as error.
+            String minClient = null;
+            long[] minCounter = null;
+
+            for (Iterator<Map.Entry<String, long[]>> iterator = counters.entrySet().iterator(); iterator.hasNext();) {
+                Map.Entry<String, long[]> entry = iterator.next();
+
+                if (null == minCounter || entry.getValue()[0] < minCounter[0]) {
+                    minClient = entry.getKey();
+                    minCounter = entry.getValue();
+                }
+            }
+
+            counters.remove(minClient);
+
+            minCounter[1] = minCounter[0];
+            minCounter[0]++;
+
+            counters.put(client, minCounter);
+        }
+
+        synchronized void copyTo(List<ApiVersionUsageSnapshot.ClientUsage> clients) {
+            for (Map.Entry<String, long[]> entry : counters.entrySet()) {
+                clients.add(new ApiVersionUsageSnapshot.ClientUsage(entry.getKey(), entry.getValue()[0], entry.getValue()[1]));
+            }
+        }
+
+        synchronized void reset() {
+            counters.clear();
+        }
+    }
+
+}
@@ -0,0 +1,165 @@
+package com.mindstixlabs.web.api.version.management.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <code>ApiVersionLatencyHistogram</code> is a fixed size log-linear histogram
+ * of latencies in microseconds.
+ *
+ * <p>Latencies below {@value #SUB_BUCKETS} microseconds have a bucket each,
+ * every power of two above is split into {@value #SUB_BUCKETS} buckets, so
+ * percentiles are reported with at most 1/{@value #SUB_BUCKETS} relative
+ * error. Latencies beyond the highest power of two (about 19 hours) are
+ * counted in the last bucket. Memory used by the histogram is fixed
+ * irrespective of number of recorded latencies.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+public class ApiVersionLatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Highest power of two of latencies in microseconds with buckets of their own.
+     */
+    private static final int MAX_EXPONENT = 35;
+
+    private static final int BUCKETS = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    private final LongAdder totalMicros = new LongAdder();
+
+    private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * This method is used to record a latency.
+     *
+     * @param micros                             Latency in microseconds.
+     */
+    public void record(long micros) {
+        long value = Math.max(0L, micros);
+
+        counts.incrementAndGet(getBucket(value));
+        totalMicros.add(value);
+        maxMicros.accumulate(value);
+    }
+
+    private static int getBucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+
+        int shift = exponent - SUB_BUCKET_BITS;
+
+        return SUB_BUCKETS + shift * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * Highest latency counted in the bucket.
+     */
+    private static long getUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        long subBucket = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+
+        return ((SUB_BUCKETS + subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * This method is used to take a consistent copy of bucket counts.
+     *
+     * @return                                   Returns snapshot of the histogram.
+     */
+    public Snapshot snapshot() {
+        long[] bucketCounts = new long[BUCKETS];
+        long count = 0;
+
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            bucketCounts[bucket] = counts.get(bucket);
+            count += bucketCounts[bucket];
+        }
+
+        return new Snapshot(bucketCounts, count, totalMicros.sum(), maxMicros.get());
+    }
+
+    /**
+     * Copy of histogram used to compute percentiles.
+     */
+    public static final class Snapshot {
+
+        private final long[] bucketCounts;
+
+        private final long count;
+
+        private final long totalMicros;
+
+        private final long maxMicros;
+
+        private Snapshot(long[] bucketCounts, long count, long totalMicros, long maxMicros) {
+            this.bucketCounts = bucketCounts;
+            this.count = count;
+            this.totalMicros = totalMicros;
+            this.maxMicros = maxMicros;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * This method is used to get latency at percentile.
+         *
+         * @param percentile                     Percentile between 0 and 100.
+         * @return                               Returns highest latency in microseconds of the bucket holding the percentile, 0 if no latency is recorded.
+         */
+        public long getPercentile(double percentile) {
+            if (count == 0) {
+                return 0L;
+            }
+
+            long rank = Math.max(1L, (long) Math.ceil(percentile / 100 * count));
+            long seen = 0;
+
+            for (int bucket = 0; bucket < bucketCounts.length; bucket++) {
+                seen += bucketCounts[bucket];
+
+                if (seen >= rank) {
+                    return Math.min(getUpperBound(bucket), maxMicros);
+                }
+            }
+
+            return maxMicros;
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", count);
+            summary.put("meanMicros", count == 0 ? 0 : totalMicros / count);
+            summary.put("p50Micros", getPercentile(50));
+            summary.put("p90Micros", getPercentile(90));
+            summary.put("p99Micros", getPercentile(99));
+            summary.put("maxMicros", maxMicros);
+
+            return summary;
+        }
+
+    }
+
+}
@@ -0,0 +1,190 @@
+package com.mindstixlabs.web.api.version.management.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import com.mindstixlabs.web.api.version.management.ReSTApiVersionManager;
+import com.mindstixlabs.web.api.version.management.cache.ApiVersionedMapping;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigHelper;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigKeys;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningDefaultConfig;
+
+/**
+ * <code>ApiVersionLatencyRecorder</code> records latency of handler methods per
+ * base mapping and version resolved by {@link ReSTApiVersionManager}, to find
+ * out if a newer version of an API is slower than the version it replaces.
+ *
+ * <p>Latencies are kept in fixed size histograms, one per registered mapping
+ * version. Every version of a base mapping is compared with the previous
+ * version having recorded latencies, and is flagged as regressed if its p50 or
+ * p99 latency exceeds latency of the previous version by more than configured
+ * margin.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+@Component("api-version-latency-recorder")
+@DependsOn("api-versioning-config-holder")
+public class ApiVersionLatencyRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiVersionLatencyRecorder.class);
+
+    private static final Comparator<ApiVersionedMapping> MAPPING_ORDER = Comparator.comparing(ApiVersionedMapping::getContextName)
+                                                                                   .thenComparing(ApiVersionedMapping::getMapping)
+                                                                                   .thenComparingDouble(ApiVersionedMapping::getVersion);
+
+    @Autowired
+    private ApiVersioningConfigHelper apiVersioningPropertyManager;
+
+    private final Map<ApiVersionedMapping, ApiVersionLatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    private boolean enabled;
+
+    private double regressionMarginPercent;
+
+    private long minSamples;
+
+    @PostConstruct
+    public void init() {
+        enabled = (Boolean) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.LATENCY_ENABLED, ApiVersioningDefaultConfig.LATENCY_ENABLED, Boolean.class);
+
+        if (Boolean.FALSE.equals(enabled)) {
+            return;
+        }
+
+        regressionMarginPercent = (Double) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.LATENCY_REGRESSION_MARGIN_PERCENT, ApiVersioningDefaultConfig.LATENCY_REGRESSION_MARGIN_PERCENT, Double.class);
+        minSamples = (Long) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.LATENCY_MIN_SAMPLES, ApiVersioningDefaultConfig.LATENCY_MIN_SAMPLES, Long.class);
+
+        logger.info("API version latency histograms are enabled with regression margin: [{}]% and minimum samples: [{}].", regressionMarginPercent, minSamples);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * This method is used to record latency of handler method of versioned mapping.
+     *
+     * @param versionedMapping                   Resolved versioned mapping.
+     * @param elapsedNanos                       Latency of the request.
+     */
+    public void record(ApiVersionedMapping versionedMapping, long elapsedNanos) {
+        histograms.computeIfAbsent(versionedMapping, mapping -> new ApiVersionLatencyHistogram()).record(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+    }
+
+    /**
+     * This method is used to get latency percentiles of versioned mappings.
+     *
+     * @return                                   Returns latency summary per base mapping and version.
+     */
+    public List<Map<String, Object>> getLatencies() {
+        List<Map<String, Object>> latencies = new ArrayList<>();
+
+        for (Map.Entry<ApiVersionedMapping, ApiVersionLatencyHistogram.Snapshot> entry : getSnapshots().entrySet()) {
+            Map<String, Object> latency = describe(entry.getKey());
+            latency.putAll(entry.getValue().toMap());
+
+            latencies.add(latency);
+        }
+
+        return latencies;
+    }
+
+    /**
+     * This method is used to compare latency of every version of base
+     * mappings with the previous version.
+     *
+     * @param regressedOnly                      Flag to return only versions flagged as regressed.
+     * @return                                   Returns p50 and p99 latency of versions and previous versions.
+     */
+    public List<Map<String, Object>> getRegressions(boolean regressedOnly) {
+        List<Map<String, Object>> comparisons = new ArrayList<>();
+
+        ApiVersionedMapping previousMapping = null;
+        ApiVersionLatencyHistogram.Snapshot previousSnapshot = null;
+
+        for (Map.Entry<ApiVersionedMapping, ApiVersionLatencyHistogram.Snapshot> entry : getSnapshots().entrySet()) {
+            ApiVersionedMapping versionedMapping = entry.getKey();
+            ApiVersionLatencyHistogram.Snapshot snapshot = entry.getValue();
+
+            // Snapshots are sorted by version within base mapping, so the previous entry of the same base mapping is the previous version.
+            if (null != previousMapping && previousMapping.getContextName().equals(versionedMapping.getContextName()) && previousMapping.getMapping().equals(versionedMapping.getMapping())) {
+                Map<String, Object> comparison = compare(previousMapping, previousSnapshot, versionedMapping, snapshot);
+
+                if (Boolean.FALSE.equals(regressedOnly) || Boolean.TRUE.equals(comparison.get("regressed"))) {
+                    comparisons.add(comparison);
+                }
+            }
+
+            previousMapping = versionedMapping;
+            previousSnapshot = snapshot;
+        }
+
+        return comparisons;
+    }
+
+    private Map<String, Object> compare(ApiVersionedMapping previousMapping, ApiVersionLatencyHistogram.Snapshot previousSnapshot, ApiVersionedMapping versionedMapping, ApiVersionLatencyHistogram.Snapshot snapshot) {
+        long p50 = snapshot.getPercentile(50);
+        long p99 = snapshot.getPercentile(99);
+        long previousP50 = previousSnapshot.getPercentile(50);
+        long previousP99 = previousSnapshot.getPercentile(99);
+
+        boolean sufficientSamples = snapshot.getCount() >= minSamples && previousSnapshot.getCount() >= minSamples;
+
+        Map<String, Object> comparison = describe(versionedMapping);
+        comparison.put("previousVersion", previousMapping.getVersionName());
+        comparison.put("count", snapshot.getCount());
+        comparison.put("previousCount", previousSnapshot.getCount());
+        comparison.put("p50Micros", p50);
+        comparison.put("previousP50Micros", previousP50);
+        comparison.put("p99Micros", p99);
+        comparison.put("previousP99Micros", previousP99);
+        comparison.put("sufficientSamples", sufficientSamples);
+        comparison.put("regressed", sufficientSamples && (isRegressed(p50, previousP50) || isRegressed(p99, previousP99)));
+
+        return comparison;
+    }
+
+    private boolean isRegressed(long latency, long previousLatency) {
+        return latency > previousLatency * (1 + regressionMarginPercent / 100);
+    }
+
+    private Map<String, Object> describe(ApiVersionedMapping versionedMapping) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("context", versionedMapping.getContextName());
+        description.put("mapping", versionedMapping.getMapping());
+        description.put("version", versionedMapping.getVersionName());
+
+        return description;
+    }
+
+    /**
+     * Taking snapshots of histograms sorted by context, base mapping and version.
+     */
+    private Map<ApiVersionedMapping, ApiVersionLatencyHistogram.Snapshot> getSnapshots() {
+        List<ApiVersionedMapping> versionedMappings = new ArrayList<>(histograms.keySet());
+        versionedMappings.sort(MAPPING_ORDER);
+
+        Map<ApiVersionedMapping, ApiVersionLatencyHistogram.Snapshot> snapshots = new LinkedHashMap<>();
+
+        for (ApiVersionedMapping versionedMapping : versionedMappings) {
+            snapshots.put(versionedMapping, histograms.get(versionedMapping).snapshot());
+        }
+
+        return snapshots;
+    }
+
+}
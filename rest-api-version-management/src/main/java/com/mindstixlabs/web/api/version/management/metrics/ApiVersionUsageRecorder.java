@@ -0,0 +1,264 @@
+package com.mindstixlabs.web.api.version.management.metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mindstixlabs.web.api.version.management.ReSTApiVersionManager;
+import com.mindstixlabs.web.api.version.management.cache.ApiVersionedMapping;
+import com.mindstixlabs.web.api.version.management.cache.ApiVersioningCache;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigHelper;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigKeys;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningDefaultConfig;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningRuntimeConfig;
+import com.mindstixlabs.web.api.version.management.util.ApiVersioningUtility;
+
+/**
+ * <code>ApiVersionUsageRecorder</code> records which API versions are still
+ * called by clients to help decide when older versions can be sunset.
+ *
+ * <p>Requests resolved by {@link ReSTApiVersionManager} are counted per
+ * requested version, resolved version and mapping using striped counters.
+ * Clients are identified using configured request header and tracked in a
+ * bounded heavy-hitter sketch, so memory used is bounded irrespective of
+ * number of clients.
+ *
+ * <p>A snapshot of usage is taken periodically and the counts since previous
+ * snapshot are appended to configured rollup file to keep history across
+ * restarts.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+@Component("api-version-usage-recorder")
+@DependsOn("api-versioning-config-holder")
+public class ApiVersionUsageRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiVersionUsageRecorder.class);
+
+    /**
+     * Maximum number of distinct requested versions counted per mapping version.
+     * Requested versions are sent by clients, so the rest are counted together.
+     */
+    private static final int MAX_REQUESTED_VERSIONS_PER_MAPPING = 32;
+
+    /**
+     * Key used to count requested versions beyond the maximum per mapping version.
+     */
+    private static final String OTHER_REQUESTED_VERSIONS = "other";
+
+    /**
+     * Maximum length of client identifier kept in the sketch.
+     */
+    private static final int MAX_CLIENT_LENGTH = 64;
+
+    @Autowired
+    private ApiVersioningCache apiVersioningCache;
+
+    @Autowired
+    private ApiVersioningConfigHelper apiVersioningPropertyManager;
+
+    /**
+     * Request counts for resolved mapping version and requested version.
+     */
+    private final Map<ApiVersionedMapping, Map<String, LongAdder>> usageCounters = new ConcurrentHashMap<>();
+
+    /**
+     * Counts recorded in previous snapshot used to write rollups.
+     */
+    private final Map<ApiVersionedMapping, Map<String, Long>> previousCounts = new HashMap<>();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private boolean enabled;
+
+    private String clientHeader;
+
+    private ApiVersionClientSketch clientSketch;
+
+    private Path rollupFile;
+
+    private ScheduledExecutorService snapshotExecutor;
+
+    private volatile ApiVersionUsageSnapshot latestSnapshot = new ApiVersionUsageSnapshot(System.currentTimeMillis(), new ArrayList<>(), new ArrayList<>());
+
+    @PostConstruct
+    public void init() {
+        enabled = (Boolean) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.USAGE_ENABLED, ApiVersioningDefaultConfig.USAGE_ENABLED, Boolean.class);
+
+        if (Boolean.FALSE.equals(enabled)) {
+            return;
+        }
+
+        clientHeader = (String) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.USAGE_CLIENT_HEADER, ApiVersioningDefaultConfig.USAGE_CLIENT_HEADER, String.class);
+        int topClients = (Integer) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.USAGE_TOP_CLIENTS, ApiVersioningDefaultConfig.USAGE_TOP_CLIENTS, Integer.class);
+        int snapshotIntervalSeconds = (Integer) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.USAGE_SNAPSHOT_INTERVAL_SECONDS, ApiVersioningDefaultConfig.USAGE_SNAPSHOT_INTERVAL_SECONDS, Integer.class);
+        String rollupFileName = (String) apiVersioningPropertyManager.getValueForProperty(ApiVersioningConfigKeys.USAGE_ROLLUP_FILE, ApiVersioningDefaultConfig.USAGE_ROLLUP_FILE, String.class);
+
+        clientSketch = new ApiVersionClientSketch(topClients);
+
+        if (StringUtils.isNotBlank(rollupFileName)) {
+            rollupFile = Paths.get(rollupFileName);
+        }
+
+        snapshotExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "api-version-usage-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        snapshotExecutor.scheduleAtFixedRate(this::takeSnapshot, snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+
+        logger.info("API version usage analytics is enabled with client header: [{}], snapshot interval: [{}] seconds and rollup file: [{}].", clientHeader, snapshotIntervalSeconds, rollupFile);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (null != snapshotExecutor) {
+            snapshotExecutor.shutdownNow();
+
+            // Writing counts since previous snapshot before shutting down.
+            takeSnapshot();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * This method is used to record request for versioned API.
+     *
+     * @param lookupPath                         Requested lookup path.
+     * @param matchedPattern                     Versioned pattern matched for the request or null if not resolved.
+     * @param request                            Current request.
+     * @param config                             API versioning configuration snapshot for the request.
+     */
+    public void record(String lookupPath, String matchedPattern, HttpServletRequest request, ApiVersioningRuntimeConfig config) {
+        if (null == matchedPattern) {
+            return;
+        }
+
+        ApiVersionedMapping versionedMapping = apiVersioningCache.getApiVersionedMapping(matchedPattern);
+
+        if (null == versionedMapping) {
+            return;
+        }
+
+        String requestedVersion = ApiVersioningUtility.getRequestedApiVersion(lookupPath, config);
+
+        if (null == requestedVersion) {
+            return;
+        }
+
+        Map<String, LongAdder> requestedVersionCounters = usageCounters.computeIfAbsent(versionedMapping, mapping -> new ConcurrentHashMap<>());
+
+        LongAdder counter = requestedVersionCounters.get(requestedVersion);
+
+        if (null == counter) {
+            if (requestedVersionCounters.size() >= MAX_REQUESTED_VERSIONS_PER_MAPPING) {
+                requestedVersion = OTHER_REQUESTED_VERSIONS;
+            }
+
+            counter = requestedVersionCounters.computeIfAbsent(requestedVersion, version -> new LongAdder());
+        }
+
+        counter.increment();
+
+        if (StringUtils.isNotBlank(clientHeader)) {
+            String client = request.getHeader(clientHeader);
+
+            if (StringUtils.isNotBlank(client)) {
+                clientSketch.record(client.length() > MAX_CLIENT_LENGTH ? client.substring(0, MAX_CLIENT_LENGTH) : client);
+            }
+        }
+    }
+
+    /**
+     * This method is used to get latest usage snapshot.
+     *
+     * @return                                   Returns latest usage snapshot.
+     */
+    public ApiVersionUsageSnapshot getLatestSnapshot() {
+        return latestSnapshot;
+    }
+
+    /**
+     * This method is used to take usage snapshot and append counts since
+     * previous snapshot to the rollup file.
+     */
+    synchronized void takeSnapshot() {
+        try {
+            long timestamp = System.currentTimeMillis();
+
+            List<ApiVersionUsageSnapshot.VersionUsage> versions = new ArrayList<>();
+            List<ApiVersionUsageSnapshot.VersionUsage> rollups = new ArrayList<>();
+
+            for (Map.Entry<ApiVersionedMapping, Map<String, LongAdder>> mappingEntry : usageCounters.entrySet()) {
+                ApiVersionedMapping versionedMapping = mappingEntry.getKey();
+                Map<String, Long> previousMappingCounts = previousCounts.computeIfAbsent(versionedMapping, mapping -> new HashMap<>());
+
+                for (Map.Entry<String, LongAdder> versionEntry : mappingEntry.getValue().entrySet()) {
+                    long count = versionEntry.getValue().sum();
+                    long previousCount = previousMappingCounts.getOrDefault(versionEntry.getKey(), 0L);
+
+                    versions.add(new ApiVersionUsageSnapshot.VersionUsage(versionedMapping.getMapping(), versionEntry.getKey(), versionedMapping.getVersion(), count));
+
+                    if (count > previousCount) {
+                        rollups.add(new ApiVersionUsageSnapshot.VersionUsage(versionedMapping.getMapping(), versionEntry.getKey(), versionedMapping.getVersion(), count - previousCount));
+                        previousMappingCounts.put(versionEntry.getKey(), count);
+                    }
+                }
+            }
+
+            latestSnapshot = new ApiVersionUsageSnapshot(timestamp, versions, clientSketch.getTopClients());
+
+            if (null != rollupFile && Boolean.FALSE.equals(rollups.isEmpty())) {
+                writeRollup(new ApiVersionUsageSnapshot(timestamp, rollups, latestSnapshot.getTopClients()));
+            }
+        } catch (Exception e) {
+            logger.error("Error occurred while taking API version usage snapshot.", e);
+        }
+    }
+
+    private void writeRollup(ApiVersionUsageSnapshot rollup) {
+        Map<String, Object> rollupLine = new LinkedHashMap<>();
+        rollupLine.put("timestamp", rollup.getTimestamp());
+        rollupLine.put("versions", rollup.getVersions());
+        rollupLine.put("topClients", rollup.getTopClients());
+
+        try {
+            byte[] line = (objectMapper.writeValueAsString(rollupLine) + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+
+            Files.write(rollupFile, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            logger.error("Error occurred while writing API version usage rollup to file: [{}]", rollupFile, e);
+        }
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.mindstixlabs.web.api.version.management.metrics;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <code>ApiVersionUsageSnapshot</code> is an immutable snapshot of API version
+ * usage recorded by {@link ApiVersionUsageRecorder}.
+ * 
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+public final class ApiVersionUsageSnapshot {
+
+    /**
+     * Time in milliseconds at which snapshot is taken.
+     */
+    private final long timestamp;
+
+    /**
+     * Request counts for requested version, resolved version and mapping.
+     */
+    private final List<VersionUsage> versions;
+
+    /**
+     * Clients calling versioned APIs most frequently.
+     */
+    private final List<ClientUsage> topClients;
+
+    public ApiVersionUsageSnapshot(long timestamp, List<VersionUsage> versions, List<ClientUsage> topClients) {
+        this.timestamp = timestamp;
+        this.versions = Collections.unmodifiableList(versions);
+        this.topClients = Collections.unmodifiableList(topClients);
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public List<VersionUsage> getVersions() {
+        return versions;
+    }
+
+    public List<ClientUsage> getTopClients() {
+        return topClients;
+    }
+
+    /**
+     * Request count for requested version resolved to a version of mapping.
+     */
+    public static final class VersionUsage {
+
+        private final String mapping;
+
+        private final String requestedVersion;
+
+        private final double resolvedVersion;
+
+        private final long count;
+
+        public VersionUsage(String mapping, String requestedVersion, double resolvedVersion, long count) {
+            this.mapping = mapping;
+            this.requestedVersion = requestedVersion;
+            this.resolvedVersion = resolvedVersion;
+            this.count = count;
+        }
+
+        public String getMapping() {
+            return mapping;
+        }
+
+        public String getRequestedVersion() {
+            return requestedVersion;
+        }
+
+        public double getResolvedVersion() {
+            return resolvedVersion;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+
+    /**
+     * Estimated request count for client. The actual count is between
+     * <code>count - error</code> and <code>count</code>.
+     */
+    public static final class ClientUsage {
+
+        private final String client;
+
+        private final long count;
+
+        private final long error;
+
+        public ClientUsage(String client, long count, long error) {
+            this.client = client;
+            this.count = count;
+            this.error = error;
+        }
+
+        public String getClient() {
+            return client;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getError() {
+            return error;
+        }
+    }
+
+}
@@ -0,0 +1,281 @@
+package com.mindstixlabs.web.api.version.management.metrics;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import com.mindstixlabs.web.api.version.management.DefaultRequestMappingHandlerMapping;
+import com.mindstixlabs.web.api.version.management.ReSTApiVersionManager;
+import com.mindstixlabs.web.api.version.management.cache.ApiVersioningCache;
+
+/**
+ * <code>ApiVersioningFootprintEstimator</code> estimates memory retained by
+ * API versioning in the mapping registry and in {@link ApiVersioningCache}.
+ *
+ * <p>Versioned {@link RequestMappingInfo} instances registered by API
+ * versioning handler mappings and the versioning caches are walked with
+ * identity, so metadata shared across mappings and versions is counted once.
+ * Sizes are estimated for a 64-bit JVM with compressed references, hence the
+ * figures are meant to compare footprint across versions and releases and are
+ * not exact heap usage.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+@Component("api-versioning-footprint-estimator")
+public class ApiVersioningFootprintEstimator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiVersioningFootprintEstimator.class);
+
+    private static final int OBJECT_HEADER_BYTES = 12;
+
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    private static final int REFERENCE_BYTES = 4;
+
+    private static final int MAP_ENTRY_BYTES = 32;
+
+    private static final int COLLECTION_BYTES = 48;
+
+    /**
+     * Packages of classes whose fields are walked. Instances of other classes
+     * like beans referenced by custom conditions are counted by their header only.
+     */
+    private static final String[] WALKED_PACKAGES = { "org.springframework.web.servlet.mvc.", "org.springframework.web.util.",
+                                                      "org.springframework.util.", "org.springframework.http.",
+                                                      "com.mindstixlabs.web.api.version.management.cache." };
+
+    /**
+     * Instance fields of walked classes.
+     */
+    private static final Map<Class<?>, List<Field>> FIELDS = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ApiVersioningCache apiVersioningCache;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    /**
+     * This method is used to estimate memory retained by API versioning.
+     *
+     * @return                                   Returns number of versioned mappings with estimated bytes retained in registry and caches.
+     */
+    public Map<String, Object> estimate() {
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Object> versionedMappings = new ArrayList<>();
+
+        for (RequestMappingHandlerMapping handlerMapping : applicationContext.getBeansOfType(RequestMappingHandlerMapping.class).values()) {
+            if (handlerMapping instanceof ReSTApiVersionManager || handlerMapping instanceof DefaultRequestMappingHandlerMapping) {
+                for (RequestMappingInfo mappingInfo : handlerMapping.getHandlerMethods().keySet()) {
+                    if (isApiVersioned(mappingInfo)) {
+                        versionedMappings.add(mappingInfo);
+                    }
+                }
+            }
+        }
+
+        long registryBytes = estimate(versionedMappings, visited);
+
+        // Version-mapping cache of the application context, including version index built from it.
+        long cacheBytes = estimate(Collections.singletonList(apiVersioningCache), visited);
+
+        Map<String, Object> footprint = new LinkedHashMap<>();
+        footprint.put("versionedMappings", versionedMappings.size());
+        footprint.put("estimatedRegistryBytes", registryBytes);
+        footprint.put("estimatedCacheBytes", cacheBytes);
+        footprint.put("estimatedTotalBytes", registryBytes + cacheBytes);
+        footprint.put("internedStrings", apiVersioningCache.getMetadataInterner().getInternedStrings());
+        footprint.put("sharedStringDuplicates", apiVersioningCache.getMetadataInterner().getStringDuplicates());
+        footprint.put("internedConditions", apiVersioningCache.getMetadataInterner().getInternedConditions());
+        footprint.put("sharedConditionDuplicates", apiVersioningCache.getMetadataInterner().getConditionDuplicates());
+
+        logger.debug("Estimated API versioning footprint: {}", footprint);
+
+        return footprint;
+    }
+
+    private boolean isApiVersioned(RequestMappingInfo mappingInfo) {
+        for (String pattern : mappingInfo.getPatternsCondition().getPatterns()) {
+            if (null != apiVersioningCache.getApiVersionedMapping(pattern)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * This method is used to estimate bytes of objects reachable from roots
+     * which are not already visited.
+     */
+    private long estimate(List<Object> roots, Set<Object> visited) {
+        Deque<Object> pending = new ArrayDeque<>(roots);
+        long bytes = 0;
+
+        while (Boolean.FALSE.equals(pending.isEmpty())) {
+            Object object = pending.pop();
+
+            if (Boolean.FALSE.equals(visited.add(object))) {
+                continue;
+            }
+
+            Class<?> type = object.getClass();
+
+            if (object instanceof Class || type.isEnum() || object instanceof Enum) {
+                // Classes and enum constants are shared by the JVM.
+                continue;
+            }
+
+            if (object instanceof String) {
+                bytes += align(OBJECT_HEADER_BYTES + REFERENCE_BYTES + 8) + align(ARRAY_HEADER_BYTES + ((String) object).length());
+            } else if (object instanceof Number || object instanceof Boolean || object instanceof Character) {
+                bytes += 16 + (object instanceof Long || object instanceof Double ? 8 : 0);
+            } else if (type.isArray()) {
+                int length = Array.getLength(object);
+
+                if (type.getComponentType().isPrimitive()) {
+                    bytes += align(ARRAY_HEADER_BYTES + (long) length * primitiveBytes(type.getComponentType()));
+                } else {
+                    bytes += align(ARRAY_HEADER_BYTES + (long) length * REFERENCE_BYTES);
+                    push(pending, (Object[]) object);
+                }
+            } else if (object instanceof Map) {
+                Map<?, ?> map = (Map<?, ?>) object;
+                bytes += COLLECTION_BYTES + align(ARRAY_HEADER_BYTES + (long) tableSize(map.size()) * REFERENCE_BYTES) + (long) map.size() * MAP_ENTRY_BYTES;
+
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    push(pending, entry.getKey(), entry.getValue());
+                }
+            } else if (object instanceof Collection) {
+                Collection<?> collection = (Collection<?>) object;
+                // Sets are backed by maps, hence entries are counted for them.
+                int elementBytes = object instanceof Set ? MAP_ENTRY_BYTES : REFERENCE_BYTES;
+                bytes += COLLECTION_BYTES + (long) collection.size() * elementBytes;
+
+                for (Object element : collection) {
+                    push(pending, element);
+                }
+            } else {
+                bytes += estimateFields(object, pending);
+            }
+        }
+
+        return bytes;
+    }
+
+    private long estimateFields(Object object, Deque<Object> pending) {
+        List<Field> fields = getFields(object.getClass());
+
+        if (null == fields) {
+            return align(OBJECT_HEADER_BYTES);
+        }
+
+        long bytes = OBJECT_HEADER_BYTES;
+
+        for (Field field : fields) {
+            if (field.getType().isPrimitive()) {
+                bytes += primitiveBytes(field.getType());
+            } else {
+                bytes += REFERENCE_BYTES;
+
+                try {
+                    push(pending, field.get(object));
+                } catch (IllegalAccessException | RuntimeException e) {
+                    logger.debug("Unable to read field [{}] of [{}] for footprint estimation", field.getName(), object.getClass().getName());
+                }
+            }
+        }
+
+        return align(bytes);
+    }
+
+    /**
+     * This method is used to get accessible instance fields of class, or null
+     * if fields of class are not walked.
+     */
+    private static List<Field> getFields(Class<?> type) {
+        if (Boolean.FALSE.equals(isWalked(type))) {
+            return null;
+        }
+
+        return FIELDS.computeIfAbsent(type, key -> {
+            List<Field> fields = new ArrayList<>();
+
+            for (Class<?> current = key; null != current && Object.class != current; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+
+                    try {
+                        field.setAccessible(true);
+                        fields.add(field);
+                    } catch (RuntimeException e) {
+                        logger.debug("Unable to access field [{}] of [{}] for footprint estimation", field.getName(), current.getName());
+                    }
+                }
+            }
+
+            return fields;
+        });
+    }
+
+    private static boolean isWalked(Class<?> type) {
+        for (String walkedPackage : WALKED_PACKAGES) {
+            if (type.getName().startsWith(walkedPackage)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static void push(Deque<Object> pending, Object... objects) {
+        for (Object object : objects) {
+            if (null != object) {
+                pending.push(object);
+            }
+        }
+    }
+
+    private static int tableSize(int size) {
+        return size == 0 ? 0 : Integer.highestOneBit(Math.max(1, (size * 4) / 3)) << 1;
+    }
+
+    private static int primitiveBytes(Class<?> type) {
+        if (long.class == type || double.class == type) {
+            return 8;
+        } else if (int.class == type || float.class == type) {
+            return 4;
+        } else if (short.class == type || char.class == type) {
+            return 2;
+        }
+
+        return 1;
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.mindstixlabs.web.api.version.management.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.stereotype.Component;
+
+import com.mindstixlabs.web.api.version.management.handlers.AutoApiVersionConfigurationManager;
+
+/**
+ * <code>ApiVersioningStartupMetrics</code> keeps time spent by API versioning
+ * while the application starts, i.e. time spent by versioned handler mappings
+ * to build mappings of handler methods and time spent by
+ * {@link AutoApiVersionConfigurationManager} to validate and configure API
+ * versions once the context is refreshed.
+ *
+ * <p>Time is accumulated across handler mappings and context refresh events,
+ * so applications with child contexts report total time spent at startup.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+@Component("api-versioning-startup-metrics")
+public class ApiVersioningStartupMetrics {
+
+    private final LongAdder mappingNanos = new LongAdder();
+
+    private final LongAdder mappedMethods = new LongAdder();
+
+    private final LongAdder configurationNanos = new LongAdder();
+
+    private final LongAdder configurations = new LongAdder();
+
+    /**
+     * This method is used to record time spent to build versioned mapping of a handler method.
+     *
+     * @param elapsedNanos                       Time spent in getMappingForMethod of versioned handler mapping.
+     */
+    public void recordMappingForMethod(long elapsedNanos) {
+        mappingNanos.add(elapsedNanos);
+        mappedMethods.increment();
+    }
+
+    /**
+     * This method is used to record time spent to validate and configure API versions.
+     *
+     * @param elapsedNanos                       Time spent by AutoApiVersionConfigurationManager for context refreshed event.
+     */
+    public void recordConfiguration(long elapsedNanos) {
+        configurationNanos.add(elapsedNanos);
+        configurations.increment();
+    }
+
+    public long getMappingNanos() {
+        return mappingNanos.sum();
+    }
+
+    public long getMappedMethods() {
+        return mappedMethods.sum();
+    }
+
+    public long getConfigurationNanos() {
+        return configurationNanos.sum();
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("mappedMethods", getMappedMethods());
+        metrics.put("mappingMillis", TimeUnit.NANOSECONDS.toMillis(getMappingNanos()));
+        metrics.put("configurations", configurations.sum());
+        metrics.put("configurationMillis", TimeUnit.NANOSECONDS.toMillis(getConfigurationNanos()));
+
+        return metrics;
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.mindstixlabs.web.api.version.management.util;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import org.slf4j.MDC;
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * <code>ApiVersioningThreadContext</code> carries thread-bound context of a
+ * servlet thread to a thread of an executor running part of the request, for
+ * eg. a handler method running in a bulkhead or a sub-request of a batch.
+ *
+ * <p>Carried over are {@link LocaleContextHolder}, {@link MDC} of SLF4J and
+ * security context of Spring Security, if Spring Security is on the
+ * classpath. {@link RequestContextHolder} is bound to request attributes
+ * given by the caller, as request attributes of the servlet thread are
+ * completed once the servlet thread is released. Other thread-bound state,
+ * for eg. transactions and {@link InheritableThreadLocal} values, is not
+ * carried over.
+ *
+ * @author Mindstix Software Labs Pvt. Ltd.
+ *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
+ */
+public final class ApiVersioningThreadContext {
+
+    private static final String SECURITY_CONTEXT_HOLDER_TYPE = "org.springframework.security.core.context.SecurityContextHolder";
+
+    private static final String SECURITY_CONTEXT_TYPE = "org.springframework.security.core.context.SecurityContext";
+
+    private static final Method GET_SECURITY_CONTEXT;
+
+    private static final Method SET_SECURITY_CONTEXT;
+
+    private static final Method CLEAR_SECURITY_CONTEXT;
+
+    static {
+        ClassLoader classLoader = ApiVersioningThreadContext.class.getClassLoader();
+
+        // Spring Security is optional, its security context is carried over only if it is on the classpath.
+        if (ClassUtils.isPresent(SECURITY_CONTEXT_HOLDER_TYPE, classLoader)) {
+            Class<?> securityContextHolder = ClassUtils.resolveClassName(SECURITY_CONTEXT_HOLDER_TYPE, classLoader);
+
+            GET_SECURITY_CONTEXT = ReflectionUtils.findMethod(securityContextHolder, "getContext");
+            SET_SECURITY_CONTEXT = ReflectionUtils.findMethod(securityContextHolder, "setContext", ClassUtils.resolveClassName(SECURITY_CONTEXT_TYPE, classLoader));
+            CLEAR_SECURITY_CONTEXT = ReflectionUtils.findMethod(securityContextHolder, "clearContext");
+        } else {
+            GET_SECURITY_CONTEXT = null;
+            SET_SECURITY_CONTEXT = null;
+            CLEAR_SECURITY_CONTEXT = null;
+        }
+    }
+
+    private final LocaleContext localeContext;
+
+    private final Map<String, String> mdcContext;
+
+    private final Object securityContext;
+
+    private ApiVersioningThreadContext(LocaleContext localeContext, Map<String, String> mdcContext, Object securityContext) {
+        this.localeContext = localeContext;
+        this.mdcContext = mdcContext;
+        this.securityContext = securityContext;
+    }
+
+    /**
+     * This method is used to capture context bound to the current thread.
+     *
+     * @return                                   Returns context to be bound to another thread.
+     */
+    public static ApiVersioningThreadContext capture() {
+        return new ApiVersioningThreadContext(LocaleContextHolder.getLocaleContext(), MDC.getCopyOfContextMap(),
+                                              null == GET_SECURITY_CONTEXT ? null : ReflectionUtils.invokeMethod(GET_SECURITY_CONTEXT, null));
+    }
+
+    /**
+     * This method is used to bind captured context to the current thread. The
+     * context is to be reset by {@link #reset()} once the task completes.
+     *
+     * @param requestAttributes                  Request attributes to be bound, null to leave request attributes unbound.
+     */
+    public void bind(RequestAttributes requestAttributes) {
+        RequestContextHolder.setRequestAttributes(requestAttributes);
+        LocaleContextHolder.setLocaleContext(localeContext);
+
+        if (null == mdcContext) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(mdcContext);
+        }
+
+        if (null != securityContext) {
+            ReflectionUtils.invokeMethod(SET_SECURITY_CONTEXT, null, securityContext);
+        }
+    }
+
+    /**
+     * This method is used to reset context bound to the current thread, so
+     * that a pooled thread doesn't leak context of a request to the next task.
+     */
+    public static void reset() {
+        RequestContextHolder.resetRequestAttributes();
+        LocaleContextHolder.resetLocaleContext();
+        MDC.clear();
+
+        if (null != CLEAR_SECURITY_CONTEXT) {
+            ReflectionUtils.invokeMethod(CLEAR_SECURITY_CONTEXT, null);
+        }
+    }
+
+}
@@ -1,5 +1,10 @@
 package com.mindstixlabs.web.api.version.management.util;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.lang.reflect.Method;
 import java.util.Iterator;
 import java.util.Set;
@@ -9,18 +14,23 @@ import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.DependsOn;
 import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.servlet.mvc.condition.PatternsRequestCondition;
 import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 
 import com.mindstixlabs.web.api.version.management.annotations.ApiVersion;
 import com.mindstixlabs.web.api.version.management.annotations.DisabledApi;
 import com.mindstixlabs.web.api.version.management.cache.ApiVersioningCache;
+import com.mindstixlabs.web.api.version.management.cache.ApiVersioningMetadataInterner;
 import com.mindstixlabs.web.api.version.management.config.ApiVersioningConfigHolder;
 import com.mindstixlabs.web.api.version.management.config.ApiVersioningConstants;
+import com.mindstixlabs.web.api.version.management.core.ApiVersioningContext;
+import com.mindstixlabs.web.api.version.management.core.ApiVersioningContextMatcher;
+import com.mindstixlabs.web.api.version.management.config.ApiVersioningRuntimeConfig;
 
 /**
  * <code>ApiVersioningUtility</code> is a utility class for API Versioning.
@@ -35,8 +45,18 @@ public class ApiVersioningUtility {
 
     private static final Logger logger = LoggerFactory.getLogger(ApiVersioningUtility.class);
 
+    /**
+     * Name of extension of ThreadMXBean measuring allocation per thread, which isn't available on every JVM.
+     */
+    private static final String ALLOCATION_MX_BEAN_TYPE = "com.sun.management.ThreadMXBean";
+
+    private static final MethodHandle THREAD_ALLOCATED_BYTES = findThreadAllocatedBytes();
+
     @Autowired
-    private ApplicationContext applicationContext;
+    private ApiVersioningCache apiVersioningCache;
+
+    @Autowired
+    private ApiVersioningConfigHolder apiVersioningConfigHolder;
 
     /**
      * This method is used to validate if the string value for API version is a
@@ -64,6 +84,25 @@ public class ApiVersioningUtility {
         return isValidApiVersion;
     }
 
+    /**
+     * This method is used to get requested API version from lookup path.
+     * 
+     * @param lookupPath                         Lookup path for requested API. for eg. /api/v1.0/users
+     * @param config                             API versioning configuration snapshot.
+     * @return                                   Returns requested API version or null if lookup path doesn't have valid version.
+     */
+    public static String getRequestedApiVersion(String lookupPath, ApiVersioningRuntimeConfig config) {
+        long contextMatch = config.getContextMatcher().match(lookupPath);
+
+        if (contextMatch == ApiVersioningContextMatcher.NO_MATCH) {
+            return null;
+        }
+
+        int versionStartIndex = config.getMatchedContext(contextMatch).getApiAndVersionContextLength();
+
+        return lookupPath.substring(versionStartIndex, ApiVersioningContextMatcher.getVersionEndIndex(contextMatch));
+    }
+
     /**
      * This method is used to get RequestMappingInfo for handler method applying
      * API version context to existing request mapping.<br>
@@ -74,21 +113,26 @@ public class ApiVersioningUtility {
      * @param handlerType                        Controller class.
      * @param existingRequestMappingInfo         Existing request mapping.
      * @param isApiVersioningFallbackEnabled     Flag to determine if caching for API versions is to be done for fallback.
+     * @param handlerMapping                     Handler mapping registering the mapping, whose path matching infrastructure is shared by versioned patterns.
      * @return
      */
-    public RequestMappingInfo getApiVersionedRequestMappingInfoForHandlerMethod(Method method, Class<?> handlerType , RequestMappingInfo existingRequestMappingInfo, boolean isApiVersioningFallbackEnabled) {
+    public RequestMappingInfo getApiVersionedRequestMappingInfoForHandlerMethod(Method method, Class<?> handlerType , RequestMappingInfo existingRequestMappingInfo, boolean isApiVersioningFallbackEnabled, RequestMappingHandlerMapping handlerMapping) {
         RequestMappingInfo resultantRequestMappingInfo = existingRequestMappingInfo;
 
-        // Extracting bean of handlerType class.
-        Object controller = applicationContext.getBean(handlerType);
+        // Reading annotations from user class of handler instead of handler bean, so lazy handlers are not created during registration.
+        Class<?> controllerType = ClassUtils.getUserClass(handlerType);
 
         // Extracting AutoApiVersion annotation for handler.
-        ApiVersion autoApiVersionAnnotation = controller.getClass().getAnnotation(ApiVersion.class);
+        ApiVersion autoApiVersionAnnotation = controllerType.getAnnotation(ApiVersion.class);
 
         if (null == autoApiVersionAnnotation) {
             logger.info("Handler [{}] is not annotated with AutoApiVersion annotation, using default RequestMapping", handlerType.getName());
             // Returning existing RequestMappingInfo instance if handler doesn't have AutoApiVersion annotation.
             return existingRequestMappingInfo;
+        } else if (autoApiVersionAnnotation.skipVersioning()) {
+            logger.debug("API versioning is skipped for Handler [{}], using default RequestMapping", handlerType.getName());
+            // Returning existing RequestMappingInfo instance if versioning is skipped for handler.
+            return existingRequestMappingInfo;
         } else if (StringUtils.isBlank(autoApiVersionAnnotation.value())) {
             logger.warn("AutoApiVersion annotation for Handler [{}] is missing API version, using default RequestMapping for Handler Method [{}]. The application may fail if conflicting RequestMapping already exists.", handlerType.getName(), method.getName());
             // Returning existing RequestMappingInfo instance if API version passed in annotation is empty/null.
@@ -97,6 +141,14 @@ public class ApiVersioningUtility {
 
         String apiVersion = autoApiVersionAnnotation.value();
 
+        ApiVersioningContext context = apiVersioningConfigHolder.getConfig().getContext(autoApiVersionAnnotation.context());
+
+        if (null == context) {
+            logger.warn("AutoApiVersion annotation for Handler [{}] has API context [{}] which is not configured, using default RequestMapping for Handler Method [{}]. The application may fail if conflicting RequestMapping already exists.", handlerType.getName(), autoApiVersionAnnotation.context(), method.getName());
+            // Returning existing RequestMappingInfo instance if API context passed in annotation is not configured.
+            return existingRequestMappingInfo;
+        }
+
         // Validate apiVersion passed in AutoApiVersion annotation.
         boolean hasValidVersion = isValidApiVersion(apiVersion);
 
@@ -107,9 +159,12 @@ public class ApiVersioningUtility {
             return existingRequestMappingInfo;
         }
 
-        DisabledApi disabledApiAnnotationForController = controller.getClass().getAnnotation(DisabledApi.class);
+        DisabledApi disabledApiAnnotationForController = controllerType.getAnnotation(DisabledApi.class);
 
-        for (Method controllerMethod : controller.getClass().getMethods()) {
+        // Metadata repeated across mappings is shared through the interner of version-mapping cache of the application context.
+        ApiVersioningMetadataInterner metadataInterner = apiVersioningCache.getMetadataInterner();
+
+        for (Method controllerMethod : controllerType.getMethods()) {
             // Check if requested handlerMethod name matches with method of fetched handler.
             if (controllerMethod.getName().equals(method.getName())) {
                 
@@ -136,8 +191,17 @@ public class ApiVersioningUtility {
                         existingMapping = ApiVersioningConstants.EMPTY_STRING;
                     }
                     
+                    // Base URLs, mappings and keys repeat across versions and handler methods, hence canonical instances are shared.
+                    String apiVersionedBaseUrl = metadataInterner.intern(getApiVersioningBaseUrl(context, apiVersion));
+
                     // Creating apiVersionedMapping by concatenating apiVersionedBaseUrl and existingMapping.
-                    String apiVersionedMapping = getApiVersioningBaseUrl(apiVersion).concat(existingMapping);
+                    String apiVersionedMapping = metadataInterner.intern(apiVersionedBaseUrl.concat(existingMapping));
+
+                    // Mappings of additional API contexts are cached against context specific keys.
+                    String mappingKey = metadataInterner.intern(context.getMappingKey(existingMapping));
+
+                    // Caching base mapping and version for API versioned mapping to manage versions at runtime.
+                    apiVersioningCache.cacheApiVersionedMapping(apiVersionedMapping, mappingKey, apiVersion, context.getName(), apiVersionedBaseUrl);
 
                     // Preparing cache for API version mappings only if versioning is enabled for app
                     if (isApiVersioningFallbackEnabled) {
@@ -149,7 +213,7 @@ public class ApiVersioningUtility {
                         // Checking if handler and handler method has DisabledApi annotation
                         if (null != disabledApiAnnotationForController || null != disabledApiAnnotationForMethod) {
                             // Checking if fallback is enabled for disabled APIs.
-                            if (Boolean.FALSE.equals(ApiVersioningConfigHolder.DISABLED_API_VERSIONS_FALLBACK_ENABLED)) {
+                            if (Boolean.FALSE.equals(apiVersioningConfigHolder.getConfig().isDisabledApiVersionsFallbackEnabled())) {
                                 // Skipping API version for fallback if fallback is disabled for disabled APIs.
                                 addVersionForFallback = false;
                             }
@@ -158,11 +222,14 @@ public class ApiVersioningUtility {
 
                         if (addVersionForFallback) {
                             // Adding new version entry to cache for handler mapping if version is not disabled or fallback is enabled for disabled APIs.
-                            ApiVersioningCache.cacheApiVersionForMapping(existingMapping, Double.valueOf(apiVersion));
+                            apiVersioningCache.cacheApiVersionForMapping(mappingKey, Double.valueOf(apiVersion));
+
+                            // Caching request conditions of the version so that fallback skips versions which can't serve the request.
+                            apiVersioningCache.cacheApiVersionRequestConditions(mappingKey, Double.parseDouble(apiVersion), existingRequestMappingInfo);
                         } else {
-                            logger.debug("Skipping disabled version: [{}] from Cache for handler mapping: [{}]", apiVersion, existingMapping);
+                            logger.debug("Skipping disabled version: [{}] from Cache for handler mapping: [{}]", apiVersion, mappingKey);
                             // Adding version entry to list of disabled APIs.
-                            ApiVersioningCache.DISABLED_APIS.add(apiVersionedMapping);
+                            apiVersioningCache.addDisabledApi(apiVersionedMapping);
                         }
                     }
 
@@ -171,16 +238,22 @@ public class ApiVersioningUtility {
                     count ++;
                 }
 
-                PatternsRequestCondition apiVersionedPatternRequestCondition = new PatternsRequestCondition(apiVersionedMappings);
-               
-                // Creating API Versioned RequestMappingInfo with apiVersionedPatternRequestCondition.
-                resultantRequestMappingInfo = new RequestMappingInfo(apiVersionedPatternRequestCondition,
-                                                                     existingRequestMappingInfo.getMethodsCondition(),
-                                                                     existingRequestMappingInfo.getParamsCondition(),
-                                                                     existingRequestMappingInfo.getHeadersCondition(), 
-                                                                     existingRequestMappingInfo.getConsumesCondition(),
-                                                                     existingRequestMappingInfo.getProducesCondition(),
-                                                                     existingRequestMappingInfo.getCustomCondition()); 
+                // Path helper and matcher of handler mapping are shared instead of a new instance per pattern condition.
+                PatternsRequestCondition apiVersionedPatternRequestCondition = new PatternsRequestCondition(apiVersionedMappings,
+                                                                                                            handlerMapping.getUrlPathHelper(),
+                                                                                                            handlerMapping.getPathMatcher(),
+                                                                                                            handlerMapping.useSuffixPatternMatch(),
+                                                                                                            handlerMapping.useTrailingSlashMatch(),
+                                                                                                            handlerMapping.getFileExtensions());
+
+                // Creating API Versioned RequestMappingInfo with apiVersionedPatternRequestCondition and canonical instances of other conditions.
+                resultantRequestMappingInfo = new RequestMappingInfo(metadataInterner.intern(apiVersionedPatternRequestCondition),
+                                                                     metadataInterner.intern(existingRequestMappingInfo.getMethodsCondition()),
+                                                                     metadataInterner.intern(existingRequestMappingInfo.getParamsCondition()),
+                                                                     metadataInterner.intern(existingRequestMappingInfo.getHeadersCondition()), 
+                                                                     metadataInterner.intern(existingRequestMappingInfo.getConsumesCondition()),
+                                                                     metadataInterner.intern(existingRequestMappingInfo.getProducesCondition()),
+                                                                     metadataInterner.intern(existingRequestMappingInfo.getCustomCondition())); 
             }
         }
 
@@ -189,58 +262,61 @@ public class ApiVersioningUtility {
     }
 
     /**
-     * This method is used to get API Versioning base URL with or without passed API version if given API version is null/empty.
+     * This method is used to get API Versioning base URL of API context with or without passed API version if given API version is null/empty.
      * 
+     * @param context                            API context of the controller.
      * @param apiVersion                         API version for controller.
      * @return                                   Returns API Versioning base URL with or without given API version.
      */
-    public static String getApiVersioningBaseUrl(String apiVersion) {
-        String apiContext = ApiVersioningConfigHolder.API_CONTEXT;
+    public static String getApiVersioningBaseUrl(ApiVersioningContext context, String apiVersion) {
+        // Normalized API and version context is precomputed in the context.
+        String apiVersioningBaseUrl = context.getApiAndVersionContext();
 
-        if (StringUtils.isNotBlank(apiContext)) {
-            // Removing start '/'
-            if (apiContext.startsWith(ApiVersioningConstants.SLASH)) {
-                apiContext = apiContext.substring(1);
-            }
-
-            // Removing end '/'
-            if (apiContext.endsWith(ApiVersioningConstants.SLASH)) {
-                apiContext = apiContext.substring(0, apiContext.length() - 1);
-            }
+        // Concatenating apiVersion if not empty/null.
+        if (StringUtils.isNotBlank(apiVersion)) {
+            apiVersioningBaseUrl = apiVersioningBaseUrl.concat(apiVersion);
         }
 
-        String versionContext = ApiVersioningConfigHolder.VERSION_CONTEXT;
-
-        if (StringUtils.isNotBlank(versionContext)) {
-            // Removing start '/'
-            if (versionContext.startsWith(ApiVersioningConstants.SLASH)) {
-                versionContext = versionContext.substring(1);
-            }
+        return apiVersioningBaseUrl;
+    }
 
-            // Removing end '/'
-            if (versionContext.endsWith(ApiVersioningConstants.SLASH)) {
-                versionContext = versionContext.substring(0, versionContext.length() - 1);
-            }
+    /**
+     * This method is used to get bytes allocated by current thread so far.
+     * 
+     * @return                                   Returns allocated bytes or -1 if the JVM doesn't measure allocation.
+     */
+    public static long getThreadAllocatedBytes() {
+        if (null == THREAD_ALLOCATED_BYTES) {
+            return -1L;
         }
 
-        String apiVersioningBaseUrl = ApiVersioningConstants.SLASH;
-
-        // Concatenating apiContext if not empty/null.
-        if (StringUtils.isNotBlank(apiContext)) {
-            apiVersioningBaseUrl = apiVersioningBaseUrl.concat(apiContext);
+        try {
+            return (long) THREAD_ALLOCATED_BYTES.invokeExact(Thread.currentThread().getId());
+        } catch (Throwable e) {
+            return -1L;
         }
+    }
 
-        // Concatenating versionContext if not empty/null.
-        if (StringUtils.isNotBlank(versionContext)) {
-            apiVersioningBaseUrl = apiVersioningBaseUrl.concat(ApiVersioningConstants.SLASH).concat(versionContext);
-        }
+    /**
+     * This method is used to find allocation counter of the JVM, if the JVM
+     * measures allocation per thread.
+     * 
+     * @return                                   Returns handle taking thread id and returning its allocated bytes, null if allocation isn't measured.
+     */
+    private static MethodHandle findThreadAllocatedBytes() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
 
-        // Concatenating apiVersion if not empty/null.
-        if (StringUtils.isNotBlank(apiVersion)) {
-            apiVersioningBaseUrl = apiVersioningBaseUrl.concat(apiVersion);
+        try {
+            Class<?> allocationMXBeanType = Class.forName(ALLOCATION_MX_BEAN_TYPE);
+
+            if (allocationMXBeanType.isInstance(threadMXBean)) {
+                return MethodHandles.publicLookup().findVirtual(allocationMXBeanType, "getThreadAllocatedBytes", MethodType.methodType(long.class, long.class)).bindTo(threadMXBean);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.debug("Allocation per thread is not measured by the JVM.", e);
         }
 
-        return apiVersioningBaseUrl;
+        return null;
     }
 
 }
@@ -1,37 +0,0 @@
-package com.mindstixlabs.web.api.version.management.config;
-
-/**
- * <code>ApiVersioningConfigKeys<code> holds config keys used for ReST Services.
- * 
- * @author Mindstix Software Labs Pvt. Ltd.
- *         <a href="https://www.mindstix.com">(www.mindstix.com)</a>
- */
-public class ApiVersioningConfigKeys {
-
-    public static final String FEATURE_EANBLED = "rest.api.version.management.feature.enabled";
-
-    public static final String FALLBACK_ENABLED = "rest.api.version.management.fallback.enabled";
-
-    public static final String API_CONTEXT = "rest.api.version.management.apiContext";
-
-    public static final String VERSION_CONTEXT = "rest.api.version.management.versionContext";
-
-    public static final String MIN_VERSION_SUPPORT = "rest.api.version.management.min.version.support";
-
-    public static final String MAX_DECIMANL_DIGITS_SUPPORT = "rest.api.version.management.max.decimal.digit.support";
-
-    public static final String DEFAULT_SCAN_PACKAGES = "rest.api.version.management.deafult.scanPackages";
-
-    public static final String DEFAULT_IGNORE_PACKAGES = "rest.api.version.management.deafult.ignorePackages";
-
-    public static final String DEFAULT_IGNORE_CLASSES = "rest.api.version.management.deafult.ignoreClasses";
-
-    public static final String DEFAULT_STOP_APP_ON_CHECK_FAIL = "rest.api.version.management.deafult.stopAppOnCheckFail";
-
-    public static final String FALLBACK_RETRY_WITH_BASE_LOOKUP_PATH = "rest.api.version.management.fallback.retryWithBaseLookupPath";
-
-    public static final String ALLOW_DISABLED_API_VERSIONS = "rest.api.version.management.disabledApiVersions.allowed";
-
-    public static final String DISABLED_API_VERSIONS_FALLBACK_ENABLED = "rest.api.version.management.disabledApiVersions.fallback.enabled";
-
-}